@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2012 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.cellbots.logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The coordinator side of a synchronized start of several loggers, run from
+ * a workstation (or a test) against their {@link RemoteControl} ports.
+ * <p>
+ * For each device the clock offset is estimated the way NTP does it: the
+ * coordinator sends "time t0", the device answers "time t0 t1 t2" with the
+ * times it read the request and sent the reply, and the coordinator notes
+ * when the reply arrived (t3). Then
+ *
+ * <pre>
+ * offset = ((t1 - t0) + (t2 - t3)) / 2   // device clock - coordinator clock
+ * rtt    = (t3 - t0) - (t2 - t1)
+ * </pre>
+ *
+ * Of several rounds the one with the shortest round trip is kept, since its
+ * offset has the smallest error bound (rtt / 2). Finally every device gets
+ * "start-at <time> <offset> <rtt>", the start time on the coordinator's
+ * clock; the device converts it to its own clock, records the offset and
+ * round trip in its session, and answers "start-at <time> armed <delay>" or
+ * "start-at <time> rejected: <reason>".
+ * <p>
+ * Replies are told apart from anything else the device sends, such as
+ * broadcasts, by the request they echo.
+ */
+public final class ClockSync {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final int TIMEOUT_MS = 5000;
+
+    /** The result of a clock offset exchange with one device. */
+    public static final class Estimate {
+        /** Device clock minus coordinator clock. */
+        public final long offsetMillis;
+
+        public final long roundTripMillis;
+
+        Estimate(long offsetMillis, long roundTripMillis) {
+            this.offsetMillis = offsetMillis;
+            this.roundTripMillis = roundTripMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "offset=" + offsetMillis + "ms rtt=" + roundTripMillis + "ms";
+        }
+    }
+
+    private final Socket mSocket;
+
+    private final BufferedReader mIn;
+
+    private final OutputStream mOut;
+
+    /** How long connecting, and each exchange as a whole, may take. */
+    private final int mTimeoutMillis;
+
+    private Estimate mEstimate;
+
+    /** Connects to the text protocol of a device's RemoteControl. */
+    public ClockSync(InetSocketAddress device) throws IOException {
+        this(device, TIMEOUT_MS);
+    }
+
+    ClockSync(InetSocketAddress device, int timeoutMillis) throws IOException {
+        mTimeoutMillis = timeoutMillis;
+        mSocket = new Socket();
+        mSocket.connect(device, timeoutMillis);
+        mSocket.setTcpNoDelay(true);
+        mSocket.setSoTimeout(timeoutMillis);
+        mIn = new BufferedReader(new InputStreamReader(mSocket.getInputStream(), UTF8));
+        mOut = mSocket.getOutputStream();
+    }
+
+    /** Runs a number of exchanges and keeps the one with the shortest round trip. */
+    public Estimate measure(int rounds) throws IOException {
+        Estimate best = null;
+        for (int i = 0; i < rounds; i++) {
+            long t0 = System.currentTimeMillis();
+            send("time " + t0);
+            String reply = awaitReply("time", "time " + t0 + " ", t0);
+            long t3 = System.currentTimeMillis();
+            String[] fields = reply.split(" ");
+            if (fields.length != 4)
+                throw new IOException("Malformed reply: " + reply);
+            long t1 = Long.parseLong(fields[2]);
+            long t2 = Long.parseLong(fields[3]);
+            Estimate e = new Estimate(((t1 - t0) + (t2 - t3)) / 2, (t3 - t0) - (t2 - t1));
+            if (best == null || e.roundTripMillis < best.roundTripMillis)
+                best = e;
+        }
+        mEstimate = best;
+        return best;
+    }
+
+    /**
+     * Arms the device to start recording at a time on the coordinator's
+     * clock. {@link #measure} must have been called.
+     *
+     * @return The device's reply, such as "start-at <time> armed 1995".
+     */
+    public String startAt(long coordinatorMillis) throws IOException {
+        if (mEstimate == null)
+            throw new IllegalStateException("No clock offset measured");
+        long sentAt = System.currentTimeMillis();
+        send("start-at " + coordinatorMillis + " " + mEstimate.offsetMillis + " "
+                + mEstimate.roundTripMillis);
+        return awaitReply("start-at", "start-at " + coordinatorMillis + " ", sentAt);
+    }
+
+    public void close() throws IOException {
+        mSocket.close();
+    }
+
+    private void send(String command) throws IOException {
+        mOut.write((command + "\n").getBytes(UTF8));
+        mOut.flush();
+    }
+
+    /**
+     * Returns the first line starting with prefix, skipping anything else the
+     * device sends, such as broadcasts and subscribed samples.
+     *
+     * @throws SocketTimeoutException if there is none within the timeout of
+     *             sentAt, however busy the connection is.
+     * @throws IOException if the device doesn't know the command.
+     */
+    private String awaitReply(String command, String prefix, long sentAt) throws IOException {
+        while (true) {
+            long remaining = sentAt + mTimeoutMillis - System.currentTimeMillis();
+            if (remaining <= 0)
+                throw new SocketTimeoutException("No reply to " + command);
+            mSocket.setSoTimeout((int) remaining);
+            String line = readLine();
+            if (line.startsWith(prefix))
+                return line;
+            if (line.startsWith("Unknown Command: " + command))
+                throw new IOException("Device doesn't support " + command);
+        }
+    }
+
+    private String readLine() throws IOException {
+        String line = mIn.readLine();
+        if (line == null)
+            throw new IOException("Connection closed by device");
+        return line;
+    }
+
+    /**
+     * Measures every device, then arms all of them to start leadMillis from
+     * now. Returns the estimates in the order of the devices.
+     */
+    public static List<Estimate> startAll(List<InetSocketAddress> devices, int rounds,
+            long leadMillis, PrintStream log) throws IOException {
+        List<ClockSync> syncs = new ArrayList<ClockSync>();
+        List<Estimate> estimates = new ArrayList<Estimate>();
+        try {
+            for (InetSocketAddress device : devices) {
+                ClockSync sync = new ClockSync(device);
+                syncs.add(sync);
+                estimates.add(sync.measure(rounds));
+            }
+            long start = System.currentTimeMillis() + leadMillis;
+            for (int i = 0; i < syncs.size(); i++) {
+                String reply = syncs.get(i).startAt(start);
+                if (log != null)
+                    log.println(devices.get(i) + ": " + estimates.get(i) + ", " + reply);
+            }
+            return estimates;
+        } finally {
+            for (ClockSync sync : syncs)
+                sync.close();
+        }
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright (C) 2012 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.cellbots.logger;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+
+import com.cellbots.logger.RemoteControl.Command;
+import com.cellbots.logger.RemoteControl.CommandListener;
+
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs {@link RemoteControl} commands on a small pool of background threads
+ * instead of the main looper. Each client has its own lane, and a lane runs
+ * one command at a time in the order the client sent them, so a client never
+ * sees its commands reordered. Across clients, lanes are served in priority
+ * order (lowest value first, FIFO within a priority), a lane taking the most
+ * urgent priority it holds; an urgent command such as "stop" thus overtakes
+ * the status requests other clients have queued. Listeners that touch the UI are
+ * run on the main thread, urgent ones at the front of its queue. The queueing
+ * and total latency of every command is tracked per command name.
+ */
+final class CommandDispatcher {
+    private static final String TAG = "CommandDispatcher";
+
+    private static final int WORKER_THREADS = 2;
+
+    /** How long a worker waits for a listener on the UI thread. */
+    private static final long UI_TIMEOUT_MS = 10000;
+
+    private final RemoteControl mRemoteControl;
+
+    private final Handler mUiHandler = new Handler(Looper.getMainLooper());
+
+    private final ConcurrentHashMap<String, Integer> mPriorities =
+            new ConcurrentHashMap<String, Integer>();
+
+    private final AtomicLong mSequence = new AtomicLong();
+
+    /** Lanes with pending or running commands, by client; guarded by this. */
+    private final HashMap<SocketChannel, Lane> mLanes = new HashMap<SocketChannel, Lane>();
+
+    /**
+     * Per command: count, total queued ns, total ns, max ns. Commands without
+     * listeners share one entry, so that clients can't add entries at will.
+     */
+    private final TreeMap<String, long[]> mLatencies = new TreeMap<String, long[]>();
+
+    private static final String UNKNOWN_COMMANDS = "?";
+
+    private ThreadPoolExecutor mExecutor;
+
+    CommandDispatcher(RemoteControl remoteControl) {
+        mRemoteControl = remoteControl;
+    }
+
+    void setPriority(String command, int priority) {
+        mPriorities.put(command, priority);
+    }
+
+    int getPriority(String command) {
+        Integer priority = mPriorities.get(command);
+        return priority != null ? priority : RemoteControl.PRIORITY_NORMAL;
+    }
+
+    synchronized void start() {
+        if (mExecutor != null)
+            return;
+        mExecutor = new ThreadPoolExecutor(WORKER_THREADS, WORKER_THREADS, 0,
+                TimeUnit.MILLISECONDS, new PriorityBlockingQueue<Runnable>(),
+                new WorkerThreadFactory());
+    }
+
+    synchronized void shutdown() {
+        if (mExecutor != null) {
+            mExecutor.shutdownNow();
+            mExecutor = null;
+            mLanes.clear();
+        }
+    }
+
+    /** Queues a command; called by the network thread. */
+    synchronized void dispatch(Command c) {
+        if (mExecutor == null)
+            return;
+        Task task = new Task(c, getPriority(c.getName()));
+        Lane lane = mLanes.get(c.getClient());
+        if (lane == null) {
+            lane = new Lane(c.getClient());
+            mLanes.put(c.getClient(), lane);
+        }
+        lane.mTasks.add(task);
+        if (lane.mRunning)
+            return;
+        if (!lane.mQueued) {
+            schedule(lane);
+        } else if (task.mPriority < lane.mPriority && mExecutor.remove(lane)) {
+            // Requeue the waiting lane at the new command's priority.
+            schedule(lane);
+        }
+    }
+
+    /** Queues a lane at the most urgent priority of its commands; holds this. */
+    private void schedule(Lane lane) {
+        if (mExecutor == null)
+            return;
+        int priority = Integer.MAX_VALUE;
+        for (Task task : lane.mTasks)
+            priority = Math.min(priority, task.mPriority);
+        lane.mPriority = priority;
+        lane.mSequence = mSequence.getAndIncrement();
+        lane.mQueued = true;
+        // execute(), not submit(): the queue needs the Comparable lane itself.
+        mExecutor.execute(lane);
+    }
+
+    /**
+     * Runs a listener on the UI thread and waits for its result. Returns false
+     * if the UI thread doesn't get to it in time.
+     */
+    boolean runOnUiThread(final CommandListener listener, final Command c, boolean urgent)
+            throws Exception {
+        FutureTask<Boolean> task = new FutureTask<Boolean>(new Callable<Boolean>() {
+                @Override
+            public Boolean call() throws Exception {
+                return listener.onCommandReceived(c);
+            }
+        });
+        if (urgent)
+            mUiHandler.postAtFrontOfQueue(task);
+        else
+            mUiHandler.post(task);
+        try {
+            return task.get(UI_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception)
+                throw (Exception) cause;
+            throw e;
+        } catch (TimeoutException e) {
+            Log.e(TAG, "UI thread did not run '" + c.command + "' in time");
+            task.cancel(false);
+            return false;
+        }
+    }
+
+    /** Returns one line per command: count, average queueing, average and max latency. */
+    String getLatencyReport() {
+        StringBuilder report = new StringBuilder(256);
+        synchronized (mLatencies) {
+            for (Map.Entry<String, long[]> entry : mLatencies.entrySet()) {
+                long[] l = entry.getValue();
+                report.append(entry.getKey()).append(": n=").append(l[0])
+                        .append(" queued=").append(l[1] / l[0] / 1000).append("us")
+                        .append(" avg=").append(l[2] / l[0] / 1000).append("us")
+                        .append(" max=").append(l[3] / 1000).append("us\n");
+            }
+        }
+        return report.toString();
+    }
+
+    private void recordLatency(String command, long queuedNanos, long totalNanos) {
+        Log.d(TAG, command + " served in " + totalNanos / 1000 + "us (queued "
+                + queuedNanos / 1000 + "us)");
+        synchronized (mLatencies) {
+            long[] l = mLatencies.get(command);
+            if (l == null) {
+                l = new long[4];
+                mLatencies.put(command, l);
+            }
+            l[0]++;
+            l[1] += queuedNanos;
+            l[2] += totalNanos;
+            l[3] = Math.max(l[3], totalNanos);
+        }
+    }
+
+    /**
+     * The commands of one client. At most one worker runs a lane at a time,
+     * and only while it is neither queued nor running may it be scheduled.
+     */
+    private final class Lane implements Runnable, Comparable<Lane> {
+        private final SocketChannel mClient;
+
+        private final ArrayDeque<Task> mTasks = new ArrayDeque<Task>();
+
+        /** The fields below are guarded by the dispatcher. */
+        private boolean mQueued;
+
+        private boolean mRunning;
+
+        private int mPriority;
+
+        private long mSequence;
+
+        Lane(SocketChannel client) {
+            mClient = client;
+        }
+
+        @Override
+        public int compareTo(Lane other) {
+            if (mPriority != other.mPriority)
+                return mPriority < other.mPriority ? -1 : 1;
+            return mSequence < other.mSequence ? -1 : (mSequence == other.mSequence ? 0 : 1);
+        }
+
+        @Override
+        public void run() {
+            Task task;
+            synchronized (CommandDispatcher.this) {
+                mQueued = false;
+                mRunning = true;
+                task = mTasks.poll();
+            }
+            try {
+                if (task != null)
+                    task.run();
+            } finally {
+                synchronized (CommandDispatcher.this) {
+                    mRunning = false;
+                    if (!mTasks.isEmpty())
+                        schedule(this);
+                    else if (mLanes.get(mClient) == this)
+                        mLanes.remove(mClient);
+                }
+            }
+        }
+    }
+
+    private final class Task {
+        private final Command mCommand;
+
+        private final int mPriority;
+
+        private final long mQueuedAt = System.nanoTime();
+
+        Task(Command command, int priority) {
+            mCommand = command;
+            mPriority = priority;
+        }
+
+        void run() {
+            long started = System.nanoTime();
+            boolean urgent = mPriority <= RemoteControl.PRIORITY_URGENT;
+            if (urgent)
+                Process.setThreadPriority(Process.THREAD_PRIORITY_DEFAULT);
+            try {
+                mRemoteControl.runListeners(mCommand);
+            } finally {
+                if (urgent)
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            }
+            String name = mCommand.getName();
+            if (!mRemoteControl.hasListeners(name))
+                name = UNKNOWN_COMMANDS;
+            recordLatency(name, started - mQueuedAt, System.nanoTime() - mQueuedAt);
+        }
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger mCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable r) {
+            Thread t = new Thread(new Runnable() {
+                    @Override
+                public void run() {
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                    r.run();
+                }
+            }, "CommandWorker-" + mCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2012 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.cellbots.logger;
+
+import com.cellbots.logger.localServer.Telemetry.CommandPacket;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The binary {@link RemoteControl} protocol. Both directions carry varint
+ * length-delimited {@link CommandPacket}s, as written by
+ * {@code writeDelimitedTo()}. A request sets command and request_id; its
+ * reply echoes request_id, gives a status and lists the responses of the
+ * command, and is addressed back to the sender_id of the request. Messages
+ * the device sends on its own, broadcasts and subscribed samples, are replies
+ * with request_id 0. Empty frames are ignored and can be used as keepalives.
+ * <p>
+ * RemoteControl serves text and binary clients on the same port and tells
+ * them apart by what a connection starts with: an empty frame, or a length
+ * prefix followed by the tag of a {@link CommandPacket} field, selects this
+ * protocol. No text command starts like that.
+ */
+public final class CommandFrames {
+    private CommandFrames() {
+    }
+
+    /** Builds a request, as an orchestration client would send it. */
+    public static CommandPacket newRequest(String senderId, String command, long requestId) {
+        return CommandPacket.newBuilder()
+                .setSenderId(senderId)
+                .setTimestamp(System.currentTimeMillis())
+                .setCommand(command)
+                .setRequestId(requestId)
+                .build();
+    }
+
+    /**
+     * Returns whether a tag read from the start of a frame is that of a
+     * {@link CommandPacket} field, with the wire type of that field.
+     */
+    static boolean isCommandPacketTag(int tag) {
+        switch (tag) {
+            case (CommandPacket.SENDER_ID_FIELD_NUMBER << 3)
+                    | WireFormat.WIRETYPE_LENGTH_DELIMITED:
+            case (CommandPacket.RECIPIENT_ID_FIELD_NUMBER << 3)
+                    | WireFormat.WIRETYPE_LENGTH_DELIMITED:
+            case (CommandPacket.TIMESTAMP_FIELD_NUMBER << 3) | WireFormat.WIRETYPE_VARINT:
+            case (CommandPacket.COMMAND_FIELD_NUMBER << 3) | WireFormat.WIRETYPE_LENGTH_DELIMITED:
+            case (CommandPacket.REQUEST_ID_FIELD_NUMBER << 3) | WireFormat.WIRETYPE_VARINT:
+            case (CommandPacket.STATUS_FIELD_NUMBER << 3) | WireFormat.WIRETYPE_VARINT:
+            case (CommandPacket.RESPONSE_FIELD_NUMBER << 3)
+                    | WireFormat.WIRETYPE_LENGTH_DELIMITED:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /** Encodes a message the device sends on its own as a delimited frame. */
+    static byte[] encodeMessage(String message) {
+        return encodeReply(null, CommandPacket.Status.OK, Collections.singletonList(message));
+    }
+
+    /**
+     * Encodes the reply to a request as a delimited frame.
+     *
+     * @param request The request, or null for a message of the device's own.
+     */
+    static byte[] encodeReply(CommandPacket request, CommandPacket.Status status,
+            List<String> responses) {
+        CommandPacket.Builder reply = CommandPacket.newBuilder()
+                .setTimestamp(System.currentTimeMillis())
+                .setRequestId(request != null ? request.getRequestId() : 0)
+                .setStatus(status)
+                .addAllResponse(responses);
+        if (request != null) {
+            if (request.hasRecipientId())
+                reply.setSenderId(request.getRecipientId());
+            if (request.hasSenderId())
+                reply.setRecipientId(request.getSenderId());
+        }
+        return toDelimited(reply.build());
+    }
+
+    /** Returns the bytes {@code writeDelimitedTo()} would write. */
+    static byte[] toDelimited(CommandPacket packet) {
+        int size = packet.getSerializedSize();
+        byte[] frame = new byte[CodedOutputStream.computeRawVarint32Size(size) + size];
+        CodedOutputStream out = CodedOutputStream.newInstance(frame);
+        try {
+            out.writeRawVarint32(size);
+            packet.writeTo(out);
+            out.checkNoSpaceLeft();
+        } catch (IOException e) {
+            // Writing to an array of the computed size can't fail.
+            throw new IllegalStateException(e);
+        }
+        return frame;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2012 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.cellbots.logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+
+/**
+ * Splits the bytes a {@link RemoteControl} client sends into command lines.
+ * Input may arrive in any fragmentation: a read can hold part of a line or
+ * many lines, and the remainder is kept for the next read. Lines end with
+ * '\n', '\r' or "\r\n"; empty lines are skipped. The buffer grows as needed up
+ * to a limit, and a line that doesn't fit in it with its terminator is
+ * dropped.
+ */
+final class LineDecoder {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final int mMaxLineLength;
+
+    private ByteBuffer mBuf;
+
+    /** Start of the line being assembled. */
+    private int mStart;
+
+    /** Where the search for the next line terminator resumes. */
+    private int mScan;
+
+    /** True while skipping the rest of an over-long line. */
+    private boolean mDiscarding;
+
+    LineDecoder(int initialCapacity, int maxLineLength) {
+        mBuf = ByteBuffer.allocate(initialCapacity);
+        mMaxLineLength = maxLineLength;
+    }
+
+    /**
+     * Reads whatever the channel has into the buffer.
+     *
+     * @return The number of bytes read, or -1 at the end of the stream.
+     */
+    int read(ReadableByteChannel channel) throws IOException {
+        makeRoom();
+        return channel.read(mBuf);
+    }
+
+    /** Adds a byte that was read before this decoder was chosen. */
+    void append(byte b) {
+        makeRoom();
+        mBuf.put(b);
+    }
+
+    /** Returns the next complete line, or null if none is buffered yet. */
+    String nextLine() {
+        byte[] a = mBuf.array();
+        int end = mBuf.position();
+        for (int i = mScan; i < end; i++) {
+            byte b = a[i];
+            if (b != '\n' && b != '\r') {
+                continue;
+            }
+            int start = mStart;
+            mStart = mScan = i + 1;
+            if (mDiscarding) {
+                mDiscarding = false;
+                continue;
+            }
+            if (i > start) {
+                return new String(a, start, i - start, UTF8);
+            }
+        }
+        mScan = end;
+        if (mStart == end) {
+            // Everything was consumed; start over at the front.
+            mBuf.clear();
+            mStart = mScan = 0;
+        }
+        return null;
+    }
+
+    private void makeRoom() {
+        if (mBuf.hasRemaining()) {
+            return;
+        }
+        if (mStart > 0) {
+            // Move the partial line to the front.
+            byte[] a = mBuf.array();
+            int length = mBuf.position() - mStart;
+            System.arraycopy(a, mStart, a, 0, length);
+            mBuf.position(length);
+            mScan -= mStart;
+            mStart = 0;
+        } else if (mBuf.capacity() < mMaxLineLength) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.min(mMaxLineLength, mBuf.capacity() * 2));
+            mBuf.flip();
+            bigger.put(mBuf);
+            mBuf = bigger;
+        } else {
+            mDiscarding = true;
+            mBuf.clear();
+            mStart = mScan = 0;
+        }
+    }
+}
@@ -51,6 +51,7 @@ import android.os.Bundle;
 import android.os.Environment;
 import android.os.Handler;
 import android.os.StatFs;
+import android.os.SystemClock;
 import android.text.format.DateUtils;
 import android.util.Log;
 import android.view.KeyEvent;
@@ -105,6 +106,16 @@ public class LoggerActivity extends Activity {
 	private long mDelay = 0;
 	private LoggerApplication mApp;
 
+	/*
+	 * Coordinated start (see ClockSync)
+	 */
+
+	private final Handler mStartAtHandler = new Handler();
+	/** Local time a start-at command armed the start for, or Long.MIN_VALUE. */
+	private long mScheduledStart = Long.MIN_VALUE;
+	private long mClockOffset;
+	private long mClockRoundTrip;
+
 	/*
 	 * UI Elements
 	 */
@@ -164,6 +175,9 @@ public class LoggerActivity extends Activity {
 		public void onSensorChanged(SensorEvent event) {
 			Sensor sensor = event.sensor;
 			updateSensorUi(sensor.getType(), event.accuracy, event.values);
+			if (mRemoteControl != null)
+				mRemoteControl.updateSample(sensor.getName(), event.timestamp, event.accuracy,
+						event.values);
 			synchronized (mIsRecording) {
 				if (!mIsRecording) {
                     return;
@@ -203,6 +217,15 @@ public class LoggerActivity extends Activity {
 			mBatteryTempSpacerTextView.setPadding(mBatteryTempSpacerTextView.getPaddingLeft(), paddingTop,
 					mBatteryTempSpacerTextView.getPaddingRight(), mBatteryTempSpacerTextView.getPaddingBottom());
 
+			if (mRemoteControl != null) {
+				long now = System.currentTimeMillis();
+				mRemoteControl.updateValues("BatteryTemp", now, batteryTemp);
+				mRemoteControl.updateValues("BatteryLevel", now,
+						intent.getIntExtra(BatteryManager.EXTRA_LEVEL, 0));
+				mRemoteControl.updateValues("BatteryVoltage", now,
+						intent.getIntExtra(BatteryManager.EXTRA_VOLTAGE, 0));
+			}
+
 			synchronized (mIsRecording) {
 				if (!mIsRecording)
 					return;
@@ -272,10 +295,53 @@ public class LoggerActivity extends Activity {
 					c.sendResponse("Status: RECORDING\n");
 				else
 					c.sendResponse("Status: STOPPED\n");
+			} else if (c.getName().equals("start-at")) {
+				return onStartAtCommandReceived(c);
 			}
 			return false;
 		}
 
+		/**
+		 * "start-at <time> [<offset> <rtt>]": arms a start at a time on the
+		 * coordinator's clock, which is this device's clock minus offset.
+		 * Replies "start-at <time> armed <delay>" or "start-at <time>
+		 * rejected: <reason>", so that ClockSync can tell its reply apart.
+		 */
+		private boolean onStartAtCommandReceived(Command c) {
+			String[] args = c.getArguments().split(" +");
+			long start;
+			long offset = 0;
+			long roundTrip = -1;
+			try {
+				start = Long.parseLong(args[0]);
+				if (args.length >= 3) {
+					offset = Long.parseLong(args[1]);
+					roundTrip = Long.parseLong(args[2]);
+				}
+			} catch (NumberFormatException e) {
+				c.sendResponse("Usage: start-at <time> [<offset> <rtt>]\n");
+				return true;
+			}
+			if (mIsRecording) {
+				c.sendResponse("start-at " + start
+						+ " rejected: recording already started\n");
+				return true;
+			}
+			long delay = start + offset - System.currentTimeMillis();
+			if (delay < 0) {
+				c.sendResponse("start-at " + start
+						+ " rejected: start time has already passed\n");
+				return true;
+			}
+			mStartAtHandler.removeCallbacks(mStartAtRunnable);
+			mScheduledStart = start + offset;
+			mClockOffset = offset;
+			mClockRoundTrip = roundTrip;
+			mStartAtHandler.postAtTime(mStartAtRunnable, SystemClock.uptimeMillis() + delay);
+			c.sendResponse("start-at " + start + " armed " + delay + "\n");
+			return true;
+		}
+
 		private boolean onStartStopCommandReceived(Command c, boolean start) {
 			if (mIsRecording == start) {
 				c.sendResponse("Recording already ");
@@ -297,6 +363,17 @@ public class LoggerActivity extends Activity {
 	 * Runnables
 	 */
 
+	private Runnable mStartAtRunnable = new Runnable() {
+
+		@Override
+		public void run() {
+			if (!mIsRecording) {
+				final ImageButton recordButton = (ImageButton) findViewById(R.id.button_record);
+				recordButton.performClick();
+			}
+		}
+	};
+
 	private Runnable updateRecTimeDisplay = new Runnable() {
 
 		@Override
@@ -475,7 +552,9 @@ public class LoggerActivity extends Activity {
 		mRemoteControl = new RemoteControl(getApplicationContext());
 		mRemoteControl.registerCommandListener("start", mCommandListener);
 		mRemoteControl.registerCommandListener("stop", mCommandListener);
-		mRemoteControl.registerCommandListener("status", mCommandListener);
+		mRemoteControl.registerCommandListener("start-at", mCommandListener);
+		// Only reads mIsRecording, so it can be answered without the UI thread.
+		mRemoteControl.registerCommandListener("status", mCommandListener, false);
 		mRemoteControl.start();
 	}
 
@@ -507,6 +586,7 @@ public class LoggerActivity extends Activity {
 		mWapManager.unregisterReceiver();
 
 		// Stop the remote commanding
+		mStartAtHandler.removeCallbacks(mStartAtRunnable);
 		mRemoteControl.shutdown();
 		mRemoteControl = null;
 	}
@@ -652,6 +732,7 @@ public class LoggerActivity extends Activity {
         createSensorLogFiles();
 
         mStartRecTime = System.currentTimeMillis();
+        writeSessionInfo();
         new Thread(updateRecTimeDisplay).start();
         if (mMode == MODE_VIDEO) {
             try {
@@ -688,6 +769,28 @@ public class LoggerActivity extends Activity {
         mRemoteControl.broadcastMessage("*** Recording Stopped ***\n");
     }
 
+    /**
+     * Records when the session started and, for a coordinated start, the
+     * measured clock offset and round trip to the coordinator.
+     */
+    private void writeSessionInfo() {
+        BufferedWriter writer = createBufferedWriter("Session");
+        if (writer != null) {
+            try {
+                writer.write("start_time=" + mStartRecTime + "\n");
+                if (mScheduledStart != Long.MIN_VALUE) {
+                    writer.write("scheduled_start=" + mScheduledStart + "\n");
+                    writer.write("clock_offset_ms=" + mClockOffset + "\n");
+                    writer.write("clock_rtt_ms=" + mClockRoundTrip + "\n");
+                }
+                writer.flush();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        mScheduledStart = Long.MIN_VALUE;
+    }
+
 	/**
 	 * Creates a new BufferedWriter.
 	 *
@@ -802,6 +905,9 @@ public class LoggerActivity extends Activity {
 					double altitude, float bearing, float speed) {
 
                 mGpsLocationView.setText("Lat: " + latitude + "\nLon: " + longitude);
+				if (mRemoteControl != null)
+					mRemoteControl.updateValues("GpsLocation", time, accuracy, (float) latitude,
+							(float) longitude, (float) altitude, bearing, speed);
 
 				synchronized (mIsRecording) {
 					if (!mIsRecording)
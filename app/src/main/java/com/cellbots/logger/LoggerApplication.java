@@ -62,8 +62,15 @@ public class LoggerApplication extends Application {
         return getDataLoggerPath() + "/" + prefix.replaceAll(" ", "_") + ".txt";
     }
 
+    /**
+     * Returns the directory that holds one subdirectory per recorded session.
+     */
+    public static String getLoggerRootPath() {
+        return Environment.getExternalStorageDirectory() + "/SmartphoneLoggerData";
+    }
+
     public String getLoggerPathPrefix() {
-        return Environment.getExternalStorageDirectory() + "/SmartphoneLoggerData/" + getFilePathUniqueIdentifier();
+        return getLoggerRootPath() + "/" + getFilePathUniqueIdentifier();
     }
 
     public String getDataLoggerPath() {
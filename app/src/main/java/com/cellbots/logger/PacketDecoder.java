@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2012 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.cellbots.logger;
+
+import com.cellbots.logger.localServer.Telemetry.CommandPacket;
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Splits the bytes a binary {@link RemoteControl} client sends into
+ * length-delimited {@link CommandPacket}s; the binary counterpart of
+ * {@link LineDecoder}. Unlike a text line, a frame that is too long or
+ * malformed can't be skipped, so it fails the connection.
+ */
+final class PacketDecoder {
+    /** The longest varint32 length prefix. */
+    private static final int MAX_PREFIX = 5;
+
+    private final int mMaxFrameLength;
+
+    private ByteBuffer mBuf;
+
+    /** Start of the frame being assembled. */
+    private int mStart;
+
+    PacketDecoder(int initialCapacity, int maxFrameLength) {
+        mBuf = ByteBuffer.allocate(initialCapacity);
+        mMaxFrameLength = maxFrameLength;
+    }
+
+    /**
+     * Reads whatever the channel has into the buffer.
+     *
+     * @return The number of bytes read, or -1 at the end of the stream.
+     */
+    int read(ReadableByteChannel channel) throws IOException {
+        makeRoom();
+        return channel.read(mBuf);
+    }
+
+    /** Adds a byte that was read before this decoder was chosen. */
+    void append(byte b) {
+        makeRoom();
+        mBuf.put(b);
+    }
+
+    /**
+     * Returns the next complete packet, or null if none is buffered yet.
+     *
+     * @throws InvalidProtocolBufferException If the stream is corrupt; the
+     *             connection can't be used any more.
+     */
+    CommandPacket nextPacket() throws InvalidProtocolBufferException {
+        byte[] a = mBuf.array();
+        int end = mBuf.position();
+        while (mStart < end) {
+            int i = mStart;
+            int length = 0;
+            int shift = 0;
+            while (true) {
+                if (i == end) {
+                    return null;
+                }
+                byte b = a[i++];
+                length |= (b & 0x7f) << shift;
+                if (b >= 0) {
+                    break;
+                }
+                shift += 7;
+                if (shift >= 7 * MAX_PREFIX) {
+                    throw new InvalidProtocolBufferException("Malformed frame length.");
+                }
+            }
+            if (length < 0 || length > mMaxFrameLength) {
+                throw new InvalidProtocolBufferException("Frame too long: " + length);
+            }
+            if (end - i < length) {
+                return null;
+            }
+            mStart = i + length;
+            if (length > 0) {
+                return CommandPacket.PARSER.parseFrom(a, i, length);
+            }
+            // An empty frame: the protocol preamble or a keepalive.
+        }
+        return null;
+    }
+
+    private void makeRoom() {
+        if (mStart == mBuf.position()) {
+            // Everything was consumed; start over at the front.
+            mBuf.clear();
+            mStart = 0;
+        }
+        if (mBuf.hasRemaining()) {
+            return;
+        }
+        if (mStart > 0) {
+            // Move the partial frame to the front.
+            byte[] a = mBuf.array();
+            int length = mBuf.position() - mStart;
+            System.arraycopy(a, mStart, a, 0, length);
+            mBuf.position(length);
+            mStart = 0;
+        } else {
+            // nextPacket() rejects lengths above the maximum, so a full buffer
+            // of this size always holds at least one frame.
+            int capacity = Math.min(mMaxFrameLength + MAX_PREFIX, mBuf.capacity() * 2);
+            ByteBuffer bigger = ByteBuffer.allocate(capacity);
+            mBuf.flip();
+            bigger.put(mBuf);
+            mBuf = bigger;
+        }
+    }
+}
@@ -2,10 +2,13 @@
 package com.cellbots.logger;
 
 import android.content.Context;
-import android.os.Handler;
-import android.os.Message;
 import android.util.Log;
 
+import com.cellbots.logger.localServer.LatestValueTable;
+import com.cellbots.logger.localServer.Telemetry.CommandPacket;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.WireFormat;
+
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
@@ -14,36 +17,73 @@ import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class RemoteControl {
     private static final String TAG = "RemoteControl";
 
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
     private final Context mContext;
     private RemoteThread mThread = null;
 
+    /** Commands with this priority are served before all others. */
+    public static final int PRIORITY_URGENT = 0;
+    public static final int PRIORITY_NORMAL = 10;
+    public static final int PRIORITY_BULK = 20;
+
+    private static final int MAX_STREAMS = 64;
+
+    /** The highest rate a client can subscribe to a stream at. */
+    private static final double MAX_SUBSCRIPTION_HZ = 100;
+
+    /** The latest sample of every stream clients can subscribe to. */
+    private final LatestValueTable mSamples = new LatestValueTable(MAX_STREAMS);
+
     public interface CommandListener {
         boolean onCommandReceived(Command c) throws Exception;
     }
 
+    private static final class Registration {
+        final CommandListener listener;
+        final boolean uiThread;
+
+        Registration(CommandListener listener, boolean uiThread) {
+            this.listener = listener;
+            this.uiThread = uiThread;
+        }
+    }
+
     @SuppressWarnings("serial")
-    private static class ListenerList extends LinkedList<CommandListener> {
+    private static class ListenerList extends CopyOnWriteArrayList<Registration> {
     }
 
+    /** Written by the UI thread, read by the command workers. */
     @SuppressWarnings("serial")
-    private static class CommandMap extends HashMap<String, ListenerList> {
-        public void addCommand(String command, CommandListener listener) {
+    private static class CommandMap extends ConcurrentHashMap<String, ListenerList> {
+        public synchronized void addCommand(
+                String command, CommandListener listener, boolean uiThread) {
             if (!containsKey(command)) {
                 this.put(command, new ListenerList());
             }
-            this.get(command).add(listener);
+            this.get(command).add(new Registration(listener, uiThread));
         }
 
-        public void removeCommand(String command, CommandListener listener) {
+        public synchronized void removeCommand(String command, CommandListener listener) {
             if (!containsKey(command))
                 return;
-            this.get(command).remove(listener);
+            for (Registration r : this.get(command)) {
+                if (r.listener == listener)
+                    this.get(command).remove(r);
+            }
         }
 
         public ListenerList getListeners(String command) {
@@ -56,13 +96,69 @@ public class RemoteControl {
     public static final class Command {
         public String command;
         private final SocketChannel client;
+        private final RemoteThread thread;
+
+        /** The request if the command came from a binary client. */
+        private final CommandPacket packet;
+
+        /** What the listeners said, sent as one reply to binary clients. */
+        private ArrayList<String> responses;
+
+        /** System.currentTimeMillis() when the command was read. */
+        public final long receivedAt = System.currentTimeMillis();
 
         public Command(String command, SocketChannel client) {
+            this(command, client, null, null);
+        }
+
+        private Command(String command, SocketChannel client, RemoteThread thread,
+                CommandPacket packet) {
             this.command = command;
             this.client = client;
+            this.thread = thread;
+            this.packet = packet;
+        }
+
+        /** Returns the first word of the command, which selects its listeners. */
+        public String getName() {
+            int space = command.indexOf(' ');
+            return space < 0 ? command : command.substring(0, space);
+        }
+
+        /** Returns what follows the first word, trimmed, or "". */
+        public String getArguments() {
+            int space = command.indexOf(' ');
+            return space < 0 ? "" : command.substring(space + 1).trim();
+        }
+
+        /** Returns the channel of the client that sent the command. */
+        SocketChannel getClient() {
+            return client;
         }
 
+        /** Returns the request of a binary client, or null for a text command. */
+        public CommandPacket getPacket() {
+            return packet;
+        }
+
+        /**
+         * Queues a response to the client that sent the command. Safe to call
+         * from any thread. Binary clients get all responses to a command in
+         * a single reply once the command has been handled.
+         */
         public void sendResponse(String response) {
+            if (packet != null) {
+                synchronized (this) {
+                    if (responses == null)
+                        responses = new ArrayList<String>(2);
+                    responses.add(response);
+                }
+                return;
+            }
+            if (thread != null) {
+                thread.sendMessage(client, response);
+                return;
+            }
             try {
                 ByteBuffer tmp = ByteBuffer.wrap(response.getBytes());
                 tmp.position(0);
@@ -72,51 +168,93 @@ public class RemoteControl {
                 e.printStackTrace();
             }
         }
-    }
 
-    private static final int MESSAGE_COMMAND = 1;
-    private Handler mHandler = new Handler() {
-            @Override
-        public void handleMessage(Message m) {
-            if (m.what != MESSAGE_COMMAND)
+        /** Sends the reply to a binary client; text clients need none. */
+        void finish(CommandPacket.Status status) {
+            if (packet == null || thread == null)
                 return;
-
-            Command c = (Command) m.obj;
-            m.obj = null;
-
-            if (!mCommandMap.containsKey(c.command)) {
-                StringBuilder b = new StringBuilder(64);
-                b.append("Unknown Command: ").append(c.command).append('\n');
-                c.sendResponse(b.toString());
+            List<String> response;
+            synchronized (this) {
+                response = responses != null ? responses : Collections.<String>emptyList();
             }
-
-            runListeners(c);
+            thread.sendFrame(client, CommandFrames.encodeReply(packet, status, response));
         }
-    };
+    }
+
+    private final CommandMap mCommandMap = new CommandMap();
 
-    private CommandMap mCommandMap = new CommandMap();
+    private final CommandDispatcher mDispatcher = new CommandDispatcher(this);
 
+    /**
+     * Registers a listener that runs on the UI thread, for listeners that
+     * touch views.
+     */
     public void registerCommandListener(String command, CommandListener listener) {
-        mCommandMap.addCommand(command, listener);
+        registerCommandListener(command, listener, true);
+    }
+
+    /**
+     * Registers a listener.
+     *
+     * @param uiThread False if the listener is thread safe and can run on a
+     *            background command worker.
+     */
+    public void registerCommandListener(
+            String command, CommandListener listener, boolean uiThread) {
+        mCommandMap.addCommand(command, listener, uiThread);
     }
 
     public void unregisterCommandListener(String command, CommandListener listener) {
         mCommandMap.removeCommand(command, listener);
     }
 
+    /**
+     * Sets the priority of a command; lower values are served first. Commands
+     * default to {@link #PRIORITY_NORMAL}.
+     */
+    public void setCommandPriority(String command, int priority) {
+        mDispatcher.setPriority(command, priority);
+    }
+
+    /** Returns per-command latency statistics, one line per command. */
+    public String getLatencyReport() {
+        return mDispatcher.getLatencyReport();
+    }
+
+    /** Returns true if a listener is registered for the command. */
+    boolean hasListeners(String command) {
+        ListenerList listeners = mCommandMap.getListeners(command);
+        return listeners != null && !listeners.isEmpty();
+    }
+
+    /**
+     * Runs the listeners of a command in order until one handles it. Called
+     * on a command worker; listeners that need it are run on the UI thread.
+     */
     public void runListeners(Command c) {
-        ListenerList listeners = mCommandMap.getListeners(c.command);
-        if (listeners == null)
+        ListenerList listeners = mCommandMap.getListeners(c.getName());
+        if (listeners == null || listeners.isEmpty()) {
+            StringBuilder b = new StringBuilder(64);
+            b.append("Unknown Command: ").append(c.command).append('\n');
+            c.sendResponse(b.toString());
+            c.finish(CommandPacket.Status.UNKNOWN_COMMAND);
             return;
-        for (CommandListener l : listeners) {
+        }
+        boolean urgent = mDispatcher.getPriority(c.getName()) <= PRIORITY_URGENT;
+        CommandPacket.Status status = CommandPacket.Status.OK;
+        for (Registration r : listeners) {
             try {
-                if (l.onCommandReceived(c))
+                boolean handled = r.uiThread
+                        ? mDispatcher.runOnUiThread(r.listener, c, urgent)
+                        : r.listener.onCommandReceived(c);
+                if (handled)
                     break;
             } catch (Exception e) {
                 e.printStackTrace();
+                status = CommandPacket.Status.FAILED;
             }
         }
-        return;
+        c.finish(status);
     }
 
     public void broadcastMessage(String message) {
@@ -125,16 +263,111 @@ public class RemoteControl {
         mThread.broadcastMessage(message);
     }
 
+    /**
+     * Stores the latest reading of a sensor for subscribed clients. Cheap
+     * enough to call for every sensor event; nothing is sent from here.
+     */
+    public void updateSample(String stream, long timestamp, int accuracy, float[] values) {
+        mSamples.update(mSamples.slot(stream, LatestValueTable.FORMAT_SENSOR), timestamp,
+                accuracy, values, values.length);
+    }
+
+    /** Stores the latest values of a non-sensor stream such as the battery. */
+    public void updateValues(String stream, long timestamp, float... values) {
+        mSamples.update(mSamples.slot(stream, LatestValueTable.FORMAT_VALUES), timestamp, 0,
+                values, values.length);
+    }
+
+    /** "subscribe <stream> <rate>": the stream name may contain spaces. */
+    private boolean onSubscribe(Command c) {
+        String args = c.getArguments();
+        int space = args.lastIndexOf(' ');
+        double rate = 0;
+        if (space > 0) {
+            try {
+                rate = Double.parseDouble(args.substring(space + 1));
+            } catch (NumberFormatException e) {
+                rate = 0;
+            }
+        }
+        if (!(rate > 0 && rate <= MAX_SUBSCRIPTION_HZ) || c.thread == null) {
+            c.sendResponse("Usage: subscribe <stream> <rate in Hz, up to "
+                    + (int) MAX_SUBSCRIPTION_HZ + ">\n");
+            return true;
+        }
+        String stream = args.substring(0, space).trim();
+        c.sendResponse("Subscribed to " + stream + " at " + rate + " Hz\n");
+        c.thread.subscribe(c.client, stream, (long) (1e9 / rate));
+        return true;
+    }
+
+    /**
+     * "time <t0>": one round of the clock offset exchange in
+     * {@link ClockSync}. Replies "time <t0> <t1> <t2>" where t1 is when the
+     * request was read and t2 when the reply was made, both on this device's
+     * clock.
+     */
+    private boolean onTime(Command c) {
+        StringBuilder b = new StringBuilder(64);
+        b.append("time ").append(c.getArguments()).append(' ').append(c.receivedAt)
+                .append(' ').append(System.currentTimeMillis()).append('\n');
+        c.sendResponse(b.toString());
+        return true;
+    }
+
+    /** "unsubscribe [<stream>]": without a stream, ends all subscriptions. */
+    private boolean onUnsubscribe(Command c) {
+        if (c.thread == null)
+            return true;
+        String stream = c.getArguments();
+        c.sendResponse("Unsubscribed\n");
+        c.thread.subscribe(c.client, stream.length() > 0 ? stream : null, 0);
+        return true;
+    }
+
     public RemoteControl(Context context) {
         mContext = context;
+        setCommandPriority("stop", PRIORITY_URGENT);
+        // Queueing would only add to the measured round trip.
+        setCommandPriority("time", PRIORITY_URGENT);
+        registerCommandListener("time", new CommandListener() {
+                @Override
+            public boolean onCommandReceived(Command c) {
+                return onTime(c);
+            }
+        }, false);
+        registerCommandListener("latency", new CommandListener() {
+                @Override
+            public boolean onCommandReceived(Command c) {
+                c.sendResponse(getLatencyReport());
+                return true;
+            }
+        }, false);
+        registerCommandListener("subscribe", new CommandListener() {
+                @Override
+            public boolean onCommandReceived(Command c) {
+                return onSubscribe(c);
+            }
+        }, false);
+        registerCommandListener("unsubscribe", new CommandListener() {
+                @Override
+            public boolean onCommandReceived(Command c) {
+                return onUnsubscribe(c);
+            }
+        }, false);
     }
 
     public void start() {
+        start(mContext.getResources().getInteger(R.integer.network_remote_port));
+    }
+
+    /** Starts listening on a given port, e.g. to run several on one host. */
+    public void start(int port) {
         if (mThread != null)
             return;
 
-        int port = mContext.getResources().getInteger(R.integer.network_remote_port);
-        mThread = new RemoteThread(port, mHandler);
+        mDispatcher.start();
+        mThread = new RemoteThread(port, mDispatcher, mSamples);
         mThread.start();
     }
 
@@ -143,44 +376,186 @@ public class RemoteControl {
             mThread.shutdown();
             mThread = null;
         }
+        mDispatcher.shutdown();
     }
 
+    /**
+     * Owns the server socket and all client connections. Outgoing messages
+     * are handed over through a queue and written by this thread only; each
+     * client has its own bounded queue of pending messages, so a slow client
+     * never causes messages to others to be lost, and one that falls too far
+     * behind is disconnected.
+     * <p>
+     * Subscriptions are served from here as well: whenever one is due, the
+     * latest sample of its stream is queued like any other message if it is
+     * new. Samples are dropped rather than queued for a client that is
+     * already behind.
+     */
     private static final class RemoteThread extends Thread {
-        private Selector mSelector = null;
+        /** Bytes a client may have pending before it is disconnected. */
+        private static final int MAX_QUEUED_BYTES = 64 * 1024;
+
+        private static final int INITIAL_LINE_BUFFER = 512;
+
+        /** Longer command lines are dropped. */
+        private static final int MAX_LINE_LENGTH = 64 * 1024;
+
+        private static final int INITIAL_FRAME_BUFFER = 256;
+
+        /** A longer binary frame fails the connection. */
+        private static final int MAX_FRAME_LENGTH = 64 * 1024;
+
+        /**
+         * Bytes that always tell the protocols apart: a frame length, a tag
+         * and, for a string field, its length.
+         */
+        private static final int MAX_PROTOCOL_HEAD = 5 + 2 + 5;
 
-        private final Handler mHandler;
+        /** A client that accepts no data for this long is disconnected. */
+        private static final long MAX_STALL_MS = 30000;
+
+        private static final long SELECT_TIMEOUT_MS = 2500;
+
+        private static final int MAX_SUBSCRIPTIONS = 16;
+
+        private volatile Selector mSelector = null;
+
+        private final CommandDispatcher mDispatcher;
         private final int mPort;
 
-        private boolean mShutdown = false;
+        private volatile boolean mShutdown = false;
 
         private static final class Tag {
             public boolean client = false;
-            public ByteBuffer buf = null;
+            /** Set once the first bytes show which protocol the client speaks. */
+            public LineDecoder lines = null;
+            public PacketDecoder packets = null;
+            /** The first bytes, while they don't show the protocol yet. */
+            public ByteBuffer head = null;
+            /** Messages not yet (fully) written to this client. */
+            public final ArrayDeque<ByteBuffer> out = new ArrayDeque<ByteBuffer>();
+            public int queuedBytes = 0;
+            /** Last time the client accepted data while it had some pending. */
+            public long lastProgress = 0;
+            public ArrayList<Subscription> subscriptions = null;
+        }
+
+        private static final class Subscription {
+            final String stream;
+            long periodNanos;
+            /** Slot of the stream, looked up until the stream has one. */
+            int slot = -1;
+            long nextDue;
+            /** Timestamp of the last sample sent, so none is sent twice. */
+            long lastTimestamp = Long.MIN_VALUE;
+
+            Subscription(String stream, long periodNanos) {
+                this.stream = stream;
+                this.periodNanos = periodNanos;
+            }
+        }
+
+        /**
+         * A subscription to add or replace, or to end if periodNanos is 0; in
+         * that case a null stream ends all subscriptions of the client.
+         */
+        private static final class SubscriptionChange {
+            final SocketChannel client;
+            final String stream;
+            final long periodNanos;
+
+            SubscriptionChange(SocketChannel client, String stream, long periodNanos) {
+                this.client = client;
+                this.stream = stream;
+                this.periodNanos = periodNanos;
+            }
         }
 
-        public RemoteThread(int port, Handler handler) {
+        /** A message for one client, or for all clients if client is null. */
+        private static final class Outgoing {
+            final SocketChannel client;
+            final byte[] data;
+            /** True if data is already a binary frame. */
+            final boolean framed;
+            private byte[] frame;
+
+            Outgoing(SocketChannel client, byte[] data, boolean framed) {
+                this.client = client;
+                this.data = data;
+                this.framed = framed;
+            }
+
+            /** Returns the message wrapped for binary clients, encoded once. */
+            byte[] frame() {
+                if (framed)
+                    return data;
+                if (frame == null)
+                    frame = CommandFrames.encodeMessage(new String(data, UTF8));
+                return frame;
+            }
+        }
+
+        private final ConcurrentLinkedQueue<Outgoing> mOutgoing =
+                new ConcurrentLinkedQueue<Outgoing>();
+
+        private final ConcurrentLinkedQueue<SubscriptionChange> mSubscriptionChanges =
+                new ConcurrentLinkedQueue<SubscriptionChange>();
+
+        private final LatestValueTable mSamples;
+
+        private final LatestValueTable.Reading mReading = new LatestValueTable.Reading();
+
+        private final StringBuilder mSampleLine = new StringBuilder(128);
+
+        /** When the next subscription is due, in System.nanoTime(). */
+        private long mNextPush = Long.MAX_VALUE;
+
+        public RemoteThread(int port, CommandDispatcher dispatcher, LatestValueTable samples) {
             super("RemoteThread");
             mPort = port;
-            mHandler = handler;
+            mDispatcher = dispatcher;
+            mSamples = samples;
         }
 
-        private ByteBuffer mOutBuf = ByteBuffer.allocateDirect(1024);
-
+        /** Sends a message to every client; it is encoded only once. */
         public void broadcastMessage(String msg) {
-            if (mSelector == null)
+            sendMessage(null, msg);
+        }
+
+        public void sendMessage(SocketChannel client, String msg) {
+            Selector selector = mSelector;
+            if (selector == null)
                 return;
 
-            synchronized (mOutBuf) {
-                mOutBuf.clear();
-                mOutBuf.put(msg.getBytes());
-            }
+            mOutgoing.add(new Outgoing(client, msg.getBytes(UTF8), false));
+            selector.wakeup();
+        }
+
+        /** Sends an encoded frame to a binary client. */
+        public void sendFrame(SocketChannel client, byte[] frame) {
+            Selector selector = mSelector;
+            if (selector == null)
+                return;
+
+            mOutgoing.add(new Outgoing(client, frame, true));
+            selector.wakeup();
+        }
 
-            mSelector.wakeup();
+        /** Adds, replaces or (with a period of 0) ends a subscription. */
+        public void subscribe(SocketChannel client, String stream, long periodNanos) {
+            Selector selector = mSelector;
+            if (selector == null)
+                return;
+
+            mSubscriptionChanges.add(new SubscriptionChange(client, stream, periodNanos));
+            selector.wakeup();
         }
 
         public void shutdown() {
             mShutdown = true;
-            mSelector.wakeup();
+            Selector selector = mSelector;
+            if (selector != null)
+                selector.wakeup();
         }
 
         @Override
@@ -202,8 +577,15 @@ public class RemoteControl {
                     return;
 
                 try {
-                    Log.i(TAG, "Selecting...");
-                    mSelector.select(2500);
+                    long timeout = SELECT_TIMEOUT_MS;
+                    if (mNextPush != Long.MAX_VALUE) {
+                        long untilPush = (mNextPush - System.nanoTime() + 999999) / 1000000;
+                        timeout = Math.min(timeout, untilPush);
+                    }
+                    if (timeout > 0)
+                        mSelector.select(timeout);
+                    else
+                        mSelector.selectNow();
                 } catch (ClosedSelectorException e) {
                     Log.e(TAG, "Somehow the selector got closed.");
                     return;
@@ -217,7 +599,10 @@ public class RemoteControl {
                 if (mShutdown)
                     break;
 
-                for (SelectionKey k : mSelector.selectedKeys()) {
+                Iterator<SelectionKey> it = mSelector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey k = it.next();
+                    it.remove();
                     try {
                         if (k.isAcceptable()) {
                             acceptConnection(k);
@@ -226,13 +611,16 @@ public class RemoteControl {
                         if (k.isReadable()) {
                             if (!readClient(k)) {
                                 k.cancel();
+                                continue;
                             }
                         }
+
+                        if (k.isValid() && k.isWritable()) {
+                            flush(k);
+                        }
                     } catch (IOException e) {
                         e.printStackTrace();
-                        k.cancel();
-                    } finally {
-                        mSelector.selectedKeys().remove(k);
+                        disconnect(k, "I/O error");
                     }
 
                     if (mShutdown)
@@ -242,33 +630,32 @@ public class RemoteControl {
                 if (mShutdown)
                     break;
 
-                synchronized (mOutBuf) {
-                    if (mOutBuf.position() == 0)
+                long now = System.currentTimeMillis();
+                Outgoing o;
+                while ((o = mOutgoing.poll()) != null) {
+                    if (o.client != null) {
+                        SelectionKey k = o.client.keyFor(mSelector);
+                        if (k == null || !k.isValid())
+                            continue;
+                        t = (Tag) k.attachment();
+                        enqueue(k, t.packets != null ? o.frame() : o.data, now);
                         continue;
-
+                    }
                     for (SelectionKey k : mSelector.keys()) {
                         t = (Tag) k.attachment();
-                        if (t == null)
-                            continue;
-                        if (t.client == false)
-                            continue;
-
-                        try {
-                            SocketChannel chan = (SocketChannel) k.channel();
-                            mOutBuf.flip();
-                            chan.write(mOutBuf);
-                        } catch (IOException e) {
-                            Log.e(TAG, "Error broadcasting message");
-                            e.printStackTrace();
+                        if (t == null || !t.client || !k.isValid())
                             continue;
-                        } finally {
-                            mOutBuf.rewind();
-                        }
-
-                        if (mShutdown)
-                            break;
+                        enqueue(k, t.packets != null ? o.frame() : o.data, now);
                     }
                 }
+
+                SubscriptionChange change;
+                while ((change = mSubscriptionChanges.poll()) != null)
+                    applySubscriptionChange(change);
+                if (mNextPush != Long.MAX_VALUE)
+                    pushSamples(now);
+
+                evictStalledClients(now);
             }
 
             try {
@@ -284,12 +671,164 @@ public class RemoteControl {
             }
         }
 
+        /**
+         * Queues a message for one client and writes as much of the queue as
+         * the socket takes right away.
+         */
+        private void enqueue(SelectionKey key, byte[] data, long now) {
+            Tag tag = (Tag) key.attachment();
+            if (tag.queuedBytes + data.length > MAX_QUEUED_BYTES) {
+                disconnect(key, "too far behind");
+                return;
+            }
+            if (tag.out.isEmpty())
+                tag.lastProgress = now;
+            // The bytes are shared by all clients; only the position is not.
+            tag.out.add(ByteBuffer.wrap(data));
+            tag.queuedBytes += data.length;
+            try {
+                flush(key);
+            } catch (IOException e) {
+                disconnect(key, "I/O error");
+            }
+        }
+
+        /**
+         * Writes queued messages until the socket would block, and asks for
+         * OP_WRITE only while something is left.
+         */
+        private void flush(SelectionKey key) throws IOException {
+            Tag tag = (Tag) key.attachment();
+            SocketChannel channel = (SocketChannel) key.channel();
+            while (!tag.out.isEmpty()) {
+                ByteBuffer buf = tag.out.peek();
+                int n = channel.write(buf);
+                if (n > 0) {
+                    tag.queuedBytes -= n;
+                    tag.lastProgress = System.currentTimeMillis();
+                }
+                if (buf.hasRemaining())
+                    break;
+                tag.out.poll();
+            }
+            key.interestOps(tag.out.isEmpty()
+                    ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        }
+
+        private void applySubscriptionChange(SubscriptionChange change) {
+            SelectionKey k = change.client.keyFor(mSelector);
+            if (k == null || !k.isValid() || k.attachment() == null)
+                return;
+            Tag tag = (Tag) k.attachment();
+            if (tag.subscriptions == null)
+                tag.subscriptions = new ArrayList<Subscription>();
+            ArrayList<Subscription> subscriptions = tag.subscriptions;
+            for (int i = subscriptions.size() - 1; i >= 0; i--) {
+                Subscription s = subscriptions.get(i);
+                if (change.stream != null && !s.stream.equals(change.stream))
+                    continue;
+                if (change.periodNanos == 0) {
+                    subscriptions.remove(i);
+                } else {
+                    s.periodNanos = change.periodNanos;
+                    s.nextDue = System.nanoTime();
+                    mNextPush = Math.min(mNextPush, s.nextDue);
+                    return;
+                }
+            }
+            if (change.periodNanos == 0)
+                return;
+            if (subscriptions.size() == MAX_SUBSCRIPTIONS) {
+                Log.w(TAG, "Too many subscriptions, ignoring " + change.stream);
+                return;
+            }
+            Subscription s = new Subscription(change.stream, change.periodNanos);
+            s.nextDue = System.nanoTime();
+            subscriptions.add(s);
+            mNextPush = Math.min(mNextPush, s.nextDue);
+        }
+
+        /**
+         * Queues the latest sample of every due subscription and works out
+         * when the next one is due.
+         */
+        private void pushSamples(long nowMillis) {
+            long now = System.nanoTime();
+            long next = Long.MAX_VALUE;
+            for (SelectionKey k : mSelector.keys()) {
+                Tag t = (Tag) k.attachment();
+                if (t == null || !t.client || t.subscriptions == null || !k.isValid())
+                    continue;
+                ArrayList<Subscription> subscriptions = t.subscriptions;
+                for (int i = 0; i < subscriptions.size() && k.isValid(); i++) {
+                    Subscription s = subscriptions.get(i);
+                    if (s.nextDue - now <= 0) {
+                        push(k, t, s, nowMillis);
+                        s.nextDue += s.periodNanos;
+                        if (s.nextDue - now <= 0)
+                            // Fell behind; skip the missed periods.
+                            s.nextDue = now + s.periodNanos;
+                    }
+                    next = Math.min(next, s.nextDue);
+                }
+            }
+            mNextPush = next;
+        }
+
+        private void push(SelectionKey key, Tag tag, Subscription s, long nowMillis) {
+            if (s.slot < 0)
+                s.slot = mSamples.indexOf(s.stream);
+            if (s.slot < 0 || !mSamples.read(s.slot, mReading)
+                    || mReading.timestamp == s.lastTimestamp)
+                return;
+            if (tag.queuedBytes > MAX_QUEUED_BYTES / 2)
+                // Behind already; a later sample replaces this one.
+                return;
+            s.lastTimestamp = mReading.timestamp;
+            mSampleLine.setLength(0);
+            mSamples.appendReading(mSampleLine, s.slot, mReading);
+            mSampleLine.append('\n');
+            String line = mSampleLine.toString();
+            enqueue(key, tag.packets != null
+                    ? CommandFrames.encodeMessage(line)
+                    : line.getBytes(UTF8), nowMillis);
+        }
+
+        private void evictStalledClients(long now) {
+            for (SelectionKey k : mSelector.keys()) {
+                Tag t = (Tag) k.attachment();
+                if (t != null && t.client && k.isValid() && !t.out.isEmpty()
+                        && now - t.lastProgress > MAX_STALL_MS)
+                    disconnect(k, "not reading");
+            }
+        }
+
+        private void disconnect(SelectionKey key, String reason) {
+            key.attach(null);
+            key.cancel();
+            if (!(key.channel() instanceof SocketChannel))
+                return;
+            SocketChannel channel = (SocketChannel) key.channel();
+            Log.i(TAG, "Disconnecting client (" + reason + "): "
+                    + channel.socket().getRemoteSocketAddress());
+            try {
+                channel.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+
         private boolean readClient(SelectionKey key) throws IOException {
             SocketChannel channel = (SocketChannel) key.channel();
             Tag tag = (Tag) key.attachment();
-            ByteBuffer buf = tag.buf;
 
-            int bytesRead = channel.read(buf);
+            int bytesRead;
+            if (tag.packets != null)
+                bytesRead = tag.packets.read(channel);
+            else if (tag.lines != null)
+                bytesRead = tag.lines.read(channel);
+            else
+                bytesRead = detectProtocol(channel, tag);
             if (bytesRead == -1) {
                 Log.i(TAG, "Client Disconnected: "
                         + channel.socket().getRemoteSocketAddress().toString());
@@ -300,35 +839,113 @@ public class RemoteControl {
                 return false;
             }
 
-            Log.d(TAG, "Received: " + bytesRead + " (" + buf.position() + " )");
-            if (buf.position() > 0 &&
-                    (buf.get(buf.position() - 1) != '\n') && (buf.get(buf.position() - 1) != '\r'))
-            {
-                if (buf.position() > 0)
-                    Log.d(TAG, "Last char: " + buf.get(buf.position() - 1));
+            if (tag.packets != null) {
+                CommandPacket packet;
+                try {
+                    while ((packet = tag.packets.nextPacket()) != null) {
+                        mDispatcher.dispatch(new RemoteControl.Command(
+                                packet.getCommand(), channel, this, packet));
+                    }
+                } catch (InvalidProtocolBufferException e) {
+                    disconnect(key, e.getMessage());
+                    return false;
+                }
                 return true;
             }
 
-            StringBuilder b = new StringBuilder(buf.position());
-            for (int i = 0; i < buf.position() - 1; i++)
-                b.append((char) buf.get(i));
-            buf.put(buf.position() - 1, (byte) 0);
+            String line;
+            while (tag.lines != null && (line = tag.lines.nextLine()) != null) {
+                Log.d(TAG, "Received: " + line);
 
-            int pos = b.indexOf("\r");
-            while (pos != -1) {
-                b.deleteCharAt(pos);
-                pos = b.indexOf("\r");
+                mDispatcher.dispatch(new RemoteControl.Command(line, channel, this, null));
             }
+            return true;
+        }
 
-            Log.d(TAG, "Received: " + b.toString());
+        /**
+         * Reads the first bytes of a connection until they show which protocol
+         * the client speaks. An empty frame, or a frame length followed by the
+         * tag of a {@link CommandPacket} field, selects the binary protocol
+         * described in {@link CommandFrames}; anything else starts a text
+         * command. The bytes read are handed to the chosen decoder.
+         */
+        private int detectProtocol(SocketChannel channel, Tag tag) throws IOException {
+            if (tag.head == null)
+                tag.head = ByteBuffer.allocate(MAX_PROTOCOL_HEAD);
+            int n = channel.read(tag.head);
+            if (n <= 0)
+                return n;
+            byte[] a = tag.head.array();
+            int end = tag.head.position();
+            int binary = classifyHead(a, end);
+            if (binary < 0 && tag.head.hasRemaining())
+                return n;
+            tag.head = null;
+            if (binary > 0) {
+                tag.packets = new PacketDecoder(INITIAL_FRAME_BUFFER, MAX_FRAME_LENGTH);
+                for (int i = 0; i < end; i++)
+                    tag.packets.append(a[i]);
+                Log.i(TAG, "Binary client: " + channel.socket().getRemoteSocketAddress());
+            } else {
+                tag.lines = new LineDecoder(INITIAL_LINE_BUFFER, MAX_LINE_LENGTH);
+                for (int i = 0; i < end; i++)
+                    tag.lines.append(a[i]);
+            }
+            return n;
+        }
 
-            Message m = mHandler.obtainMessage();
-            m.what = RemoteControl.MESSAGE_COMMAND;
-            m.obj = new RemoteControl.Command(b.toString(), channel);
-            m.sendToTarget();
+        /**
+         * Returns 1 if a connection that starts with the given bytes speaks
+         * the binary protocol, 0 if it sends text and -1 if more bytes are
+         * needed to tell. Text starts with a command word, whose first
+         * character read as a length is never followed by a field tag, and
+         * an empty line's line break read as a string length doesn't fit.
+         */
+        private static int classifyHead(byte[] a, int end) {
+            if (end == 0)
+                return -1;
+            if (a[0] == 0)
+                // An empty frame, which binary clients may start with.
+                return 1;
+            long[] value = new long[1];
+            int i = readVarint(a, 0, end, 5, value);
+            if (i <= 0)
+                return i;
+            long length = value[0];
+            if (length > MAX_FRAME_LENGTH)
+                return 0;
+            int start = i;
+            i = readVarint(a, i, end, 2, value);
+            if (i <= 0)
+                return i;
+            int fieldTag = (int) value[0];
+            if (!CommandFrames.isCommandPacketTag(fieldTag))
+                return 0;
+            if ((fieldTag & 7) != WireFormat.WIRETYPE_LENGTH_DELIMITED)
+                return 1;
+            i = readVarint(a, i, end, 5, value);
+            if (i <= 0)
+                return i;
+            return value[0] <= length - (i - start) ? 1 : 0;
+        }
 
-            buf.clear();
-            return true;
+        /**
+         * Reads a varint of at most maxBytes bytes into value[0]. Returns the
+         * offset after it, -1 if it isn't complete yet, or 0 if it is longer.
+         */
+        private static int readVarint(byte[] a, int i, int end, int maxBytes, long[] value) {
+            long result = 0;
+            for (int shift = 0; shift < 7 * maxBytes; shift += 7) {
+                if (i == end)
+                    return -1;
+                byte b = a[i++];
+                result |= (long) (b & 0x7f) << shift;
+                if (b >= 0) {
+                    value[0] = result;
+                    return i;
+                }
+            }
+            return 0;
         }
 
         private void acceptConnection(SelectionKey key) throws IOException {
@@ -337,7 +954,6 @@ public class RemoteControl {
             client.configureBlocking(false);
 
             Tag t = new Tag();
-            t.buf = ByteBuffer.allocateDirect(512);
             t.client = true;
 
             SelectionKey clientKey = client.register(mSelector, SelectionKey.OP_READ);
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2012 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.cellbots.logger.localServer;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.WireFormat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Picks the DataPackets that carry given sensor types out of a log of varint
+ * length-delimited {@link Telemetry.DataPacket}s, such as a WebSocket stream
+ * capture or an /ingest body, without parsing them into messages. Only the
+ * tags are read: every sensor's type is peeked at, and everything else, as
+ * well as the rest of a packet once it is known to match, is skipped by its
+ * length. Matches are returned as slices of the log, so with a memory-mapped
+ * file nothing is copied at all.
+ * <p>
+ * Types are given as a mask of {@link TelemetryStreamHub} channels: bit n for
+ * three axis type n, bit 32 + n for single value type n.
+ */
+public final class DataPacketFilter {
+    private static final int SENSOR_TAG = (Telemetry.DataPacket.SENSOR_FIELD_NUMBER << 3)
+            | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+
+    private static final int THREE_AXIS_SENSOR_TAG =
+            (Telemetry.DataPacket.THREE_AXIS_SENSOR_FIELD_NUMBER << 3)
+            | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+
+    private static final int SENSOR_TYPE_TAG = (Telemetry.Sensor.SENSOR_TYPE_FIELD_NUMBER << 3)
+            | WireFormat.WIRETYPE_VARINT;
+
+    private final ByteBuffer mLog;
+
+    private final CodedInputStream mInput;
+
+    private final long mChannelMask;
+
+    private int mScanned;
+
+    /**
+     * @param log The log, from its position to its limit. Its position is
+     *            not changed.
+     */
+    public DataPacketFilter(ByteBuffer log, long channelMask) {
+        mLog = log;
+        mInput = CodedInputStream.newInstance(log);
+        mChannelMask = channelMask;
+    }
+
+    /** Number of packets looked at so far, matching or not. */
+    public int getScannedCount() {
+        return mScanned;
+    }
+
+    /**
+     * Returns the next matching packet, without its length prefix, as a slice
+     * of the log, or null at the end of the log.
+     *
+     * @throws InvalidProtocolBufferException if the log is malformed.
+     */
+    public ByteBuffer next() throws IOException {
+        while (!mInput.isAtEnd()) {
+            int length = mInput.readRawVarint32();
+            int start = mInput.getTotalBytesRead();
+            int limit = mInput.pushLimit(length);
+            mScanned++;
+            boolean match = matches();
+            // Whatever matches() left of the packet.
+            mInput.skipRawBytes(mInput.getBytesUntilLimit());
+            mInput.popLimit(limit);
+            if (match) {
+                ByteBuffer slice = mLog.duplicate();
+                slice.position(mLog.position() + start);
+                slice.limit(mLog.position() + start + length);
+                return slice.slice();
+            }
+        }
+        return null;
+    }
+
+    /** Reads the fields of a packet until one of its sensors is wanted. */
+    private boolean matches() throws IOException {
+        while (true) {
+            int tag = mInput.readTag();
+            if (tag == 0) {
+                return false;
+            }
+            int offset;
+            if (tag == THREE_AXIS_SENSOR_TAG) {
+                offset = 0;
+            } else if (tag == SENSOR_TAG) {
+                offset = TelemetryStreamHub.SINGLE_VALUE_CHANNEL_OFFSET;
+            } else {
+                mInput.skipField(tag);
+                continue;
+            }
+            int limit = mInput.pushLimit(mInput.readRawVarint32());
+            int type = peekSensorType();
+            mInput.skipRawBytes(mInput.getBytesUntilLimit());
+            mInput.popLimit(limit);
+            if (type >= 0 && type < 32 && (mChannelMask & (1L << (offset + type))) != 0) {
+                return true;
+            }
+        }
+    }
+
+    /** Returns the type of the sensor being read, or -1 if it has none. */
+    private int peekSensorType() throws IOException {
+        while (true) {
+            int tag = mInput.readTag();
+            if (tag == 0) {
+                return -1;
+            }
+            if (tag == SENSOR_TYPE_TAG) {
+                return mInput.readEnum();
+            }
+            mInput.skipField(tag);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/**
+ * Copyright (C) 2012 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.cellbots.logger.localServer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Fans sensor updates out to Server-Sent Events streams served by
+ * {@link LocalHttpServer} under /events. Each stream only keeps the latest
+ * value per sensor until it is sent, so a slow client sees fresh values at its
+ * own pace instead of an ever growing backlog.
+ */
+class EventStreamHub {
+    private static final long HEARTBEAT_INTERVAL_MS = 15000;
+
+    private final CopyOnWriteArrayList<EventStream> mStreams =
+            new CopyOnWriteArrayList<EventStream>();
+
+    private final ConcurrentHashMap<String, String> mLatestValues =
+            new ConcurrentHashMap<String, String>();
+
+    /** Called by the sensor threads whenever a sensor reports a new value. */
+    public void publish(String name, String value) {
+        mLatestValues.put(name, value);
+        for (EventStream stream : mStreams) {
+            stream.offer(name, value);
+        }
+    }
+
+    /** Returns true if any client is listening. */
+    public boolean hasStreams() {
+        return !mStreams.isEmpty();
+    }
+
+    /**
+     * Opens a new stream.
+     *
+     * @param sensors The sensor names to send, or null for all sensors.
+     * @param maxRate The maximum number of updates per second.
+     */
+    public EventStream open(Set<String> sensors, float maxRate) {
+        EventStream stream = new EventStream(sensors, (long) (1000 / maxRate));
+        for (Map.Entry<String, String> entry : mLatestValues.entrySet()) {
+            stream.offer(entry.getKey(), entry.getValue());
+        }
+        mStreams.add(stream);
+        return stream;
+    }
+
+    /**
+     * One SSE client. Updates are coalesced per sensor and written at most
+     * once per interval; the encoding buffer is reused for the lifetime of
+     * the stream.
+     */
+    class EventStream extends HttpResponse.StreamBody {
+        private final Set<String> mSensors;
+
+        private final long mMinIntervalMs;
+
+        private final LinkedHashMap<String, String> mPending =
+                new LinkedHashMap<String, String>();
+
+        private final StringBuilder mText = new StringBuilder(1024);
+
+        private final CharsetEncoder mEncoder = Charset.forName("UTF-8").newEncoder();
+
+        private ByteBuffer mOut = ByteBuffer.allocate(4096);
+
+        private long mNextSendTime;
+
+        private long mLastWriteTime;
+
+        private boolean mWakeRequested;
+
+        EventStream(Set<String> sensors, long minIntervalMs) {
+            mSensors = sensors;
+            mMinIntervalMs = minIntervalMs;
+            mLastWriteTime = System.currentTimeMillis();
+            mOut.flip();
+            // Tell EventSource clients how quickly to reconnect.
+            mText.append("retry: 2000\n\n");
+            encode();
+        }
+
+        void offer(String name, String value) {
+            if (mSensors != null && !mSensors.contains(name)) {
+                return;
+            }
+            synchronized (this) {
+                mPending.put(name, value);
+                if (mWakeRequested) {
+                    return;
+                }
+                long now = System.currentTimeMillis();
+                if (now < mNextSendTime) {
+                    // The server picks this up at the retry time, unless it
+                    // is asleep until a later one, e.g. the heartbeat, or
+                    // for as long as it likes because there was none.
+                    long retryTime = getRetryTime();
+                    setRetryTime(mNextSendTime);
+                    if (retryTime > 0 && retryTime <= mNextSendTime) {
+                        return;
+                    }
+                }
+                mWakeRequested = true;
+            }
+            wakeUp();
+        }
+
+        @Override
+        public int writeTo(SocketChannel channel) throws IOException {
+            while (true) {
+                if (mOut.hasRemaining()) {
+                    channel.write(mOut);
+                    if (mOut.hasRemaining()) {
+                        return WRITE_BLOCKED;
+                    }
+                }
+                long now = System.currentTimeMillis();
+                synchronized (this) {
+                    mWakeRequested = false;
+                    if (mPending.isEmpty()) {
+                        if (now - mLastWriteTime < HEARTBEAT_INTERVAL_MS) {
+                            setRetryTime(mLastWriteTime + HEARTBEAT_INTERVAL_MS);
+                            return WRITE_IDLE;
+                        }
+                        // A comment line keeps proxies from timing out and
+                        // lets us notice clients that silently went away.
+                        mText.append(":\n\n");
+                    } else if (now < mNextSendTime) {
+                        setRetryTime(mNextSendTime);
+                        return WRITE_IDLE;
+                    } else {
+                        for (Map.Entry<String, String> entry : mPending.entrySet()) {
+                            appendEvent(entry.getKey(), entry.getValue());
+                        }
+                        mPending.clear();
+                        mNextSendTime = now + mMinIntervalMs;
+                    }
+                    mLastWriteTime = now;
+                    setRetryTime(0);
+                }
+                encode();
+            }
+        }
+
+        @Override
+        public void close() {
+            mStreams.remove(this);
+        }
+
+        private void appendEvent(String name, String value) {
+            mText.append("event: ").append(name).append('\n');
+            mText.append("data: ");
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '\n') {
+                    mText.append("\ndata: ");
+                } else if (c != '\r') {
+                    mText.append(c);
+                }
+            }
+            mText.append("\n\n");
+        }
+
+        /** Moves the pending text into the output buffer as UTF-8. */
+        private void encode() {
+            CharBuffer chars = CharBuffer.wrap(mText);
+            mOut.compact();
+            mEncoder.reset();
+            while (true) {
+                CoderResult result = mEncoder.encode(chars, mOut, true);
+                if (!result.isOverflow()) {
+                    break;
+                }
+                ByteBuffer bigger = ByteBuffer.allocate(mOut.capacity() * 2);
+                mOut.flip();
+                bigger.put(mOut);
+                mOut = bigger;
+            }
+            mEncoder.flush(mOut);
+            mOut.flip();
+            mText.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,271 @@
+/**
+ * Copyright (C) 2012 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.cellbots.logger.localServer;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Serves files below a root directory for {@link LocalHttpServer}. File
+ * contents go from the file to the socket with
+ * {@link FileChannel#transferTo}, so they never pass through the Java heap.
+ * Single byte ranges are supported, which lets clients resume interrupted
+ * downloads and fetch parts of a large file over parallel connections.
+ */
+class FileRequestHandler {
+    /** Bytes sent per writability event, so one download can't hog the selector. */
+    private static final long MAX_TRANSFER_PER_WRITE = 1024 * 1024;
+
+    /** Streams a region of a file to the socket. */
+    static class FileBody implements HttpResponse.Body {
+        private final FileInputStream mStream;
+
+        private final FileChannel mChannel;
+
+        private long mPosition;
+
+        private long mRemaining;
+
+        private final long mLength;
+
+        FileBody(File file, long offset, long length) throws IOException {
+            mStream = new FileInputStream(file);
+            mChannel = mStream.getChannel();
+            mPosition = offset;
+            mRemaining = length;
+            mLength = length;
+        }
+
+        @Override
+        public long length() {
+            return mLength;
+        }
+
+        @Override
+        public int writeTo(SocketChannel channel) throws IOException {
+            long budget = MAX_TRANSFER_PER_WRITE;
+            while (mRemaining > 0 && budget > 0) {
+                long n = mChannel.transferTo(mPosition, Math.min(mRemaining, budget), channel);
+                if (n <= 0) {
+                    if (mPosition >= mChannel.size()) {
+                        throw new IOException("File truncated while sending");
+                    }
+                    return WRITE_BLOCKED;
+                }
+                mPosition += n;
+                mRemaining -= n;
+                budget -= n;
+            }
+            return mRemaining > 0 ? WRITE_BLOCKED : WRITE_DONE;
+        }
+
+        @Override
+        public void close() {
+            try {
+                mStream.close();
+            } catch (IOException e) {
+                // Nothing more to do with it.
+            }
+        }
+    }
+
+    private final File mRoot;
+
+    FileRequestHandler(File root) {
+        mRoot = root;
+    }
+
+    /**
+     * Returns the response for a path relative to the root: the file itself
+     * (or the requested range of it), a plain text listing for directories,
+     * or an error.
+     */
+    HttpResponse serve(String path, HttpRequest request) {
+        File file = resolve(path);
+        if (file != null && !file.exists() && path.endsWith(".zip")) {
+            File dir = resolve(path.substring(0, path.length() - 4));
+            if (dir != null && dir.isDirectory() && !dir.equals(resolve(""))) {
+                return zipDirectory(dir);
+            }
+        }
+        if (file == null || !file.exists()) {
+            return HttpResponse.error(404, "Not found: " + path);
+        }
+        if (file.isDirectory()) {
+            return listDirectory(file);
+        }
+
+        long fileLength = file.length();
+        String etag = "\"" + Long.toString(fileLength, 36) + "-"
+                + Long.toString(file.lastModified(), 36) + "\"";
+        long start = 0;
+        long end = fileLength - 1;
+        boolean partial = false;
+        String range = request.getHeader("Range");
+        String ifRange = request.getHeader("If-Range");
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            long[] bounds = parseRange(range, fileLength);
+            if (bounds == null) {
+                HttpResponse response = HttpResponse.error(416, "Requested range not satisfiable");
+                response.setHeader("Content-Range", "bytes */" + fileLength);
+                return response;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                partial = true;
+            }
+        }
+
+        HttpResponse response = partial
+                ? new HttpResponse(206, "Partial Content") : HttpResponse.ok();
+        try {
+            response.body = new FileBody(file, start, end - start + 1);
+        } catch (IOException e) {
+            return HttpResponse.error(404, "Can't open " + path);
+        }
+        response.contentType = getContentType(file.getName());
+        response.setHeader("Accept-Ranges", "bytes");
+        response.setHeader("ETag", etag);
+        if (partial) {
+            response.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + fileLength);
+        }
+        return response;
+    }
+
+    /**
+     * Maps a request path onto a file below the root, or returns null if the
+     * path tries to leave the root.
+     */
+    private File resolve(String path) {
+        try {
+            File root = mRoot.getCanonicalFile();
+            File file = new File(root, path).getCanonicalFile();
+            String rootPath = root.getPath();
+            String filePath = file.getPath();
+            if (!filePath.equals(rootPath) && !filePath.startsWith(rootPath + File.separator)) {
+                return null;
+            }
+            return file;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Streams a directory as a zip archive built on the fly. The length isn't
+     * known in advance, so the response ends by closing the connection.
+     */
+    private HttpResponse zipDirectory(File dir) {
+        HttpResponse response = HttpResponse.ok();
+        response.body = new ZipStreamBody(dir, dir.getName());
+        response.contentType = "application/zip";
+        response.setHeader("Content-Disposition",
+                "attachment; filename=\"" + dir.getName().replace("\"", "") + ".zip\"");
+        return response;
+    }
+
+    private HttpResponse listDirectory(File dir) {
+        String[] names = dir.list();
+        if (names == null) {
+            return HttpResponse.error(404, "Can't list " + dir.getName());
+        }
+        Arrays.sort(names);
+        StringBuilder listing = new StringBuilder();
+        for (String name : names) {
+            File f = new File(dir, name);
+            if (f.isDirectory()) {
+                listing.append(name).append("/\n");
+            } else {
+                listing.append(name).append('\t').append(f.length()).append('\n');
+            }
+        }
+        return HttpResponse.text(200, "OK", listing.toString());
+    }
+
+    /**
+     * Parses a Range header against a file length. Returns {start, end} for a
+     * single satisfiable range, an empty array if the header should be
+     * ignored (multiple ranges, an unknown unit or a malformed range, such as
+     * one that ends before it starts) and null if the range is not
+     * satisfiable.
+     */
+    static long[] parseRange(String range, long fileLength) {
+        range = range.trim();
+        if (!range.startsWith("bytes=") || range.indexOf(',') >= 0) {
+            return new long[0];
+        }
+        String spec = range.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            long start;
+            long end;
+            if (dash == 0) {
+                // Suffix range: the last n bytes.
+                long suffix = Long.parseLong(spec.substring(1).trim());
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, fileLength - suffix);
+                end = fileLength - 1;
+            } else {
+                start = Long.parseLong(spec.substring(0, dash).trim());
+                String last = spec.substring(dash + 1).trim();
+                end = fileLength - 1;
+                if (last.length() > 0) {
+                    long lastByte = Long.parseLong(last);
+                    if (lastByte < start) {
+                        return new long[0];
+                    }
+                    end = Math.min(lastByte, end);
+                }
+            }
+            if (start >= fileLength) {
+                return null;
+            }
+            return new long[] { start, end };
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+
+    static String getContentType(String name) {
+        String lower = name.toLowerCase(Locale.ENGLISH);
+        if (lower.endsWith(".txt") || lower.endsWith(".csv")) {
+            return "text/plain; charset=UTF-8";
+        } else if (lower.endsWith(".json")) {
+            return "application/json";
+        } else if (lower.endsWith(".mp4")) {
+            return "video/mp4";
+        } else if (lower.endsWith(".jpg") || lower.endsWith(".jpeg")) {
+            return "image/jpeg";
+        } else if (lower.endsWith(".zip")) {
+            return "application/zip";
+        } else if (lower.endsWith(".html") || lower.endsWith(".htm")) {
+            return "text/html";
+        }
+        return "application/octet-stream";
+    }
+}
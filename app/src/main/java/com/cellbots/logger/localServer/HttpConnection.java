@@ -0,0 +1,241 @@
+/**
+ * Copyright (C) 2012 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.cellbots.logger.localServer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+/**
+ * State of one persistent HTTP connection of {@link LocalHttpServer}. All
+ * methods are called from the selector thread only; the read and header
+ * buffers live as long as the connection and are reused across requests.
+ */
+class HttpConnection {
+    private static final int INITIAL_BUFFER_SIZE = 4 * 1024;
+
+    private static final int MAX_READ_BUFFER_SIZE =
+            HttpRequest.MAX_HEADER_SIZE + HttpRequest.MAX_BODY_SIZE;
+
+    final SocketChannel channel;
+
+    final SelectionKey key;
+
+    /** Bytes received but not yet parsed. Always kept in "write" mode. */
+    private ByteBuffer mReadBuf = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+
+    private ByteBuffer mHeaderBuf = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+
+    private HttpResponse mResponse;
+
+    private boolean mSendBody;
+
+    private boolean mKeepAlive;
+
+    /** True while a request is being handled by a worker thread. */
+    boolean busy;
+
+    long lastActivity;
+
+    HttpConnection(SocketChannel channel, SelectionKey key) {
+        this.channel = channel;
+        this.key = key;
+        lastActivity = System.currentTimeMillis();
+    }
+
+    /**
+     * Reads whatever is available from the socket. Returns false if the
+     * client closed the connection.
+     */
+    boolean read() throws IOException {
+        if (!mReadBuf.hasRemaining()) {
+            growReadBuffer();
+        }
+        int n = channel.read(mReadBuf);
+        if (n < 0) {
+            return false;
+        }
+        lastActivity = System.currentTimeMillis();
+        return true;
+    }
+
+    /**
+     * Parses the next complete request out of the read buffer, or returns
+     * null if more bytes are needed.
+     */
+    HttpRequest nextRequest() throws HttpRequest.BadRequestException {
+        mReadBuf.flip();
+        try {
+            return HttpRequest.parse(mReadBuf);
+        } finally {
+            mReadBuf.compact();
+        }
+    }
+
+    /**
+     * Hands what was read during a streaming response to its body and
+     * returns true if the body has something new to write. Any other
+     * response just drops the input.
+     */
+    boolean deliverInput() throws IOException {
+        if (!(mResponse.body instanceof HttpResponse.StreamBody)) {
+            mReadBuf.clear();
+            return false;
+        }
+        mReadBuf.flip();
+        try {
+            return ((HttpResponse.StreamBody) mResponse.body).onInput(mReadBuf);
+        } finally {
+            mReadBuf.compact();
+        }
+    }
+
+    boolean isIdle() {
+        return !busy && mResponse == null;
+    }
+
+    /**
+     * Starts sending a response. The status line and headers are encoded
+     * into the connection's header buffer; the body follows once they have
+     * been written.
+     */
+    void beginResponse(HttpResponse response, boolean keepAlive, boolean sendBody,
+            String date) {
+        mResponse = response;
+        mSendBody = sendBody && response.body != null;
+        long length = response.body != null ? response.body.length() : 0;
+        mKeepAlive = keepAlive && length >= 0;
+
+        mHeaderBuf.clear();
+        appendAscii("HTTP/1.1 ");
+        appendAscii(Integer.toString(response.statusCode));
+        appendAscii(" ");
+        appendAscii(response.reason);
+        appendAscii("\r\n");
+        appendHeader("Date", date);
+        appendHeader("Server", LocalHttpServer.SERVER_NAME);
+        if (response.contentType != null) {
+            appendHeader("Content-Type", response.contentType);
+        }
+        if (length >= 0 && response.statusCode != 304) {
+            appendHeader("Content-Length", Long.toString(length));
+        }
+        for (int i = 0; i < response.headers.size(); i += 2) {
+            appendHeader(response.headers.get(i), response.headers.get(i + 1));
+        }
+        if (response.statusCode == 101) {
+            appendHeader("Connection", "Upgrade");
+        } else {
+            appendHeader("Connection", mKeepAlive ? "keep-alive" : "close");
+        }
+        appendAscii("\r\n");
+        mHeaderBuf.flip();
+    }
+
+    /**
+     * Writes as much of the current response as the socket will take and
+     * returns one of the {@link HttpResponse.Body} WRITE_* codes.
+     */
+    int writeResponse() throws IOException {
+        lastActivity = System.currentTimeMillis();
+        if (mHeaderBuf.hasRemaining()) {
+            channel.write(mHeaderBuf);
+            if (mHeaderBuf.hasRemaining()) {
+                return HttpResponse.Body.WRITE_BLOCKED;
+            }
+        }
+        if (mSendBody) {
+            int result = mResponse.body.writeTo(channel);
+            if (result != HttpResponse.Body.WRITE_DONE) {
+                return result;
+            }
+        }
+        finishResponse();
+        return HttpResponse.Body.WRITE_DONE;
+    }
+
+    /**
+     * Returns when an idle streaming response wants to be written again, or
+     * 0 if it doesn't.
+     */
+    long getRetryTime() {
+        if (mResponse != null && mResponse.body instanceof HttpResponse.StreamBody) {
+            return ((HttpResponse.StreamBody) mResponse.body).getRetryTime();
+        }
+        return 0;
+    }
+
+    boolean isResponding() {
+        return mResponse != null;
+    }
+
+    /** Returns true if the connection should stay open after the response. */
+    boolean isKeepAlive() {
+        return mKeepAlive;
+    }
+
+    void close() {
+        finishResponse();
+        key.attach(null);
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing to do; the connection is gone either way.
+        }
+    }
+
+    private void finishResponse() {
+        if (mResponse != null && mResponse.body != null) {
+            mResponse.body.close();
+        }
+        mResponse = null;
+    }
+
+    private void appendHeader(String name, String value) {
+        appendAscii(name);
+        appendAscii(": ");
+        appendAscii(value);
+        appendAscii("\r\n");
+    }
+
+    private void appendAscii(String s) {
+        int length = s.length();
+        if (mHeaderBuf.remaining() < length) {
+            ByteBuffer bigger = ByteBuffer.allocate(
+                    Math.max(mHeaderBuf.capacity() * 2, mHeaderBuf.position() + length));
+            mHeaderBuf.flip();
+            bigger.put(mHeaderBuf);
+            mHeaderBuf = bigger;
+        }
+        for (int i = 0; i < length; i++) {
+            mHeaderBuf.put((byte) s.charAt(i));
+        }
+    }
+
+    private void growReadBuffer() throws IOException {
+        int capacity = mReadBuf.capacity();
+        if (capacity >= MAX_READ_BUFFER_SIZE) {
+            throw new IOException("Request exceeds " + MAX_READ_BUFFER_SIZE + " bytes");
+        }
+        ByteBuffer bigger = ByteBuffer.allocate(Math.min(capacity * 2, MAX_READ_BUFFER_SIZE));
+        mReadBuf.flip();
+        bigger.put(mReadBuf);
+        mReadBuf = bigger;
+    }
+}
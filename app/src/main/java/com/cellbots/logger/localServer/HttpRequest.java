@@ -0,0 +1,192 @@
+/**
+ * Copyright (C) 2012 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.cellbots.logger.localServer;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Locale;
+
+/**
+ * A parsed HTTP/1.x request as received by {@link LocalHttpServer}. Requests
+ * are parsed incrementally straight out of the per-connection read buffer, so
+ * a request is only produced once its headers and body have fully arrived.
+ */
+class HttpRequest {
+    /** Thrown when the bytes on the wire are not a valid HTTP request. */
+    @SuppressWarnings("serial")
+    static class BadRequestException extends Exception {
+        final int statusCode;
+
+        BadRequestException(int statusCode, String message) {
+            super(message);
+            this.statusCode = statusCode;
+        }
+    }
+
+    static final int MAX_HEADER_SIZE = 8 * 1024;
+
+    static final int MAX_BODY_SIZE = 8 * 1024 * 1024;
+
+    String method;
+
+    String target;
+
+    int versionMajor;
+
+    int versionMinor;
+
+    final HashMap<String, String> headers = new HashMap<String, String>();
+
+    byte[] body;
+
+    public String getHeader(String name) {
+        return headers.get(name.toLowerCase(Locale.ENGLISH));
+    }
+
+    /**
+     * Returns true if the client wants the connection to stay open after this
+     * request. HTTP/1.1 defaults to persistent connections, HTTP/1.0 needs an
+     * explicit keep-alive.
+     */
+    public boolean isKeepAlive() {
+        String connection = getHeader("Connection");
+        if (connection != null) {
+            connection = connection.toLowerCase(Locale.ENGLISH);
+            if (connection.contains("close")) {
+                return false;
+            }
+            if (connection.contains("keep-alive")) {
+                return true;
+            }
+        }
+        return versionMajor == 1 && versionMinor >= 1;
+    }
+
+    /**
+     * Tries to parse one complete request from the start of the buffer. The
+     * buffer is expected to be in "read" mode (flipped). On success the
+     * buffer's position is moved past the request; if the request is not
+     * complete yet the buffer is left untouched and null is returned.
+     */
+    static HttpRequest parse(ByteBuffer buf) throws BadRequestException {
+        int start = buf.position();
+        int limit = buf.limit();
+        int headerEnd = -1;
+        for (int i = start; i + 3 < limit; i++) {
+            if (buf.get(i) == '\r' && buf.get(i + 1) == '\n' && buf.get(i + 2) == '\r'
+                    && buf.get(i + 3) == '\n') {
+                headerEnd = i;
+                break;
+            }
+        }
+        if (headerEnd < 0) {
+            if (limit - start > MAX_HEADER_SIZE) {
+                throw new BadRequestException(431, "Request header too large");
+            }
+            return null;
+        }
+
+        HttpRequest request = new HttpRequest();
+        int lineStart = start;
+        boolean requestLine = true;
+        while (lineStart < headerEnd) {
+            int lineEnd = lineStart;
+            while (lineEnd < headerEnd && buf.get(lineEnd) != '\r') {
+                lineEnd++;
+            }
+            String line = ascii(buf, lineStart, lineEnd);
+            if (requestLine) {
+                request.parseRequestLine(line);
+                requestLine = false;
+            } else {
+                int colon = line.indexOf(':');
+                if (colon <= 0) {
+                    throw new BadRequestException(400, "Malformed header: " + line);
+                }
+                request.headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ENGLISH),
+                        line.substring(colon + 1).trim());
+            }
+            lineStart = lineEnd + 2;
+        }
+        if (requestLine) {
+            throw new BadRequestException(400, "Empty request");
+        }
+
+        int bodyStart = headerEnd + 4;
+        int contentLength = 0;
+        String lengthHeader = request.getHeader("Content-Length");
+        if (lengthHeader != null) {
+            try {
+                contentLength = Integer.parseInt(lengthHeader);
+            } catch (NumberFormatException e) {
+                throw new BadRequestException(400, "Bad Content-Length: " + lengthHeader);
+            }
+            if (contentLength < 0) {
+                throw new BadRequestException(400, "Bad Content-Length: " + lengthHeader);
+            }
+            if (contentLength > MAX_BODY_SIZE) {
+                throw new BadRequestException(413, "Request body too large");
+            }
+        } else if (request.getHeader("Transfer-Encoding") != null) {
+            throw new BadRequestException(411, "Chunked request bodies are not supported");
+        }
+        if (limit - bodyStart < contentLength) {
+            return null;
+        }
+        if (contentLength > 0) {
+            request.body = new byte[contentLength];
+            buf.position(bodyStart);
+            buf.get(request.body);
+        } else {
+            buf.position(bodyStart);
+        }
+        return request;
+    }
+
+    private void parseRequestLine(String line) throws BadRequestException {
+        int firstSpace = line.indexOf(' ');
+        int lastSpace = line.lastIndexOf(' ');
+        if (firstSpace <= 0 || lastSpace <= firstSpace) {
+            throw new BadRequestException(400, "Malformed request line: " + line);
+        }
+        method = line.substring(0, firstSpace).toUpperCase(Locale.ENGLISH);
+        target = line.substring(firstSpace + 1, lastSpace).trim();
+        String version = line.substring(lastSpace + 1);
+        if (!version.startsWith("HTTP/") || version.length() != 8 || version.charAt(6) != '.') {
+            throw new BadRequestException(400, "Malformed HTTP version: " + version);
+        }
+        versionMajor = version.charAt(5) - '0';
+        versionMinor = version.charAt(7) - '0';
+        if (versionMajor != 1) {
+            throw new BadRequestException(505, "HTTP version not supported: " + version);
+        }
+        if (target.length() == 0 || target.charAt(0) != '/') {
+            // Absolute URIs are allowed by HTTP/1.1; strip scheme and host.
+            int schemeEnd = target.indexOf("://");
+            int pathStart = schemeEnd >= 0 ? target.indexOf('/', schemeEnd + 3) : -1;
+            target = pathStart >= 0 ? target.substring(pathStart) : "/";
+        }
+    }
+
+    private static String ascii(ByteBuffer buf, int start, int end) {
+        char[] chars = new char[end - start];
+        for (int i = start; i < end; i++) {
+            chars[i - start] = (char) (buf.get(i) & 0xff);
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,230 @@
+/**
+ * Copyright (C) 2012 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.cellbots.logger.localServer;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+
+/**
+ * An HTTP response produced by a {@link LocalHttpServer} handler. The status
+ * line and headers are written by the server's selector thread; the body is
+ * pulled from a {@link Body} whenever the socket is writable, so handlers never
+ * block on slow clients.
+ */
+class HttpResponse {
+    /**
+     * Source of the response body bytes. Bodies are only ever driven by the
+     * selector thread.
+     */
+    interface Body {
+        /** The whole body has been written. */
+        int WRITE_DONE = 0;
+
+        /** The socket buffer is full; retry once the channel is writable. */
+        int WRITE_BLOCKED = 1;
+
+        /**
+         * Nothing to write right now; the body will ask for another write
+         * through its {@link StreamBody#wakeUp()} or at its retry time.
+         */
+        int WRITE_IDLE = 2;
+
+        /**
+         * Returns the number of body bytes, or -1 if unknown. A body of
+         * unknown length is delimited by closing the connection.
+         */
+        long length();
+
+        /**
+         * Writes as much of the body as the channel will take without
+         * blocking and returns one of the WRITE_* codes.
+         */
+        int writeTo(SocketChannel channel) throws IOException;
+
+        /** Releases resources held by the body, e.g. open files. */
+        void close();
+    }
+
+    /** A body backed by an in-memory byte array. */
+    static class ByteArrayBody implements Body {
+        private final ByteBuffer mBuf;
+
+        ByteArrayBody(byte[] data) {
+            mBuf = ByteBuffer.wrap(data);
+        }
+
+        ByteArrayBody(byte[] data, int offset, int length) {
+            mBuf = ByteBuffer.wrap(data, offset, length);
+        }
+
+        @Override
+        public long length() {
+            return mBuf.remaining();
+        }
+
+        @Override
+        public int writeTo(SocketChannel channel) throws IOException {
+            channel.write(mBuf);
+            return mBuf.hasRemaining() ? WRITE_BLOCKED : WRITE_DONE;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * A body that produces data over time and stays open until the client
+     * goes away, e.g. an event stream. Producers call {@link #wakeUp()} from
+     * any thread when there is something new to send.
+     */
+    abstract static class StreamBody implements Body {
+        private volatile Runnable mWaker;
+
+        private volatile long mRetryTime;
+
+        @Override
+        public long length() {
+            return -1;
+        }
+
+        /** Called by the server when the body starts being sent. */
+        void setWaker(Runnable waker) {
+            mWaker = waker;
+        }
+
+        /** Asks the server to call {@link #writeTo} again soon. */
+        void wakeUp() {
+            Runnable waker = mWaker;
+            if (waker != null) {
+                waker.run();
+            }
+        }
+
+        /**
+         * Returns the time (in {@link System#currentTimeMillis()} terms) at
+         * which an idle body wants to be written again, or 0 for none.
+         */
+        long getRetryTime() {
+            return mRetryTime;
+        }
+
+        void setRetryTime(long time) {
+            mRetryTime = time;
+        }
+
+        /**
+         * Called on the selector thread with what the client sent while the
+         * body is being streamed. Takes the bytes it has used from input and
+         * returns true if it now has something to write. The default ignores
+         * all input.
+         *
+         * @throws IOException to close the connection.
+         */
+        boolean onInput(ByteBuffer input) throws IOException {
+            input.position(input.limit());
+            return false;
+        }
+    }
+
+    int statusCode;
+
+    String reason;
+
+    String contentType;
+
+    Body body;
+
+    /** Extra headers as name/value pairs, written in insertion order. */
+    final ArrayList<String> headers = new ArrayList<String>(8);
+
+    HttpResponse(int statusCode, String reason) {
+        this.statusCode = statusCode;
+        this.reason = reason;
+    }
+
+    HttpResponse setHeader(String name, String value) {
+        for (int i = 0; i < headers.size(); i += 2) {
+            if (headers.get(i).equalsIgnoreCase(name)) {
+                headers.set(i + 1, value);
+                return this;
+            }
+        }
+        headers.add(name);
+        headers.add(value);
+        return this;
+    }
+
+    HttpResponse setBody(byte[] data, String type) {
+        body = new ByteArrayBody(data);
+        contentType = type;
+        return this;
+    }
+
+    static HttpResponse ok() {
+        return new HttpResponse(200, "OK");
+    }
+
+    static HttpResponse text(int statusCode, String reason, String message) {
+        HttpResponse response = new HttpResponse(statusCode, reason);
+        return response.setBody(utf8(message), "text/plain; charset=UTF-8");
+    }
+
+    static HttpResponse error(int statusCode, String message) {
+        return text(statusCode, reasonPhrase(statusCode), statusCode + " " + message + "\n");
+    }
+
+    static String reasonPhrase(int statusCode) {
+        switch (statusCode) {
+            case 200:
+                return "OK";
+            case 400:
+                return "Bad Request";
+            case 404:
+                return "Not Found";
+            case 411:
+                return "Length Required";
+            case 413:
+                return "Request Entity Too Large";
+            case 416:
+                return "Requested Range Not Satisfiable";
+            case 431:
+                return "Request Header Fields Too Large";
+            case 500:
+                return "Internal Server Error";
+            case 501:
+                return "Not Implemented";
+            case 503:
+                return "Service Unavailable";
+            case 505:
+                return "HTTP Version Not Supported";
+            default:
+                return "Unknown";
+        }
+    }
+
+    static byte[] utf8(String s) {
+        try {
+            return s.getBytes("UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/**
+ * Copyright (C) 2012 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.cellbots.logger.localServer;
+
+import com.google.protobuf.CodedInputStream;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.LinkedHashMap;
+
+/**
+ * A batch of records pushed by an external device, converted into log lines
+ * and grouped per stream so each stream can be written with a single append.
+ * <p>
+ * Two encodings are accepted:
+ * <ul>
+ * <li>CSV: one record per line. With a stream name the lines are logged
+ * as-is; without one the first field of every line names its stream.</li>
+ * <li>Length-delimited {@link TelemetryLite.DataPacket}s. Every reading becomes a
+ * line in the stream "&lt;sender&gt;_&lt;TYPE&gt;[_&lt;id&gt;]", positions go
+ * to "&lt;sender&gt;_Position".</li>
+ * </ul>
+ */
+class IngestBatch {
+    private static final int MAX_STREAMS = 256;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /** Log lines per stream, each terminated by a newline. */
+    final LinkedHashMap<String, StringBuilder> lines = new LinkedHashMap<String, StringBuilder>();
+
+    int records;
+
+    /**
+     * Parses a CSV block.
+     *
+     * @param stream The stream all lines belong to, or null if the first field
+     *            of each line is the stream name.
+     * @throws IllegalArgumentException if a line or stream name is malformed.
+     */
+    static IngestBatch parseCsv(byte[] body, String stream) {
+        if (stream != null) {
+            checkStreamName(stream);
+        }
+        IngestBatch batch = new IngestBatch();
+        String text = new String(body, 0, body.length, UTF8);
+        int start = 0;
+        int length = text.length();
+        while (start < length) {
+            int end = text.indexOf('\n', start);
+            if (end < 0) {
+                end = length;
+            }
+            int lineEnd = end > start && text.charAt(end - 1) == '\r' ? end - 1 : end;
+            if (lineEnd > start) {
+                if (stream != null) {
+                    batch.append(stream).append(text, start, lineEnd).append('\n');
+                } else {
+                    int comma = text.indexOf(',', start);
+                    if (comma < 0 || comma >= lineEnd) {
+                        throw new IllegalArgumentException(
+                                "Line " + (batch.records + 1) + " has no stream name");
+                    }
+                    String name = text.substring(start, comma);
+                    checkStreamName(name);
+                    batch.append(name).append(text, comma + 1, lineEnd).append('\n');
+                }
+                batch.records++;
+            }
+            start = end + 1;
+        }
+        return batch;
+    }
+
+    /**
+     * Parses a sequence of varint length prefixed DataPackets.
+     *
+     * @throws IOException if the packets are malformed.
+     */
+    static IngestBatch parseDataPackets(byte[] body) throws IOException {
+        IngestBatch batch = new IngestBatch();
+        CodedInputStream input = CodedInputStream.newInstance(body);
+        while (!input.isAtEnd()) {
+            int size = input.readRawVarint32();
+            int limit = input.pushLimit(size);
+            TelemetryLite.DataPacket packet = TelemetryLite.DataPacket.parseFrom(input);
+            input.popLimit(limit);
+            batch.addPacket(packet);
+        }
+        return batch;
+    }
+
+    private void addPacket(TelemetryLite.DataPacket packet) {
+        String sender = packet.hasSenderId() ? packet.getSenderId() : "unknown";
+        checkStreamName(sender);
+        long timestamp = packet.getTimestamp();
+        if (packet.hasPosition()) {
+            TelemetryLite.Position p = packet.getPosition();
+            append(sender + "_Position").append(timestamp).append(',').append(p.getLatitude())
+                    .append(',').append(p.getLongitude()).append(',').append(p.getAltitude()).append('\n');
+            records++;
+        }
+        for (TelemetryLite.Sensor s : packet.getSensorList()) {
+            String name = sender + "_" + s.getSensorType().name();
+            if (s.hasId()) {
+                name += "_" + s.getId();
+            }
+            append(name).append(timestamp).append(',').append(s.getValue()).append('\n');
+            records++;
+        }
+        for (TelemetryLite.ThreeAxisSensor s : packet.getThreeAxisSensorList()) {
+            String name = sender + "_" + s.getSensorType().name();
+            if (s.hasId()) {
+                name += "_" + s.getId();
+            }
+            append(name).append(timestamp).append(',').append(s.getX()).append(',')
+                    .append(s.getY()).append(',').append(s.getZ()).append('\n');
+            records++;
+        }
+    }
+
+    private StringBuilder append(String stream) {
+        StringBuilder builder = lines.get(stream);
+        if (builder == null) {
+            if (lines.size() == MAX_STREAMS) {
+                throw new IllegalArgumentException("Too many streams in one batch");
+            }
+            builder = new StringBuilder(1024);
+            lines.put(stream, builder);
+        }
+        return builder;
+    }
+
+    /** Rejects names that would escape the session's data directory. */
+    static void checkStreamName(String name) {
+        if (name.length() == 0 || name.length() > 128 || name.indexOf('/') >= 0
+                || name.indexOf('\\') >= 0 || name.startsWith(".")) {
+            throw new IllegalArgumentException("Bad stream name: " + name);
+        }
+    }
+}
@@ -0,0 +1,330 @@
+/*
+ * Copyright (C) 2012 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.cellbots.logger.localServer;
+
+import com.google.protobuf.ByteString;
+
+/**
+ * Packs a {@link Telemetry.DataPacket} into the payload of an Iridium short
+ * burst data message, which has a hard size limit and is paid for by the
+ * byte. The payload is a bit stream, most significant bit first:
+ *
+ * <pre>
+ * version           4 bits, 1
+ * timestamp        32 bits, seconds since the epoch
+ * has_position      1 bit
+ * position         67 bits, if has_position:
+ *   latitude       25 bits over -90..90 degrees (0.6 m)
+ *   longitude      26 bits over -180..180 degrees (0.6 m)
+ *   altitude       16 bits over -1000..15000 m (0.25 m)
+ * sensors, until the end:
+ *   code            4 bits, index into QUANTIZERS
+ *   value(s)        1 or 3 values of the bits QUANTIZERS gives
+ * </pre>
+ *
+ * The position goes first, then sensors in the order of QUANTIZERS, which is
+ * their priority. A sensor that doesn't fit in what is left of the budget is
+ * skipped and smaller ones after it are still tried, so the payload fills the
+ * budget as far as the data allows. Values outside a quantizer's range are
+ * clamped to it. The last byte is padded with fewer bits than the smallest
+ * sensor takes, so the decoder can tell where the data ends.
+ * <p>
+ * The header and location of an {@link Telemetry.IridiumPacket} are filled in
+ * by the Iridium gateway; the location is used by the decoder when the
+ * payload has no position.
+ */
+public final class IridiumCodec {
+    private static final int VERSION = 1;
+
+    private static final int VERSION_BITS = 4;
+    private static final int TIMESTAMP_BITS = 32;
+    private static final int CODE_BITS = 4;
+
+    private static final Quantizer LATITUDE = new Quantizer(25, -90, 90);
+    private static final Quantizer LONGITUDE = new Quantizer(26, -180, 180);
+    private static final Quantizer ALTITUDE = new Quantizer(16, -1000, 15000);
+
+    private static final int HEADER_BITS = VERSION_BITS + TIMESTAMP_BITS + 1;
+    private static final int POSITION_BITS = LATITUDE.bits + LONGITUDE.bits + ALTITUDE.bits;
+
+    /** Bits per value and range of a sensor type. */
+    private static final class Quantizer {
+        final int bits;
+        final float min;
+        final float max;
+        /** The telemetry sensor type number, and whether it is a three axis type. */
+        final int type;
+        final boolean threeAxis;
+
+        Quantizer(int bits, float min, float max) {
+            this(bits, min, max, -1, false);
+        }
+
+        Quantizer(int bits, float min, float max, int type, boolean threeAxis) {
+            this.bits = bits;
+            this.min = min;
+            this.max = max;
+            this.type = type;
+            this.threeAxis = threeAxis;
+        }
+
+        int recordBits() {
+            return CODE_BITS + (threeAxis ? 3 : 1) * bits;
+        }
+
+        long quantize(double value) {
+            long steps = (1L << bits) - 1;
+            if (!(value > min)) {
+                // Also catches NaN.
+                return 0;
+            }
+            if (value >= max) {
+                return steps;
+            }
+            return Math.round((value - min) / (max - min) * steps);
+        }
+
+        double dequantize(long q) {
+            return min + (max - min) * q / ((1L << bits) - 1);
+        }
+    }
+
+    /** In priority order; the index is the code in the payload. */
+    private static final Quantizer[] QUANTIZERS = {
+            new Quantizer(12, -39.2266f, 39.2266f,
+                    Telemetry.ThreeAxisSensor.SensorType.ACCELEROMETER_VALUE, true),
+            new Quantizer(12, -34.9f, 34.9f,
+                    Telemetry.ThreeAxisSensor.SensorType.GYROSCOPE_VALUE, true),
+            new Quantizer(16, 300, 1100,
+                    Telemetry.Sensor.SensorType.PRESSURE_VALUE, false),
+            new Quantizer(12, -2000, 2000,
+                    Telemetry.ThreeAxisSensor.SensorType.MAGNETIC_FIELD_VALUE, true),
+            new Quantizer(12, -360, 360,
+                    Telemetry.ThreeAxisSensor.SensorType.ORIENTATION_VALUE, true),
+            new Quantizer(10, -50, 100,
+                    Telemetry.Sensor.SensorType.AMBIENT_TEMPERATURE_VALUE, false),
+            new Quantizer(10, 0, 100,
+                    Telemetry.Sensor.SensorType.RELATIVE_HUMIDITY_VALUE, false),
+            new Quantizer(12, -39.2266f, 39.2266f,
+                    Telemetry.ThreeAxisSensor.SensorType.LINEAR_ACCELERATION_VALUE, true),
+            new Quantizer(12, -39.2266f, 39.2266f,
+                    Telemetry.ThreeAxisSensor.SensorType.GRAVITY_VALUE, true),
+            new Quantizer(12, -1, 1,
+                    Telemetry.ThreeAxisSensor.SensorType.ROTATION_VECTOR_VALUE, true),
+            new Quantizer(12, -34.9f, 34.9f,
+                    Telemetry.ThreeAxisSensor.SensorType.CORRECTED_GYROSCOPE_VALUE, true),
+            new Quantizer(16, 0, 100000,
+                    Telemetry.Sensor.SensorType.LIGHT_VALUE, false),
+    };
+
+    /** The smallest payload that can be encoded: the header alone. */
+    public static final int MIN_BUDGET_BYTES = (HEADER_BITS + 7) / 8;
+
+    private static final int MIN_RECORD_BITS;
+
+    static {
+        int min = Integer.MAX_VALUE;
+        for (Quantizer q : QUANTIZERS) {
+            min = Math.min(min, q.recordBits());
+        }
+        MIN_RECORD_BITS = min;
+    }
+
+    private IridiumCodec() {
+    }
+
+    /**
+     * Encodes as much of a packet as fits in budgetBytes into the payload of
+     * an IridiumPacket.
+     */
+    public static Telemetry.IridiumPacket encode(Telemetry.DataPacket packet, int budgetBytes) {
+        return Telemetry.IridiumPacket.newBuilder()
+                .setPayload(ByteString.copyFrom(encodePayload(packet, budgetBytes)))
+                .build();
+    }
+
+    /**
+     * Encodes as much of a packet as fits in budgetBytes. The result is never
+     * longer than budgetBytes.
+     */
+    public static byte[] encodePayload(Telemetry.DataPacket packet, int budgetBytes) {
+        if (budgetBytes < MIN_BUDGET_BYTES) {
+            throw new IllegalArgumentException("Budget below " + MIN_BUDGET_BYTES + " bytes");
+        }
+        int budget = budgetBytes * 8;
+        BitWriter out = new BitWriter(budgetBytes);
+        out.write(VERSION, VERSION_BITS);
+        out.write(packet.getTimestamp() / 1000, TIMESTAMP_BITS);
+
+        boolean position = packet.hasPosition() && out.size() + 1 + POSITION_BITS <= budget;
+        out.write(position ? 1 : 0, 1);
+        if (position) {
+            Telemetry.Position p = packet.getPosition();
+            out.write(LATITUDE.quantize(p.getLatitude()), LATITUDE.bits);
+            out.write(LONGITUDE.quantize(p.getLongitude()), LONGITUDE.bits);
+            out.write(ALTITUDE.quantize(p.getAltitude()), ALTITUDE.bits);
+        }
+
+        for (int code = 0; code < QUANTIZERS.length; code++) {
+            Quantizer q = QUANTIZERS[code];
+            if (q.threeAxis) {
+                for (Telemetry.ThreeAxisSensor sensor : packet.getThreeAxisSensorList()) {
+                    if (sensor.getSensorType().getNumber() != q.type
+                            || out.size() + q.recordBits() > budget) {
+                        continue;
+                    }
+                    out.write(code, CODE_BITS);
+                    out.write(q.quantize(sensor.getX()), q.bits);
+                    out.write(q.quantize(sensor.getY()), q.bits);
+                    out.write(q.quantize(sensor.getZ()), q.bits);
+                }
+            } else {
+                for (Telemetry.Sensor sensor : packet.getSensorList()) {
+                    if (sensor.getSensorType().getNumber() != q.type
+                            || out.size() + q.recordBits() > budget) {
+                        continue;
+                    }
+                    out.write(code, CODE_BITS);
+                    out.write(q.quantize(sensor.getValue()), q.bits);
+                }
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes the payload of a packet. If the payload has no position, the
+     * one the gateway estimated is used, if any.
+     */
+    public static Telemetry.DataPacket decode(Telemetry.IridiumPacket packet) {
+        Telemetry.DataPacket data = decodePayload(packet.getPayload().toByteArray());
+        if (data.hasPosition() || !packet.hasLocation()) {
+            return data;
+        }
+        Telemetry.IridiumPacket.IridiumLocation location = packet.getLocation();
+        if (!location.hasLatitude() || !location.hasLongitude()) {
+            return data;
+        }
+        return data.toBuilder().setPosition(Telemetry.Position.newBuilder()
+                .setLatitude(location.getLatitude())
+                .setLongitude(location.getLongitude())).build();
+    }
+
+    public static Telemetry.DataPacket decodePayload(byte[] payload) {
+        BitReader in = new BitReader(payload);
+        if (in.remaining() < HEADER_BITS || in.read(VERSION_BITS) != VERSION) {
+            throw new IllegalArgumentException("Not a version " + VERSION + " payload");
+        }
+        Telemetry.DataPacket.Builder builder = Telemetry.DataPacket.newBuilder()
+                .setTimestamp(in.read(TIMESTAMP_BITS) * 1000);
+        if (in.read(1) == 1) {
+            if (in.remaining() < POSITION_BITS) {
+                throw new IllegalArgumentException("Truncated position");
+            }
+            builder.setPosition(Telemetry.Position.newBuilder()
+                    .setLatitude((float) LATITUDE.dequantize(in.read(LATITUDE.bits)))
+                    .setLongitude((float) LONGITUDE.dequantize(in.read(LONGITUDE.bits)))
+                    .setAltitude((float) ALTITUDE.dequantize(in.read(ALTITUDE.bits))));
+        }
+        while (in.remaining() >= MIN_RECORD_BITS) {
+            int code = (int) in.read(CODE_BITS);
+            if (code >= QUANTIZERS.length || in.remaining() < QUANTIZERS[code].recordBits()
+                    - CODE_BITS) {
+                throw new IllegalArgumentException("Bad sensor record at bit "
+                        + (in.position() - CODE_BITS));
+            }
+            Quantizer q = QUANTIZERS[code];
+            if (q.threeAxis) {
+                builder.addThreeAxisSensor(Telemetry.ThreeAxisSensor.newBuilder()
+                        .setSensorType(Telemetry.ThreeAxisSensor.SensorType.valueOf(q.type))
+                        .setX((float) q.dequantize(in.read(q.bits)))
+                        .setY((float) q.dequantize(in.read(q.bits)))
+                        .setZ((float) q.dequantize(in.read(q.bits))));
+            } else {
+                builder.addSensor(Telemetry.Sensor.newBuilder()
+                        .setSensorType(Telemetry.Sensor.SensorType.valueOf(q.type))
+                        .setValue((float) q.dequantize(in.read(q.bits))));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * The largest error decoding adds to a value of the given sensor type,
+     * for values within its range, or -1 if the type can't be encoded.
+     */
+    public static double getResolution(int sensorType, boolean threeAxis) {
+        for (Quantizer q : QUANTIZERS) {
+            if (q.type == sensorType && q.threeAxis == threeAxis) {
+                return (q.max - q.min) / ((1L << q.bits) - 1) / 2;
+            }
+        }
+        return -1;
+    }
+
+    private static final class BitWriter {
+        private final byte[] mBuf;
+        private int mBits;
+
+        BitWriter(int capacity) {
+            mBuf = new byte[capacity];
+        }
+
+        int size() {
+            return mBits;
+        }
+
+        void write(long value, int bits) {
+            for (int i = bits - 1; i >= 0; i--, mBits++) {
+                if ((value >>> i & 1) != 0) {
+                    mBuf[mBits >> 3] |= 0x80 >>> (mBits & 7);
+                }
+            }
+        }
+
+        byte[] toByteArray() {
+            byte[] result = new byte[(mBits + 7) / 8];
+            System.arraycopy(mBuf, 0, result, 0, result.length);
+            return result;
+        }
+    }
+
+    private static final class BitReader {
+        private final byte[] mBuf;
+        private int mBits;
+
+        BitReader(byte[] buf) {
+            mBuf = buf;
+        }
+
+        int position() {
+            return mBits;
+        }
+
+        int remaining() {
+            return mBuf.length * 8 - mBits;
+        }
+
+        long read(int bits) {
+            long value = 0;
+            for (int i = 0; i < bits; i++, mBits++) {
+                value = value << 1 | (mBuf[mBits >> 3] >> (7 - (mBits & 7)) & 1);
+            }
+            return value;
+        }
+    }
+}
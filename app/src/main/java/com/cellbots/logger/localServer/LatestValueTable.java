@@ -0,0 +1,284 @@
+/**
+ * Copyright (C) 2012 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.cellbots.logger.localServer;
+
+import android.util.Log;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The latest value of every logged stream, kept in fixed slots of primitive
+ * arrays. Each slot is guarded by a sequence lock: a writer makes the slot's
+ * version odd while it updates the slot and even again when it is done, and a
+ * reader retries if the version changed (or was odd) while it copied the slot.
+ * Writers never allocate and readers never block writers.
+ * <p>
+ * All fields are atomic arrays so that every access is a volatile one; the
+ * sequence lock then works without the explicit fences Java 7 doesn't offer.
+ */
+public class LatestValueTable {
+    private static final String TAG = "LatestValueTable";
+
+    /** Rendered as "timestamp,accuracy,v0,v1,...,vn," like the sensor logs. */
+    public static final int FORMAT_SENSOR = 0;
+
+    /** Rendered as "timestamp,v0,...,vn" like the battery logs. */
+    public static final int FORMAT_VALUES = 1;
+
+    /** Rendered as the stored text only. */
+    public static final int FORMAT_TEXT = 2;
+
+    public static final int MAX_VALUES = 8;
+
+    /** A caller-owned copy of one slot. */
+    public static class Reading {
+        public long timestamp;
+
+        public int accuracy;
+
+        public int count;
+
+        public final float[] values = new float[MAX_VALUES];
+
+        public String text;
+    }
+
+    private final int mCapacity;
+
+    private final String[] mNames;
+
+    private final int[] mFormats;
+
+    private volatile int mSize;
+
+    private final ConcurrentHashMap<String, Integer> mSlots = new ConcurrentHashMap<String, Integer>();
+
+    /** Streams turned away because the table was full. */
+    private final ConcurrentHashMap<String, Boolean> mRejected =
+            new ConcurrentHashMap<String, Boolean>();
+
+    /** Per-slot sequence numbers; odd while a writer is updating the slot. */
+    private final AtomicLongArray mVersions;
+
+    private final AtomicLongArray mTimestamps;
+
+    private final AtomicIntegerArray mAccuracies;
+
+    private final AtomicIntegerArray mCounts;
+
+    /** MAX_VALUES float bits per slot. */
+    private final AtomicIntegerArray mValues;
+
+    private final AtomicReferenceArray<String> mTexts;
+
+    public LatestValueTable(int capacity) {
+        mCapacity = capacity;
+        mNames = new String[capacity];
+        mFormats = new int[capacity];
+        mVersions = new AtomicLongArray(capacity);
+        mTimestamps = new AtomicLongArray(capacity);
+        mAccuracies = new AtomicIntegerArray(capacity);
+        mCounts = new AtomicIntegerArray(capacity);
+        mValues = new AtomicIntegerArray(capacity * MAX_VALUES);
+        mTexts = new AtomicReferenceArray<String>(capacity);
+    }
+
+    /**
+     * Returns the slot of a stream, adding it if it is new. Returns -1 once
+     * the table is full; each stream turned away is logged once.
+     */
+    public int slot(String name, int format) {
+        Integer slot = mSlots.get(name);
+        if (slot != null) {
+            return slot;
+        }
+        if (mRejected.containsKey(name)) {
+            return -1;
+        }
+        synchronized (this) {
+            slot = mSlots.get(name);
+            if (slot != null) {
+                return slot;
+            }
+            int size = mSize;
+            if (size == mCapacity) {
+                if (mRejected.put(name, Boolean.TRUE) == null) {
+                    Log.w(TAG, "All " + mCapacity + " slots taken, dropping values of " + name);
+                }
+                return -1;
+            }
+            mNames[size] = name;
+            mFormats[size] = format;
+            mSlots.put(name, size);
+            // Publishes the name and format to readers.
+            mSize = size + 1;
+            return size;
+        }
+    }
+
+    /** Returns the slot of a stream, or -1 if it has none yet. */
+    public int indexOf(String name) {
+        Integer slot = mSlots.get(name);
+        return slot != null ? slot : -1;
+    }
+
+    public int size() {
+        return mSize;
+    }
+
+    /** Returns the number of streams turned away because the table was full. */
+    public int rejectedCount() {
+        return mRejected.size();
+    }
+
+    public String nameOf(int slot) {
+        return mNames[slot];
+    }
+
+    /** Stores a sensor reading. Only the first MAX_VALUES values are kept. */
+    public void update(int slot, long timestamp, int accuracy, float[] values, int count) {
+        if (slot < 0) {
+            return;
+        }
+        count = Math.min(count, MAX_VALUES);
+        long version = beginWrite(slot);
+        mTimestamps.set(slot, timestamp);
+        mAccuracies.set(slot, accuracy);
+        mCounts.set(slot, count);
+        int base = slot * MAX_VALUES;
+        for (int i = 0; i < count; i++) {
+            mValues.set(base + i, Float.floatToRawIntBits(values[i]));
+        }
+        endWrite(slot, version);
+    }
+
+    /** Stores a single value. */
+    public void update(int slot, long timestamp, float value) {
+        if (slot < 0) {
+            return;
+        }
+        long version = beginWrite(slot);
+        mTimestamps.set(slot, timestamp);
+        mCounts.set(slot, 1);
+        mValues.set(slot * MAX_VALUES, Float.floatToRawIntBits(value));
+        endWrite(slot, version);
+    }
+
+    /** Stores a value that only exists as text, such as a Wifi scan. */
+    public void updateText(int slot, long timestamp, String text) {
+        if (slot < 0) {
+            return;
+        }
+        long version = beginWrite(slot);
+        mTimestamps.set(slot, timestamp);
+        mTexts.set(slot, text);
+        endWrite(slot, version);
+    }
+
+    private long beginWrite(int slot) {
+        while (true) {
+            long version = mVersions.get(slot);
+            if ((version & 1) == 0 && mVersions.compareAndSet(slot, version, version + 1)) {
+                return version + 1;
+            }
+            // Another writer holds the slot; they only copy a few words.
+            Thread.yield();
+        }
+    }
+
+    private void endWrite(int slot, long version) {
+        mVersions.set(slot, version + 1);
+    }
+
+    /**
+     * Copies a consistent view of a slot into a reading. Returns false if the
+     * slot was never written.
+     */
+    public boolean read(int slot, Reading into) {
+        int base = slot * MAX_VALUES;
+        while (true) {
+            long version = mVersions.get(slot);
+            if ((version & 1) != 0) {
+                Thread.yield();
+                continue;
+            }
+            into.timestamp = mTimestamps.get(slot);
+            into.accuracy = mAccuracies.get(slot);
+            int count = mCounts.get(slot);
+            for (int i = 0; i < count; i++) {
+                into.values[i] = Float.intBitsToFloat(mValues.get(base + i));
+            }
+            into.count = count;
+            into.text = mTexts.get(slot);
+            if (mVersions.get(slot) == version) {
+                return version != 0;
+            }
+        }
+    }
+
+    /**
+     * Appends "name:value" lines for every stream that has a value, in the
+     * format the status page has always used.
+     */
+    void appendTo(StringBuilder out, Reading scratch) {
+        int size = mSize;
+        for (int slot = 0; slot < size; slot++) {
+            if (!read(slot, scratch)) {
+                continue;
+            }
+            appendReading(out, slot, scratch);
+            out.append('\n');
+        }
+    }
+
+    /**
+     * Appends "name:value" for a reading of a slot, without a line break.
+     */
+    public void appendReading(StringBuilder out, int slot, Reading scratch) {
+        out.append(mNames[slot]).append(':');
+        switch (mFormats[slot]) {
+            case FORMAT_SENSOR:
+                out.append(scratch.timestamp).append(',').append(scratch.accuracy).append(',');
+                for (int i = 0; i < scratch.count; i++) {
+                    out.append(scratch.values[i]).append(',');
+                }
+                break;
+            case FORMAT_VALUES:
+                out.append(scratch.timestamp);
+                for (int i = 0; i < scratch.count; i++) {
+                    out.append(',');
+                    appendValue(out, scratch.values[i]);
+                }
+                break;
+            default:
+                out.append(scratch.text);
+                break;
+        }
+    }
+
+    /** Prints whole numbers (e.g. battery levels) without a fraction. */
+    private static void appendValue(StringBuilder out, float value) {
+        if (value == (int) value) {
+            out.append((int) value);
+        } else {
+            out.append(value);
+        }
+    }
+}
@@ -16,53 +16,40 @@
 
 package com.cellbots.logger.localServer;
 
+import android.hardware.SensorEvent;
 import android.os.Environment;
+import android.os.Process;
 import android.util.Log;
 
-import org.apache.http.ConnectionClosedException;
-import org.apache.http.HttpEntity;
-import org.apache.http.HttpEntityEnclosingRequest;
-import org.apache.http.HttpException;
-import org.apache.http.HttpRequest;
-import org.apache.http.HttpResponse;
-import org.apache.http.HttpServerConnection;
-import org.apache.http.HttpStatus;
-import org.apache.http.MethodNotSupportedException;
-import org.apache.http.ProtocolVersion;
-import org.apache.http.entity.ByteArrayEntity;
-import org.apache.http.entity.ContentProducer;
-import org.apache.http.entity.EntityTemplate;
-import org.apache.http.impl.DefaultConnectionReuseStrategy;
-import org.apache.http.impl.DefaultHttpResponseFactory;
-import org.apache.http.impl.DefaultHttpServerConnection;
-import org.apache.http.message.BasicHttpResponse;
-import org.apache.http.params.BasicHttpParams;
-import org.apache.http.params.CoreConnectionPNames;
-import org.apache.http.params.CoreProtocolPNames;
-import org.apache.http.params.HttpParams;
-import org.apache.http.protocol.BasicHttpContext;
-import org.apache.http.protocol.BasicHttpProcessor;
-import org.apache.http.protocol.HttpContext;
-import org.apache.http.protocol.HttpService;
-import org.apache.http.protocol.ResponseConnControl;
-import org.apache.http.protocol.ResponseContent;
-import org.apache.http.protocol.ResponseDate;
-import org.apache.http.protocol.ResponseServer;
-import org.apache.http.util.EntityUtils;
+import com.cellbots.logger.LoggerApplication;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.InterruptedIOException;
-import java.io.OutputStream;
-import java.io.OutputStreamWriter;
+import java.io.UnsupportedEncodingException;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.NetworkInterface;
-import java.net.ServerSocket;
-import java.net.Socket;
 import java.net.SocketException;
+import java.net.URLDecoder;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Locale;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This is the HTTP server that runs locally and listens on the specified port.
@@ -72,6 +59,15 @@ import java.util.Locale;
  * is based off of
  * https://cellbots.googlecode.com/svn/trunk/android/java/cellbots/src/com/cellbots/httpserver/HttpCommandServer.java
  * originally created by chaitanyag@google.com (Chaitanya Gharpure).
+ * <p>
+ * All socket I/O happens on a single selector thread; requests are handled by
+ * a small fixed pool of low priority workers so that serving dashboards does
+ * not compete with the sensor logging threads. Connections are persistent
+ * (HTTP/1.1 keep-alive) and keep their buffers across requests. Live sensor
+ * values are pushed as Server-Sent Events from /events, and raw sensor events
+ * as binary protobuf frames over a WebSocket at /telemetry. Recorded sessions
+ * can be downloaded (with range requests) from /sessions/, or as a zip built
+ * on the fly from /sessions/&lt;name&gt;.zip.
  * 
  * @author clchen@google.com (Charles L. Chen)
  */
@@ -115,18 +111,66 @@ public class LocalHttpServer {
         }
     }
 
+    /** A response produced by a worker, waiting to be sent by the selector. */
+    private static class PendingResponse {
+        final HttpConnection conn;
+        final HttpResponse response;
+        final boolean keepAlive;
+        final boolean sendBody;
+
+        PendingResponse(HttpConnection conn, HttpResponse response, boolean keepAlive,
+                boolean sendBody) {
+            this.conn = conn;
+            this.response = response;
+            this.keepAlive = keepAlive;
+            this.sendBody = sendBody;
+        }
+    }
+
     private static final String TAG = "LocalHttpServer";
 
+    static final String SERVER_NAME = "CellbotsLogger/1.1";
+
     private static final String EXTERNAL_STORAGE_PATH =
             Environment.getExternalStorageDirectory() + "/";
 
+    private static final int WORKER_THREADS = 2;
+
+    private static final int MAX_CONNECTIONS = 32;
+
+    private static final int KEEP_ALIVE_TIMEOUT_MS = 15000;
+
+    private static final int SELECT_TIMEOUT_MS = 1000;
+
+    /** Recorded sessions are served below this path. */
+    private static final String SESSIONS_PATH = "sessions";
+
+    /** Files in the server root directory are served below this path. */
+    private static final String FILES_PATH = "files";
+
+    private static final float MAX_STATUS_RENDERS_PER_SECOND = 10;
+
+    private static final float DEFAULT_EVENT_RATE = 10;
+
+    private static final float MIN_EVENT_RATE = 0.1f;
+
+    private static final float MAX_EVENT_RATE = 100;
+
     private int mPort = 8080;
 
     private String rootDir;
 
-    private RequestListenerThread listenerThread;
+    private SelectorThread selectorThread;
 
-    private boolean running = true;
+    private ExecutorService workers;
+
+    private volatile boolean running = true;
+
+    private final ConcurrentLinkedQueue<PendingResponse> pendingResponses =
+            new ConcurrentLinkedQueue<PendingResponse>();
+
+    private final ConcurrentLinkedQueue<HttpConnection> wakeups =
+            new ConcurrentLinkedQueue<HttpConnection>();
 
     HashMap<String, ResponseResource<byte[]>> dataMap =
             new HashMap<String, ResponseResource<byte[]>>();
@@ -136,25 +180,50 @@ public class LocalHttpServer {
 
     private HttpCommandServerListener serverListener;
 
+    private final EventStreamHub eventStreamHub = new EventStreamHub();
+
+    private final TelemetryStreamHub telemetryStreamHub = new TelemetryStreamHub();
+
+    private final StatusSnapshotPublisher statusPublisher;
+
+    private final FileRequestHandler sessionFiles =
+            new FileRequestHandler(new File(LoggerApplication.getLoggerRootPath()));
+
+    private volatile FileRequestHandler rootFiles;
+
+    private final SeriesQueryHandler seriesQueries =
+            new SeriesQueryHandler(new File(LoggerApplication.getLoggerRootPath()));
+
     public LocalHttpServer(String root, int port, HttpCommandServerListener listener) {
+        this(new File(EXTERNAL_STORAGE_PATH + root), port, listener);
+    }
+
+    /** Serves a root given as a directory, e.g. a test's temporary one. */
+    LocalHttpServer(File root, int port, HttpCommandServerListener listener) {
         serverListener = listener;
+        statusPublisher = new StatusSnapshotPublisher(listener, MAX_STATUS_RENDERS_PER_SECOND);
         mPort = port;
         setRoot(root);
         try {
-            listenerThread = new RequestListenerThread(mPort);
-            listenerThread.setDaemon(false);
-            listenerThread.start();
+            selectorThread = new SelectorThread(mPort);
+            workers = Executors.newFixedThreadPool(WORKER_THREADS, new WorkerThreadFactory());
+            selectorThread.setDaemon(false);
+            selectorThread.start();
         } catch (IOException e) {
             Log.e(TAG, "Error starting HTTP server: " + e.getMessage());
         }
     }
 
     public void setRoot(String root) {
-        rootDir = EXTERNAL_STORAGE_PATH + root;
-        File dir = new File(EXTERNAL_STORAGE_PATH + root);
+        setRoot(new File(EXTERNAL_STORAGE_PATH + root));
+    }
+
+    private void setRoot(File dir) {
+        rootDir = dir.getPath();
         if (!dir.exists()) {
             dir.mkdirs();
         }
+        rootFiles = new FileRequestHandler(dir);
     }
 
     public void addResponseByName(String name, byte[] data, String contentType) {
@@ -173,17 +242,41 @@ public class LocalHttpServer {
         return dataMap.containsKey(name) ? dataMap.get(name).resource : null;
     }
 
+    /**
+     * Pushes a new sensor value to the clients listening on /events. Safe to
+     * call from any thread.
+     */
+    public void publishSensorValue(String name, String value) {
+        eventStreamHub.publish(name, value);
+    }
+
+    /**
+     * Returns true if any client listens on /events, i.e. whether sensor
+     * values need to be rendered for {@link #publishSensorValue} at all.
+     */
+    public boolean hasEventStreamClients() {
+        return eventStreamHub.hasStreams();
+    }
+
+    /**
+     * Pushes a raw sensor event to the WebSocket clients of /telemetry. Safe
+     * to call from any thread; does nothing when no client is connected.
+     */
+    public void publishTelemetry(SensorEvent event) {
+        telemetryStreamHub.publish(event);
+    }
+
     public void stopServer() {
         running = false;
-        if (listenerThread == null)
+        if (selectorThread == null)
             return;
-        listenerThread.stopServer();
+        selectorThread.stopServer();
         try {
-            listenerThread.join();
+            selectorThread.join();
         } catch (InterruptedException e) {
-            // TODO Auto-generated catch block
-            e.printStackTrace();
+            Thread.currentThread().interrupt();
         }
+        workers.shutdownNow();
     }
 
     private String getResourceNameFromTarget(String target) {
@@ -191,24 +284,23 @@ public class LocalHttpServer {
         return target.substring(1, lastPos >= 0 ? lastPos : target.length());
     }
 
-    public void handle(final HttpServerConnection conn, final HttpContext context)
-            throws HttpException, IOException {
-        HttpRequest request = conn.receiveRequestHeader();
-        HttpResponse response = new BasicHttpResponse(new ProtocolVersion("HTTP", 1, 1),
-                HttpStatus.SC_OK, "OK");
-
-        String method = request.getRequestLine().getMethod().toUpperCase(Locale.ENGLISH);
+    /**
+     * Handles a single request on a worker thread and returns the response to
+     * send back.
+     */
+    private HttpResponse handle(HttpRequest request) {
+        String method = request.method;
         if (!method.equals("GET") &&
                 !method.equals("HEAD") &&
                 !method.equals("POST") &&
                 !method.equals("PUT")) {
-            throw new MethodNotSupportedException(method + " method not supported");
+            return HttpResponse.error(501, method + " method not supported");
         }
 
         // Get the requested target. This is the string after the domain name in
         // the URL. If the full URL was http://mydomain.com/test.html, target
         // will be /test.html.
-        String target = request.getRequestLine().getUri();
+        String target = request.target;
         // Log.w(TAG, "*** Request target: " + target);
 
         // Gets the requested resource name. For example, if the full URL was
@@ -216,147 +308,480 @@ public class LocalHttpServer {
         // test.html
         final String resName = getResourceNameFromTarget(target);
         UrlParams params = new UrlParams(target);
-        // Log.w(TAG, "*** Request LINE: " +
-        // request.getRequestLine().toString());
         // Log.w(TAG, "*** Request resource: " + resName);
+        HttpResponse response = HttpResponse.ok();
         if (method.equals("POST") || method.equals("PUT")) {
-            byte[] entityContent = null;
-            // Gets the content if the request has an entity.
-            if (request instanceof HttpEntityEnclosingRequest) {
-                conn.receiveRequestEntity((HttpEntityEnclosingRequest) request);
-                HttpEntity entity = ((HttpEntityEnclosingRequest) request).getEntity();
-                if (entity != null) {
-                    entityContent = EntityUtils.toByteArray(entity);
+            String reply = null;
+            if (serverListener != null) {
+                try {
+                    reply = serverListener.onRequest(
+                            resName, params.keys, params.values, request.body);
+                } catch (IllegalArgumentException e) {
+                    return HttpResponse.error(400, e.getMessage());
+                } catch (IllegalStateException e) {
+                    return HttpResponse.error(503, e.getMessage());
                 }
             }
-            response.setStatusCode(HttpStatus.SC_OK);
-            if (serverListener != null) {
-                serverListener.onRequest(resName, params.keys, params.values, entityContent);
+            if (reply != null) {
+                response.setBody(HttpResponse.utf8(reply), "application/json");
+            } else {
+                response.setBody(new byte[0], null);
             }
+        } else if (resName.equals(SESSIONS_PATH) || resName.startsWith(SESSIONS_PATH + "/")) {
+            return sessionFiles.serve(
+                    decodePath(resName.substring(SESSIONS_PATH.length())), request);
+        } else if (resName.equals(FILES_PATH) || resName.startsWith(FILES_PATH + "/")) {
+            return rootFiles.serve(decodePath(resName.substring(FILES_PATH.length())), request);
+        } else if (resName.equals("series")) {
+            return seriesQueries.serve(getParam(params, "session"), getParam(params, "stream"),
+                    getParam(params, "from"), getParam(params, "to"),
+                    getParam(params, "points"), getParam(params, "format"));
+        } else if (resName.equals("events")) {
+            return openEventStream(params);
+        } else if (resName.equals("telemetry")) {
+            return openTelemetryStream(request, params);
         } else if (dataMap.containsKey(resName)) { // The requested resource is
                                                    // a byte array
-            response.setStatusCode(HttpStatus.SC_OK);
-            response.setHeader("Content-Type", dataMap.get(resName).contentType);
-            response.setEntity(new ByteArrayEntity(dataMap.get(resName).resource));
+            ResponseResource<byte[]> data = dataMap.get(resName);
+            response.setBody(data.resource, data.contentType);
         } else { // Return sensor readings
             String contentType = resourceMap.containsKey(resName) ?
                     resourceMap.get(resName).contentType : "text/html";
-            response.setStatusCode(HttpStatus.SC_OK);
-            EntityTemplate body = new EntityTemplate(new ContentProducer() {
+            return getStatusResponse(request, contentType);
+        }
+        return response;
+    }
+
+    /**
+     * Serves the latest status snapshot. Pollers that already have it get a
+     * 304, and clients that accept gzip get the (cached) compressed bytes.
+     */
+    private HttpResponse getStatusResponse(HttpRequest request, String contentType) {
+        StatusSnapshotPublisher.Snapshot snapshot = statusPublisher.get();
+        HttpResponse response;
+        if (snapshot.matches(request.getHeader("If-None-Match"))) {
+            response = new HttpResponse(304, "Not Modified");
+        } else {
+            response = HttpResponse.ok();
+            byte[] gzipped = null;
+            String acceptEncoding = request.getHeader("Accept-Encoding");
+            if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                gzipped = snapshot.getGzipped();
+            }
+            if (gzipped != null && gzipped.length < snapshot.bytes.length) {
+                response.setBody(gzipped, contentType);
+                response.setHeader("Content-Encoding", "gzip");
+            } else {
+                response.setBody(snapshot.bytes, contentType);
+            }
+        }
+        response.setHeader("ETag", snapshot.etag);
+        response.setHeader("Cache-Control", "no-cache");
+        response.setHeader("Vary", "Accept-Encoding");
+        return response;
+    }
+
+    /**
+     * Opens a Server-Sent Events stream of sensor values. The optional
+     * "sensors" parameter is a comma separated list of sensor names and
+     * "rate" caps the number of updates per second (default 10).
+     */
+    private HttpResponse openEventStream(UrlParams params) {
+        Set<String> sensors = null;
+        String sensorList = getParam(params, "sensors");
+        if (sensorList != null && sensorList.length() > 0) {
+            sensors = new HashSet<String>(Arrays.asList(sensorList.split(",")));
+        }
+        float rate = DEFAULT_EVENT_RATE;
+        String rateParam = getParam(params, "rate");
+        if (rateParam != null) {
+            try {
+                rate = Float.parseFloat(rateParam);
+            } catch (NumberFormatException e) {
+                return HttpResponse.error(400, "Bad rate: " + rateParam);
+            }
+        }
+        rate = Math.max(MIN_EVENT_RATE, Math.min(MAX_EVENT_RATE, rate));
+
+        HttpResponse response = HttpResponse.ok();
+        response.body = eventStreamHub.open(sensors, rate);
+        response.contentType = "text/event-stream; charset=UTF-8";
+        response.setHeader("Cache-Control", "no-cache");
+        return response;
+    }
+
+    /**
+     * Upgrades the connection to a WebSocket that streams binary telemetry
+     * frames. The optional "types" parameter is a comma separated list of
+     * telemetry sensor types, e.g. GYROSCOPE,ACCELEROMETER.
+     */
+    private HttpResponse openTelemetryStream(HttpRequest request, UrlParams params) {
+        String upgrade = request.getHeader("Upgrade");
+        String key = request.getHeader("Sec-WebSocket-Key");
+        if (upgrade == null || !upgrade.equalsIgnoreCase("websocket") || key == null) {
+            return HttpResponse.error(400, "Expected a WebSocket upgrade");
+        }
+        long channelMask = -1;
+        String types = getParam(params, "types");
+        if (types != null && types.length() > 0) {
+            channelMask = 0;
+            for (String type : types.split(",")) {
+                int channel = TelemetryStreamHub.channelForTypeName(type.trim());
+                if (channel < 0) {
+                    return HttpResponse.error(400, "Unknown sensor type: " + type);
+                }
+                channelMask |= 1L << channel;
+            }
+        }
+
+        HttpResponse response = new HttpResponse(101, "Switching Protocols");
+        response.setHeader("Upgrade", "websocket");
+        response.setHeader("Sec-WebSocket-Accept", TelemetryStreamHub.acceptKey(key));
+        response.body = telemetryStreamHub.open(channelMask);
+        return response;
+    }
+
+    private static String decodePath(String path) {
+        try {
+            return URLDecoder.decode(path.replace("+", "%2B"), "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            return path;
+        } catch (IllegalArgumentException e) {
+            return path;
+        }
+    }
+
+    /** Returns the URL decoded value of a query parameter, or null. */
+    private static String getParam(UrlParams params, String name) {
+        if (params.keys == null)
+            return null;
+        for (int i = 0; i < params.keys.length; i++) {
+            if (name.equals(params.keys[i])) {
+                if (params.values[i] == null)
+                    return "";
+                try {
+                    return URLDecoder.decode(params.values[i], "UTF-8");
+                } catch (UnsupportedEncodingException e) {
+                    return params.values[i];
+                } catch (IllegalArgumentException e) {
+                    return params.values[i];
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Hands a fully received request to the worker pool. The connection stops
+     * reading until the response has been sent, which keeps pipelined
+     * requests in order.
+     */
+    private void dispatch(final HttpConnection conn, final HttpRequest request,
+            final Selector selector) {
+        conn.busy = true;
+        conn.key.interestOps(0);
+        workers.execute(new Runnable() {
+                @Override
+            public void run() {
+                HttpResponse response;
+                try {
+                    response = handle(request);
+                } catch (RuntimeException e) {
+                    Log.e(TAG, "Error handling " + request.target, e);
+                    response = HttpResponse.error(500, "Internal error");
+                }
+                pendingResponses.add(new PendingResponse(conn, response,
+                        request.isKeepAlive(), !request.method.equals("HEAD")));
+                selector.wakeup();
+            }
+        });
+    }
+
+    /**
+     * Runs the workers at background priority so that they never preempt the
+     * sensor callbacks.
+     */
+    private static class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger mCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable r) {
+            Thread t = new Thread(new Runnable() {
                     @Override
-                public void writeTo(final OutputStream outstream) throws IOException {
-                    OutputStreamWriter writer = new OutputStreamWriter(outstream, "UTF-8");
-                    writer.write(serverListener.getLoggerStatus());
-                    writer.flush();
+                public void run() {
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                    r.run();
                 }
-            });
-            body.setContentType(contentType);
-            response.setEntity(body);
+            }, "HttpWorker-" + mCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
         }
-        conn.sendResponseHeader(response);
-        conn.sendResponseEntity(response);
-        conn.flush();
-        conn.shutdown();
     }
 
     /**
-     * This thread listens to HTTP requests and delegates it to worker threads.
+     * This thread owns the server socket and every client connection. It
+     * accepts, reads and parses requests and writes responses without ever
+     * blocking; the actual request handling is delegated to the workers.
      */
-    class RequestListenerThread extends Thread {
-
-        private final ServerSocket serversocket;
-        private final HttpParams params;
-
-        public RequestListenerThread(int port) throws IOException {
-            this.serversocket = new ServerSocket(port);
-            this.params = new BasicHttpParams();
-            this.params
-            .setIntParameter(CoreConnectionPNames.SO_TIMEOUT, 5000)
-                    .setIntParameter(CoreConnectionPNames.SOCKET_BUFFER_SIZE, 8 * 1024)
-                    .setBooleanParameter(CoreConnectionPNames.STALE_CONNECTION_CHECK, false)
-                    .setBooleanParameter(CoreConnectionPNames.TCP_NODELAY, true)
-                    .setParameter(CoreProtocolPNames.ORIGIN_SERVER, "HttpComponents/1.1");
-
-            // Set up the HTTP protocol processor
-            BasicHttpProcessor httpproc = new BasicHttpProcessor();
-            httpproc.addInterceptor(new ResponseDate());
-            httpproc.addInterceptor(new ResponseServer());
-            httpproc.addInterceptor(new ResponseContent());
-            httpproc.addInterceptor(new ResponseConnControl());
-
-            // Set up the HTTP service
-            new HttpService(httpproc, new DefaultConnectionReuseStrategy(),
-                    new DefaultHttpResponseFactory());
+    class SelectorThread extends Thread {
+
+        private final ServerSocketChannel serverChannel;
+        private final Selector selector;
+        private final SimpleDateFormat dateFormat =
+                new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US);
+        private long dateSecond;
+        private String date;
+        private long lastIdleCheck;
+
+        public SelectorThread(int port) throws IOException {
+            super("HttpSelector");
+            dateFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.socket().setReuseAddress(true);
+            serverChannel.socket().bind(new InetSocketAddress(port));
+            serverChannel.configureBlocking(false);
+            selector = Selector.open();
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
         }
 
         public void stopServer() {
-            try {
-                this.serversocket.close();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
+            selector.wakeup();
         }
 
         @Override
         public void run() {
-            Log.d(TAG, "*** Listening on port " + this.serversocket.getLocalPort());
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            Log.d(TAG, "*** Listening on port " + serverChannel.socket().getLocalPort());
             while (running) {
                 try {
-                    // Set up HTTP connection
-                    Socket socket = this.serversocket.accept();
-                    DefaultHttpServerConnection conn = new DefaultHttpServerConnection();
-                    conn.bind(socket, this.params);
-                    // Start worker thread
-                    Thread t = new WorkerThread(conn);
-                    t.setDaemon(true);
-                    t.start();
-                } catch (InterruptedIOException ex) {
+                    selector.select(nextSelectTimeout());
+                } catch (ClosedSelectorException e) {
                     break;
                 } catch (IOException e) {
-                    Log.e(TAG, "I/O error initialising connection thread: " + e.getMessage());
+                    Log.e(TAG, "I/O error selecting: " + e.getMessage());
                     break;
                 }
+                if (!running)
+                    break;
+
+                for (SelectionKey key : selector.selectedKeys()) {
+                    if (!key.isValid())
+                        continue;
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    HttpConnection conn = (HttpConnection) key.attachment();
+                    try {
+                        if (key.isReadable()) {
+                            onReadable(conn);
+                        } else if (key.isWritable()) {
+                            onWritable(conn);
+                        }
+                    } catch (IOException e) {
+                        Log.e(TAG, "I/O error: " + e.getMessage());
+                        conn.close();
+                    }
+                }
+                selector.selectedKeys().clear();
+
+                PendingResponse pending;
+                while ((pending = pendingResponses.poll()) != null) {
+                    startResponse(pending);
+                }
+                HttpConnection woken;
+                while ((woken = wakeups.poll()) != null) {
+                    resumeResponse(woken);
+                }
+                resumeTimedResponses();
+                closeIdleConnections();
             }
+            shutdown();
+        }
+
+        private void accept() {
             try {
-                this.serversocket.close();
+                SocketChannel client = serverChannel.accept();
+                if (client == null)
+                    return;
+                if (selector.keys().size() > MAX_CONNECTIONS) {
+                    Log.e(TAG, "Too many connections, rejecting "
+                            + client.socket().getRemoteSocketAddress());
+                    client.close();
+                    return;
+                }
+                client.configureBlocking(false);
+                client.socket().setTcpNoDelay(true);
+                SelectionKey key = client.register(selector, SelectionKey.OP_READ);
+                key.attach(new HttpConnection(client, key));
             } catch (IOException e) {
-                e.printStackTrace();
+                Log.e(TAG, "I/O error initialising connection: " + e.getMessage());
             }
         }
-    }
 
-    /**
-     * This thread handles the HTTP requests.
-     */
-    class WorkerThread extends Thread {
+        private void onReadable(HttpConnection conn) throws IOException {
+            if (!conn.read()) {
+                // Client closed connection
+                conn.close();
+                return;
+            }
+            if (conn.isResponding()) {
+                // Streaming responses take no further requests, but their
+                // bodies may answer what the client sends, e.g. a ping.
+                if (conn.deliverInput()) {
+                    onWritable(conn);
+                }
+                return;
+            }
+            processInput(conn);
+        }
 
-        private final HttpServerConnection conn;
+        private void processInput(HttpConnection conn) {
+            if (conn.busy)
+                return;
+            HttpRequest request;
+            try {
+                request = conn.nextRequest();
+            } catch (HttpRequest.BadRequestException e) {
+                Log.e(TAG, "Bad request: " + e.getMessage());
+                startResponse(new PendingResponse(
+                        conn, HttpResponse.error(e.statusCode, e.getMessage()), false, true));
+                return;
+            }
+            if (request != null) {
+                dispatch(conn, request, selector);
+            }
+        }
 
-        public WorkerThread(final HttpServerConnection conn) {
-            super();
-            this.conn = conn;
+        private void startResponse(PendingResponse pending) {
+            final HttpConnection conn = pending.conn;
+            if (!conn.key.isValid()) {
+                // The client went away while the request was being handled.
+                if (pending.response.body != null) {
+                    pending.response.body.close();
+                }
+                return;
+            }
+            conn.busy = true;
+            if (pending.response.body instanceof HttpResponse.StreamBody) {
+                ((HttpResponse.StreamBody) pending.response.body).setWaker(new Runnable() {
+                        @Override
+                    public void run() {
+                        wakeups.add(conn);
+                        selector.wakeup();
+                    }
+                });
+            }
+            conn.beginResponse(pending.response, pending.keepAlive, pending.sendBody,
+                    currentDate());
+            try {
+                onWritable(conn);
+            } catch (IOException e) {
+                Log.e(TAG, "I/O error: " + e.getMessage());
+                conn.close();
+            }
         }
 
-        @Override
-        public void run() {
-            HttpContext context = new BasicHttpContext(null);
+        private void resumeResponse(HttpConnection conn) {
+            if (!conn.key.isValid() || !conn.isResponding())
+                return;
             try {
-                while (!Thread.interrupted() && this.conn.isOpen()) {
-                    LocalHttpServer.this.handle(conn, context);
+                onWritable(conn);
+            } catch (IOException e) {
+                Log.e(TAG, "I/O error: " + e.getMessage());
+                conn.close();
+            }
+        }
+
+        private void resumeTimedResponses() {
+            long now = System.currentTimeMillis();
+            for (SelectionKey key : selector.keys()) {
+                Object attachment = key.attachment();
+                if (!(attachment instanceof HttpConnection))
+                    continue;
+                HttpConnection conn = (HttpConnection) attachment;
+                long retryTime = conn.getRetryTime();
+                if (retryTime > 0 && retryTime <= now
+                        && key.interestOps() != SelectionKey.OP_WRITE) {
+                    resumeResponse(conn);
                 }
-            } catch (ConnectionClosedException ex) {
-                Log.e(TAG, "Client closed connection");
-            } catch (IOException ex) {
-                ex.printStackTrace();
-                Log.e(TAG, "I/O error: " + ex.getMessage());
-            } catch (HttpException ex) {
-                Log.e(TAG, "Unrecoverable HTTP protocol violation: " + ex.getMessage());
-            } finally {
-                try {
-                    this.conn.shutdown();
-                } catch (IOException ignore) {
+            }
+        }
+
+        private long nextSelectTimeout() {
+            long now = System.currentTimeMillis();
+            long timeout = SELECT_TIMEOUT_MS;
+            for (SelectionKey key : selector.keys()) {
+                Object attachment = key.attachment();
+                if (!(attachment instanceof HttpConnection))
+                    continue;
+                long retryTime = ((HttpConnection) attachment).getRetryTime();
+                if (retryTime > 0) {
+                    timeout = Math.min(timeout, Math.max(1, retryTime - now));
                 }
             }
+            return timeout;
+        }
+
+        private void onWritable(HttpConnection conn) throws IOException {
+            int result = conn.writeResponse();
+            if (result == HttpResponse.Body.WRITE_BLOCKED) {
+                conn.key.interestOps(SelectionKey.OP_WRITE);
+                return;
+            }
+            if (result == HttpResponse.Body.WRITE_IDLE) {
+                // Keep watching for reads so that a disconnect is noticed.
+                conn.key.interestOps(SelectionKey.OP_READ);
+                return;
+            }
+            if (!conn.isKeepAlive()) {
+                conn.close();
+                return;
+            }
+            conn.busy = false;
+            conn.key.interestOps(SelectionKey.OP_READ);
+            // The client may already have pipelined its next request.
+            processInput(conn);
+        }
+
+        private void closeIdleConnections() {
+            long now = System.currentTimeMillis();
+            if (now - lastIdleCheck < SELECT_TIMEOUT_MS)
+                return;
+            lastIdleCheck = now;
+            for (SelectionKey key : selector.keys()) {
+                Object attachment = key.attachment();
+                if (!(attachment instanceof HttpConnection))
+                    continue;
+                HttpConnection conn = (HttpConnection) attachment;
+                if (conn.isIdle() && now - conn.lastActivity > KEEP_ALIVE_TIMEOUT_MS) {
+                    conn.close();
+                }
+            }
+        }
+
+        private String currentDate() {
+            long second = System.currentTimeMillis() / 1000;
+            if (date == null || second != dateSecond) {
+                dateSecond = second;
+                date = dateFormat.format(new Date(second * 1000));
+            }
+            return date;
+        }
+
+        private void shutdown() {
+            for (SelectionKey key : selector.keys()) {
+                Object attachment = key.attachment();
+                if (attachment instanceof HttpConnection) {
+                    ((HttpConnection) attachment).close();
+                }
+            }
+            try {
+                serverChannel.close();
+                selector.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
         }
     }
 
@@ -365,7 +790,14 @@ public class LocalHttpServer {
      * request is received.
      */
     public interface HttpCommandServerListener {
-        public void onRequest(String req, String[] keys, String[] values, byte[] data);
+        /**
+         * Handles a PUT/POST request on a server worker thread.
+         *
+         * @return A JSON reply for the client, or null for an empty one.
+         * @throws IllegalArgumentException to answer with 400 Bad Request.
+         * @throws IllegalStateException to answer with 503 Service Unavailable.
+         */
+        public String onRequest(String req, String[] keys, String[] values, byte[] data);
 
         public String getLoggerStatus();
     }
@@ -29,9 +29,15 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Background service that performs logging and serves up the results as an HTTP
@@ -42,6 +48,9 @@ import java.util.List;
 public class LoggingService extends Service implements HttpCommandServerListener {
     // FILL THESE OUT TO USE XMPP!
     private static final String XMPP_PROTOBUF_RECEIVER_BOT = "";    
+    // Set to true only if that bot understands /protz, batches of packets
+    // (see TelemetryBatch); otherwise every packet is sent as /prot.
+    private static final boolean XMPP_PROTOBUF_RECEIVER_TAKES_BATCHES = false;
     public static final String GMAIL_ACCOUNT = "";
     public static final String GMAIL_PASSWORD = "";
 
@@ -51,6 +60,52 @@ public class LoggingService extends Service implements HttpCommandServerListener
 
     private static final String TAG = "LoggingService";
 
+    /** External devices POST batches of records to this path. */
+    private static final String INGEST_PATH = "ingest";
+
+    /** Streams whose latest value is shown on the status page. */
+    private static final int MAX_STREAMS = 128;
+
+    /**
+     * Streams of external devices shown on the status page. They have a
+     * table of their own, so that they can't crowd out the phone's sensors.
+     */
+    private static final int MAX_INGEST_STREAMS = 32;
+
+    /**
+     * Ingest streams are logged to files of their own, which this prefix
+     * keeps apart from the phone's, whatever a client names its streams.
+     */
+    private static final String INGEST_FILE_PREFIX = "Ingest_";
+
+    // Telemetry uplink to remote sinks such as the XMPP bot.
+    // The snapshot is sampled every second and, if the bot takes batches,
+    // sent in batches of up to 16 samples or 15 seconds.
+    private static final long UPLINK_INTERVAL_MS = 1000;
+    private static final float UPLINK_JITTER = 0.1f;
+    private static final long UPLINK_MAX_BACKOFF_MS = 5 * 60 * 1000;
+    private static final int UPLINK_BATCH_MAX_PACKETS = 16;
+    private static final long UPLINK_BATCH_MAX_AGE_MS = 15000;
+    // How far a reading has to move before a delta packet of the uplink
+    // carries it again, so that sensor noise doesn't fill the packets.
+    // Sensors of other types send every change. The position threshold is
+    // about a meter of latitude or longitude, and applies to altitude too.
+    private static final float DELTA_THRESHOLD_ACCELERATION = 0.05f; // m/s^2
+    private static final float DELTA_THRESHOLD_GYROSCOPE = 0.01f; // rad/s
+    private static final float DELTA_THRESHOLD_MAGNETIC_FIELD = 0.5f; // uT
+    private static final float DELTA_THRESHOLD_ORIENTATION = 0.5f; // degrees
+    private static final float DELTA_THRESHOLD_ROTATION_VECTOR = 0.001f;
+    private static final float DELTA_THRESHOLD_LIGHT = 5f; // lx
+    private static final float DELTA_THRESHOLD_PRESSURE = 0.1f; // hPa
+    private static final float DELTA_THRESHOLD_TEMPERATURE = 0.1f; // degrees C
+    private static final float DELTA_THRESHOLD_HUMIDITY = 0.5f; // %
+    private static final float DELTA_THRESHOLD_POSITION = 0.00001f;
+    // Batches the XMPP bot couldn't take wait on disk and are caught up on
+    // at up to 4 per second.
+    private static final long OUTBOX_MAX_BYTES = 8 * 1024 * 1024;
+    private static final long OUTBOX_SEGMENT_BYTES = 256 * 1024;
+    private static final int OUTBOX_DRAIN_PER_CYCLE = 4;
+
     private LoggerApplication mApp;
 
     // FLAGS
@@ -58,6 +113,9 @@ public class LoggingService extends Service implements HttpCommandServerListener
     private boolean mWriteToFile = true; // Switch this to true to log to files
                                          // in addition to displaying through
                                          // HTTP.
+    private boolean mWriteSessionFile = false; // Switch this to true to also
+                                               // write Telemetry.pb, the
+                                               // session with its schema.
 
     private SensorManager mSensorManager;
     private List<Sensor> sensors;
@@ -67,17 +125,23 @@ public class LoggingService extends Service implements HttpCommandServerListener
     private BufferedWriter mBatteryLevelWriter;
     private BufferedWriter mBatteryVoltageWriter;
     private BufferedWriter mWifiWriter;
-    private HashMap<String, BufferedWriter> mSensorLogFileWriters;
-    private HashMap<String, String> lastSeenValues;
+    // Read by the sensor thread while HTTP workers add ingest streams.
+    private volatile ConcurrentHashMap<String, BufferedWriter> mSensorLogFileWriters;
+    private final LatestValueTable mLatestValues = new LatestValueTable(MAX_STREAMS);
+    private final LatestValueTable mIngestValues = new LatestValueTable(MAX_INGEST_STREAMS);
+    // Keyed by file name, i.e. with spaces as underscores; guarded by itself.
+    private final HashMap<String, IngestLog> mIngestLogs = new HashMap<String, IngestLog>();
     private BufferedWriter mGpsLocationWriter;
     private BufferedWriter mGpsStatusWriter;
     private BufferedWriter mGpsNmeaWriter;
     private GpsManager mGpsManager;
+    private volatile SessionFile.Writer mSessionWriter;
 
-    private LocalHttpServer httpServer;
+    private volatile LocalHttpServer httpServer;
     private XmppManager xmppHandler;
-    private long mLastXmppUpdateTime = 0;
     private TelemetrySnapshot mTelemetrySnapshot;
+    private UplinkPublisher mUplink;
+    private final AtomicLong mIngestSequence = new AtomicLong();
 
     @Override
     public int onStartCommand(Intent intent, int flags, int startId) {
@@ -93,6 +157,8 @@ public class LoggingService extends Service implements HttpCommandServerListener
                             xmppHandler = new XmppManager(
                                     this, mXmppMessageListener, GMAIL_ACCOUNT, GMAIL_PASSWORD);
                             xmppHandler.connect();
+                            addXmppSink();
+                            mUplink.start();
                         }
                     }
                     break;
@@ -111,30 +177,54 @@ public class LoggingService extends Service implements HttpCommandServerListener
         }
     };
 
-    private Runnable sendUpdatesToXmppRunnable = new Runnable() {
+    private UplinkPublisher.Sink mXmppSink = new UplinkPublisher.Sink() {
             @Override
-        public void run() {
-            while (mIsLoggerRunning && (GMAIL_ACCOUNT.length() > 0)) {
-                if ((xmppHandler != null) && (mTelemetrySnapshot != null) && (mLastXmppUpdateTime + 15000 < System.currentTimeMillis())) {
-                    Log.e("Message to bot", "Sending...");
-                    xmppHandler.sendMessage(XMPP_PROTOBUF_RECEIVER_BOT, "/prot " + mTelemetrySnapshot.getBase64EncodedProtobufDataPacket());
-                    mLastXmppUpdateTime = System.currentTimeMillis();
-                    Log.e("Message to bot", "OK");
-                }
+        public String getName() {
+            return "XMPP";
+        }
+
+        /** Reused for every message; only the uplink thread sends. */
+        private final StringBuilder mMessage = new StringBuilder(512);
+
+            @Override
+        public boolean send(byte[] data, int length, boolean batch) {
+            XmppManager xmpp = xmppHandler;
+            if (xmpp == null) {
+                return false;
             }
+            mMessage.setLength(0);
+            mMessage.append(batch ? "/protz " : "/prot ");
+            TelemetrySnapshot.appendBase64(data, 0, length, mMessage);
+            return xmpp.sendMessage(XMPP_PROTOBUF_RECEIVER_BOT, mMessage.toString());
         }
     };
 
+    private void addXmppSink() {
+        File dir = new File(LoggerApplication.getLoggerRootPath(), "outbox");
+        try {
+            mUplink.addSink(mXmppSink,
+                    new UplinkOutbox(dir, OUTBOX_MAX_BYTES, OUTBOX_SEGMENT_BYTES),
+                    OUTBOX_DRAIN_PER_CYCLE);
+        } catch (IOException e) {
+            Log.e(TAG, "Can't open the outbox, sending without it: " + e.getMessage());
+            mUplink.addSink(mXmppSink);
+        }
+    }
+
     private void runLoggerService() {
         mIsLoggerRunning = true;
         mTelemetrySnapshot = new TelemetrySnapshot();
-        lastSeenValues = new HashMap<String, String>();
+        mUplink = new UplinkPublisher(mTelemetrySnapshot, UPLINK_INTERVAL_MS, UPLINK_JITTER,
+                UPLINK_MAX_BACKOFF_MS);
+        if (XMPP_PROTOBUF_RECEIVER_TAKES_BATCHES) {
+            mUplink.setBatching(UPLINK_BATCH_MAX_PACKETS, UPLINK_BATCH_MAX_AGE_MS);
+        }
         Log.e(TAG, "Starting logging service");
         mSensorManager = (SensorManager) getSystemService(Context.SENSOR_SERVICE);
         sensors = mSensorManager.getSensorList(Sensor.TYPE_ALL);
+        setDeltaThresholds();
         initSensorLogFiles();
         initGps();
-        new Thread(sendUpdatesToXmppRunnable).start();
     }
 
     @Override
@@ -150,15 +240,32 @@ public class LoggingService extends Service implements HttpCommandServerListener
         if (mGpsManager != null){
             mGpsManager.shutdown();
         }
+        if (mUplink != null) {
+            mUplink.shutdown();
+        }
         if (xmppHandler != null) {
             xmppHandler.disconnect();
         }
+        SessionFile.Writer sessionWriter = mSessionWriter;
+        if (sessionWriter != null) {
+            mSessionWriter = null;
+            sessionWriter.close();
+        }
     }
 
     private SensorEventListener mSensorEventListener = new SensorEventListener() {
+        // Sensor thread only.
+        private final StringBuilder mSensorLine = new StringBuilder(128);
+
+        private char[] mSensorChars = new char[128];
+
             @Override
         public void onSensorChanged(SensorEvent event) {
             mTelemetrySnapshot.updateSensor(event);
+            LocalHttpServer server = httpServer;
+            if (server != null) {
+                server.publishTelemetry(event);
+            }
             Sensor sensor = event.sensor;
             if (sensor.getType() == Sensor.TYPE_GYROSCOPE) {
                 // Gyroscope doesn't really have a notion of accuracy.
@@ -169,19 +276,39 @@ public class LoggingService extends Service implements HttpCommandServerListener
             }
             synchronized (mIsLoggerRunning) {
                 if (mIsLoggerRunning) {
-                    String valuesStr = "";
-                    for (int i = 0; i < event.values.length; i++) {
-                        valuesStr = valuesStr + event.values[i] + ",";
-                    }
                     final String sensorName = sensor.getName();
-                    final String lastSeenValue = event.timestamp + "," + event.accuracy + ","
-                            + valuesStr;
-                    lastSeenValues.put(sensorName, lastSeenValue);
-                    // Log.d(TAG, sensorName + ":" + lastSeenValue);
+                    mLatestValues.update(
+                            mLatestValues.slot(sensorName, LatestValueTable.FORMAT_SENSOR),
+                            event.timestamp, event.accuracy, event.values, event.values.length);
+                    SessionFile.Writer sessionWriter = mSessionWriter;
+                    if (sessionWriter != null) {
+                        sessionWriter.appendSensorEvent(event);
+                    }
+                    boolean streaming = server != null && server.hasEventStreamClients();
                     BufferedWriter writer = mSensorLogFileWriters.get(sensorName);
+                    if (!streaming && writer == null) {
+                        return;
+                    }
+                    // The line is only rendered for the SSE clients and the
+                    // log file, into a buffer reused across events.
+                    StringBuilder line = mSensorLine;
+                    line.setLength(0);
+                    line.append(event.timestamp).append(',').append(event.accuracy).append(',');
+                    for (int i = 0; i < event.values.length; i++) {
+                        line.append(event.values[i]).append(',');
+                    }
+                    if (streaming) {
+                        server.publishSensorValue(sensorName, line.toString());
+                    }
                     if (writer != null) {
+                        line.append('\n');
+                        int length = line.length();
+                        if (mSensorChars.length < length) {
+                            mSensorChars = new char[length * 2];
+                        }
+                        line.getChars(0, length, mSensorChars, 0);
                         try {
-                            writer.write(lastSeenValue + "\n");
+                            writer.write(mSensorChars, 0, length);
                             writer.flush();
                         } catch (IOException e) {
                             e.printStackTrace();
@@ -210,7 +337,10 @@ public class LoggingService extends Service implements HttpCommandServerListener
                 int batteryTemp = intent.getIntExtra(BatteryManager.EXTRA_TEMPERATURE, 0);
                 try {
                     value = currentTime + "," + batteryTemp;
-                    lastSeenValues.put("BatteryTemp", value);
+                    mLatestValues.update(
+                            mLatestValues.slot("BatteryTemp", LatestValueTable.FORMAT_VALUES),
+                            currentTime, batteryTemp);
+                    publishSensorValue("BatteryTemp", value);
                     if (mBatteryTempWriter != null) {
                         mBatteryTempWriter.write(value + "\n");
                     }
@@ -222,7 +352,10 @@ public class LoggingService extends Service implements HttpCommandServerListener
                 int batteryLevel = intent.getIntExtra(BatteryManager.EXTRA_LEVEL, 0);
                 try {
                     value = currentTime + "," + batteryLevel;
-                    lastSeenValues.put("BatteryLevel", value);
+                    mLatestValues.update(
+                            mLatestValues.slot("BatteryLevel", LatestValueTable.FORMAT_VALUES),
+                            currentTime, batteryLevel);
+                    publishSensorValue("BatteryLevel", value);
                     if (mBatteryLevelWriter != null) {
                         mBatteryLevelWriter.write(value + "\n");
                     }
@@ -234,7 +367,10 @@ public class LoggingService extends Service implements HttpCommandServerListener
                 int batteryVoltage = intent.getIntExtra(BatteryManager.EXTRA_VOLTAGE, 0);
                 try {
                     value = currentTime + "," + batteryVoltage;
-                    lastSeenValues.put("BatteryVoltage", value);
+                    mLatestValues.update(
+                            mLatestValues.slot("BatteryVoltage", LatestValueTable.FORMAT_VALUES),
+                            currentTime, batteryVoltage);
+                    publishSensorValue("BatteryVoltage", value);
                     if (mBatteryVoltageWriter != null) {
                         mBatteryVoltageWriter.write(value + "\n");
                     }
@@ -259,7 +395,7 @@ public class LoggingService extends Service implements HttpCommandServerListener
                 obj.put("timestamp", timestamp);
                 obj.put("results", resultsObj);
 
-                lastSeenValues.put("Wifi", timestamp + "," + resultsObj.toString());
+                updateLastSeenValue("Wifi", timestamp + "," + resultsObj.toString());
                 if (mWifiWriter != null) {
                     // Write that object to a file
                     mWifiWriter.write(obj.toString());
@@ -275,8 +411,49 @@ public class LoggingService extends Service implements HttpCommandServerListener
         }
     };
 
+    /** Sets the uplink's delta threshold of every sensor by its type. */
+    private void setDeltaThresholds() {
+        for (Sensor s : sensors) {
+            float threshold = getDeltaThreshold(s.getType());
+            if (threshold > 0) {
+                mTelemetrySnapshot.setDeltaThreshold(s.getName(), threshold);
+            }
+        }
+        mTelemetrySnapshot.setPositionDeltaThreshold(DELTA_THRESHOLD_POSITION);
+    }
+
+    private static float getDeltaThreshold(int sensorType) {
+        switch (sensorType) {
+            case Sensor.TYPE_ACCELEROMETER:
+            case Sensor.TYPE_GRAVITY:
+            case Sensor.TYPE_LINEAR_ACCELERATION:
+                return DELTA_THRESHOLD_ACCELERATION;
+            case Sensor.TYPE_GYROSCOPE:
+                return DELTA_THRESHOLD_GYROSCOPE;
+            case Sensor.TYPE_MAGNETIC_FIELD:
+                return DELTA_THRESHOLD_MAGNETIC_FIELD;
+            case Sensor.TYPE_ORIENTATION:
+                return DELTA_THRESHOLD_ORIENTATION;
+            case Sensor.TYPE_ROTATION_VECTOR:
+                return DELTA_THRESHOLD_ROTATION_VECTOR;
+            case Sensor.TYPE_LIGHT:
+                return DELTA_THRESHOLD_LIGHT;
+            case Sensor.TYPE_PRESSURE:
+                return DELTA_THRESHOLD_PRESSURE;
+            case Sensor.TYPE_AMBIENT_TEMPERATURE:
+                return DELTA_THRESHOLD_TEMPERATURE;
+            case Sensor.TYPE_RELATIVE_HUMIDITY:
+                return DELTA_THRESHOLD_HUMIDITY;
+            default:
+                return 0;
+        }
+    }
+
     private void initSensorLogFiles() {
-        mSensorLogFileWriters = new HashMap<String, BufferedWriter>();
+        mSensorLogFileWriters = new ConcurrentHashMap<String, BufferedWriter>();
+        synchronized (mIngestLogs) {
+            mIngestLogs.clear();
+        }
 
         if (mWriteToFile) {
             mApp.createDirectoryIfNotExisted(mApp.getDataLoggerPath());
@@ -288,6 +465,12 @@ public class LoggingService extends Service implements HttpCommandServerListener
             mGpsLocationWriter = createBufferedWriter("GpsLocation");
             mGpsStatusWriter = createBufferedWriter("GpsStatus");
             mGpsNmeaWriter = createBufferedWriter("GpsNmea");
+            // The sensor and location lines again, as DataPackets in a file
+            // that carries their schema.
+            if (mWriteSessionFile) {
+                mSessionWriter = new SessionFile.Writer(
+                        new File(mApp.getDataLoggerPath(), "Telemetry.pb"));
+            }
         }
     }
 
@@ -299,12 +482,20 @@ public class LoggingService extends Service implements HttpCommandServerListener
      *         creation failed.
      */
     private BufferedWriter createBufferedWriter(String prefix) {
+        BufferedWriter writer = openBufferedWriter(prefix);
+        if (writer != null) {
+            mSensorLogFileWriters.put(prefix, writer);
+        }
+        return writer;
+    }
+
+    /** Like {@link #createBufferedWriter}, without registering the writer. */
+    private BufferedWriter openBufferedWriter(String prefix) {
         String filename = mApp.generateDataFilePath(prefix);
         File file = new File(filename);
         BufferedWriter writer = null;
         try {
             writer = new BufferedWriter(new FileWriter(file));
-            mSensorLogFileWriters.put(prefix, writer);
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -318,6 +509,10 @@ public class LoggingService extends Service implements HttpCommandServerListener
                     double longitude, double altitude, float bearing, float speed) {
                 try {
                     mTelemetrySnapshot.updateLocation(latitude, longitude, altitude);
+                    SessionFile.Writer sessionWriter = mSessionWriter;
+                    if (sessionWriter != null) {
+                        sessionWriter.appendLocation(latitude, longitude, altitude);
+                    }
                     if (mWriteToFile) {
                         mGpsLocationWriter.write(
                                 time + "," + accuracy + "," + latitude + "," + longitude + ","
@@ -364,30 +559,169 @@ public class LoggingService extends Service implements HttpCommandServerListener
      * byte[])
      */
     @Override
-    public void onRequest(String req, String[] keys, String[] values, byte[] data) {
-        Log.e("Server debug", "Request received:" + req);
+    public String onRequest(String req, String[] keys, String[] values, byte[] data) {
+        if (!req.equals(INGEST_PATH)) {
+            Log.e("Server debug", "Request received:" + req);
+            return null;
+        }
+        if (!mIsLoggerRunning || mSensorLogFileWriters == null) {
+            throw new IllegalStateException("Not logging");
+        }
+        IngestBatch batch;
+        if ("pb".equals(getParam(keys, values, "format"))) {
+            try {
+                batch = IngestBatch.parseDataPackets(data);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Bad DataPacket stream: " + e.getMessage());
+            }
+        } else {
+            batch = IngestBatch.parseCsv(data, getParam(keys, values, "stream"));
+        }
+        List<IngestLog> logs = openIngestLogs(batch.lines.keySet());
+        for (IngestLog log : logs) {
+            appendLogLines(log, batch.lines.get(log.stream));
+        }
+        return "{\"seq\":" + mIngestSequence.incrementAndGet() + ",\"records\":" + batch.records
+                + "}";
+    }
+
+    /** An ingest stream and its log file. */
+    private static final class IngestLog {
+        final String stream;
+
+        /** Null if the file couldn't be created or isn't wanted. */
+        final BufferedWriter writer;
+
+        IngestLog(String stream, BufferedWriter writer) {
+            this.stream = stream;
+            this.writer = writer;
+        }
+    }
+
+    /**
+     * Returns the logs of the given ingest streams, opening those of new
+     * ones. Either all streams are accepted or none is.
+     *
+     * @throws IllegalArgumentException if there would be more than
+     *             {@link #MAX_INGEST_STREAMS}, or a name differs from one
+     *             already seen only in spaces and underscores; both would
+     *             share a file.
+     */
+    private List<IngestLog> openIngestLogs(Set<String> streams) {
+        List<IngestLog> logs = new ArrayList<IngestLog>(streams.size());
+        synchronized (mIngestLogs) {
+            int added = 0;
+            for (String stream : streams) {
+                IngestLog log = mIngestLogs.get(stream.replace(' ', '_'));
+                if (log == null) {
+                    added++;
+                } else if (!log.stream.equals(stream)) {
+                    throw new IllegalArgumentException(
+                            "Stream " + stream + " would share the log of " + log.stream);
+                }
+            }
+            if (mIngestLogs.size() + added > MAX_INGEST_STREAMS) {
+                throw new IllegalArgumentException(
+                        "No more than " + MAX_INGEST_STREAMS + " ingest streams");
+            }
+            for (String stream : streams) {
+                String key = stream.replace(' ', '_');
+                IngestLog log = mIngestLogs.get(key);
+                if (log == null) {
+                    log = new IngestLog(stream,
+                            mWriteToFile ? openBufferedWriter(INGEST_FILE_PREFIX + key) : null);
+                    mIngestLogs.put(key, log);
+                }
+                logs.add(log);
+            }
+        }
+        return logs;
+    }
+
+    /**
+     * Appends newline terminated lines to a stream's log with one write and
+     * one flush, and publishes the last line as the stream's latest value.
+     */
+    private void appendLogLines(IngestLog log, StringBuilder lines) {
+        if (lines.length() == 0) {
+            return;
+        }
+        String stream = log.stream;
+        int lastStart = lines.lastIndexOf("\n", lines.length() - 2) + 1;
+        String lastLine = lines.substring(lastStart, lines.length() - 1);
+        mIngestValues.updateText(mIngestValues.slot(stream, LatestValueTable.FORMAT_TEXT),
+                System.currentTimeMillis(), lastLine);
+        publishSensorValue(stream, lastLine);
+        BufferedWriter writer = log.writer;
+        if (writer != null) {
+            try {
+                writer.append(lines);
+                writer.flush();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private static String getParam(String[] keys, String[] values, String name) {
+        if (keys == null) {
+            return null;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (name.equals(keys[i]) && values[i] != null) {
+                try {
+                    return URLDecoder.decode(values[i], "UTF-8");
+                } catch (UnsupportedEncodingException e) {
+                    return values[i];
+                } catch (IllegalArgumentException e) {
+                    return values[i];
+                }
+            }
+        }
+        return null;
     }
 
     @Override
     public String getLoggerStatus() {
-        StringBuilder statusMessage = new StringBuilder();
-        Iterator<String> sensorNamesIt = lastSeenValues.keySet().iterator();
-        while (sensorNamesIt.hasNext()) {
-            final String name = sensorNamesIt.next();
-            statusMessage.append(name);
-            statusMessage.append(":");
-            statusMessage.append(lastSeenValues.get(name));
-            statusMessage.append("\n");
+        StringBuilder statusMessage = new StringBuilder(
+                64 * (mLatestValues.size() + mIngestValues.size()));
+        LatestValueTable.Reading scratch = new LatestValueTable.Reading();
+        mLatestValues.appendTo(statusMessage, scratch);
+        mIngestValues.appendTo(statusMessage, scratch);
+        int rejected = mLatestValues.rejectedCount() + mIngestValues.rejectedCount();
+        if (rejected > 0) {
+            statusMessage.append("StreamsNotShown:").append(rejected).append('\n');
+        }
+        UplinkPublisher uplink = mUplink;
+        if (uplink != null) {
+            uplink.appendStats(statusMessage);
         }
         return statusMessage.toString();
     }
 
+    /** Records a value that is only available as text, e.g. a Wifi scan. */
+    private void updateLastSeenValue(String name, String value) {
+        mLatestValues.updateText(mLatestValues.slot(name, LatestValueTable.FORMAT_TEXT),
+                System.currentTimeMillis(), value);
+        publishSensorValue(name, value);
+    }
+
+    private void publishSensorValue(String name, String value) {
+        LocalHttpServer server = httpServer;
+        if (server != null) {
+            server.publishSensorValue(name, value);
+        }
+    }
+
     public void addLogEntryToCustomSensor(final String sensorName, final String sensorReadings) {
         final String lastSeenValue = System.currentTimeMillis() + "," + sensorReadings;
-        lastSeenValues.put(sensorName, lastSeenValue);
-        BufferedWriter writer = mSensorLogFileWriters.get(sensorName);
-        if (mWriteToFile && (writer == null)) {
-            writer = createBufferedWriter(sensorName);
+        updateLastSeenValue(sensorName, lastSeenValue);
+        BufferedWriter writer;
+        synchronized (mSensorLogFileWriters) {
+            writer = mSensorLogFileWriters.get(sensorName);
+            if (mWriteToFile && (writer == null)) {
+                writer = createBufferedWriter(sensorName);
+            }
         }
         if (writer != null) {
             try {
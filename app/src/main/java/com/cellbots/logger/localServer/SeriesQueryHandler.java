@@ -0,0 +1,503 @@
+/**
+ * Copyright (C) 2012 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.cellbots.logger.localServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/**
+ * Answers time range queries over the recorded CSV sensor logs of a session
+ * for {@link LocalHttpServer}'s /series endpoint. The log is binary searched
+ * for the start of the range and only the bytes up to its end are read. Every
+ * numeric column is reduced to a min/max pair per time bucket, so the memory
+ * used depends on the number of requested points, never on the range length.
+ */
+class SeriesQueryHandler {
+    private static final int MAX_POINTS = 10000;
+
+    private static final int DEFAULT_POINTS = 500;
+
+    private static final int MAX_COLUMNS = 16;
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private static final int MAX_LINE_LENGTH = 4096;
+
+    private final File mRoot;
+
+    SeriesQueryHandler(File root) {
+        mRoot = root;
+    }
+
+    /**
+     * Runs a query.
+     *
+     * @param session Session directory name, or null for the newest session.
+     * @param stream Log name, e.g. "BatteryTemp" or a sensor name.
+     * @param from First timestamp to include, in the log's own units, or null.
+     * @param to Last timestamp to include, or null.
+     * @param points Number of buckets to reduce the range to, or null.
+     * @param format "bin" for the binary encoding, anything else for JSON.
+     */
+    HttpResponse serve(String session, String stream, String from, String to, String points,
+            String format) {
+        if (stream == null || stream.length() == 0 || stream.indexOf('/') >= 0
+                || stream.indexOf("..") >= 0) {
+            return HttpResponse.error(400, "Missing or bad stream parameter");
+        }
+        File sessionDir = session != null ? new File(mRoot, session) : newestSession();
+        if (sessionDir == null || session != null
+                && (session.indexOf('/') >= 0 || session.indexOf("..") >= 0)) {
+            return HttpResponse.error(404, "No such session");
+        }
+        File file = new File(new File(sessionDir, "data"), stream.replaceAll(" ", "_") + ".txt");
+        if (!file.isFile()) {
+            return HttpResponse.error(404, "No such stream: " + stream);
+        }
+
+        int numPoints = DEFAULT_POINTS;
+        long start;
+        long end;
+        try {
+            if (points != null) {
+                numPoints = Math.max(1, Math.min(MAX_POINTS, Integer.parseInt(points)));
+            }
+            start = from != null ? Long.parseLong(from) : Long.MIN_VALUE;
+            end = to != null ? Long.parseLong(to) : Long.MAX_VALUE;
+        } catch (NumberFormatException e) {
+            return HttpResponse.error(400, "Bad number: " + e.getMessage());
+        }
+
+        RandomAccessFile raf = null;
+        try {
+            raf = new RandomAccessFile(file, "r");
+            LineReader reader = new LineReader(raf);
+            // Clamped to what the file holds, so that a far away from or to
+            // can't overflow the bucket arithmetic.
+            start = Math.max(start, reader.firstTimestamp());
+            end = Math.min(end, reader.lastTimestamp());
+            Buckets buckets = new Buckets(start, end, numPoints);
+            if (start <= end) {
+                reader.seek(reader.findFirstAtOrAfter(start));
+                while (reader.nextLine()) {
+                    long t = reader.timestamp();
+                    if (t > end) {
+                        break;
+                    }
+                    buckets.add(t, reader);
+                }
+            }
+            if ("bin".equals(format)) {
+                return HttpResponse.ok().setBody(buckets.toBinary(), "application/octet-stream");
+            }
+            return HttpResponse.ok().setBody(
+                    HttpResponse.utf8(buckets.toJson(stream)), "application/json");
+        } catch (IOException e) {
+            return HttpResponse.error(500, "Error reading " + stream + ": " + e.getMessage());
+        } finally {
+            if (raf != null) {
+                try {
+                    raf.close();
+                } catch (IOException e) {
+                    // Nothing more to do with it.
+                }
+            }
+        }
+    }
+
+    private File newestSession() {
+        File[] sessions = mRoot.listFiles();
+        File newest = null;
+        if (sessions != null) {
+            for (File f : sessions) {
+                if (f.isDirectory() && (newest == null || f.lastModified() > newest.lastModified())) {
+                    newest = f;
+                }
+            }
+        }
+        return newest;
+    }
+
+    /** Min/max accumulators for a fixed number of equal width time buckets. */
+    private static class Buckets {
+        private final long mStart;
+
+        private final long mWidth;
+
+        private final int mCount;
+
+        private int mColumns;
+
+        private final int[] mSamples;
+
+        private final long[] mFirstTime;
+
+        private final float[] mMin;
+
+        private final float[] mMax;
+
+        Buckets(long start, long end, int count) {
+            mStart = start;
+            mCount = count;
+            long span = end >= start ? end - start + 1 : 1;
+            mWidth = Math.max(1, (span + count - 1) / count);
+            mSamples = new int[count];
+            mFirstTime = new long[count];
+            mMin = new float[count * MAX_COLUMNS];
+            mMax = new float[count * MAX_COLUMNS];
+        }
+
+        void add(long t, LineReader line) {
+            int bucket = (int) Math.min(mCount - 1, (t - mStart) / mWidth);
+            int columns = Math.min(MAX_COLUMNS, line.valueCount());
+            mColumns = Math.max(mColumns, columns);
+            int base = bucket * MAX_COLUMNS;
+            boolean first = mSamples[bucket]++ == 0;
+            if (first) {
+                mFirstTime[bucket] = t;
+            }
+            for (int c = 0; c < columns; c++) {
+                float v = (float) line.value(c);
+                if (first || v < mMin[base + c]) {
+                    mMin[base + c] = v;
+                }
+                if (first || v > mMax[base + c]) {
+                    mMax[base + c] = v;
+                }
+            }
+        }
+
+        /**
+         * Returns {"stream":..,"columns":n,"points":[[t,count,min0,max0,...]]}
+         * with one entry per non-empty bucket.
+         */
+        String toJson(String stream) {
+            StringBuilder json = new StringBuilder(64 + mCount * (24 + mColumns * 24));
+            json.append("{\"stream\":\"").append(stream.replace("\"", "\\\""))
+                    .append("\",\"columns\":").append(mColumns).append(",\"points\":[");
+            boolean firstPoint = true;
+            for (int b = 0; b < mCount; b++) {
+                if (mSamples[b] == 0) {
+                    continue;
+                }
+                json.append(firstPoint ? "[" : ",[");
+                firstPoint = false;
+                json.append(mFirstTime[b]).append(',').append(mSamples[b]);
+                for (int c = 0; c < mColumns; c++) {
+                    json.append(',');
+                    appendNumber(json, mMin[b * MAX_COLUMNS + c]);
+                    json.append(',');
+                    appendNumber(json, mMax[b * MAX_COLUMNS + c]);
+                }
+                json.append(']');
+            }
+            return json.append("]}").toString();
+        }
+
+        /**
+         * Returns the buckets as big endian binary: int32 point count, int32
+         * column count, then per point int64 time, int32 count and a float32
+         * min/max pair per column.
+         */
+        byte[] toBinary() throws IOException {
+            int used = 0;
+            for (int b = 0; b < mCount; b++) {
+                if (mSamples[b] > 0) {
+                    used++;
+                }
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(8 + used * (12 + 8 * mColumns));
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(used);
+            out.writeInt(mColumns);
+            for (int b = 0; b < mCount; b++) {
+                if (mSamples[b] == 0) {
+                    continue;
+                }
+                out.writeLong(mFirstTime[b]);
+                out.writeInt(mSamples[b]);
+                for (int c = 0; c < mColumns; c++) {
+                    out.writeFloat(mMin[b * MAX_COLUMNS + c]);
+                    out.writeFloat(mMax[b * MAX_COLUMNS + c]);
+                }
+            }
+            out.flush();
+            return bytes.toByteArray();
+        }
+
+        private static void appendNumber(StringBuilder json, float v) {
+            if (Float.isNaN(v) || Float.isInfinite(v)) {
+                json.append("null");
+            } else if (v == (long) v) {
+                json.append((long) v);
+            } else {
+                json.append(v);
+            }
+        }
+    }
+
+    /**
+     * Reads "timestamp,value,value,..." lines through one reusable buffer and
+     * parses the fields in place, without creating a String per line.
+     */
+    private static class LineReader {
+        private final RandomAccessFile mFile;
+
+        private final byte[] mBuf = new byte[READ_BUFFER_SIZE];
+
+        /** File offset of mBuf[0]. */
+        private long mBufOffset;
+
+        private int mBufStart;
+
+        private int mBufEnd;
+
+        private int mLineStart;
+
+        private int mLineEnd;
+
+        private final int[] mFieldStart = new int[MAX_COLUMNS + 1];
+
+        private final int[] mFieldEnd = new int[MAX_COLUMNS + 1];
+
+        private int mFields;
+
+        LineReader(RandomAccessFile file) {
+            mFile = file;
+        }
+
+        void seek(long offset) throws IOException {
+            mFile.seek(offset);
+            mBufOffset = offset;
+            mBufStart = 0;
+            mBufEnd = 0;
+        }
+
+        /**
+         * Advances to the next line with a numeric timestamp. Returns false
+         * at the end of the file.
+         */
+        boolean nextLine() throws IOException {
+            while (true) {
+                int newline = -1;
+                for (int i = mBufStart; i < mBufEnd; i++) {
+                    if (mBuf[i] == '\n') {
+                        newline = i;
+                        break;
+                    }
+                }
+                if (newline < 0) {
+                    if (!fill()) {
+                        if (mBufStart == mBufEnd) {
+                            return false;
+                        }
+                        // Last line without a trailing newline.
+                        newline = mBufEnd;
+                    } else {
+                        continue;
+                    }
+                }
+                mLineStart = mBufStart;
+                mLineEnd = newline;
+                mBufStart = Math.min(newline + 1, mBufEnd);
+                if (splitFields()) {
+                    return true;
+                }
+            }
+        }
+
+        /** Returns false at the end of the file. */
+        private boolean fill() throws IOException {
+            if (mBufStart > 0) {
+                mBufOffset += mBufStart;
+                System.arraycopy(mBuf, mBufStart, mBuf, 0, mBufEnd - mBufStart);
+                mBufEnd -= mBufStart;
+                mBufStart = 0;
+            }
+            if (mBufEnd == mBuf.length) {
+                // An absurdly long line (e.g. a Wifi scan); skip it.
+                mBufOffset += mBufEnd;
+                mBufEnd = 0;
+            }
+            int n = mFile.read(mBuf, mBufEnd, mBuf.length - mBufEnd);
+            if (n <= 0) {
+                return false;
+            }
+            mBufEnd += n;
+            return true;
+        }
+
+        private boolean splitFields() {
+            mFields = 0;
+            int start = mLineStart;
+            for (int i = mLineStart; i <= mLineEnd && mFields <= MAX_COLUMNS; i++) {
+                if (i == mLineEnd || mBuf[i] == ',' || mBuf[i] == '\r') {
+                    if (i > start) {
+                        mFieldStart[mFields] = start;
+                        mFieldEnd[mFields] = i;
+                        mFields++;
+                    }
+                    start = i + 1;
+                    if (i < mLineEnd && mBuf[i] == '\r') {
+                        break;
+                    }
+                }
+            }
+            return mFields > 0 && isDigits(mFieldStart[0], mFieldEnd[0]);
+        }
+
+        private boolean isDigits(int start, int end) {
+            for (int i = start; i < end; i++) {
+                if (mBuf[i] < '0' || mBuf[i] > '9') {
+                    return false;
+                }
+            }
+            return end > start;
+        }
+
+        long lineOffset() {
+            return mBufOffset + mLineStart;
+        }
+
+        long timestamp() {
+            long t = 0;
+            for (int i = mFieldStart[0]; i < mFieldEnd[0]; i++) {
+                t = t * 10 + (mBuf[i] - '0');
+            }
+            return t;
+        }
+
+        int valueCount() {
+            return mFields - 1;
+        }
+
+        /** Parses a decimal number such as -1.25E-4 without allocating. */
+        double value(int column) {
+            int i = mFieldStart[column + 1];
+            int end = mFieldEnd[column + 1];
+            boolean negative = false;
+            if (i < end && (mBuf[i] == '-' || mBuf[i] == '+')) {
+                negative = mBuf[i] == '-';
+                i++;
+            }
+            double mantissa = 0;
+            int exponent = 0;
+            boolean digits = false;
+            for (; i < end && mBuf[i] >= '0' && mBuf[i] <= '9'; i++) {
+                mantissa = mantissa * 10 + (mBuf[i] - '0');
+                digits = true;
+            }
+            if (i < end && mBuf[i] == '.') {
+                for (i++; i < end && mBuf[i] >= '0' && mBuf[i] <= '9'; i++) {
+                    mantissa = mantissa * 10 + (mBuf[i] - '0');
+                    exponent--;
+                    digits = true;
+                }
+            }
+            if (i < end && (mBuf[i] == 'E' || mBuf[i] == 'e')) {
+                i++;
+                boolean negativeExponent = false;
+                if (i < end && (mBuf[i] == '-' || mBuf[i] == '+')) {
+                    negativeExponent = mBuf[i] == '-';
+                    i++;
+                }
+                int e = 0;
+                for (; i < end && mBuf[i] >= '0' && mBuf[i] <= '9'; i++) {
+                    e = e * 10 + (mBuf[i] - '0');
+                }
+                exponent += negativeExponent ? -e : e;
+            }
+            if (!digits || i != end) {
+                return Double.NaN;
+            }
+            double v = exponent == 0 ? mantissa : mantissa * Math.pow(10, exponent);
+            return negative ? -v : v;
+        }
+
+        long firstTimestamp() throws IOException {
+            seek(0);
+            return nextLine() ? timestamp() : 0;
+        }
+
+        long lastTimestamp() throws IOException {
+            long length = mFile.length();
+            long t = Long.MIN_VALUE;
+            for (long back = MAX_LINE_LENGTH; t == Long.MIN_VALUE; back *= 2) {
+                long offset = Math.max(0, length - back);
+                seek(offset);
+                if (offset > 0) {
+                    skipPartialLine();
+                }
+                while (nextLine()) {
+                    t = timestamp();
+                }
+                if (offset == 0) {
+                    break;
+                }
+            }
+            return t == Long.MIN_VALUE ? 0 : t;
+        }
+
+        /**
+         * Binary searches the file for the offset of the first line whose
+         * timestamp is at or after the given one. Relies on the logs being
+         * written in time order.
+         */
+        long findFirstAtOrAfter(long target) throws IOException {
+            // lo is always the start of a line before the target.
+            long lo = 0;
+            long hi = mFile.length();
+            while (hi - lo > READ_BUFFER_SIZE) {
+                long mid = (lo + hi) >>> 1;
+                seek(mid);
+                skipPartialLine();
+                if (!nextLine() || timestamp() >= target) {
+                    hi = mid;
+                } else {
+                    lo = lineOffset();
+                }
+            }
+            // Finish with a short linear scan.
+            seek(lo);
+            while (nextLine()) {
+                if (timestamp() >= target) {
+                    return lineOffset();
+                }
+            }
+            return mFile.length();
+        }
+
+        /** Skips to the start of the next line. */
+        private void skipPartialLine() throws IOException {
+            while (true) {
+                for (int i = mBufStart; i < mBufEnd; i++) {
+                    if (mBuf[i] == '\n') {
+                        mBufStart = i + 1;
+                        return;
+                    }
+                }
+                mBufStart = mBufEnd;
+                if (!fill()) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,625 @@
+/*
+ * Copyright (C) 2012 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.cellbots.logger.localServer;
+
+import android.hardware.SensorEvent;
+import android.util.Log;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.EnumValueDescriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Descriptors.FileDescriptor;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.ExtensionRegistry;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.UnknownFieldSet;
+import com.google.protobuf.WireFormat;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A binary session log that carries its own schema, so that it can be read
+ * without the generated classes it was written with. The file is
+ *
+ * <pre>
+ * "CBSL"                              magic
+ * byte      version                   1
+ * string    record type               full name, e.g. "DataPacket"
+ * varint    file count
+ * FileDescriptorProto[file count]     dependencies first
+ * record...
+ * </pre>
+ *
+ * where strings, descriptors and records are each preceded by their varint
+ * length, as {@code writeDelimitedTo()} writes them.
+ */
+public final class SessionFile {
+    private static final byte[] MAGIC = {'C', 'B', 'S', 'L'};
+
+    private static final int VERSION = 1;
+
+    /** Deeper messages are taken for corruption, as CodedInputStream does. */
+    private static final int MAX_DEPTH = 64;
+
+    private SessionFile() {
+    }
+
+    /**
+     * Writes a session of {@link Telemetry.DataPacket}s, one per sensor event
+     * or location update; thread safe. The appending threads only copy the
+     * values into a ring of preallocated slots; the file is opened, and the
+     * records are encoded and written, on a thread of the writer's own.
+     */
+    static final class Writer {
+        private static final String TAG = "SessionFile";
+
+        /** Records the writer may fall behind by before new ones are dropped. */
+        private static final int QUEUE_RECORDS = 1024;
+
+        private static final int KIND_SENSOR = 0;
+
+        private static final int KIND_LOCATION = 1;
+
+        private final File mFile;
+
+        private final Thread mThread;
+
+        // The ring, guarded by this. Dropped records still take a sequence
+        // number, so that readers see the gap.
+        private final int[] mKinds = new int[QUEUE_RECORDS];
+
+        private final int[] mTypes = new int[QUEUE_RECORDS];
+
+        private final int[] mSequences = new int[QUEUE_RECORDS];
+
+        private final long[] mTimes = new long[QUEUE_RECORDS];
+
+        private final int[] mValueCounts = new int[QUEUE_RECORDS];
+
+        private final float[] mValues = new float[QUEUE_RECORDS * 3];
+
+        private int mHead;
+
+        private int mCount;
+
+        private int mSequence;
+
+        private int mDropped;
+
+        private boolean mClosed;
+
+        /**
+         * Starts the writer thread, which creates the file and writes the
+         * header. Records are buffered, so up to a few KiB of the latest are
+         * lost if the app is killed.
+         */
+        Writer(File file) {
+            mFile = file;
+            mThread = new Thread(new Runnable() {
+                    @Override
+                public void run() {
+                    writeSession();
+                }
+            }, TAG);
+            mThread.setDaemon(true);
+            mThread.start();
+        }
+
+        /** Number of records dropped because the writer fell behind. */
+        synchronized int getDroppedCount() {
+            return mDropped;
+        }
+
+        /**
+         * Queues a sensor event; its sensor is skipped later if it has no
+         * telemetry type. Doesn't allocate, so it can be called on the sensor
+         * thread.
+         */
+        void appendSensorEvent(SensorEvent event) {
+            float[] values = event.values;
+            int count = Math.min(values.length, 3);
+            synchronized (this) {
+                int slot = claimSlot(KIND_SENSOR);
+                if (slot < 0) {
+                    return;
+                }
+                mTypes[slot] = event.sensor.getType();
+                mValueCounts[slot] = count;
+                System.arraycopy(values, 0, mValues, slot * 3, count);
+            }
+        }
+
+        void appendLocation(double latitude, double longitude, double altitude) {
+            synchronized (this) {
+                int slot = claimSlot(KIND_LOCATION);
+                if (slot < 0) {
+                    return;
+                }
+                mValueCounts[slot] = 3;
+                mValues[slot * 3] = (float) latitude;
+                mValues[slot * 3 + 1] = (float) longitude;
+                mValues[slot * 3 + 2] = (float) altitude;
+            }
+        }
+
+        /** Returns the slot for a new record, or -1 if it is dropped. */
+        private int claimSlot(int kind) {
+            int sequence = mSequence++;
+            if (mClosed || mCount == QUEUE_RECORDS) {
+                mDropped++;
+                return -1;
+            }
+            int slot = (mHead + mCount) % QUEUE_RECORDS;
+            if (mCount++ == 0) {
+                notifyAll();
+            }
+            mKinds[slot] = kind;
+            mSequences[slot] = sequence;
+            mTimes[slot] = System.currentTimeMillis();
+            return slot;
+        }
+
+        /** Writes queued records until closed; runs on the writer thread. */
+        private void writeSession() {
+            OutputStream out = null;
+            try {
+                out = new FileOutputStream(mFile);
+                CodedOutputStream coded = CodedOutputStream.newInstance(out);
+                // The only use of the full runtime on the device, once per
+                // session; the records are written with the lite classes.
+                writeHeader(coded, Telemetry.DataPacket.getDescriptor());
+                TelemetryLite.DataPacket.Builder packet = TelemetryLite.DataPacket.newBuilder();
+                while (true) {
+                    int kind;
+                    int type;
+                    int count;
+                    float x;
+                    float y;
+                    float z;
+                    synchronized (this) {
+                        while (mCount == 0 && !mClosed) {
+                            wait();
+                        }
+                        if (mCount == 0) {
+                            break;
+                        }
+                        int slot = mHead;
+                        mHead = (mHead + 1) % QUEUE_RECORDS;
+                        mCount--;
+                        kind = mKinds[slot];
+                        type = mTypes[slot];
+                        count = mValueCounts[slot];
+                        x = mValues[slot * 3];
+                        y = mValues[slot * 3 + 1];
+                        z = mValues[slot * 3 + 2];
+                        packet.clear().setSequence(mSequences[slot]).setTimestamp(mTimes[slot]);
+                    }
+                    if (kind == KIND_LOCATION) {
+                        packet.setPosition(TelemetryLite.Position.newBuilder()
+                                .setLatitude(x).setLongitude(y).setAltitude(z));
+                    } else if (!addSensor(packet, type, count, x, y, z)) {
+                        continue;
+                    }
+                    MessageLite record = packet.build();
+                    coded.writeRawVarint32(record.getSerializedSize());
+                    record.writeTo(coded);
+                }
+                coded.flush();
+            } catch (IOException e) {
+                Log.e(TAG, "Can't write " + mFile + ": " + e.getMessage());
+            } catch (InterruptedException e) {
+                // Closed without waiting; the buffered records are lost.
+            } finally {
+                synchronized (this) {
+                    mClosed = true;
+                    mCount = 0;
+                }
+                if (out != null) {
+                    try {
+                        out.close();
+                    } catch (IOException e) {
+                        Log.e(TAG, "Can't close " + mFile + ": " + e.getMessage());
+                    }
+                }
+            }
+        }
+
+        /** Returns false if the sensor has no telemetry type. */
+        private static boolean addSensor(TelemetryLite.DataPacket.Builder packet, int type,
+                int count, float x, float y, float z) {
+            TelemetryLite.ThreeAxisSensor.SensorType threeAxisType =
+                    TelemetrySnapshot.toThreeAxisSensorType(type);
+            if (threeAxisType != null && count >= 3) {
+                packet.addThreeAxisSensor(TelemetryLite.ThreeAxisSensor.newBuilder()
+                        .setSensorType(threeAxisType).setX(x).setY(y).setZ(z));
+                return true;
+            }
+            TelemetryLite.Sensor.SensorType sensorType = TelemetrySnapshot.toSensorType(type);
+            if (sensorType == null || count < 1) {
+                return false;
+            }
+            packet.addSensor(TelemetryLite.Sensor.newBuilder()
+                    .setSensorType(sensorType).setValue(x));
+            return true;
+        }
+
+        /**
+         * Writes the records queued so far and closes the file, waiting up to
+         * a second for the writer thread.
+         */
+        void close() {
+            synchronized (this) {
+                mClosed = true;
+                notifyAll();
+            }
+            try {
+                mThread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void writeHeader(CodedOutputStream out, Descriptor recordType)
+            throws IOException {
+        List<FileDescriptor> files = new ArrayList<FileDescriptor>();
+        addWithDependencies(recordType.getFile(), files);
+        out.writeRawBytes(MAGIC);
+        out.writeRawByte(VERSION);
+        out.writeStringNoTag(recordType.getFullName());
+        out.writeRawVarint32(files.size());
+        for (FileDescriptor file : files) {
+            out.writeMessageNoTag(toDynamic(file.toProto()));
+        }
+    }
+
+    /**
+     * Copies message into a DynamicMessage. The bundled DescriptorProtos were
+     * generated for an older runtime, and with this one they can be parsed
+     * but not serialized.
+     */
+    private static DynamicMessage toDynamic(Message message) {
+        DynamicMessage.Builder builder = DynamicMessage.newBuilder(
+                message.getDescriptorForType());
+        for (Map.Entry<FieldDescriptor, Object> entry : message.getAllFields().entrySet()) {
+            FieldDescriptor field = entry.getKey();
+            if (field.getJavaType() != FieldDescriptor.JavaType.MESSAGE) {
+                builder.setField(field, entry.getValue());
+            } else if (field.isRepeated()) {
+                for (Object value : (List<?>) entry.getValue()) {
+                    builder.addRepeatedField(field, toDynamic((Message) value));
+                }
+            } else {
+                builder.setField(field, toDynamic((Message) entry.getValue()));
+            }
+        }
+        return builder.build();
+    }
+
+    private static void addWithDependencies(FileDescriptor file, List<FileDescriptor> files) {
+        if (files.contains(file)) {
+            return;
+        }
+        for (FileDescriptor dependency : file.getDependencies()) {
+            addWithDependencies(dependency, files);
+        }
+        files.add(file);
+    }
+
+    /**
+     * Reads a session file with the schema from its header, into
+     * {@link DynamicMessage}s. The field lookups are done once per message
+     * type when the header is read, rather than for every field of every
+     * record as {@code DynamicMessage.parseFrom()} does them.
+     */
+    public static final class Reader implements Closeable {
+        private final InputStream mIn;
+
+        private final CodedInputStream mInput;
+
+        private final Descriptor mRecordType;
+
+        private final Decoder mDecoder;
+
+        public Reader(InputStream in) throws IOException {
+            mIn = in;
+            mInput = CodedInputStream.newInstance(in);
+            byte[] magic = mInput.readRawBytes(MAGIC.length);
+            for (int i = 0; i < MAGIC.length; i++) {
+                if (magic[i] != MAGIC[i]) {
+                    throw new IOException("Not a session file");
+                }
+            }
+            int version = mInput.readRawByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported session file version " + version);
+            }
+            String recordTypeName = mInput.readString();
+            int count = mInput.readRawVarint32();
+            List<FileDescriptor> files = new ArrayList<FileDescriptor>();
+            for (int i = 0; i < count; i++) {
+                FileDescriptorProto proto = FileDescriptorProto.parseFrom(mInput.readBytes());
+                try {
+                    files.add(FileDescriptor.buildFrom(proto, dependencies(proto, files)));
+                } catch (Descriptors.DescriptorValidationException e) {
+                    throw new IOException("Bad schema in session file: " + e.getMessage());
+                }
+            }
+            mRecordType = findMessageType(files, recordTypeName);
+            if (mRecordType == null) {
+                throw new IOException("Session file has no schema for " + recordTypeName);
+            }
+            mDecoder = Decoder.forType(mRecordType, new HashMap<Descriptor, Decoder>());
+        }
+
+        public Descriptor getRecordType() {
+            return mRecordType;
+        }
+
+        /** Returns the next record, or null at the end of the file. */
+        public DynamicMessage next() throws IOException {
+            if (mInput.isAtEnd()) {
+                return null;
+            }
+            mInput.resetSizeCounter();
+            int limit = mInput.pushLimit(mInput.readRawVarint32());
+            DynamicMessage record = mDecoder.decode(mInput, 0);
+            mInput.popLimit(limit);
+            return record;
+        }
+
+        public void close() throws IOException {
+            mIn.close();
+        }
+
+        private static FileDescriptor[] dependencies(FileDescriptorProto proto,
+                List<FileDescriptor> files) throws IOException {
+            FileDescriptor[] dependencies = new FileDescriptor[proto.getDependencyCount()];
+            for (int i = 0; i < dependencies.length; i++) {
+                for (FileDescriptor file : files) {
+                    if (file.getName().equals(proto.getDependency(i))) {
+                        dependencies[i] = file;
+                    }
+                }
+                if (dependencies[i] == null) {
+                    throw new IOException("Session file lacks " + proto.getDependency(i));
+                }
+            }
+            return dependencies;
+        }
+
+        private static Descriptor findMessageType(List<FileDescriptor> files, String fullName) {
+            for (FileDescriptor file : files) {
+                Descriptor type = findType(file.getMessageTypes(), fullName);
+                if (type != null) {
+                    return type;
+                }
+            }
+            return null;
+        }
+
+        private static Descriptor findType(List<Descriptor> types, String fullName) {
+            for (Descriptor type : types) {
+                if (type.getFullName().equals(fullName)) {
+                    return type;
+                }
+                Descriptor nested = findType(type.getNestedTypes(), fullName);
+                if (nested != null) {
+                    return nested;
+                }
+            }
+            return null;
+        }
+    }
+
+    /** Decodes one message type with its fields looked up by number in arrays. */
+    private static final class Decoder {
+        private final Descriptor mType;
+
+        /** Indexed by field number; null where there is none. */
+        private final FieldDescriptor[] mFields;
+
+        private final Decoder[] mMessages;
+
+        private final EnumValueDescriptor[][] mEnumValues;
+
+        private Decoder(Descriptor type, int maxNumber) {
+            mType = type;
+            mFields = new FieldDescriptor[maxNumber + 1];
+            mMessages = new Decoder[maxNumber + 1];
+            mEnumValues = new EnumValueDescriptor[maxNumber + 1][];
+        }
+
+        /** Returns the decoder for type, building it and those of its fields. */
+        static Decoder forType(Descriptor type, Map<Descriptor, Decoder> decoders) {
+            Decoder decoder = decoders.get(type);
+            if (decoder != null) {
+                return decoder;
+            }
+            int maxNumber = 0;
+            for (FieldDescriptor field : type.getFields()) {
+                maxNumber = Math.max(maxNumber, field.getNumber());
+            }
+            decoder = new Decoder(type, maxNumber);
+            // Registered first, so that recursive types end.
+            decoders.put(type, decoder);
+            for (FieldDescriptor field : type.getFields()) {
+                int number = field.getNumber();
+                decoder.mFields[number] = field;
+                if (field.getJavaType() == FieldDescriptor.JavaType.MESSAGE) {
+                    decoder.mMessages[number] = forType(field.getMessageType(), decoders);
+                } else if (field.getJavaType() == FieldDescriptor.JavaType.ENUM) {
+                    int maxValue = 0;
+                    for (EnumValueDescriptor value : field.getEnumType().getValues()) {
+                        maxValue = Math.max(maxValue, value.getNumber());
+                    }
+                    EnumValueDescriptor[] values = new EnumValueDescriptor[maxValue + 1];
+                    for (EnumValueDescriptor value : field.getEnumType().getValues()) {
+                        if (value.getNumber() >= 0) {
+                            values[value.getNumber()] = value;
+                        }
+                    }
+                    decoder.mEnumValues[number] = values;
+                }
+            }
+            return decoder;
+        }
+
+        /** Decodes fields up to the current limit of input. */
+        DynamicMessage decode(CodedInputStream input, int depth) throws IOException {
+            if (depth >= MAX_DEPTH) {
+                throw new InvalidProtocolBufferException("Session record is nested too deeply.");
+            }
+            DynamicMessage.Builder builder = DynamicMessage.newBuilder(mType);
+            UnknownFieldSet.Builder unknown = null;
+            while (true) {
+                int tag = input.readTag();
+                if (tag == 0) {
+                    break;
+                }
+                int number = WireFormat.getTagFieldNumber(tag);
+                int wireType = tag & 7;
+                FieldDescriptor field = number < mFields.length ? mFields[number] : null;
+                if (field != null && wireType == field.getLiteType().getWireType()) {
+                    unknown = readField(builder, unknown, field, input, depth);
+                    continue;
+                }
+                if (field != null && field.isPackable()
+                        && wireType == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+                    int limit = input.pushLimit(input.readRawVarint32());
+                    while (input.getBytesUntilLimit() > 0) {
+                        unknown = readField(builder, unknown, field, input, depth);
+                    }
+                    input.popLimit(limit);
+                    continue;
+                }
+                // Unknown, or of a wire type the schema doesn't have for it.
+                if (unknown == null) {
+                    unknown = UnknownFieldSet.newBuilder();
+                }
+                if (!unknown.mergeFieldFrom(tag, input)) {
+                    break;
+                }
+            }
+            if (unknown != null) {
+                builder.setUnknownFields(unknown.build());
+            }
+            return builder.buildPartial();
+        }
+
+        /**
+         * Reads one value of field into builder, or into unknown if it is an
+         * enum number the schema doesn't know.
+         *
+         * @return unknown, created if it was needed and null.
+         */
+        private UnknownFieldSet.Builder readField(DynamicMessage.Builder builder,
+                UnknownFieldSet.Builder unknown, FieldDescriptor field, CodedInputStream input,
+                int depth) throws IOException {
+            int number = field.getNumber();
+            Object value;
+            if (field.getJavaType() == FieldDescriptor.JavaType.ENUM) {
+                int raw = input.readEnum();
+                EnumValueDescriptor[] values = mEnumValues[number];
+                value = raw >= 0 && raw < values.length ? values[raw] : null;
+                if (value == null) {
+                    if (unknown == null) {
+                        unknown = UnknownFieldSet.newBuilder();
+                    }
+                    unknown.mergeVarintField(number, raw);
+                    return unknown;
+                }
+            } else {
+                value = readValue(field, input, depth);
+            }
+            if (field.isRepeated()) {
+                builder.addRepeatedField(field, value);
+            } else {
+                builder.setField(field, value);
+            }
+            return unknown;
+        }
+
+        private Object readValue(FieldDescriptor field, CodedInputStream input, int depth)
+                throws IOException {
+            switch (field.getType()) {
+                case DOUBLE:
+                    return input.readDouble();
+                case FLOAT:
+                    return input.readFloat();
+                case INT64:
+                    return input.readInt64();
+                case UINT64:
+                    return input.readUInt64();
+                case INT32:
+                    return input.readInt32();
+                case FIXED64:
+                    return input.readFixed64();
+                case FIXED32:
+                    return input.readFixed32();
+                case BOOL:
+                    return input.readBool();
+                case STRING:
+                    return input.readString();
+                case BYTES:
+                    return input.readBytes();
+                case UINT32:
+                    return input.readUInt32();
+                case SFIXED32:
+                    return input.readSFixed32();
+                case SFIXED64:
+                    return input.readSFixed64();
+                case SINT32:
+                    return input.readSInt32();
+                case SINT64:
+                    return input.readSInt64();
+                case MESSAGE: {
+                    int limit = input.pushLimit(input.readRawVarint32());
+                    DynamicMessage message = mMessages[field.getNumber()].decode(input,
+                            depth + 1);
+                    input.popLimit(limit);
+                    return message;
+                }
+                case GROUP: {
+                    DynamicMessage.Builder group = DynamicMessage.newBuilder(
+                            field.getMessageType());
+                    input.readGroup(field.getNumber(), group,
+                            ExtensionRegistry.getEmptyRegistry());
+                    return group.buildPartial();
+                }
+                default:
+                    throw new InvalidProtocolBufferException("Unexpected field type "
+                            + field.getType());
+            }
+        }
+    }
+}
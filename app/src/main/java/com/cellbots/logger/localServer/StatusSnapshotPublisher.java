@@ -0,0 +1,137 @@
+/**
+ * Copyright (C) 2012 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.cellbots.logger.localServer;
+
+import android.util.Log;
+
+import com.cellbots.logger.localServer.LocalHttpServer.HttpCommandServerListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Renders the logger status at most a fixed number of times per second into
+ * immutable, versioned snapshots. All HTTP pollers share the latest snapshot,
+ * so serving the status costs a volatile read instead of walking every
+ * sensor value and encoding a new string per request.
+ */
+class StatusSnapshotPublisher {
+    private static final String TAG = "StatusSnapshotPublisher";
+
+    /** An immutable rendering of the logger status. */
+    static class Snapshot {
+        final long version;
+
+        final String etag;
+
+        final byte[] bytes;
+
+        private byte[] mGzipped;
+
+        Snapshot(long version, String etag, byte[] bytes) {
+            this.version = version;
+            this.etag = etag;
+            this.bytes = bytes;
+        }
+
+        /** Returns the gzipped bytes, compressing them on first use. */
+        synchronized byte[] getGzipped() {
+            if (mGzipped == null) {
+                try {
+                    ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + 64);
+                    GZIPOutputStream gzip = new GZIPOutputStream(out);
+                    gzip.write(bytes);
+                    gzip.close();
+                    mGzipped = out.toByteArray();
+                } catch (IOException e) {
+                    // Can't happen with an in-memory stream; serve it plain.
+                    return null;
+                }
+            }
+            return mGzipped;
+        }
+
+        /** Returns true if an If-None-Match header matches this snapshot. */
+        boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String tag : ifNoneMatch.split(",")) {
+                tag = tag.trim();
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private final HttpCommandServerListener mListener;
+
+    private final long mMinRenderIntervalMs;
+
+    /** Distinguishes ETags of different server runs. */
+    private final String mEpoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private volatile Snapshot mSnapshot;
+
+    private volatile long mLastRenderTime;
+
+    StatusSnapshotPublisher(HttpCommandServerListener listener, float maxRendersPerSecond) {
+        mListener = listener;
+        mMinRenderIntervalMs = (long) (1000 / maxRendersPerSecond);
+    }
+
+    /**
+     * Returns the current snapshot, rendering a new one if the last one is
+     * older than the render interval. The version (and so the ETag) only
+     * changes when the rendered status actually changed.
+     */
+    Snapshot get() {
+        Snapshot snapshot = mSnapshot;
+        if (snapshot != null
+                && System.currentTimeMillis() - mLastRenderTime < mMinRenderIntervalMs) {
+            return snapshot;
+        }
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            snapshot = mSnapshot;
+            if (snapshot != null && now - mLastRenderTime < mMinRenderIntervalMs) {
+                return snapshot;
+            }
+            byte[] bytes;
+            try {
+                bytes = HttpResponse.utf8(mListener.getLoggerStatus());
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Error rendering status: " + e.getMessage());
+                if (snapshot != null) {
+                    return snapshot;
+                }
+                bytes = new byte[0];
+            }
+            mLastRenderTime = now;
+            if (snapshot == null || !Arrays.equals(snapshot.bytes, bytes)) {
+                long version = snapshot == null ? 1 : snapshot.version + 1;
+                snapshot = new Snapshot(version, "\"" + mEpoch + "-" + version + "\"", bytes);
+                mSnapshot = snapshot;
+            }
+            return snapshot;
+        }
+    }
+}
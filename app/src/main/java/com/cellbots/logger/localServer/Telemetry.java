@@ -598,6 +598,26 @@ public final class Telemetry {
      * <code>optional float value = 3;</code>
      */
     float getValue();
+
+    // optional uint32 slot = 16;
+    /**
+     * <code>optional uint32 slot = 16;</code>
+     *
+     * <pre>
+     * Set in keyframes and delta packets: the sensor's slot in the sender's
+     * snapshot, which names it across packets.
+     * </pre>
+     */
+    boolean hasSlot();
+    /**
+     * <code>optional uint32 slot = 16;</code>
+     *
+     * <pre>
+     * Set in keyframes and delta packets: the sensor's slot in the sender's
+     * snapshot, which names it across packets.
+     * </pre>
+     */
+    int getSlot();
   }
   /**
    * Protobuf type {@code Sensor}
@@ -671,6 +691,11 @@ public final class Telemetry {
               value_ = input.readFloat();
               break;
             }
+            case 128: {
+              bitField0_ |= 0x00000008;
+              slot_ = input.readUInt32();
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -859,10 +884,37 @@ public final class Telemetry {
       return value_;
     }
 
+    // optional uint32 slot = 16;
+    public static final int SLOT_FIELD_NUMBER = 16;
+    private int slot_;
+    /**
+     * <code>optional uint32 slot = 16;</code>
+     *
+     * <pre>
+     * Set in keyframes and delta packets: the sensor's slot in the sender's
+     * snapshot, which names it across packets.
+     * </pre>
+     */
+    public boolean hasSlot() {
+      return ((bitField0_ & 0x00000008) == 0x00000008);
+    }
+    /**
+     * <code>optional uint32 slot = 16;</code>
+     *
+     * <pre>
+     * Set in keyframes and delta packets: the sensor's slot in the sender's
+     * snapshot, which names it across packets.
+     * </pre>
+     */
+    public int getSlot() {
+      return slot_;
+    }
+
     private void initFields() {
       sensorType_ = Telemetry.Sensor.SensorType.AMBIENT_TEMPERATURE;
       id_ = 1;
       value_ = 0F;
+      slot_ = 0;
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -889,6 +941,9 @@ public final class Telemetry {
       if (((bitField0_ & 0x00000004) == 0x00000004)) {
         output.writeFloat(3, value_);
       }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        output.writeUInt32(16, slot_);
+      }
       getUnknownFields().writeTo(output);
     }
 
@@ -910,6 +965,10 @@ public final class Telemetry {
         size += com.google.protobuf.CodedOutputStream
           .computeFloatSize(3, value_);
       }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt32Size(16, slot_);
+      }
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
       return size;
@@ -1032,6 +1091,8 @@ public final class Telemetry {
         bitField0_ = (bitField0_ & ~0x00000002);
         value_ = 0F;
         bitField0_ = (bitField0_ & ~0x00000004);
+        slot_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000008);
         return this;
       }
 
@@ -1072,6 +1133,10 @@ public final class Telemetry {
           to_bitField0_ |= 0x00000004;
         }
         result.value_ = value_;
+        if (((from_bitField0_ & 0x00000008) == 0x00000008)) {
+          to_bitField0_ |= 0x00000008;
+        }
+        result.slot_ = slot_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -1097,6 +1162,9 @@ public final class Telemetry {
         if (other.hasValue()) {
           setValue(other.getValue());
         }
+        if (other.hasSlot()) {
+          setSlot(other.getSlot());
+        }
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
       }
@@ -1230,6 +1298,59 @@ public final class Telemetry {
         return this;
       }
 
+      // optional uint32 slot = 16;
+      private int slot_ ;
+      /**
+       * <code>optional uint32 slot = 16;</code>
+       *
+       * <pre>
+       * Set in keyframes and delta packets: the sensor's slot in the sender's
+       * snapshot, which names it across packets.
+       * </pre>
+       */
+      public boolean hasSlot() {
+        return ((bitField0_ & 0x00000008) == 0x00000008);
+      }
+      /**
+       * <code>optional uint32 slot = 16;</code>
+       *
+       * <pre>
+       * Set in keyframes and delta packets: the sensor's slot in the sender's
+       * snapshot, which names it across packets.
+       * </pre>
+       */
+      public int getSlot() {
+        return slot_;
+      }
+      /**
+       * <code>optional uint32 slot = 16;</code>
+       *
+       * <pre>
+       * Set in keyframes and delta packets: the sensor's slot in the sender's
+       * snapshot, which names it across packets.
+       * </pre>
+       */
+      public Builder setSlot(int value) {
+        bitField0_ |= 0x00000008;
+        slot_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional uint32 slot = 16;</code>
+       *
+       * <pre>
+       * Set in keyframes and delta packets: the sensor's slot in the sender's
+       * snapshot, which names it across packets.
+       * </pre>
+       */
+      public Builder clearSlot() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        slot_ = 0;
+        onChanged();
+        return this;
+      }
+
       // @@protoc_insertion_point(builder_scope:Sensor)
     }
 
@@ -1309,6 +1430,24 @@ public final class Telemetry {
      * <code>optional float z = 5;</code>
      */
     float getZ();
+
+    // optional uint32 slot = 16;
+    /**
+     * <code>optional uint32 slot = 16;</code>
+     *
+     * <pre>
+     * As in Sensor.
+     * </pre>
+     */
+    boolean hasSlot();
+    /**
+     * <code>optional uint32 slot = 16;</code>
+     *
+     * <pre>
+     * As in Sensor.
+     * </pre>
+     */
+    int getSlot();
   }
   /**
    * Protobuf type {@code ThreeAxisSensor}
@@ -1392,6 +1531,11 @@ public final class Telemetry {
               z_ = input.readFloat();
               break;
             }
+            case 128: {
+              bitField0_ |= 0x00000020;
+              slot_ = input.readUInt32();
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -1664,12 +1808,37 @@ public final class Telemetry {
       return z_;
     }
 
+    // optional uint32 slot = 16;
+    public static final int SLOT_FIELD_NUMBER = 16;
+    private int slot_;
+    /**
+     * <code>optional uint32 slot = 16;</code>
+     *
+     * <pre>
+     * As in Sensor.
+     * </pre>
+     */
+    public boolean hasSlot() {
+      return ((bitField0_ & 0x00000020) == 0x00000020);
+    }
+    /**
+     * <code>optional uint32 slot = 16;</code>
+     *
+     * <pre>
+     * As in Sensor.
+     * </pre>
+     */
+    public int getSlot() {
+      return slot_;
+    }
+
     private void initFields() {
       sensorType_ = Telemetry.ThreeAxisSensor.SensorType.ACCELEROMETER;
       id_ = 1;
       x_ = 0F;
       y_ = 0F;
       z_ = 0F;
+      slot_ = 0;
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -1702,6 +1871,9 @@ public final class Telemetry {
       if (((bitField0_ & 0x00000010) == 0x00000010)) {
         output.writeFloat(5, z_);
       }
+      if (((bitField0_ & 0x00000020) == 0x00000020)) {
+        output.writeUInt32(16, slot_);
+      }
       getUnknownFields().writeTo(output);
     }
 
@@ -1731,6 +1903,10 @@ public final class Telemetry {
         size += com.google.protobuf.CodedOutputStream
           .computeFloatSize(5, z_);
       }
+      if (((bitField0_ & 0x00000020) == 0x00000020)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt32Size(16, slot_);
+      }
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
       return size;
@@ -1857,6 +2033,8 @@ public final class Telemetry {
         bitField0_ = (bitField0_ & ~0x00000008);
         z_ = 0F;
         bitField0_ = (bitField0_ & ~0x00000010);
+        slot_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000020);
         return this;
       }
 
@@ -1905,6 +2083,10 @@ public final class Telemetry {
           to_bitField0_ |= 0x00000010;
         }
         result.z_ = z_;
+        if (((from_bitField0_ & 0x00000020) == 0x00000020)) {
+          to_bitField0_ |= 0x00000020;
+        }
+        result.slot_ = slot_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -1936,6 +2118,9 @@ public final class Telemetry {
         if (other.hasZ()) {
           setZ(other.getZ());
         }
+        if (other.hasSlot()) {
+          setSlot(other.getSlot());
+        }
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
       }
@@ -2167,6 +2352,55 @@ public final class Telemetry {
         return this;
       }
 
+      // optional uint32 slot = 16;
+      private int slot_ ;
+      /**
+       * <code>optional uint32 slot = 16;</code>
+       *
+       * <pre>
+       * As in Sensor.
+       * </pre>
+       */
+      public boolean hasSlot() {
+        return ((bitField0_ & 0x00000020) == 0x00000020);
+      }
+      /**
+       * <code>optional uint32 slot = 16;</code>
+       *
+       * <pre>
+       * As in Sensor.
+       * </pre>
+       */
+      public int getSlot() {
+        return slot_;
+      }
+      /**
+       * <code>optional uint32 slot = 16;</code>
+       *
+       * <pre>
+       * As in Sensor.
+       * </pre>
+       */
+      public Builder setSlot(int value) {
+        bitField0_ |= 0x00000020;
+        slot_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional uint32 slot = 16;</code>
+       *
+       * <pre>
+       * As in Sensor.
+       * </pre>
+       */
+      public Builder clearSlot() {
+        bitField0_ = (bitField0_ & ~0x00000020);
+        slot_ = 0;
+        onChanged();
+        return this;
+      }
+
       // @@protoc_insertion_point(builder_scope:ThreeAxisSensor)
     }
 
@@ -2232,6 +2466,24 @@ public final class Telemetry {
      */
     long getTimestamp();
 
+    // optional uint32 delta_base = 16;
+    /**
+     * <code>optional uint32 delta_base = 16;</code>
+     *
+     * <pre>
+     * Set on a delta packet: the sequence of the packet it builds on.
+     * </pre>
+     */
+    boolean hasDeltaBase();
+    /**
+     * <code>optional uint32 delta_base = 16;</code>
+     *
+     * <pre>
+     * Set on a delta packet: the sequence of the packet it builds on.
+     * </pre>
+     */
+    int getDeltaBase();
+
     // optional .Position position = 20;
     /**
      * <code>optional .Position position = 20;</code>
@@ -2362,9 +2614,14 @@ public final class Telemetry {
               timestamp_ = input.readUInt64();
               break;
             }
+            case 128: {
+              bitField0_ |= 0x00000008;
+              deltaBase_ = input.readUInt32();
+              break;
+            }
             case 162: {
               Telemetry.Position.Builder subBuilder = null;
-              if (((bitField0_ & 0x00000008) == 0x00000008)) {
+              if (((bitField0_ & 0x00000010) == 0x00000010)) {
                 subBuilder = position_.toBuilder();
               }
               position_ = input.readMessage(Telemetry.Position.PARSER, extensionRegistry);
@@ -2372,21 +2629,21 @@ public final class Telemetry {
                 subBuilder.mergeFrom(position_);
                 position_ = subBuilder.buildPartial();
               }
-              bitField0_ |= 0x00000008;
+              bitField0_ |= 0x00000010;
               break;
             }
             case 170: {
-              if (!((mutable_bitField0_ & 0x00000010) == 0x00000010)) {
+              if (!((mutable_bitField0_ & 0x00000020) == 0x00000020)) {
                 sensor_ = new java.util.ArrayList<Telemetry.Sensor>();
-                mutable_bitField0_ |= 0x00000010;
+                mutable_bitField0_ |= 0x00000020;
               }
               sensor_.add(input.readMessage(Telemetry.Sensor.PARSER, extensionRegistry));
               break;
             }
             case 178: {
-              if (!((mutable_bitField0_ & 0x00000020) == 0x00000020)) {
+              if (!((mutable_bitField0_ & 0x00000040) == 0x00000040)) {
                 threeAxisSensor_ = new java.util.ArrayList<Telemetry.ThreeAxisSensor>();
-                mutable_bitField0_ |= 0x00000020;
+                mutable_bitField0_ |= 0x00000040;
               }
               threeAxisSensor_.add(input.readMessage(Telemetry.ThreeAxisSensor.PARSER, extensionRegistry));
               break;
@@ -2399,10 +2656,10 @@ public final class Telemetry {
         throw new com.google.protobuf.InvalidProtocolBufferException(
             e.getMessage()).setUnfinishedMessage(this);
       } finally {
-        if (((mutable_bitField0_ & 0x00000010) == 0x00000010)) {
+        if (((mutable_bitField0_ & 0x00000020) == 0x00000020)) {
           sensor_ = java.util.Collections.unmodifiableList(sensor_);
         }
-        if (((mutable_bitField0_ & 0x00000020) == 0x00000020)) {
+        if (((mutable_bitField0_ & 0x00000040) == 0x00000040)) {
           threeAxisSensor_ = java.util.Collections.unmodifiableList(threeAxisSensor_);
         }
         this.unknownFields = unknownFields.build();
@@ -2528,6 +2785,30 @@ public final class Telemetry {
       return timestamp_;
     }
 
+    // optional uint32 delta_base = 16;
+    public static final int DELTA_BASE_FIELD_NUMBER = 16;
+    private int deltaBase_;
+    /**
+     * <code>optional uint32 delta_base = 16;</code>
+     *
+     * <pre>
+     * Set on a delta packet: the sequence of the packet it builds on.
+     * </pre>
+     */
+    public boolean hasDeltaBase() {
+      return ((bitField0_ & 0x00000008) == 0x00000008);
+    }
+    /**
+     * <code>optional uint32 delta_base = 16;</code>
+     *
+     * <pre>
+     * Set on a delta packet: the sequence of the packet it builds on.
+     * </pre>
+     */
+    public int getDeltaBase() {
+      return deltaBase_;
+    }
+
     // optional .Position position = 20;
     public static final int POSITION_FIELD_NUMBER = 20;
     private Telemetry.Position position_;
@@ -2535,7 +2816,7 @@ public final class Telemetry {
      * <code>optional .Position position = 20;</code>
      */
     public boolean hasPosition() {
-      return ((bitField0_ & 0x00000008) == 0x00000008);
+      return ((bitField0_ & 0x00000010) == 0x00000010);
     }
     /**
      * <code>optional .Position position = 20;</code>
@@ -2626,6 +2907,7 @@ public final class Telemetry {
       senderId_ = "";
       sequence_ = 0;
       timestamp_ = 0L;
+      deltaBase_ = 0;
       position_ = Telemetry.Position.getDefaultInstance();
       sensor_ = java.util.Collections.emptyList();
       threeAxisSensor_ = java.util.Collections.emptyList();
@@ -2664,6 +2946,9 @@ public final class Telemetry {
         output.writeUInt64(3, timestamp_);
       }
       if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        output.writeUInt32(16, deltaBase_);
+      }
+      if (((bitField0_ & 0x00000010) == 0x00000010)) {
         output.writeMessage(20, position_);
       }
       for (int i = 0; i < sensor_.size(); i++) {
@@ -2694,6 +2979,10 @@ public final class Telemetry {
           .computeUInt64Size(3, timestamp_);
       }
       if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt32Size(16, deltaBase_);
+      }
+      if (((bitField0_ & 0x00000010) == 0x00000010)) {
         size += com.google.protobuf.CodedOutputStream
           .computeMessageSize(20, position_);
       }
@@ -2830,21 +3119,23 @@ public final class Telemetry {
         bitField0_ = (bitField0_ & ~0x00000002);
         timestamp_ = 0L;
         bitField0_ = (bitField0_ & ~0x00000004);
+        deltaBase_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000008);
         if (positionBuilder_ == null) {
           position_ = Telemetry.Position.getDefaultInstance();
         } else {
           positionBuilder_.clear();
         }
-        bitField0_ = (bitField0_ & ~0x00000008);
+        bitField0_ = (bitField0_ & ~0x00000010);
         if (sensorBuilder_ == null) {
           sensor_ = java.util.Collections.emptyList();
-          bitField0_ = (bitField0_ & ~0x00000010);
+          bitField0_ = (bitField0_ & ~0x00000020);
         } else {
           sensorBuilder_.clear();
         }
         if (threeAxisSensorBuilder_ == null) {
           threeAxisSensor_ = java.util.Collections.emptyList();
-          bitField0_ = (bitField0_ & ~0x00000020);
+          bitField0_ = (bitField0_ & ~0x00000040);
         } else {
           threeAxisSensorBuilder_.clear();
         }
@@ -2891,24 +3182,28 @@ public final class Telemetry {
         if (((from_bitField0_ & 0x00000008) == 0x00000008)) {
           to_bitField0_ |= 0x00000008;
         }
+        result.deltaBase_ = deltaBase_;
+        if (((from_bitField0_ & 0x00000010) == 0x00000010)) {
+          to_bitField0_ |= 0x00000010;
+        }
         if (positionBuilder_ == null) {
           result.position_ = position_;
         } else {
           result.position_ = positionBuilder_.build();
         }
         if (sensorBuilder_ == null) {
-          if (((bitField0_ & 0x00000010) == 0x00000010)) {
+          if (((bitField0_ & 0x00000020) == 0x00000020)) {
             sensor_ = java.util.Collections.unmodifiableList(sensor_);
-            bitField0_ = (bitField0_ & ~0x00000010);
+            bitField0_ = (bitField0_ & ~0x00000020);
           }
           result.sensor_ = sensor_;
         } else {
           result.sensor_ = sensorBuilder_.build();
         }
         if (threeAxisSensorBuilder_ == null) {
-          if (((bitField0_ & 0x00000020) == 0x00000020)) {
+          if (((bitField0_ & 0x00000040) == 0x00000040)) {
             threeAxisSensor_ = java.util.Collections.unmodifiableList(threeAxisSensor_);
-            bitField0_ = (bitField0_ & ~0x00000020);
+            bitField0_ = (bitField0_ & ~0x00000040);
           }
           result.threeAxisSensor_ = threeAxisSensor_;
         } else {
@@ -2941,6 +3236,9 @@ public final class Telemetry {
         if (other.hasTimestamp()) {
           setTimestamp(other.getTimestamp());
         }
+        if (other.hasDeltaBase()) {
+          setDeltaBase(other.getDeltaBase());
+        }
         if (other.hasPosition()) {
           mergePosition(other.getPosition());
         }
@@ -2948,7 +3246,7 @@ public final class Telemetry {
           if (!other.sensor_.isEmpty()) {
             if (sensor_.isEmpty()) {
               sensor_ = other.sensor_;
-              bitField0_ = (bitField0_ & ~0x00000010);
+              bitField0_ = (bitField0_ & ~0x00000020);
             } else {
               ensureSensorIsMutable();
               sensor_.addAll(other.sensor_);
@@ -2961,7 +3259,7 @@ public final class Telemetry {
               sensorBuilder_.dispose();
               sensorBuilder_ = null;
               sensor_ = other.sensor_;
-              bitField0_ = (bitField0_ & ~0x00000010);
+              bitField0_ = (bitField0_ & ~0x00000020);
               sensorBuilder_ = 
                 com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders ?
                    getSensorFieldBuilder() : null;
@@ -2974,7 +3272,7 @@ public final class Telemetry {
           if (!other.threeAxisSensor_.isEmpty()) {
             if (threeAxisSensor_.isEmpty()) {
               threeAxisSensor_ = other.threeAxisSensor_;
-              bitField0_ = (bitField0_ & ~0x00000020);
+              bitField0_ = (bitField0_ & ~0x00000040);
             } else {
               ensureThreeAxisSensorIsMutable();
               threeAxisSensor_.addAll(other.threeAxisSensor_);
@@ -2987,7 +3285,7 @@ public final class Telemetry {
               threeAxisSensorBuilder_.dispose();
               threeAxisSensorBuilder_ = null;
               threeAxisSensor_ = other.threeAxisSensor_;
-              bitField0_ = (bitField0_ & ~0x00000020);
+              bitField0_ = (bitField0_ & ~0x00000040);
               threeAxisSensorBuilder_ = 
                 com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders ?
                    getThreeAxisSensorFieldBuilder() : null;
@@ -3207,6 +3505,55 @@ public final class Telemetry {
         return this;
       }
 
+      // optional uint32 delta_base = 16;
+      private int deltaBase_ ;
+      /**
+       * <code>optional uint32 delta_base = 16;</code>
+       *
+       * <pre>
+       * Set on a delta packet: the sequence of the packet it builds on.
+       * </pre>
+       */
+      public boolean hasDeltaBase() {
+        return ((bitField0_ & 0x00000008) == 0x00000008);
+      }
+      /**
+       * <code>optional uint32 delta_base = 16;</code>
+       *
+       * <pre>
+       * Set on a delta packet: the sequence of the packet it builds on.
+       * </pre>
+       */
+      public int getDeltaBase() {
+        return deltaBase_;
+      }
+      /**
+       * <code>optional uint32 delta_base = 16;</code>
+       *
+       * <pre>
+       * Set on a delta packet: the sequence of the packet it builds on.
+       * </pre>
+       */
+      public Builder setDeltaBase(int value) {
+        bitField0_ |= 0x00000008;
+        deltaBase_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional uint32 delta_base = 16;</code>
+       *
+       * <pre>
+       * Set on a delta packet: the sequence of the packet it builds on.
+       * </pre>
+       */
+      public Builder clearDeltaBase() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        deltaBase_ = 0;
+        onChanged();
+        return this;
+      }
+
       // optional .Position position = 20;
       private Telemetry.Position position_ = Telemetry.Position.getDefaultInstance();
       private com.google.protobuf.SingleFieldBuilder<
@@ -3215,7 +3562,7 @@ public final class Telemetry {
        * <code>optional .Position position = 20;</code>
        */
       public boolean hasPosition() {
-        return ((bitField0_ & 0x00000008) == 0x00000008);
+        return ((bitField0_ & 0x00000010) == 0x00000010);
       }
       /**
        * <code>optional .Position position = 20;</code>
@@ -3240,7 +3587,7 @@ public final class Telemetry {
         } else {
           positionBuilder_.setMessage(value);
         }
-        bitField0_ |= 0x00000008;
+        bitField0_ |= 0x00000010;
         return this;
       }
       /**
@@ -3254,7 +3601,7 @@ public final class Telemetry {
         } else {
           positionBuilder_.setMessage(builderForValue.build());
         }
-        bitField0_ |= 0x00000008;
+        bitField0_ |= 0x00000010;
         return this;
       }
       /**
@@ -3262,7 +3609,7 @@ public final class Telemetry {
        */
       public Builder mergePosition(Telemetry.Position value) {
         if (positionBuilder_ == null) {
-          if (((bitField0_ & 0x00000008) == 0x00000008) &&
+          if (((bitField0_ & 0x00000010) == 0x00000010) &&
               position_ != Telemetry.Position.getDefaultInstance()) {
             position_ =
               Telemetry.Position.newBuilder(position_).mergeFrom(value).buildPartial();
@@ -3273,7 +3620,7 @@ public final class Telemetry {
         } else {
           positionBuilder_.mergeFrom(value);
         }
-        bitField0_ |= 0x00000008;
+        bitField0_ |= 0x00000010;
         return this;
       }
       /**
@@ -3286,14 +3633,14 @@ public final class Telemetry {
         } else {
           positionBuilder_.clear();
         }
-        bitField0_ = (bitField0_ & ~0x00000008);
+        bitField0_ = (bitField0_ & ~0x00000010);
         return this;
       }
       /**
        * <code>optional .Position position = 20;</code>
        */
       public Telemetry.Position.Builder getPositionBuilder() {
-        bitField0_ |= 0x00000008;
+        bitField0_ |= 0x00000010;
         onChanged();
         return getPositionFieldBuilder().getBuilder();
       }
@@ -3328,9 +3675,9 @@ public final class Telemetry {
       private java.util.List<Telemetry.Sensor> sensor_ =
         java.util.Collections.emptyList();
       private void ensureSensorIsMutable() {
-        if (!((bitField0_ & 0x00000010) == 0x00000010)) {
+        if (!((bitField0_ & 0x00000020) == 0x00000020)) {
           sensor_ = new java.util.ArrayList<Telemetry.Sensor>(sensor_);
-          bitField0_ |= 0x00000010;
+          bitField0_ |= 0x00000020;
          }
       }
 
@@ -3479,7 +3826,7 @@ public final class Telemetry {
       public Builder clearSensor() {
         if (sensorBuilder_ == null) {
           sensor_ = java.util.Collections.emptyList();
-          bitField0_ = (bitField0_ & ~0x00000010);
+          bitField0_ = (bitField0_ & ~0x00000020);
           onChanged();
         } else {
           sensorBuilder_.clear();
@@ -3556,7 +3903,7 @@ public final class Telemetry {
           sensorBuilder_ = new com.google.protobuf.RepeatedFieldBuilder<
               Telemetry.Sensor, Telemetry.Sensor.Builder, Telemetry.SensorOrBuilder>(
                   sensor_,
-                  ((bitField0_ & 0x00000010) == 0x00000010),
+                  ((bitField0_ & 0x00000020) == 0x00000020),
                   getParentForChildren(),
                   isClean());
           sensor_ = null;
@@ -3568,9 +3915,9 @@ public final class Telemetry {
       private java.util.List<Telemetry.ThreeAxisSensor> threeAxisSensor_ =
         java.util.Collections.emptyList();
       private void ensureThreeAxisSensorIsMutable() {
-        if (!((bitField0_ & 0x00000020) == 0x00000020)) {
+        if (!((bitField0_ & 0x00000040) == 0x00000040)) {
           threeAxisSensor_ = new java.util.ArrayList<Telemetry.ThreeAxisSensor>(threeAxisSensor_);
-          bitField0_ |= 0x00000020;
+          bitField0_ |= 0x00000040;
          }
       }
 
@@ -3719,7 +4066,7 @@ public final class Telemetry {
       public Builder clearThreeAxisSensor() {
         if (threeAxisSensorBuilder_ == null) {
           threeAxisSensor_ = java.util.Collections.emptyList();
-          bitField0_ = (bitField0_ & ~0x00000020);
+          bitField0_ = (bitField0_ & ~0x00000040);
           onChanged();
         } else {
           threeAxisSensorBuilder_.clear();
@@ -3796,7 +4143,7 @@ public final class Telemetry {
           threeAxisSensorBuilder_ = new com.google.protobuf.RepeatedFieldBuilder<
               Telemetry.ThreeAxisSensor, Telemetry.ThreeAxisSensor.Builder, Telemetry.ThreeAxisSensorOrBuilder>(
                   threeAxisSensor_,
-                  ((bitField0_ & 0x00000020) == 0x00000020),
+                  ((bitField0_ & 0x00000040) == 0x00000040),
                   getParentForChildren(),
                   isClean());
           threeAxisSensor_ = null;
@@ -6479,13 +6826,114 @@ public final class Telemetry {
      * <code>optional uint64 timestamp = 3;</code>
      */
     long getTimestamp();
-  }
-  /**
-   * Protobuf type {@code CommandPacket}
-   */
-  public static final class CommandPacket extends
-      com.google.protobuf.GeneratedMessage
-      implements CommandPacketOrBuilder {
+
+    // optional string command = 16;
+    /**
+     * <code>optional string command = 16;</code>
+     *
+     * <pre>
+     * Request: the command line, such as "status" or "tag start".
+     * </pre>
+     */
+    boolean hasCommand();
+    /**
+     * <code>optional string command = 16;</code>
+     *
+     * <pre>
+     * Request: the command line, such as "status" or "tag start".
+     * </pre>
+     */
+    java.lang.String getCommand();
+    /**
+     * <code>optional string command = 16;</code>
+     *
+     * <pre>
+     * Request: the command line, such as "status" or "tag start".
+     * </pre>
+     */
+    com.google.protobuf.ByteString
+        getCommandBytes();
+
+    // optional uint64 request_id = 17;
+    /**
+     * <code>optional uint64 request_id = 17;</code>
+     *
+     * <pre>
+     * Set on a request and echoed in its reply; 0 in messages the device
+     * sends on its own.
+     * </pre>
+     */
+    boolean hasRequestId();
+    /**
+     * <code>optional uint64 request_id = 17;</code>
+     *
+     * <pre>
+     * Set on a request and echoed in its reply; 0 in messages the device
+     * sends on its own.
+     * </pre>
+     */
+    long getRequestId();
+
+    // optional .CommandPacket.Status status = 18;
+    /**
+     * <code>optional .CommandPacket.Status status = 18;</code>
+     *
+     * <pre>
+     * Reply: how the command went.
+     * </pre>
+     */
+    boolean hasStatus();
+    /**
+     * <code>optional .CommandPacket.Status status = 18;</code>
+     *
+     * <pre>
+     * Reply: how the command went.
+     * </pre>
+     */
+    Telemetry.CommandPacket.Status getStatus();
+
+    // repeated string response = 19;
+    /**
+     * <code>repeated string response = 19;</code>
+     *
+     * <pre>
+     * Reply: each response the command gave, in order.
+     * </pre>
+     */
+    java.util.List<java.lang.String>
+    getResponseList();
+    /**
+     * <code>repeated string response = 19;</code>
+     *
+     * <pre>
+     * Reply: each response the command gave, in order.
+     * </pre>
+     */
+    int getResponseCount();
+    /**
+     * <code>repeated string response = 19;</code>
+     *
+     * <pre>
+     * Reply: each response the command gave, in order.
+     * </pre>
+     */
+    java.lang.String getResponse(int index);
+    /**
+     * <code>repeated string response = 19;</code>
+     *
+     * <pre>
+     * Reply: each response the command gave, in order.
+     * </pre>
+     */
+    com.google.protobuf.ByteString
+        getResponseBytes(int index);
+  }
+  /**
+   * Protobuf type {@code CommandPacket}
+   */
+  public static final class CommandPacket extends
+      com.google.protobuf.GeneratedMessage
+      implements CommandPacketOrBuilder {
     // Use CommandPacket.newBuilder() to construct.
     private CommandPacket(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
       super(builder);
@@ -6546,6 +6994,35 @@ public final class Telemetry {
               timestamp_ = input.readUInt64();
               break;
             }
+            case 130: {
+              bitField0_ |= 0x00000008;
+              command_ = input.readBytes();
+              break;
+            }
+            case 136: {
+              bitField0_ |= 0x00000010;
+              requestId_ = input.readUInt64();
+              break;
+            }
+            case 144: {
+              int rawValue = input.readEnum();
+              Telemetry.CommandPacket.Status value = Telemetry.CommandPacket.Status.valueOf(rawValue);
+              if (value == null) {
+                unknownFields.mergeVarintField(18, rawValue);
+              } else {
+                bitField0_ |= 0x00000020;
+                status_ = value;
+              }
+              break;
+            }
+            case 154: {
+              if (!((mutable_bitField0_ & 0x00000040) == 0x00000040)) {
+                response_ = new com.google.protobuf.LazyStringArrayList();
+                mutable_bitField0_ |= 0x00000040;
+              }
+              response_.add(input.readBytes());
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -6554,6 +7031,9 @@ public final class Telemetry {
         throw new com.google.protobuf.InvalidProtocolBufferException(
             e.getMessage()).setUnfinishedMessage(this);
       } finally {
+        if (((mutable_bitField0_ & 0x00000040) == 0x00000040)) {
+          response_ = new com.google.protobuf.UnmodifiableLazyStringList(response_);
+        }
         this.unknownFields = unknownFields.build();
         makeExtensionsImmutable();
       }
@@ -6585,6 +7065,97 @@ public final class Telemetry {
       return PARSER;
     }
 
+    /**
+     * Protobuf enum {@code CommandPacket.Status}
+     */
+    public enum Status
+        implements com.google.protobuf.ProtocolMessageEnum {
+      /**
+       * <code>OK = 0;</code>
+       */
+      OK(0, 0),
+      /**
+       * <code>UNKNOWN_COMMAND = 1;</code>
+       */
+      UNKNOWN_COMMAND(1, 1),
+      /**
+       * <code>FAILED = 2;</code>
+       */
+      FAILED(2, 2),
+      ;
+
+      /**
+       * <code>OK = 0;</code>
+       */
+      public static final int OK_VALUE = 0;
+      /**
+       * <code>UNKNOWN_COMMAND = 1;</code>
+       */
+      public static final int UNKNOWN_COMMAND_VALUE = 1;
+      /**
+       * <code>FAILED = 2;</code>
+       */
+      public static final int FAILED_VALUE = 2;
+
+
+      public final int getNumber() { return value; }
+
+      public static Status valueOf(int value) {
+        switch (value) {
+          case 0: return OK;
+          case 1: return UNKNOWN_COMMAND;
+          case 2: return FAILED;
+          default: return null;
+        }
+      }
+
+      public static com.google.protobuf.Internal.EnumLiteMap<Status>
+          internalGetValueMap() {
+        return internalValueMap;
+      }
+      private static com.google.protobuf.Internal.EnumLiteMap<Status>
+          internalValueMap =
+            new com.google.protobuf.Internal.EnumLiteMap<Status>() {
+              public Status findValueByNumber(int number) {
+                return Status.valueOf(number);
+              }
+            };
+
+      public final com.google.protobuf.Descriptors.EnumValueDescriptor
+          getValueDescriptor() {
+        return getDescriptor().getValues().get(index);
+      }
+      public final com.google.protobuf.Descriptors.EnumDescriptor
+          getDescriptorForType() {
+        return getDescriptor();
+      }
+      public static final com.google.protobuf.Descriptors.EnumDescriptor
+          getDescriptor() {
+        return Telemetry.CommandPacket.getDescriptor().getEnumTypes().get(0);
+      }
+
+      private static final Status[] VALUES = values();
+
+      public static Status valueOf(
+          com.google.protobuf.Descriptors.EnumValueDescriptor desc) {
+        if (desc.getType() != getDescriptor()) {
+          throw new java.lang.IllegalArgumentException(
+            "EnumValueDescriptor is not for this type.");
+        }
+        return VALUES[desc.getIndex()];
+      }
+
+      private final int index;
+      private final int value;
+
+      private Status(int index, int value) {
+        this.index = index;
+        this.value = value;
+      }
+
+      // @@protoc_insertion_point(enum_scope:CommandPacket.Status)
+    }
+
     private int bitField0_;
     // optional string sender_id = 1;
     public static final int SENDER_ID_FIELD_NUMBER = 1;
@@ -6688,10 +7259,165 @@ public final class Telemetry {
       return timestamp_;
     }
 
+    // optional string command = 16;
+    public static final int COMMAND_FIELD_NUMBER = 16;
+    private java.lang.Object command_;
+    /**
+     * <code>optional string command = 16;</code>
+     *
+     * <pre>
+     * Request: the command line, such as "status" or "tag start".
+     * </pre>
+     */
+    public boolean hasCommand() {
+      return ((bitField0_ & 0x00000008) == 0x00000008);
+    }
+    /**
+     * <code>optional string command = 16;</code>
+     *
+     * <pre>
+     * Request: the command line, such as "status" or "tag start".
+     * </pre>
+     */
+    public java.lang.String getCommand() {
+      java.lang.Object ref = command_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          command_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string command = 16;</code>
+     *
+     * <pre>
+     * Request: the command line, such as "status" or "tag start".
+     * </pre>
+     */
+    public com.google.protobuf.ByteString
+        getCommandBytes() {
+      java.lang.Object ref = command_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        command_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    // optional uint64 request_id = 17;
+    public static final int REQUEST_ID_FIELD_NUMBER = 17;
+    private long requestId_;
+    /**
+     * <code>optional uint64 request_id = 17;</code>
+     *
+     * <pre>
+     * Set on a request and echoed in its reply; 0 in messages the device
+     * sends on its own.
+     * </pre>
+     */
+    public boolean hasRequestId() {
+      return ((bitField0_ & 0x00000010) == 0x00000010);
+    }
+    /**
+     * <code>optional uint64 request_id = 17;</code>
+     *
+     * <pre>
+     * Set on a request and echoed in its reply; 0 in messages the device
+     * sends on its own.
+     * </pre>
+     */
+    public long getRequestId() {
+      return requestId_;
+    }
+
+    // optional .CommandPacket.Status status = 18;
+    public static final int STATUS_FIELD_NUMBER = 18;
+    private Telemetry.CommandPacket.Status status_;
+    /**
+     * <code>optional .CommandPacket.Status status = 18;</code>
+     *
+     * <pre>
+     * Reply: how the command went.
+     * </pre>
+     */
+    public boolean hasStatus() {
+      return ((bitField0_ & 0x00000020) == 0x00000020);
+    }
+    /**
+     * <code>optional .CommandPacket.Status status = 18;</code>
+     *
+     * <pre>
+     * Reply: how the command went.
+     * </pre>
+     */
+    public Telemetry.CommandPacket.Status getStatus() {
+      return status_;
+    }
+
+    // repeated string response = 19;
+    public static final int RESPONSE_FIELD_NUMBER = 19;
+    private com.google.protobuf.LazyStringList response_;
+    /**
+     * <code>repeated string response = 19;</code>
+     *
+     * <pre>
+     * Reply: each response the command gave, in order.
+     * </pre>
+     */
+    public java.util.List<java.lang.String>
+        getResponseList() {
+      return response_;
+    }
+    /**
+     * <code>repeated string response = 19;</code>
+     *
+     * <pre>
+     * Reply: each response the command gave, in order.
+     * </pre>
+     */
+    public int getResponseCount() {
+      return response_.size();
+    }
+    /**
+     * <code>repeated string response = 19;</code>
+     *
+     * <pre>
+     * Reply: each response the command gave, in order.
+     * </pre>
+     */
+    public java.lang.String getResponse(int index) {
+      return response_.get(index);
+    }
+    /**
+     * <code>repeated string response = 19;</code>
+     *
+     * <pre>
+     * Reply: each response the command gave, in order.
+     * </pre>
+     */
+    public com.google.protobuf.ByteString
+        getResponseBytes(int index) {
+      return response_.getByteString(index);
+    }
+
     private void initFields() {
       senderId_ = "";
       recipientId_ = "";
       timestamp_ = 0L;
+      command_ = "";
+      requestId_ = 0L;
+      status_ = Telemetry.CommandPacket.Status.OK;
+      response_ = com.google.protobuf.LazyStringArrayList.EMPTY;
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -6714,6 +7440,18 @@ public final class Telemetry {
       if (((bitField0_ & 0x00000004) == 0x00000004)) {
         output.writeUInt64(3, timestamp_);
       }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        output.writeBytes(16, getCommandBytes());
+      }
+      if (((bitField0_ & 0x00000010) == 0x00000010)) {
+        output.writeUInt64(17, requestId_);
+      }
+      if (((bitField0_ & 0x00000020) == 0x00000020)) {
+        output.writeEnum(18, status_.getNumber());
+      }
+      for (int i = 0; i < response_.size(); i++) {
+        output.writeBytes(19, response_.getByteString(i));
+      }
       getUnknownFields().writeTo(output);
     }
 
@@ -6735,6 +7473,27 @@ public final class Telemetry {
         size += com.google.protobuf.CodedOutputStream
           .computeUInt64Size(3, timestamp_);
       }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(16, getCommandBytes());
+      }
+      if (((bitField0_ & 0x00000010) == 0x00000010)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt64Size(17, requestId_);
+      }
+      if (((bitField0_ & 0x00000020) == 0x00000020)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeEnumSize(18, status_.getNumber());
+      }
+      {
+        int dataSize = 0;
+        for (int i = 0; i < response_.size(); i++) {
+          dataSize += com.google.protobuf.CodedOutputStream
+            .computeBytesSizeNoTag(response_.getByteString(i));
+        }
+        size += dataSize;
+        size += 2 * getResponseList().size();
+      }
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
       return size;
@@ -6857,6 +7616,14 @@ public final class Telemetry {
         bitField0_ = (bitField0_ & ~0x00000002);
         timestamp_ = 0L;
         bitField0_ = (bitField0_ & ~0x00000004);
+        command_ = "";
+        bitField0_ = (bitField0_ & ~0x00000008);
+        requestId_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000010);
+        status_ = Telemetry.CommandPacket.Status.OK;
+        bitField0_ = (bitField0_ & ~0x00000020);
+        response_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000040);
         return this;
       }
 
@@ -6897,6 +7664,24 @@ public final class Telemetry {
           to_bitField0_ |= 0x00000004;
         }
         result.timestamp_ = timestamp_;
+        if (((from_bitField0_ & 0x00000008) == 0x00000008)) {
+          to_bitField0_ |= 0x00000008;
+        }
+        result.command_ = command_;
+        if (((from_bitField0_ & 0x00000010) == 0x00000010)) {
+          to_bitField0_ |= 0x00000010;
+        }
+        result.requestId_ = requestId_;
+        if (((from_bitField0_ & 0x00000020) == 0x00000020)) {
+          to_bitField0_ |= 0x00000020;
+        }
+        result.status_ = status_;
+        if (((bitField0_ & 0x00000040) == 0x00000040)) {
+          response_ = new com.google.protobuf.UnmodifiableLazyStringList(
+              response_);
+          bitField0_ = (bitField0_ & ~0x00000040);
+        }
+        result.response_ = response_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -6926,6 +7711,27 @@ public final class Telemetry {
         if (other.hasTimestamp()) {
           setTimestamp(other.getTimestamp());
         }
+        if (other.hasCommand()) {
+          bitField0_ |= 0x00000008;
+          command_ = other.command_;
+          onChanged();
+        }
+        if (other.hasRequestId()) {
+          setRequestId(other.getRequestId());
+        }
+        if (other.hasStatus()) {
+          setStatus(other.getStatus());
+        }
+        if (!other.response_.isEmpty()) {
+          if (response_.isEmpty()) {
+            response_ = other.response_;
+            bitField0_ = (bitField0_ & ~0x00000040);
+          } else {
+            ensureResponseIsMutable();
+            response_.addAll(other.response_);
+          }
+          onChanged();
+        }
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
       }
@@ -7134,6 +7940,338 @@ public final class Telemetry {
         return this;
       }
 
+      // optional string command = 16;
+      private java.lang.Object command_ = "";
+      /**
+       * <code>optional string command = 16;</code>
+       *
+       * <pre>
+       * Request: the command line, such as "status" or "tag start".
+       * </pre>
+       */
+      public boolean hasCommand() {
+        return ((bitField0_ & 0x00000008) == 0x00000008);
+      }
+      /**
+       * <code>optional string command = 16;</code>
+       *
+       * <pre>
+       * Request: the command line, such as "status" or "tag start".
+       * </pre>
+       */
+      public java.lang.String getCommand() {
+        java.lang.Object ref = command_;
+        if (!(ref instanceof java.lang.String)) {
+          java.lang.String s = ((com.google.protobuf.ByteString) ref)
+              .toStringUtf8();
+          command_ = s;
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>optional string command = 16;</code>
+       *
+       * <pre>
+       * Request: the command line, such as "status" or "tag start".
+       * </pre>
+       */
+      public com.google.protobuf.ByteString
+          getCommandBytes() {
+        java.lang.Object ref = command_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          command_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>optional string command = 16;</code>
+       *
+       * <pre>
+       * Request: the command line, such as "status" or "tag start".
+       * </pre>
+       */
+      public Builder setCommand(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000008;
+        command_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string command = 16;</code>
+       *
+       * <pre>
+       * Request: the command line, such as "status" or "tag start".
+       * </pre>
+       */
+      public Builder clearCommand() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        command_ = getDefaultInstance().getCommand();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string command = 16;</code>
+       *
+       * <pre>
+       * Request: the command line, such as "status" or "tag start".
+       * </pre>
+       */
+      public Builder setCommandBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000008;
+        command_ = value;
+        onChanged();
+        return this;
+      }
+
+      // optional uint64 request_id = 17;
+      private long requestId_ ;
+      /**
+       * <code>optional uint64 request_id = 17;</code>
+       *
+       * <pre>
+       * Set on a request and echoed in its reply; 0 in messages the device
+       * sends on its own.
+       * </pre>
+       */
+      public boolean hasRequestId() {
+        return ((bitField0_ & 0x00000010) == 0x00000010);
+      }
+      /**
+       * <code>optional uint64 request_id = 17;</code>
+       *
+       * <pre>
+       * Set on a request and echoed in its reply; 0 in messages the device
+       * sends on its own.
+       * </pre>
+       */
+      public long getRequestId() {
+        return requestId_;
+      }
+      /**
+       * <code>optional uint64 request_id = 17;</code>
+       *
+       * <pre>
+       * Set on a request and echoed in its reply; 0 in messages the device
+       * sends on its own.
+       * </pre>
+       */
+      public Builder setRequestId(long value) {
+        bitField0_ |= 0x00000010;
+        requestId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional uint64 request_id = 17;</code>
+       *
+       * <pre>
+       * Set on a request and echoed in its reply; 0 in messages the device
+       * sends on its own.
+       * </pre>
+       */
+      public Builder clearRequestId() {
+        bitField0_ = (bitField0_ & ~0x00000010);
+        requestId_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      // optional .CommandPacket.Status status = 18;
+      private Telemetry.CommandPacket.Status status_ = Telemetry.CommandPacket.Status.OK;
+      /**
+       * <code>optional .CommandPacket.Status status = 18;</code>
+       *
+       * <pre>
+       * Reply: how the command went.
+       * </pre>
+       */
+      public boolean hasStatus() {
+        return ((bitField0_ & 0x00000020) == 0x00000020);
+      }
+      /**
+       * <code>optional .CommandPacket.Status status = 18;</code>
+       *
+       * <pre>
+       * Reply: how the command went.
+       * </pre>
+       */
+      public Telemetry.CommandPacket.Status getStatus() {
+        return status_;
+      }
+      /**
+       * <code>optional .CommandPacket.Status status = 18;</code>
+       *
+       * <pre>
+       * Reply: how the command went.
+       * </pre>
+       */
+      public Builder setStatus(Telemetry.CommandPacket.Status value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        bitField0_ |= 0x00000020;
+        status_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional .CommandPacket.Status status = 18;</code>
+       *
+       * <pre>
+       * Reply: how the command went.
+       * </pre>
+       */
+      public Builder clearStatus() {
+        bitField0_ = (bitField0_ & ~0x00000020);
+        status_ = Telemetry.CommandPacket.Status.OK;
+        onChanged();
+        return this;
+      }
+
+      // repeated string response = 19;
+      private com.google.protobuf.LazyStringList response_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+      private void ensureResponseIsMutable() {
+        if (!((bitField0_ & 0x00000040) == 0x00000040)) {
+          response_ = new com.google.protobuf.LazyStringArrayList(response_);
+          bitField0_ |= 0x00000040;
+         }
+      }
+      /**
+       * <code>repeated string response = 19;</code>
+       *
+       * <pre>
+       * Reply: each response the command gave, in order.
+       * </pre>
+       */
+      public java.util.List<java.lang.String>
+          getResponseList() {
+        return java.util.Collections.unmodifiableList(response_);
+      }
+      /**
+       * <code>repeated string response = 19;</code>
+       *
+       * <pre>
+       * Reply: each response the command gave, in order.
+       * </pre>
+       */
+      public int getResponseCount() {
+        return response_.size();
+      }
+      /**
+       * <code>repeated string response = 19;</code>
+       *
+       * <pre>
+       * Reply: each response the command gave, in order.
+       * </pre>
+       */
+      public java.lang.String getResponse(int index) {
+        return response_.get(index);
+      }
+      /**
+       * <code>repeated string response = 19;</code>
+       *
+       * <pre>
+       * Reply: each response the command gave, in order.
+       * </pre>
+       */
+      public com.google.protobuf.ByteString
+          getResponseBytes(int index) {
+        return response_.getByteString(index);
+      }
+      /**
+       * <code>repeated string response = 19;</code>
+       *
+       * <pre>
+       * Reply: each response the command gave, in order.
+       * </pre>
+       */
+      public Builder setResponse(
+          int index, java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureResponseIsMutable();
+        response_.set(index, value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated string response = 19;</code>
+       *
+       * <pre>
+       * Reply: each response the command gave, in order.
+       * </pre>
+       */
+      public Builder addResponse(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureResponseIsMutable();
+        response_.add(value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated string response = 19;</code>
+       *
+       * <pre>
+       * Reply: each response the command gave, in order.
+       * </pre>
+       */
+      public Builder addAllResponse(
+          java.lang.Iterable<java.lang.String> values) {
+        ensureResponseIsMutable();
+        super.addAll(values, response_);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated string response = 19;</code>
+       *
+       * <pre>
+       * Reply: each response the command gave, in order.
+       * </pre>
+       */
+      public Builder clearResponse() {
+        response_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000040);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated string response = 19;</code>
+       *
+       * <pre>
+       * Reply: each response the command gave, in order.
+       * </pre>
+       */
+      public Builder addResponseBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureResponseIsMutable();
+        response_.add(value);
+        onChanged();
+        return this;
+      }
+
       // @@protoc_insertion_point(builder_scope:CommandPacket)
     }
 
@@ -7196,36 +8334,41 @@ public final class Telemetry {
     java.lang.String[] descriptorData = {
       "\n\037google/protobuf/telemetry.proto\"A\n\010Pos" +
       "ition\022\020\n\010latitude\030\001 \001(\002\022\021\n\tlongitude\030\002 \001" +
-      "(\002\022\020\n\010altitude\030\003 \001(\002\"\246\001\n\006Sensor\022\'\n\013senso" +
+      "(\002\022\020\n\010altitude\030\003 \001(\002\"\264\001\n\006Sensor\022\'\n\013senso" +
       "r_type\030\001 \002(\0162\022.Sensor.SensorType\022\r\n\002id\030\002" +
-      " \001(\r:\0011\022\r\n\005value\030\003 \001(\002\"U\n\nSensorType\022\027\n\023" +
-      "AMBIENT_TEMPERATURE\020\000\022\t\n\005LIGHT\020\001\022\014\n\010PRES" +
-      "SURE\020\002\022\025\n\021RELATIVE_HUMIDITY\020\003\"\235\002\n\017ThreeA" +
-      "xisSensor\0220\n\013sensor_type\030\001 \002(\0162\033.ThreeAx" +
-      "isSensor.SensorType\022\r\n\002id\030\002 \001(\r:\0011\022\t\n\001x\030" +
-      "\003 \001(\002\022\t\n\001y\030\004 \001(\002\022\t\n\001z\030\005 \001(\002\"\247\001\n\nSensorTy",
-      "pe\022\021\n\rACCELEROMETER\020\000\022\013\n\007GRAVITY\020\001\022\r\n\tGY" +
-      "ROSCOPE\020\002\022\027\n\023LINEAR_ACCELERATION\020\003\022\022\n\016MA" +
-      "GNETIC_FIELD\020\004\022\017\n\013ORIENTATION\020\005\022\023\n\017ROTAT" +
-      "ION_VECTOR\020\006\022\027\n\023CORRECTED_GYROSCOPE\020\024\"\247\001" +
-      "\n\nDataPacket\022\021\n\tsender_id\030\001 \001(\t\022\020\n\010seque" +
-      "nce\030\002 \001(\r\022\021\n\ttimestamp\030\003 \001(\004\022\033\n\010position" +
-      "\030\024 \001(\0132\t.Position\022\027\n\006sensor\030\025 \003(\0132\007.Sens" +
-      "or\022+\n\021three_axis_sensor\030\026 \003(\0132\020.ThreeAxi" +
-      "sSensor\"\323\003\n\rIridiumPacket\022,\n\006header\030\001 \001(" +
-      "\0132\034.IridiumPacket.IridiumHeader\022\017\n\007paylo",
-      "ad\030\002 \001(\014\0220\n\010location\030\003 \001(\0132\036.IridiumPack" +
-      "et.IridiumLocation\032\237\001\n\rIridiumHeader\022\025\n\r" +
-      "cdr_reference\030\001 \001(\r\022\014\n\004imei\030\002 \001(\t\022\016\n\006sta" +
-      "tus\030\003 \001(\r\022\"\n\032mo_message_sequence_number\030" +
-      "\004 \001(\r\022\"\n\032mt_message_sequence_number\030\005 \001(" +
-      "\r\022\021\n\ttimestamp\030\006 \001(\004\032\256\001\n\017IridiumLocation" +
-      "\022\016\n\006format\030\001 \001(\r\022\023\n\013lat_degrees\030\002 \001(\r\022\023\n" +
-      "\013lat_decimal\030\003 \001(\r\022\023\n\013lon_degrees\030\004 \001(\r\022" +
-      "\023\n\013lon_decimal\030\005 \001(\r\022\022\n\ncep_radius\030\006 \001(\r" +
-      "\022\020\n\010latitude\030\024 \001(\002\022\021\n\tlongitude\030\025 \001(\002\"K\n",
-      "\rCommandPacket\022\021\n\tsender_id\030\001 \001(\t\022\024\n\014rec" +
-      "ipient_id\030\002 \001(\t\022\021\n\ttimestamp\030\003 \001(\004"
+      " \001(\r:\0011\022\r\n\005value\030\003 \001(\002\022\014\n\004slot\030\020 \001(\r\"U\n\n" +
+      "SensorType\022\027\n\023AMBIENT_TEMPERATURE\020\000\022\t\n\005L" +
+      "IGHT\020\001\022\014\n\010PRESSURE\020\002\022\025\n\021RELATIVE_HUMIDIT" +
+      "Y\020\003\"\253\002\n\017ThreeAxisSensor\0220\n\013sensor_type\030\001" +
+      " \002(\0162\033.ThreeAxisSensor.SensorType\022\r\n\002id\030" +
+      "\002 \001(\r:\0011\022\t\n\001x\030\003 \001(\002\022\t\n\001y\030\004 \001(\002\022\t\n\001z\030\005 \001(",
+      "\002\022\014\n\004slot\030\020 \001(\r\"\247\001\n\nSensorType\022\021\n\rACCELE" +
+      "ROMETER\020\000\022\013\n\007GRAVITY\020\001\022\r\n\tGYROSCOPE\020\002\022\027\n" +
+      "\023LINEAR_ACCELERATION\020\003\022\022\n\016MAGNETIC_FIELD" +
+      "\020\004\022\017\n\013ORIENTATION\020\005\022\023\n\017ROTATION_VECTOR\020\006" +
+      "\022\027\n\023CORRECTED_GYROSCOPE\020\024\"\273\001\n\nDataPacket" +
+      "\022\021\n\tsender_id\030\001 \001(\t\022\020\n\010sequence\030\002 \001(\r\022\021\n" +
+      "\ttimestamp\030\003 \001(\004\022\022\n\ndelta_base\030\020 \001(\r\022\033\n\010" +
+      "position\030\024 \001(\0132\t.Position\022\027\n\006sensor\030\025 \003(" +
+      "\0132\007.Sensor\022+\n\021three_axis_sensor\030\026 \003(\0132\020." +
+      "ThreeAxisSensor\"\323\003\n\rIridiumPacket\022,\n\006hea",
+      "der\030\001 \001(\0132\034.IridiumPacket.IridiumHeader\022" +
+      "\017\n\007payload\030\002 \001(\014\0220\n\010location\030\003 \001(\0132\036.Iri" +
+      "diumPacket.IridiumLocation\032\237\001\n\rIridiumHe" +
+      "ader\022\025\n\rcdr_reference\030\001 \001(\r\022\014\n\004imei\030\002 \001(" +
+      "\t\022\016\n\006status\030\003 \001(\r\022\"\n\032mo_message_sequence" +
+      "_number\030\004 \001(\r\022\"\n\032mt_message_sequence_num" +
+      "ber\030\005 \001(\r\022\021\n\ttimestamp\030\006 \001(\004\032\256\001\n\017Iridium" +
+      "Location\022\016\n\006format\030\001 \001(\r\022\023\n\013lat_degrees\030" +
+      "\002 \001(\r\022\023\n\013lat_decimal\030\003 \001(\r\022\023\n\013lon_degree" +
+      "s\030\004 \001(\r\022\023\n\013lon_decimal\030\005 \001(\r\022\022\n\ncep_radi",
+      "us\030\006 \001(\r\022\020\n\010latitude\030\024 \001(\002\022\021\n\tlongitude\030" +
+      "\025 \001(\002\"\334\001\n\rCommandPacket\022\021\n\tsender_id\030\001 \001" +
+      "(\t\022\024\n\014recipient_id\030\002 \001(\t\022\021\n\ttimestamp\030\003 " +
+      "\001(\004\022\017\n\007command\030\020 \001(\t\022\022\n\nrequest_id\030\021 \001(\004" +
+      "\022%\n\006status\030\022 \001(\0162\025.CommandPacket.Status\022" +
+      "\020\n\010response\030\023 \003(\t\"1\n\006Status\022\006\n\002OK\020\000\022\023\n\017U" +
+      "NKNOWN_COMMAND\020\001\022\n\n\006FAILED\020\002"
     };
     com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
       new com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner() {
@@ -7243,19 +8386,19 @@ public final class Telemetry {
           internal_static_Sensor_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_Sensor_descriptor,
-              new java.lang.String[] { "SensorType", "Id", "Value", });
+              new java.lang.String[] { "SensorType", "Id", "Value", "Slot", });
           internal_static_ThreeAxisSensor_descriptor =
             getDescriptor().getMessageTypes().get(2);
           internal_static_ThreeAxisSensor_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_ThreeAxisSensor_descriptor,
-              new java.lang.String[] { "SensorType", "Id", "X", "Y", "Z", });
+              new java.lang.String[] { "SensorType", "Id", "X", "Y", "Z", "Slot", });
           internal_static_DataPacket_descriptor =
             getDescriptor().getMessageTypes().get(3);
           internal_static_DataPacket_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_DataPacket_descriptor,
-              new java.lang.String[] { "SenderId", "Sequence", "Timestamp", "Position", "Sensor", "ThreeAxisSensor", });
+              new java.lang.String[] { "SenderId", "Sequence", "Timestamp", "DeltaBase", "Position", "Sensor", "ThreeAxisSensor", });
           internal_static_IridiumPacket_descriptor =
             getDescriptor().getMessageTypes().get(4);
           internal_static_IridiumPacket_fieldAccessorTable = new
@@ -7279,7 +8422,7 @@ public final class Telemetry {
           internal_static_CommandPacket_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_CommandPacket_descriptor,
-              new java.lang.String[] { "SenderId", "RecipientId", "Timestamp", });
+              new java.lang.String[] { "SenderId", "RecipientId", "Timestamp", "Command", "RequestId", "Status", "Response", });
           return null;
         }
       };
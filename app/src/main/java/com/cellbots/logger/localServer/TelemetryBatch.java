@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2012 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.cellbots.logger.localServer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Several telemetry packets sent as one message. A batch is a zlib stream of
+ * varint length-delimited DataPackets, as written by
+ * {@code writeDelimitedTo()}. The first is a keyframe and the rest are
+ * deltas from {@link TelemetrySnapshot#encodeDeltaPacket}, so a batch can be
+ * decoded on its own and only the values that changed are repeated.
+ */
+public final class TelemetryBatch {
+    private TelemetryBatch() {
+    }
+
+    /** Collects packets and compresses them; reused from batch to batch. */
+    static final class Writer {
+        private final Buffer mRaw = new Buffer(4096);
+
+        private final Deflater mDeflater = new Deflater(Deflater.BEST_COMPRESSION);
+
+        private byte[] mCompressed = new byte[1024];
+
+        private int mCount;
+
+        private long mStartedAt;
+
+        int getCount() {
+            return mCount;
+        }
+
+        /** When the first packet of the batch was added. */
+        long getStartedAt() {
+            return mStartedAt;
+        }
+
+        void add(byte[] packet, int length, long now) {
+            if (mCount++ == 0) {
+                mStartedAt = now;
+            }
+            int value = length;
+            while ((value & ~0x7f) != 0) {
+                mRaw.write((value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            mRaw.write(value);
+            mRaw.write(packet, 0, length);
+        }
+
+        /**
+         * Compresses the batch and starts a new one. Returns the length of
+         * the compressed batch, which is at the start of {@link #getBuffer()}
+         * until the next call.
+         */
+        int finish() {
+            mDeflater.reset();
+            mDeflater.setInput(mRaw.array(), 0, mRaw.size());
+            mDeflater.finish();
+            int length = 0;
+            while (!mDeflater.finished()) {
+                if (length == mCompressed.length) {
+                    byte[] bigger = new byte[mCompressed.length * 2];
+                    System.arraycopy(mCompressed, 0, bigger, 0, length);
+                    mCompressed = bigger;
+                }
+                length += mDeflater.deflate(mCompressed, length, mCompressed.length - length);
+            }
+            mRaw.reset();
+            mCount = 0;
+            return length;
+        }
+
+        byte[] getBuffer() {
+            return mCompressed;
+        }
+    }
+
+    /** A ByteArrayOutputStream whose array can be read without a copy. */
+    private static final class Buffer extends ByteArrayOutputStream {
+        Buffer(int size) {
+            super(size);
+        }
+
+        byte[] array() {
+            return buf;
+        }
+    }
+
+    /** Returns the packets of a batch as they were sent, keyframe first. */
+    public static List<Telemetry.DataPacket> unpack(byte[] data, int offset, int length)
+            throws IOException {
+        InputStream in = new InflaterInputStream(new ByteArrayInputStream(data, offset, length));
+        List<Telemetry.DataPacket> packets = new ArrayList<Telemetry.DataPacket>();
+        try {
+            Telemetry.DataPacket packet;
+            while ((packet = Telemetry.DataPacket.parseDelimitedFrom(in)) != null) {
+                packets.add(packet);
+            }
+        } finally {
+            in.close();
+        }
+        return packets;
+    }
+
+    /**
+     * Returns the full snapshot at every packet of a batch, as
+     * {@link TelemetryReconstructor#getSnapshot()} gives it.
+     */
+    public static List<Telemetry.DataPacket> reconstruct(byte[] data, int offset, int length)
+            throws IOException {
+        TelemetryReconstructor reconstructor = new TelemetryReconstructor();
+        List<Telemetry.DataPacket> snapshots = new ArrayList<Telemetry.DataPacket>();
+        for (Telemetry.DataPacket packet : unpack(data, offset, length)) {
+            if (!reconstructor.apply(packet)) {
+                throw new IOException("Packet " + packet.getSequence() + " doesn't follow "
+                        + "the one before it");
+            }
+            snapshots.add(reconstructor.getSnapshot());
+        }
+        return snapshots;
+    }
+}
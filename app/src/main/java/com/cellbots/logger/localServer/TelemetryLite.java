@@ -0,0 +1,7178 @@
+package com.cellbots.logger.localServer;
+
+// Generated by the protocol buffer compiler.  DO NOT EDIT!
+// source: google/protobuf/telemetry_lite.proto
+
+public final class TelemetryLite {
+  private TelemetryLite() {}
+  public static void registerAllExtensions(
+      com.google.protobuf.ExtensionRegistryLite registry) {
+  }
+  public interface PositionOrBuilder
+      extends com.google.protobuf.MessageLiteOrBuilder {
+
+    // optional float latitude = 1;
+    /**
+     * <code>optional float latitude = 1;</code>
+     */
+    boolean hasLatitude();
+    /**
+     * <code>optional float latitude = 1;</code>
+     */
+    float getLatitude();
+
+    // optional float longitude = 2;
+    /**
+     * <code>optional float longitude = 2;</code>
+     */
+    boolean hasLongitude();
+    /**
+     * <code>optional float longitude = 2;</code>
+     */
+    float getLongitude();
+
+    // optional float altitude = 3;
+    /**
+     * <code>optional float altitude = 3;</code>
+     */
+    boolean hasAltitude();
+    /**
+     * <code>optional float altitude = 3;</code>
+     */
+    float getAltitude();
+  }
+  /**
+   * Protobuf type {@code Position}
+   */
+  public static final class Position extends
+      com.google.protobuf.GeneratedMessageLite
+      implements PositionOrBuilder {
+    // Use Position.newBuilder() to construct.
+    private Position(com.google.protobuf.GeneratedMessageLite.Builder builder) {
+      super(builder);
+
+    }
+    private Position(boolean noInit) {}
+
+    private static final Position defaultInstance;
+    public static Position getDefaultInstance() {
+      return defaultInstance;
+    }
+
+    public Position getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+
+    private Position(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      initFields();
+      int mutable_bitField0_ = 0;
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 13: {
+              bitField0_ |= 0x00000001;
+              latitude_ = input.readFloat();
+              break;
+            }
+            case 21: {
+              bitField0_ |= 0x00000002;
+              longitude_ = input.readFloat();
+              break;
+            }
+            case 29: {
+              bitField0_ |= 0x00000004;
+              altitude_ = input.readFloat();
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e.getMessage()).setUnfinishedMessage(this);
+      } finally {
+        makeExtensionsImmutable();
+      }
+    }
+    public static com.google.protobuf.Parser<Position> PARSER =
+        new com.google.protobuf.AbstractParser<Position>() {
+      public Position parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new Position(input, extensionRegistry);
+      }
+    };
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<Position> getParserForType() {
+      return PARSER;
+    }
+
+    private int bitField0_;
+    // optional float latitude = 1;
+    public static final int LATITUDE_FIELD_NUMBER = 1;
+    private float latitude_;
+    /**
+     * <code>optional float latitude = 1;</code>
+     */
+    public boolean hasLatitude() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>optional float latitude = 1;</code>
+     */
+    public float getLatitude() {
+      return latitude_;
+    }
+
+    // optional float longitude = 2;
+    public static final int LONGITUDE_FIELD_NUMBER = 2;
+    private float longitude_;
+    /**
+     * <code>optional float longitude = 2;</code>
+     */
+    public boolean hasLongitude() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>optional float longitude = 2;</code>
+     */
+    public float getLongitude() {
+      return longitude_;
+    }
+
+    // optional float altitude = 3;
+    public static final int ALTITUDE_FIELD_NUMBER = 3;
+    private float altitude_;
+    /**
+     * <code>optional float altitude = 3;</code>
+     */
+    public boolean hasAltitude() {
+      return ((bitField0_ & 0x00000004) == 0x00000004);
+    }
+    /**
+     * <code>optional float altitude = 3;</code>
+     */
+    public float getAltitude() {
+      return altitude_;
+    }
+
+    private void initFields() {
+      latitude_ = 0F;
+      longitude_ = 0F;
+      altitude_ = 0F;
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized != -1) return isInitialized == 1;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeFloat(1, latitude_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeFloat(2, longitude_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        output.writeFloat(3, altitude_);
+      }
+    }
+
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeFloatSize(1, latitude_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeFloatSize(2, longitude_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeFloatSize(3, altitude_);
+      }
+      memoizedSerializedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+
+    public static TelemetryLite.Position parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static TelemetryLite.Position parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static TelemetryLite.Position parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static TelemetryLite.Position parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static TelemetryLite.Position parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static TelemetryLite.Position parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+    public static TelemetryLite.Position parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input);
+    }
+    public static TelemetryLite.Position parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input, extensionRegistry);
+    }
+    public static TelemetryLite.Position parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static TelemetryLite.Position parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(TelemetryLite.Position prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+
+    /**
+     * Protobuf type {@code Position}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageLite.Builder<
+          TelemetryLite.Position, Builder>
+        implements TelemetryLite.PositionOrBuilder {
+      // Construct using TelemetryLite.Position.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private void maybeForceBuilderInitialization() {
+      }
+      private static Builder create() {
+        return new Builder();
+      }
+
+      public Builder clear() {
+        super.clear();
+        latitude_ = 0F;
+        bitField0_ = (bitField0_ & ~0x00000001);
+        longitude_ = 0F;
+        bitField0_ = (bitField0_ & ~0x00000002);
+        altitude_ = 0F;
+        bitField0_ = (bitField0_ & ~0x00000004);
+        return this;
+      }
+
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+
+      public TelemetryLite.Position getDefaultInstanceForType() {
+        return TelemetryLite.Position.getDefaultInstance();
+      }
+
+      public TelemetryLite.Position build() {
+        TelemetryLite.Position result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public TelemetryLite.Position buildPartial() {
+        TelemetryLite.Position result = new TelemetryLite.Position(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.latitude_ = latitude_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.longitude_ = longitude_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000004;
+        }
+        result.altitude_ = altitude_;
+        result.bitField0_ = to_bitField0_;
+        return result;
+      }
+
+      public Builder mergeFrom(TelemetryLite.Position other) {
+        if (other == TelemetryLite.Position.getDefaultInstance()) return this;
+        if (other.hasLatitude()) {
+          setLatitude(other.getLatitude());
+        }
+        if (other.hasLongitude()) {
+          setLongitude(other.getLongitude());
+        }
+        if (other.hasAltitude()) {
+          setAltitude(other.getAltitude());
+        }
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        TelemetryLite.Position parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (TelemetryLite.Position) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      // optional float latitude = 1;
+      private float latitude_ ;
+      /**
+       * <code>optional float latitude = 1;</code>
+       */
+      public boolean hasLatitude() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>optional float latitude = 1;</code>
+       */
+      public float getLatitude() {
+        return latitude_;
+      }
+      /**
+       * <code>optional float latitude = 1;</code>
+       */
+      public Builder setLatitude(float value) {
+        bitField0_ |= 0x00000001;
+        latitude_ = value;
+        
+        return this;
+      }
+      /**
+       * <code>optional float latitude = 1;</code>
+       */
+      public Builder clearLatitude() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        latitude_ = 0F;
+        
+        return this;
+      }
+
+      // optional float longitude = 2;
+      private float longitude_ ;
+      /**
+       * <code>optional float longitude = 2;</code>
+       */
+      public boolean hasLongitude() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>optional float longitude = 2;</code>
+       */
+      public float getLongitude() {
+        return longitude_;
+      }
+      /**
+       * <code>optional float longitude = 2;</code>
+       */
+      public Builder setLongitude(float value) {
+        bitField0_ |= 0x00000002;
+        longitude_ = value;
+        
+        return this;
+      }
+      /**
+       * <code>optional float longitude = 2;</code>
+       */
+      public Builder clearLongitude() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        longitude_ = 0F;
+        
+        return this;
+      }
+
+      // optional float altitude = 3;
+      private float altitude_ ;
+      /**
+       * <code>optional float altitude = 3;</code>
+       */
+      public boolean hasAltitude() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <code>optional float altitude = 3;</code>
+       */
+      public float getAltitude() {
+        return altitude_;
+      }
+      /**
+       * <code>optional float altitude = 3;</code>
+       */
+      public Builder setAltitude(float value) {
+        bitField0_ |= 0x00000004;
+        altitude_ = value;
+        
+        return this;
+      }
+      /**
+       * <code>optional float altitude = 3;</code>
+       */
+      public Builder clearAltitude() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        altitude_ = 0F;
+        
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:Position)
+    }
+
+    static {
+      defaultInstance = new Position(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:Position)
+  }
+
+  public interface SensorOrBuilder
+      extends com.google.protobuf.MessageLiteOrBuilder {
+
+    // required .Sensor.SensorType sensor_type = 1;
+    /**
+     * <code>required .Sensor.SensorType sensor_type = 1;</code>
+     */
+    boolean hasSensorType();
+    /**
+     * <code>required .Sensor.SensorType sensor_type = 1;</code>
+     */
+    TelemetryLite.Sensor.SensorType getSensorType();
+
+    // optional uint32 id = 2 [default = 1];
+    /**
+     * <code>optional uint32 id = 2 [default = 1];</code>
+     */
+    boolean hasId();
+    /**
+     * <code>optional uint32 id = 2 [default = 1];</code>
+     */
+    int getId();
+
+    // optional float value = 3;
+    /**
+     * <code>optional float value = 3;</code>
+     */
+    boolean hasValue();
+    /**
+     * <code>optional float value = 3;</code>
+     */
+    float getValue();
+
+    // optional uint32 slot = 16;
+    /**
+     * <code>optional uint32 slot = 16;</code>
+     *
+     * <pre>
+     * Set in keyframes and delta packets: the sensor's slot in the sender's
+     * snapshot, which names it across packets.
+     * </pre>
+     */
+    boolean hasSlot();
+    /**
+     * <code>optional uint32 slot = 16;</code>
+     *
+     * <pre>
+     * Set in keyframes and delta packets: the sensor's slot in the sender's
+     * snapshot, which names it across packets.
+     * </pre>
+     */
+    int getSlot();
+  }
+  /**
+   * Protobuf type {@code Sensor}
+   */
+  public static final class Sensor extends
+      com.google.protobuf.GeneratedMessageLite
+      implements SensorOrBuilder {
+    // Use Sensor.newBuilder() to construct.
+    private Sensor(com.google.protobuf.GeneratedMessageLite.Builder builder) {
+      super(builder);
+
+    }
+    private Sensor(boolean noInit) {}
+
+    private static final Sensor defaultInstance;
+    public static Sensor getDefaultInstance() {
+      return defaultInstance;
+    }
+
+    public Sensor getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+
+    private Sensor(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      initFields();
+      int mutable_bitField0_ = 0;
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 8: {
+              int rawValue = input.readEnum();
+              TelemetryLite.Sensor.SensorType value = TelemetryLite.Sensor.SensorType.valueOf(rawValue);
+              if (value != null) {
+                bitField0_ |= 0x00000001;
+                sensorType_ = value;
+              }
+              break;
+            }
+            case 16: {
+              bitField0_ |= 0x00000002;
+              id_ = input.readUInt32();
+              break;
+            }
+            case 29: {
+              bitField0_ |= 0x00000004;
+              value_ = input.readFloat();
+              break;
+            }
+            case 128: {
+              bitField0_ |= 0x00000008;
+              slot_ = input.readUInt32();
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e.getMessage()).setUnfinishedMessage(this);
+      } finally {
+        makeExtensionsImmutable();
+      }
+    }
+    public static com.google.protobuf.Parser<Sensor> PARSER =
+        new com.google.protobuf.AbstractParser<Sensor>() {
+      public Sensor parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new Sensor(input, extensionRegistry);
+      }
+    };
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<Sensor> getParserForType() {
+      return PARSER;
+    }
+
+    /**
+     * Protobuf enum {@code Sensor.SensorType}
+     */
+    public enum SensorType
+        implements com.google.protobuf.Internal.EnumLite {
+      /**
+       * <code>AMBIENT_TEMPERATURE = 0;</code>
+       */
+      AMBIENT_TEMPERATURE(0, 0),
+      /**
+       * <code>LIGHT = 1;</code>
+       */
+      LIGHT(1, 1),
+      /**
+       * <code>PRESSURE = 2;</code>
+       */
+      PRESSURE(2, 2),
+      /**
+       * <code>RELATIVE_HUMIDITY = 3;</code>
+       */
+      RELATIVE_HUMIDITY(3, 3),
+      ;
+
+      /**
+       * <code>AMBIENT_TEMPERATURE = 0;</code>
+       */
+      public static final int AMBIENT_TEMPERATURE_VALUE = 0;
+      /**
+       * <code>LIGHT = 1;</code>
+       */
+      public static final int LIGHT_VALUE = 1;
+      /**
+       * <code>PRESSURE = 2;</code>
+       */
+      public static final int PRESSURE_VALUE = 2;
+      /**
+       * <code>RELATIVE_HUMIDITY = 3;</code>
+       */
+      public static final int RELATIVE_HUMIDITY_VALUE = 3;
+
+
+      public final int getNumber() { return value; }
+
+      public static SensorType valueOf(int value) {
+        switch (value) {
+          case 0: return AMBIENT_TEMPERATURE;
+          case 1: return LIGHT;
+          case 2: return PRESSURE;
+          case 3: return RELATIVE_HUMIDITY;
+          default: return null;
+        }
+      }
+
+      public static com.google.protobuf.Internal.EnumLiteMap<SensorType>
+          internalGetValueMap() {
+        return internalValueMap;
+      }
+      private static com.google.protobuf.Internal.EnumLiteMap<SensorType>
+          internalValueMap =
+            new com.google.protobuf.Internal.EnumLiteMap<SensorType>() {
+              public SensorType findValueByNumber(int number) {
+                return SensorType.valueOf(number);
+              }
+            };
+
+      private final int value;
+
+      private SensorType(int index, int value) {
+        this.value = value;
+      }
+
+      // @@protoc_insertion_point(enum_scope:Sensor.SensorType)
+    }
+
+    private int bitField0_;
+    // required .Sensor.SensorType sensor_type = 1;
+    public static final int SENSOR_TYPE_FIELD_NUMBER = 1;
+    private TelemetryLite.Sensor.SensorType sensorType_;
+    /**
+     * <code>required .Sensor.SensorType sensor_type = 1;</code>
+     */
+    public boolean hasSensorType() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>required .Sensor.SensorType sensor_type = 1;</code>
+     */
+    public TelemetryLite.Sensor.SensorType getSensorType() {
+      return sensorType_;
+    }
+
+    // optional uint32 id = 2 [default = 1];
+    public static final int ID_FIELD_NUMBER = 2;
+    private int id_;
+    /**
+     * <code>optional uint32 id = 2 [default = 1];</code>
+     */
+    public boolean hasId() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>optional uint32 id = 2 [default = 1];</code>
+     */
+    public int getId() {
+      return id_;
+    }
+
+    // optional float value = 3;
+    public static final int VALUE_FIELD_NUMBER = 3;
+    private float value_;
+    /**
+     * <code>optional float value = 3;</code>
+     */
+    public boolean hasValue() {
+      return ((bitField0_ & 0x00000004) == 0x00000004);
+    }
+    /**
+     * <code>optional float value = 3;</code>
+     */
+    public float getValue() {
+      return value_;
+    }
+
+    // optional uint32 slot = 16;
+    public static final int SLOT_FIELD_NUMBER = 16;
+    private int slot_;
+    /**
+     * <code>optional uint32 slot = 16;</code>
+     *
+     * <pre>
+     * Set in keyframes and delta packets: the sensor's slot in the sender's
+     * snapshot, which names it across packets.
+     * </pre>
+     */
+    public boolean hasSlot() {
+      return ((bitField0_ & 0x00000008) == 0x00000008);
+    }
+    /**
+     * <code>optional uint32 slot = 16;</code>
+     *
+     * <pre>
+     * Set in keyframes and delta packets: the sensor's slot in the sender's
+     * snapshot, which names it across packets.
+     * </pre>
+     */
+    public int getSlot() {
+      return slot_;
+    }
+
+    private void initFields() {
+      sensorType_ = TelemetryLite.Sensor.SensorType.AMBIENT_TEMPERATURE;
+      id_ = 1;
+      value_ = 0F;
+      slot_ = 0;
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized != -1) return isInitialized == 1;
+
+      if (!hasSensorType()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeEnum(1, sensorType_.getNumber());
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeUInt32(2, id_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        output.writeFloat(3, value_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        output.writeUInt32(16, slot_);
+      }
+    }
+
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeEnumSize(1, sensorType_.getNumber());
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt32Size(2, id_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeFloatSize(3, value_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt32Size(16, slot_);
+      }
+      memoizedSerializedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+
+    public static TelemetryLite.Sensor parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static TelemetryLite.Sensor parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static TelemetryLite.Sensor parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static TelemetryLite.Sensor parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static TelemetryLite.Sensor parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static TelemetryLite.Sensor parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+    public static TelemetryLite.Sensor parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input);
+    }
+    public static TelemetryLite.Sensor parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input, extensionRegistry);
+    }
+    public static TelemetryLite.Sensor parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static TelemetryLite.Sensor parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(TelemetryLite.Sensor prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+
+    /**
+     * Protobuf type {@code Sensor}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageLite.Builder<
+          TelemetryLite.Sensor, Builder>
+        implements TelemetryLite.SensorOrBuilder {
+      // Construct using TelemetryLite.Sensor.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private void maybeForceBuilderInitialization() {
+      }
+      private static Builder create() {
+        return new Builder();
+      }
+
+      public Builder clear() {
+        super.clear();
+        sensorType_ = TelemetryLite.Sensor.SensorType.AMBIENT_TEMPERATURE;
+        bitField0_ = (bitField0_ & ~0x00000001);
+        id_ = 1;
+        bitField0_ = (bitField0_ & ~0x00000002);
+        value_ = 0F;
+        bitField0_ = (bitField0_ & ~0x00000004);
+        slot_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000008);
+        return this;
+      }
+
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+
+      public TelemetryLite.Sensor getDefaultInstanceForType() {
+        return TelemetryLite.Sensor.getDefaultInstance();
+      }
+
+      public TelemetryLite.Sensor build() {
+        TelemetryLite.Sensor result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public TelemetryLite.Sensor buildPartial() {
+        TelemetryLite.Sensor result = new TelemetryLite.Sensor(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.sensorType_ = sensorType_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.id_ = id_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000004;
+        }
+        result.value_ = value_;
+        if (((from_bitField0_ & 0x00000008) == 0x00000008)) {
+          to_bitField0_ |= 0x00000008;
+        }
+        result.slot_ = slot_;
+        result.bitField0_ = to_bitField0_;
+        return result;
+      }
+
+      public Builder mergeFrom(TelemetryLite.Sensor other) {
+        if (other == TelemetryLite.Sensor.getDefaultInstance()) return this;
+        if (other.hasSensorType()) {
+          setSensorType(other.getSensorType());
+        }
+        if (other.hasId()) {
+          setId(other.getId());
+        }
+        if (other.hasValue()) {
+          setValue(other.getValue());
+        }
+        if (other.hasSlot()) {
+          setSlot(other.getSlot());
+        }
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        if (!hasSensorType()) {
+          
+          return false;
+        }
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        TelemetryLite.Sensor parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (TelemetryLite.Sensor) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      // required .Sensor.SensorType sensor_type = 1;
+      private TelemetryLite.Sensor.SensorType sensorType_ = TelemetryLite.Sensor.SensorType.AMBIENT_TEMPERATURE;
+      /**
+       * <code>required .Sensor.SensorType sensor_type = 1;</code>
+       */
+      public boolean hasSensorType() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>required .Sensor.SensorType sensor_type = 1;</code>
+       */
+      public TelemetryLite.Sensor.SensorType getSensorType() {
+        return sensorType_;
+      }
+      /**
+       * <code>required .Sensor.SensorType sensor_type = 1;</code>
+       */
+      public Builder setSensorType(TelemetryLite.Sensor.SensorType value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        bitField0_ |= 0x00000001;
+        sensorType_ = value;
+        
+        return this;
+      }
+      /**
+       * <code>required .Sensor.SensorType sensor_type = 1;</code>
+       */
+      public Builder clearSensorType() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        sensorType_ = TelemetryLite.Sensor.SensorType.AMBIENT_TEMPERATURE;
+        
+        return this;
+      }
+
+      // optional uint32 id = 2 [default = 1];
+      private int id_ = 1;
+      /**
+       * <code>optional uint32 id = 2 [default = 1];</code>
+       */
+      public boolean hasId() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>optional uint32 id = 2 [default = 1];</code>
+       */
+      public int getId() {
+        return id_;
+      }
+      /**
+       * <code>optional uint32 id = 2 [default = 1];</code>
+       */
+      public Builder setId(int value) {
+        bitField0_ |= 0x00000002;
+        id_ = value;
+        
+        return this;
+      }
+      /**
+       * <code>optional uint32 id = 2 [default = 1];</code>
+       */
+      public Builder clearId() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        id_ = 1;
+        
+        return this;
+      }
+
+      // optional float value = 3;
+      private float value_ ;
+      /**
+       * <code>optional float value = 3;</code>
+       */
+      public boolean hasValue() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <code>optional float value = 3;</code>
+       */
+      public float getValue() {
+        return value_;
+      }
+      /**
+       * <code>optional float value = 3;</code>
+       */
+      public Builder setValue(float value) {
+        bitField0_ |= 0x00000004;
+        value_ = value;
+        
+        return this;
+      }
+      /**
+       * <code>optional float value = 3;</code>
+       */
+      public Builder clearValue() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        value_ = 0F;
+        
+        return this;
+      }
+
+      // optional uint32 slot = 16;
+      private int slot_ ;
+      /**
+       * <code>optional uint32 slot = 16;</code>
+       *
+       * <pre>
+       * Set in keyframes and delta packets: the sensor's slot in the sender's
+       * snapshot, which names it across packets.
+       * </pre>
+       */
+      public boolean hasSlot() {
+        return ((bitField0_ & 0x00000008) == 0x00000008);
+      }
+      /**
+       * <code>optional uint32 slot = 16;</code>
+       *
+       * <pre>
+       * Set in keyframes and delta packets: the sensor's slot in the sender's
+       * snapshot, which names it across packets.
+       * </pre>
+       */
+      public int getSlot() {
+        return slot_;
+      }
+      /**
+       * <code>optional uint32 slot = 16;</code>
+       *
+       * <pre>
+       * Set in keyframes and delta packets: the sensor's slot in the sender's
+       * snapshot, which names it across packets.
+       * </pre>
+       */
+      public Builder setSlot(int value) {
+        bitField0_ |= 0x00000008;
+        slot_ = value;
+        
+        return this;
+      }
+      /**
+       * <code>optional uint32 slot = 16;</code>
+       *
+       * <pre>
+       * Set in keyframes and delta packets: the sensor's slot in the sender's
+       * snapshot, which names it across packets.
+       * </pre>
+       */
+      public Builder clearSlot() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        slot_ = 0;
+        
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:Sensor)
+    }
+
+    static {
+      defaultInstance = new Sensor(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:Sensor)
+  }
+
+  public interface ThreeAxisSensorOrBuilder
+      extends com.google.protobuf.MessageLiteOrBuilder {
+
+    // required .ThreeAxisSensor.SensorType sensor_type = 1;
+    /**
+     * <code>required .ThreeAxisSensor.SensorType sensor_type = 1;</code>
+     */
+    boolean hasSensorType();
+    /**
+     * <code>required .ThreeAxisSensor.SensorType sensor_type = 1;</code>
+     */
+    TelemetryLite.ThreeAxisSensor.SensorType getSensorType();
+
+    // optional uint32 id = 2 [default = 1];
+    /**
+     * <code>optional uint32 id = 2 [default = 1];</code>
+     *
+     * <pre>
+     * ID of sensor if multiple exist.
+     * </pre>
+     */
+    boolean hasId();
+    /**
+     * <code>optional uint32 id = 2 [default = 1];</code>
+     *
+     * <pre>
+     * ID of sensor if multiple exist.
+     * </pre>
+     */
+    int getId();
+
+    // optional float x = 3;
+    /**
+     * <code>optional float x = 3;</code>
+     *
+     * <pre>
+     * Slot saved for some unknown value. (Accuracy? Magnitude?)
+     * </pre>
+     */
+    boolean hasX();
+    /**
+     * <code>optional float x = 3;</code>
+     *
+     * <pre>
+     * Slot saved for some unknown value. (Accuracy? Magnitude?)
+     * </pre>
+     */
+    float getX();
+
+    // optional float y = 4;
+    /**
+     * <code>optional float y = 4;</code>
+     */
+    boolean hasY();
+    /**
+     * <code>optional float y = 4;</code>
+     */
+    float getY();
+
+    // optional float z = 5;
+    /**
+     * <code>optional float z = 5;</code>
+     */
+    boolean hasZ();
+    /**
+     * <code>optional float z = 5;</code>
+     */
+    float getZ();
+
+    // optional uint32 slot = 16;
+    /**
+     * <code>optional uint32 slot = 16;</code>
+     *
+     * <pre>
+     * As in Sensor.
+     * </pre>
+     */
+    boolean hasSlot();
+    /**
+     * <code>optional uint32 slot = 16;</code>
+     *
+     * <pre>
+     * As in Sensor.
+     * </pre>
+     */
+    int getSlot();
+  }
+  /**
+   * Protobuf type {@code ThreeAxisSensor}
+   */
+  public static final class ThreeAxisSensor extends
+      com.google.protobuf.GeneratedMessageLite
+      implements ThreeAxisSensorOrBuilder {
+    // Use ThreeAxisSensor.newBuilder() to construct.
+    private ThreeAxisSensor(com.google.protobuf.GeneratedMessageLite.Builder builder) {
+      super(builder);
+
+    }
+    private ThreeAxisSensor(boolean noInit) {}
+
+    private static final ThreeAxisSensor defaultInstance;
+    public static ThreeAxisSensor getDefaultInstance() {
+      return defaultInstance;
+    }
+
+    public ThreeAxisSensor getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+
+    private ThreeAxisSensor(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      initFields();
+      int mutable_bitField0_ = 0;
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 8: {
+              int rawValue = input.readEnum();
+              TelemetryLite.ThreeAxisSensor.SensorType value = TelemetryLite.ThreeAxisSensor.SensorType.valueOf(rawValue);
+              if (value != null) {
+                bitField0_ |= 0x00000001;
+                sensorType_ = value;
+              }
+              break;
+            }
+            case 16: {
+              bitField0_ |= 0x00000002;
+              id_ = input.readUInt32();
+              break;
+            }
+            case 29: {
+              bitField0_ |= 0x00000004;
+              x_ = input.readFloat();
+              break;
+            }
+            case 37: {
+              bitField0_ |= 0x00000008;
+              y_ = input.readFloat();
+              break;
+            }
+            case 45: {
+              bitField0_ |= 0x00000010;
+              z_ = input.readFloat();
+              break;
+            }
+            case 128: {
+              bitField0_ |= 0x00000020;
+              slot_ = input.readUInt32();
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e.getMessage()).setUnfinishedMessage(this);
+      } finally {
+        makeExtensionsImmutable();
+      }
+    }
+    public static com.google.protobuf.Parser<ThreeAxisSensor> PARSER =
+        new com.google.protobuf.AbstractParser<ThreeAxisSensor>() {
+      public ThreeAxisSensor parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new ThreeAxisSensor(input, extensionRegistry);
+      }
+    };
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<ThreeAxisSensor> getParserForType() {
+      return PARSER;
+    }
+
+    /**
+     * Protobuf enum {@code ThreeAxisSensor.SensorType}
+     */
+    public enum SensorType
+        implements com.google.protobuf.Internal.EnumLite {
+      /**
+       * <code>ACCELEROMETER = 0;</code>
+       */
+      ACCELEROMETER(0, 0),
+      /**
+       * <code>GRAVITY = 1;</code>
+       */
+      GRAVITY(1, 1),
+      /**
+       * <code>GYROSCOPE = 2;</code>
+       */
+      GYROSCOPE(2, 2),
+      /**
+       * <code>LINEAR_ACCELERATION = 3;</code>
+       */
+      LINEAR_ACCELERATION(3, 3),
+      /**
+       * <code>MAGNETIC_FIELD = 4;</code>
+       */
+      MAGNETIC_FIELD(4, 4),
+      /**
+       * <code>ORIENTATION = 5;</code>
+       */
+      ORIENTATION(5, 5),
+      /**
+       * <code>ROTATION_VECTOR = 6;</code>
+       */
+      ROTATION_VECTOR(6, 6),
+      /**
+       * <code>CORRECTED_GYROSCOPE = 20;</code>
+       */
+      CORRECTED_GYROSCOPE(7, 20),
+      ;
+
+      /**
+       * <code>ACCELEROMETER = 0;</code>
+       */
+      public static final int ACCELEROMETER_VALUE = 0;
+      /**
+       * <code>GRAVITY = 1;</code>
+       */
+      public static final int GRAVITY_VALUE = 1;
+      /**
+       * <code>GYROSCOPE = 2;</code>
+       */
+      public static final int GYROSCOPE_VALUE = 2;
+      /**
+       * <code>LINEAR_ACCELERATION = 3;</code>
+       */
+      public static final int LINEAR_ACCELERATION_VALUE = 3;
+      /**
+       * <code>MAGNETIC_FIELD = 4;</code>
+       */
+      public static final int MAGNETIC_FIELD_VALUE = 4;
+      /**
+       * <code>ORIENTATION = 5;</code>
+       */
+      public static final int ORIENTATION_VALUE = 5;
+      /**
+       * <code>ROTATION_VECTOR = 6;</code>
+       */
+      public static final int ROTATION_VECTOR_VALUE = 6;
+      /**
+       * <code>CORRECTED_GYROSCOPE = 20;</code>
+       */
+      public static final int CORRECTED_GYROSCOPE_VALUE = 20;
+
+
+      public final int getNumber() { return value; }
+
+      public static SensorType valueOf(int value) {
+        switch (value) {
+          case 0: return ACCELEROMETER;
+          case 1: return GRAVITY;
+          case 2: return GYROSCOPE;
+          case 3: return LINEAR_ACCELERATION;
+          case 4: return MAGNETIC_FIELD;
+          case 5: return ORIENTATION;
+          case 6: return ROTATION_VECTOR;
+          case 20: return CORRECTED_GYROSCOPE;
+          default: return null;
+        }
+      }
+
+      public static com.google.protobuf.Internal.EnumLiteMap<SensorType>
+          internalGetValueMap() {
+        return internalValueMap;
+      }
+      private static com.google.protobuf.Internal.EnumLiteMap<SensorType>
+          internalValueMap =
+            new com.google.protobuf.Internal.EnumLiteMap<SensorType>() {
+              public SensorType findValueByNumber(int number) {
+                return SensorType.valueOf(number);
+              }
+            };
+
+      private final int value;
+
+      private SensorType(int index, int value) {
+        this.value = value;
+      }
+
+      // @@protoc_insertion_point(enum_scope:ThreeAxisSensor.SensorType)
+    }
+
+    private int bitField0_;
+    // required .ThreeAxisSensor.SensorType sensor_type = 1;
+    public static final int SENSOR_TYPE_FIELD_NUMBER = 1;
+    private TelemetryLite.ThreeAxisSensor.SensorType sensorType_;
+    /**
+     * <code>required .ThreeAxisSensor.SensorType sensor_type = 1;</code>
+     */
+    public boolean hasSensorType() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>required .ThreeAxisSensor.SensorType sensor_type = 1;</code>
+     */
+    public TelemetryLite.ThreeAxisSensor.SensorType getSensorType() {
+      return sensorType_;
+    }
+
+    // optional uint32 id = 2 [default = 1];
+    public static final int ID_FIELD_NUMBER = 2;
+    private int id_;
+    /**
+     * <code>optional uint32 id = 2 [default = 1];</code>
+     *
+     * <pre>
+     * ID of sensor if multiple exist.
+     * </pre>
+     */
+    public boolean hasId() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>optional uint32 id = 2 [default = 1];</code>
+     *
+     * <pre>
+     * ID of sensor if multiple exist.
+     * </pre>
+     */
+    public int getId() {
+      return id_;
+    }
+
+    // optional float x = 3;
+    public static final int X_FIELD_NUMBER = 3;
+    private float x_;
+    /**
+     * <code>optional float x = 3;</code>
+     *
+     * <pre>
+     * Slot saved for some unknown value. (Accuracy? Magnitude?)
+     * </pre>
+     */
+    public boolean hasX() {
+      return ((bitField0_ & 0x00000004) == 0x00000004);
+    }
+    /**
+     * <code>optional float x = 3;</code>
+     *
+     * <pre>
+     * Slot saved for some unknown value. (Accuracy? Magnitude?)
+     * </pre>
+     */
+    public float getX() {
+      return x_;
+    }
+
+    // optional float y = 4;
+    public static final int Y_FIELD_NUMBER = 4;
+    private float y_;
+    /**
+     * <code>optional float y = 4;</code>
+     */
+    public boolean hasY() {
+      return ((bitField0_ & 0x00000008) == 0x00000008);
+    }
+    /**
+     * <code>optional float y = 4;</code>
+     */
+    public float getY() {
+      return y_;
+    }
+
+    // optional float z = 5;
+    public static final int Z_FIELD_NUMBER = 5;
+    private float z_;
+    /**
+     * <code>optional float z = 5;</code>
+     */
+    public boolean hasZ() {
+      return ((bitField0_ & 0x00000010) == 0x00000010);
+    }
+    /**
+     * <code>optional float z = 5;</code>
+     */
+    public float getZ() {
+      return z_;
+    }
+
+    // optional uint32 slot = 16;
+    public static final int SLOT_FIELD_NUMBER = 16;
+    private int slot_;
+    /**
+     * <code>optional uint32 slot = 16;</code>
+     *
+     * <pre>
+     * As in Sensor.
+     * </pre>
+     */
+    public boolean hasSlot() {
+      return ((bitField0_ & 0x00000020) == 0x00000020);
+    }
+    /**
+     * <code>optional uint32 slot = 16;</code>
+     *
+     * <pre>
+     * As in Sensor.
+     * </pre>
+     */
+    public int getSlot() {
+      return slot_;
+    }
+
+    private void initFields() {
+      sensorType_ = TelemetryLite.ThreeAxisSensor.SensorType.ACCELEROMETER;
+      id_ = 1;
+      x_ = 0F;
+      y_ = 0F;
+      z_ = 0F;
+      slot_ = 0;
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized != -1) return isInitialized == 1;
+
+      if (!hasSensorType()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeEnum(1, sensorType_.getNumber());
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeUInt32(2, id_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        output.writeFloat(3, x_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        output.writeFloat(4, y_);
+      }
+      if (((bitField0_ & 0x00000010) == 0x00000010)) {
+        output.writeFloat(5, z_);
+      }
+      if (((bitField0_ & 0x00000020) == 0x00000020)) {
+        output.writeUInt32(16, slot_);
+      }
+    }
+
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeEnumSize(1, sensorType_.getNumber());
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt32Size(2, id_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeFloatSize(3, x_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeFloatSize(4, y_);
+      }
+      if (((bitField0_ & 0x00000010) == 0x00000010)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeFloatSize(5, z_);
+      }
+      if (((bitField0_ & 0x00000020) == 0x00000020)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt32Size(16, slot_);
+      }
+      memoizedSerializedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+
+    public static TelemetryLite.ThreeAxisSensor parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static TelemetryLite.ThreeAxisSensor parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static TelemetryLite.ThreeAxisSensor parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static TelemetryLite.ThreeAxisSensor parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static TelemetryLite.ThreeAxisSensor parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static TelemetryLite.ThreeAxisSensor parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+    public static TelemetryLite.ThreeAxisSensor parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input);
+    }
+    public static TelemetryLite.ThreeAxisSensor parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input, extensionRegistry);
+    }
+    public static TelemetryLite.ThreeAxisSensor parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static TelemetryLite.ThreeAxisSensor parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(TelemetryLite.ThreeAxisSensor prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+
+    /**
+     * Protobuf type {@code ThreeAxisSensor}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageLite.Builder<
+          TelemetryLite.ThreeAxisSensor, Builder>
+        implements TelemetryLite.ThreeAxisSensorOrBuilder {
+      // Construct using TelemetryLite.ThreeAxisSensor.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private void maybeForceBuilderInitialization() {
+      }
+      private static Builder create() {
+        return new Builder();
+      }
+
+      public Builder clear() {
+        super.clear();
+        sensorType_ = TelemetryLite.ThreeAxisSensor.SensorType.ACCELEROMETER;
+        bitField0_ = (bitField0_ & ~0x00000001);
+        id_ = 1;
+        bitField0_ = (bitField0_ & ~0x00000002);
+        x_ = 0F;
+        bitField0_ = (bitField0_ & ~0x00000004);
+        y_ = 0F;
+        bitField0_ = (bitField0_ & ~0x00000008);
+        z_ = 0F;
+        bitField0_ = (bitField0_ & ~0x00000010);
+        slot_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000020);
+        return this;
+      }
+
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+
+      public TelemetryLite.ThreeAxisSensor getDefaultInstanceForType() {
+        return TelemetryLite.ThreeAxisSensor.getDefaultInstance();
+      }
+
+      public TelemetryLite.ThreeAxisSensor build() {
+        TelemetryLite.ThreeAxisSensor result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public TelemetryLite.ThreeAxisSensor buildPartial() {
+        TelemetryLite.ThreeAxisSensor result = new TelemetryLite.ThreeAxisSensor(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.sensorType_ = sensorType_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.id_ = id_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000004;
+        }
+        result.x_ = x_;
+        if (((from_bitField0_ & 0x00000008) == 0x00000008)) {
+          to_bitField0_ |= 0x00000008;
+        }
+        result.y_ = y_;
+        if (((from_bitField0_ & 0x00000010) == 0x00000010)) {
+          to_bitField0_ |= 0x00000010;
+        }
+        result.z_ = z_;
+        if (((from_bitField0_ & 0x00000020) == 0x00000020)) {
+          to_bitField0_ |= 0x00000020;
+        }
+        result.slot_ = slot_;
+        result.bitField0_ = to_bitField0_;
+        return result;
+      }
+
+      public Builder mergeFrom(TelemetryLite.ThreeAxisSensor other) {
+        if (other == TelemetryLite.ThreeAxisSensor.getDefaultInstance()) return this;
+        if (other.hasSensorType()) {
+          setSensorType(other.getSensorType());
+        }
+        if (other.hasId()) {
+          setId(other.getId());
+        }
+        if (other.hasX()) {
+          setX(other.getX());
+        }
+        if (other.hasY()) {
+          setY(other.getY());
+        }
+        if (other.hasZ()) {
+          setZ(other.getZ());
+        }
+        if (other.hasSlot()) {
+          setSlot(other.getSlot());
+        }
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        if (!hasSensorType()) {
+          
+          return false;
+        }
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        TelemetryLite.ThreeAxisSensor parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (TelemetryLite.ThreeAxisSensor) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      // required .ThreeAxisSensor.SensorType sensor_type = 1;
+      private TelemetryLite.ThreeAxisSensor.SensorType sensorType_ = TelemetryLite.ThreeAxisSensor.SensorType.ACCELEROMETER;
+      /**
+       * <code>required .ThreeAxisSensor.SensorType sensor_type = 1;</code>
+       */
+      public boolean hasSensorType() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>required .ThreeAxisSensor.SensorType sensor_type = 1;</code>
+       */
+      public TelemetryLite.ThreeAxisSensor.SensorType getSensorType() {
+        return sensorType_;
+      }
+      /**
+       * <code>required .ThreeAxisSensor.SensorType sensor_type = 1;</code>
+       */
+      public Builder setSensorType(TelemetryLite.ThreeAxisSensor.SensorType value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        bitField0_ |= 0x00000001;
+        sensorType_ = value;
+        
+        return this;
+      }
+      /**
+       * <code>required .ThreeAxisSensor.SensorType sensor_type = 1;</code>
+       */
+      public Builder clearSensorType() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        sensorType_ = TelemetryLite.ThreeAxisSensor.SensorType.ACCELEROMETER;
+        
+        return this;
+      }
+
+      // optional uint32 id = 2 [default = 1];
+      private int id_ = 1;
+      /**
+       * <code>optional uint32 id = 2 [default = 1];</code>
+       *
+       * <pre>
+       * ID of sensor if multiple exist.
+       * </pre>
+       */
+      public boolean hasId() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>optional uint32 id = 2 [default = 1];</code>
+       *
+       * <pre>
+       * ID of sensor if multiple exist.
+       * </pre>
+       */
+      public int getId() {
+        return id_;
+      }
+      /**
+       * <code>optional uint32 id = 2 [default = 1];</code>
+       *
+       * <pre>
+       * ID of sensor if multiple exist.
+       * </pre>
+       */
+      public Builder setId(int value) {
+        bitField0_ |= 0x00000002;
+        id_ = value;
+        
+        return this;
+      }
+      /**
+       * <code>optional uint32 id = 2 [default = 1];</code>
+       *
+       * <pre>
+       * ID of sensor if multiple exist.
+       * </pre>
+       */
+      public Builder clearId() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        id_ = 1;
+        
+        return this;
+      }
+
+      // optional float x = 3;
+      private float x_ ;
+      /**
+       * <code>optional float x = 3;</code>
+       *
+       * <pre>
+       * Slot saved for some unknown value. (Accuracy? Magnitude?)
+       * </pre>
+       */
+      public boolean hasX() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <code>optional float x = 3;</code>
+       *
+       * <pre>
+       * Slot saved for some unknown value. (Accuracy? Magnitude?)
+       * </pre>
+       */
+      public float getX() {
+        return x_;
+      }
+      /**
+       * <code>optional float x = 3;</code>
+       *
+       * <pre>
+       * Slot saved for some unknown value. (Accuracy? Magnitude?)
+       * </pre>
+       */
+      public Builder setX(float value) {
+        bitField0_ |= 0x00000004;
+        x_ = value;
+        
+        return this;
+      }
+      /**
+       * <code>optional float x = 3;</code>
+       *
+       * <pre>
+       * Slot saved for some unknown value. (Accuracy? Magnitude?)
+       * </pre>
+       */
+      public Builder clearX() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        x_ = 0F;
+        
+        return this;
+      }
+
+      // optional float y = 4;
+      private float y_ ;
+      /**
+       * <code>optional float y = 4;</code>
+       */
+      public boolean hasY() {
+        return ((bitField0_ & 0x00000008) == 0x00000008);
+      }
+      /**
+       * <code>optional float y = 4;</code>
+       */
+      public float getY() {
+        return y_;
+      }
+      /**
+       * <code>optional float y = 4;</code>
+       */
+      public Builder setY(float value) {
+        bitField0_ |= 0x00000008;
+        y_ = value;
+        
+        return this;
+      }
+      /**
+       * <code>optional float y = 4;</code>
+       */
+      public Builder clearY() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        y_ = 0F;
+        
+        return this;
+      }
+
+      // optional float z = 5;
+      private float z_ ;
+      /**
+       * <code>optional float z = 5;</code>
+       */
+      public boolean hasZ() {
+        return ((bitField0_ & 0x00000010) == 0x00000010);
+      }
+      /**
+       * <code>optional float z = 5;</code>
+       */
+      public float getZ() {
+        return z_;
+      }
+      /**
+       * <code>optional float z = 5;</code>
+       */
+      public Builder setZ(float value) {
+        bitField0_ |= 0x00000010;
+        z_ = value;
+        
+        return this;
+      }
+      /**
+       * <code>optional float z = 5;</code>
+       */
+      public Builder clearZ() {
+        bitField0_ = (bitField0_ & ~0x00000010);
+        z_ = 0F;
+        
+        return this;
+      }
+
+      // optional uint32 slot = 16;
+      private int slot_ ;
+      /**
+       * <code>optional uint32 slot = 16;</code>
+       *
+       * <pre>
+       * As in Sensor.
+       * </pre>
+       */
+      public boolean hasSlot() {
+        return ((bitField0_ & 0x00000020) == 0x00000020);
+      }
+      /**
+       * <code>optional uint32 slot = 16;</code>
+       *
+       * <pre>
+       * As in Sensor.
+       * </pre>
+       */
+      public int getSlot() {
+        return slot_;
+      }
+      /**
+       * <code>optional uint32 slot = 16;</code>
+       *
+       * <pre>
+       * As in Sensor.
+       * </pre>
+       */
+      public Builder setSlot(int value) {
+        bitField0_ |= 0x00000020;
+        slot_ = value;
+        
+        return this;
+      }
+      /**
+       * <code>optional uint32 slot = 16;</code>
+       *
+       * <pre>
+       * As in Sensor.
+       * </pre>
+       */
+      public Builder clearSlot() {
+        bitField0_ = (bitField0_ & ~0x00000020);
+        slot_ = 0;
+        
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:ThreeAxisSensor)
+    }
+
+    static {
+      defaultInstance = new ThreeAxisSensor(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:ThreeAxisSensor)
+  }
+
+  public interface DataPacketOrBuilder
+      extends com.google.protobuf.MessageLiteOrBuilder {
+
+    // optional string sender_id = 1;
+    /**
+     * <code>optional string sender_id = 1;</code>
+     */
+    boolean hasSenderId();
+    /**
+     * <code>optional string sender_id = 1;</code>
+     */
+    java.lang.String getSenderId();
+    /**
+     * <code>optional string sender_id = 1;</code>
+     */
+    com.google.protobuf.ByteString
+        getSenderIdBytes();
+
+    // optional uint32 sequence = 2;
+    /**
+     * <code>optional uint32 sequence = 2;</code>
+     *
+     * <pre>
+     * Serial identifier for ordering a packet stream.
+     * </pre>
+     */
+    boolean hasSequence();
+    /**
+     * <code>optional uint32 sequence = 2;</code>
+     *
+     * <pre>
+     * Serial identifier for ordering a packet stream.
+     * </pre>
+     */
+    int getSequence();
+
+    // optional uint64 timestamp = 3;
+    /**
+     * <code>optional uint64 timestamp = 3;</code>
+     *
+     * <pre>
+     * Miliseconds; time of packet capture.
+     * </pre>
+     */
+    boolean hasTimestamp();
+    /**
+     * <code>optional uint64 timestamp = 3;</code>
+     *
+     * <pre>
+     * Miliseconds; time of packet capture.
+     * </pre>
+     */
+    long getTimestamp();
+
+    // optional uint32 delta_base = 16;
+    /**
+     * <code>optional uint32 delta_base = 16;</code>
+     *
+     * <pre>
+     * Set on a delta packet: the sequence of the packet it builds on.
+     * </pre>
+     */
+    boolean hasDeltaBase();
+    /**
+     * <code>optional uint32 delta_base = 16;</code>
+     *
+     * <pre>
+     * Set on a delta packet: the sequence of the packet it builds on.
+     * </pre>
+     */
+    int getDeltaBase();
+
+    // optional .Position position = 20;
+    /**
+     * <code>optional .Position position = 20;</code>
+     */
+    boolean hasPosition();
+    /**
+     * <code>optional .Position position = 20;</code>
+     */
+    TelemetryLite.Position getPosition();
+
+    // repeated .Sensor sensor = 21;
+    /**
+     * <code>repeated .Sensor sensor = 21;</code>
+     */
+    java.util.List<TelemetryLite.Sensor> 
+        getSensorList();
+    /**
+     * <code>repeated .Sensor sensor = 21;</code>
+     */
+    TelemetryLite.Sensor getSensor(int index);
+    /**
+     * <code>repeated .Sensor sensor = 21;</code>
+     */
+    int getSensorCount();
+
+    // repeated .ThreeAxisSensor three_axis_sensor = 22;
+    /**
+     * <code>repeated .ThreeAxisSensor three_axis_sensor = 22;</code>
+     */
+    java.util.List<TelemetryLite.ThreeAxisSensor> 
+        getThreeAxisSensorList();
+    /**
+     * <code>repeated .ThreeAxisSensor three_axis_sensor = 22;</code>
+     */
+    TelemetryLite.ThreeAxisSensor getThreeAxisSensor(int index);
+    /**
+     * <code>repeated .ThreeAxisSensor three_axis_sensor = 22;</code>
+     */
+    int getThreeAxisSensorCount();
+  }
+  /**
+   * Protobuf type {@code DataPacket}
+   */
+  public static final class DataPacket extends
+      com.google.protobuf.GeneratedMessageLite
+      implements DataPacketOrBuilder {
+    // Use DataPacket.newBuilder() to construct.
+    private DataPacket(com.google.protobuf.GeneratedMessageLite.Builder builder) {
+      super(builder);
+
+    }
+    private DataPacket(boolean noInit) {}
+
+    private static final DataPacket defaultInstance;
+    public static DataPacket getDefaultInstance() {
+      return defaultInstance;
+    }
+
+    public DataPacket getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+
+    private DataPacket(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      initFields();
+      int mutable_bitField0_ = 0;
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 10: {
+              bitField0_ |= 0x00000001;
+              senderId_ = input.readBytes();
+              break;
+            }
+            case 16: {
+              bitField0_ |= 0x00000002;
+              sequence_ = input.readUInt32();
+              break;
+            }
+            case 24: {
+              bitField0_ |= 0x00000004;
+              timestamp_ = input.readUInt64();
+              break;
+            }
+            case 128: {
+              bitField0_ |= 0x00000008;
+              deltaBase_ = input.readUInt32();
+              break;
+            }
+            case 162: {
+              TelemetryLite.Position.Builder subBuilder = null;
+              if (((bitField0_ & 0x00000010) == 0x00000010)) {
+                subBuilder = position_.toBuilder();
+              }
+              position_ = input.readMessage(TelemetryLite.Position.PARSER, extensionRegistry);
+              if (subBuilder != null) {
+                subBuilder.mergeFrom(position_);
+                position_ = subBuilder.buildPartial();
+              }
+              bitField0_ |= 0x00000010;
+              break;
+            }
+            case 170: {
+              if (!((mutable_bitField0_ & 0x00000020) == 0x00000020)) {
+                sensor_ = new java.util.ArrayList<TelemetryLite.Sensor>();
+                mutable_bitField0_ |= 0x00000020;
+              }
+              sensor_.add(input.readMessage(TelemetryLite.Sensor.PARSER, extensionRegistry));
+              break;
+            }
+            case 178: {
+              if (!((mutable_bitField0_ & 0x00000040) == 0x00000040)) {
+                threeAxisSensor_ = new java.util.ArrayList<TelemetryLite.ThreeAxisSensor>();
+                mutable_bitField0_ |= 0x00000040;
+              }
+              threeAxisSensor_.add(input.readMessage(TelemetryLite.ThreeAxisSensor.PARSER, extensionRegistry));
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e.getMessage()).setUnfinishedMessage(this);
+      } finally {
+        if (((mutable_bitField0_ & 0x00000020) == 0x00000020)) {
+          sensor_ = java.util.Collections.unmodifiableList(sensor_);
+        }
+        if (((mutable_bitField0_ & 0x00000040) == 0x00000040)) {
+          threeAxisSensor_ = java.util.Collections.unmodifiableList(threeAxisSensor_);
+        }
+        makeExtensionsImmutable();
+      }
+    }
+    public static com.google.protobuf.Parser<DataPacket> PARSER =
+        new com.google.protobuf.AbstractParser<DataPacket>() {
+      public DataPacket parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new DataPacket(input, extensionRegistry);
+      }
+    };
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<DataPacket> getParserForType() {
+      return PARSER;
+    }
+
+    private int bitField0_;
+    // optional string sender_id = 1;
+    public static final int SENDER_ID_FIELD_NUMBER = 1;
+    private java.lang.Object senderId_;
+    /**
+     * <code>optional string sender_id = 1;</code>
+     */
+    public boolean hasSenderId() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>optional string sender_id = 1;</code>
+     */
+    public java.lang.String getSenderId() {
+      java.lang.Object ref = senderId_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          senderId_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string sender_id = 1;</code>
+     */
+    public com.google.protobuf.ByteString
+        getSenderIdBytes() {
+      java.lang.Object ref = senderId_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        senderId_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    // optional uint32 sequence = 2;
+    public static final int SEQUENCE_FIELD_NUMBER = 2;
+    private int sequence_;
+    /**
+     * <code>optional uint32 sequence = 2;</code>
+     *
+     * <pre>
+     * Serial identifier for ordering a packet stream.
+     * </pre>
+     */
+    public boolean hasSequence() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>optional uint32 sequence = 2;</code>
+     *
+     * <pre>
+     * Serial identifier for ordering a packet stream.
+     * </pre>
+     */
+    public int getSequence() {
+      return sequence_;
+    }
+
+    // optional uint64 timestamp = 3;
+    public static final int TIMESTAMP_FIELD_NUMBER = 3;
+    private long timestamp_;
+    /**
+     * <code>optional uint64 timestamp = 3;</code>
+     *
+     * <pre>
+     * Miliseconds; time of packet capture.
+     * </pre>
+     */
+    public boolean hasTimestamp() {
+      return ((bitField0_ & 0x00000004) == 0x00000004);
+    }
+    /**
+     * <code>optional uint64 timestamp = 3;</code>
+     *
+     * <pre>
+     * Miliseconds; time of packet capture.
+     * </pre>
+     */
+    public long getTimestamp() {
+      return timestamp_;
+    }
+
+    // optional uint32 delta_base = 16;
+    public static final int DELTA_BASE_FIELD_NUMBER = 16;
+    private int deltaBase_;
+    /**
+     * <code>optional uint32 delta_base = 16;</code>
+     *
+     * <pre>
+     * Set on a delta packet: the sequence of the packet it builds on.
+     * </pre>
+     */
+    public boolean hasDeltaBase() {
+      return ((bitField0_ & 0x00000008) == 0x00000008);
+    }
+    /**
+     * <code>optional uint32 delta_base = 16;</code>
+     *
+     * <pre>
+     * Set on a delta packet: the sequence of the packet it builds on.
+     * </pre>
+     */
+    public int getDeltaBase() {
+      return deltaBase_;
+    }
+
+    // optional .Position position = 20;
+    public static final int POSITION_FIELD_NUMBER = 20;
+    private TelemetryLite.Position position_;
+    /**
+     * <code>optional .Position position = 20;</code>
+     */
+    public boolean hasPosition() {
+      return ((bitField0_ & 0x00000010) == 0x00000010);
+    }
+    /**
+     * <code>optional .Position position = 20;</code>
+     */
+    public TelemetryLite.Position getPosition() {
+      return position_;
+    }
+
+    // repeated .Sensor sensor = 21;
+    public static final int SENSOR_FIELD_NUMBER = 21;
+    private java.util.List<TelemetryLite.Sensor> sensor_;
+    /**
+     * <code>repeated .Sensor sensor = 21;</code>
+     */
+    public java.util.List<TelemetryLite.Sensor> getSensorList() {
+      return sensor_;
+    }
+    /**
+     * <code>repeated .Sensor sensor = 21;</code>
+     */
+    public java.util.List<? extends TelemetryLite.SensorOrBuilder> 
+        getSensorOrBuilderList() {
+      return sensor_;
+    }
+    /**
+     * <code>repeated .Sensor sensor = 21;</code>
+     */
+    public int getSensorCount() {
+      return sensor_.size();
+    }
+    /**
+     * <code>repeated .Sensor sensor = 21;</code>
+     */
+    public TelemetryLite.Sensor getSensor(int index) {
+      return sensor_.get(index);
+    }
+    /**
+     * <code>repeated .Sensor sensor = 21;</code>
+     */
+    public TelemetryLite.SensorOrBuilder getSensorOrBuilder(
+        int index) {
+      return sensor_.get(index);
+    }
+
+    // repeated .ThreeAxisSensor three_axis_sensor = 22;
+    public static final int THREE_AXIS_SENSOR_FIELD_NUMBER = 22;
+    private java.util.List<TelemetryLite.ThreeAxisSensor> threeAxisSensor_;
+    /**
+     * <code>repeated .ThreeAxisSensor three_axis_sensor = 22;</code>
+     */
+    public java.util.List<TelemetryLite.ThreeAxisSensor> getThreeAxisSensorList() {
+      return threeAxisSensor_;
+    }
+    /**
+     * <code>repeated .ThreeAxisSensor three_axis_sensor = 22;</code>
+     */
+    public java.util.List<? extends TelemetryLite.ThreeAxisSensorOrBuilder> 
+        getThreeAxisSensorOrBuilderList() {
+      return threeAxisSensor_;
+    }
+    /**
+     * <code>repeated .ThreeAxisSensor three_axis_sensor = 22;</code>
+     */
+    public int getThreeAxisSensorCount() {
+      return threeAxisSensor_.size();
+    }
+    /**
+     * <code>repeated .ThreeAxisSensor three_axis_sensor = 22;</code>
+     */
+    public TelemetryLite.ThreeAxisSensor getThreeAxisSensor(int index) {
+      return threeAxisSensor_.get(index);
+    }
+    /**
+     * <code>repeated .ThreeAxisSensor three_axis_sensor = 22;</code>
+     */
+    public TelemetryLite.ThreeAxisSensorOrBuilder getThreeAxisSensorOrBuilder(
+        int index) {
+      return threeAxisSensor_.get(index);
+    }
+
+    private void initFields() {
+      senderId_ = "";
+      sequence_ = 0;
+      timestamp_ = 0L;
+      deltaBase_ = 0;
+      position_ = TelemetryLite.Position.getDefaultInstance();
+      sensor_ = java.util.Collections.emptyList();
+      threeAxisSensor_ = java.util.Collections.emptyList();
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized != -1) return isInitialized == 1;
+
+      for (int i = 0; i < getSensorCount(); i++) {
+        if (!getSensor(i).isInitialized()) {
+          memoizedIsInitialized = 0;
+          return false;
+        }
+      }
+      for (int i = 0; i < getThreeAxisSensorCount(); i++) {
+        if (!getThreeAxisSensor(i).isInitialized()) {
+          memoizedIsInitialized = 0;
+          return false;
+        }
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeBytes(1, getSenderIdBytes());
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeUInt32(2, sequence_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        output.writeUInt64(3, timestamp_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        output.writeUInt32(16, deltaBase_);
+      }
+      if (((bitField0_ & 0x00000010) == 0x00000010)) {
+        output.writeMessage(20, position_);
+      }
+      for (int i = 0; i < sensor_.size(); i++) {
+        output.writeMessage(21, sensor_.get(i));
+      }
+      for (int i = 0; i < threeAxisSensor_.size(); i++) {
+        output.writeMessage(22, threeAxisSensor_.get(i));
+      }
+    }
+
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(1, getSenderIdBytes());
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt32Size(2, sequence_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt64Size(3, timestamp_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt32Size(16, deltaBase_);
+      }
+      if (((bitField0_ & 0x00000010) == 0x00000010)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(20, position_);
+      }
+      for (int i = 0; i < sensor_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(21, sensor_.get(i));
+      }
+      for (int i = 0; i < threeAxisSensor_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(22, threeAxisSensor_.get(i));
+      }
+      memoizedSerializedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+
+    public static TelemetryLite.DataPacket parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static TelemetryLite.DataPacket parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static TelemetryLite.DataPacket parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static TelemetryLite.DataPacket parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static TelemetryLite.DataPacket parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static TelemetryLite.DataPacket parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+    public static TelemetryLite.DataPacket parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input);
+    }
+    public static TelemetryLite.DataPacket parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input, extensionRegistry);
+    }
+    public static TelemetryLite.DataPacket parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static TelemetryLite.DataPacket parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(TelemetryLite.DataPacket prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+
+    /**
+     * Protobuf type {@code DataPacket}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageLite.Builder<
+          TelemetryLite.DataPacket, Builder>
+        implements TelemetryLite.DataPacketOrBuilder {
+      // Construct using TelemetryLite.DataPacket.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private void maybeForceBuilderInitialization() {
+      }
+      private static Builder create() {
+        return new Builder();
+      }
+
+      public Builder clear() {
+        super.clear();
+        senderId_ = "";
+        bitField0_ = (bitField0_ & ~0x00000001);
+        sequence_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000002);
+        timestamp_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000004);
+        deltaBase_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000008);
+        position_ = TelemetryLite.Position.getDefaultInstance();
+        bitField0_ = (bitField0_ & ~0x00000010);
+        sensor_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000020);
+        threeAxisSensor_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000040);
+        return this;
+      }
+
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+
+      public TelemetryLite.DataPacket getDefaultInstanceForType() {
+        return TelemetryLite.DataPacket.getDefaultInstance();
+      }
+
+      public TelemetryLite.DataPacket build() {
+        TelemetryLite.DataPacket result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public TelemetryLite.DataPacket buildPartial() {
+        TelemetryLite.DataPacket result = new TelemetryLite.DataPacket(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.senderId_ = senderId_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.sequence_ = sequence_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000004;
+        }
+        result.timestamp_ = timestamp_;
+        if (((from_bitField0_ & 0x00000008) == 0x00000008)) {
+          to_bitField0_ |= 0x00000008;
+        }
+        result.deltaBase_ = deltaBase_;
+        if (((from_bitField0_ & 0x00000010) == 0x00000010)) {
+          to_bitField0_ |= 0x00000010;
+        }
+        result.position_ = position_;
+        if (((bitField0_ & 0x00000020) == 0x00000020)) {
+          sensor_ = java.util.Collections.unmodifiableList(sensor_);
+          bitField0_ = (bitField0_ & ~0x00000020);
+        }
+        result.sensor_ = sensor_;
+        if (((bitField0_ & 0x00000040) == 0x00000040)) {
+          threeAxisSensor_ = java.util.Collections.unmodifiableList(threeAxisSensor_);
+          bitField0_ = (bitField0_ & ~0x00000040);
+        }
+        result.threeAxisSensor_ = threeAxisSensor_;
+        result.bitField0_ = to_bitField0_;
+        return result;
+      }
+
+      public Builder mergeFrom(TelemetryLite.DataPacket other) {
+        if (other == TelemetryLite.DataPacket.getDefaultInstance()) return this;
+        if (other.hasSenderId()) {
+          bitField0_ |= 0x00000001;
+          senderId_ = other.senderId_;
+          
+        }
+        if (other.hasSequence()) {
+          setSequence(other.getSequence());
+        }
+        if (other.hasTimestamp()) {
+          setTimestamp(other.getTimestamp());
+        }
+        if (other.hasDeltaBase()) {
+          setDeltaBase(other.getDeltaBase());
+        }
+        if (other.hasPosition()) {
+          mergePosition(other.getPosition());
+        }
+        if (!other.sensor_.isEmpty()) {
+          if (sensor_.isEmpty()) {
+            sensor_ = other.sensor_;
+            bitField0_ = (bitField0_ & ~0x00000020);
+          } else {
+            ensureSensorIsMutable();
+            sensor_.addAll(other.sensor_);
+          }
+          
+        }
+        if (!other.threeAxisSensor_.isEmpty()) {
+          if (threeAxisSensor_.isEmpty()) {
+            threeAxisSensor_ = other.threeAxisSensor_;
+            bitField0_ = (bitField0_ & ~0x00000040);
+          } else {
+            ensureThreeAxisSensorIsMutable();
+            threeAxisSensor_.addAll(other.threeAxisSensor_);
+          }
+          
+        }
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        for (int i = 0; i < getSensorCount(); i++) {
+          if (!getSensor(i).isInitialized()) {
+            
+            return false;
+          }
+        }
+        for (int i = 0; i < getThreeAxisSensorCount(); i++) {
+          if (!getThreeAxisSensor(i).isInitialized()) {
+            
+            return false;
+          }
+        }
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        TelemetryLite.DataPacket parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (TelemetryLite.DataPacket) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      // optional string sender_id = 1;
+      private java.lang.Object senderId_ = "";
+      /**
+       * <code>optional string sender_id = 1;</code>
+       */
+      public boolean hasSenderId() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>optional string sender_id = 1;</code>
+       */
+      public java.lang.String getSenderId() {
+        java.lang.Object ref = senderId_;
+        if (!(ref instanceof java.lang.String)) {
+          java.lang.String s = ((com.google.protobuf.ByteString) ref)
+              .toStringUtf8();
+          senderId_ = s;
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>optional string sender_id = 1;</code>
+       */
+      public com.google.protobuf.ByteString
+          getSenderIdBytes() {
+        java.lang.Object ref = senderId_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          senderId_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>optional string sender_id = 1;</code>
+       */
+      public Builder setSenderId(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        senderId_ = value;
+        
+        return this;
+      }
+      /**
+       * <code>optional string sender_id = 1;</code>
+       */
+      public Builder clearSenderId() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        senderId_ = getDefaultInstance().getSenderId();
+        
+        return this;
+      }
+      /**
+       * <code>optional string sender_id = 1;</code>
+       */
+      public Builder setSenderIdBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        senderId_ = value;
+        
+        return this;
+      }
+
+      // optional uint32 sequence = 2;
+      private int sequence_ ;
+      /**
+       * <code>optional uint32 sequence = 2;</code>
+       *
+       * <pre>
+       * Serial identifier for ordering a packet stream.
+       * </pre>
+       */
+      public boolean hasSequence() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>optional uint32 sequence = 2;</code>
+       *
+       * <pre>
+       * Serial identifier for ordering a packet stream.
+       * </pre>
+       */
+      public int getSequence() {
+        return sequence_;
+      }
+      /**
+       * <code>optional uint32 sequence = 2;</code>
+       *
+       * <pre>
+       * Serial identifier for ordering a packet stream.
+       * </pre>
+       */
+      public Builder setSequence(int value) {
+        bitField0_ |= 0x00000002;
+        sequence_ = value;
+        
+        return this;
+      }
+      /**
+       * <code>optional uint32 sequence = 2;</code>
+       *
+       * <pre>
+       * Serial identifier for ordering a packet stream.
+       * </pre>
+       */
+      public Builder clearSequence() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        sequence_ = 0;
+        
+        return this;
+      }
+
+      // optional uint64 timestamp = 3;
+      private long timestamp_ ;
+      /**
+       * <code>optional uint64 timestamp = 3;</code>
+       *
+       * <pre>
+       * Miliseconds; time of packet capture.
+       * </pre>
+       */
+      public boolean hasTimestamp() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <code>optional uint64 timestamp = 3;</code>
+       *
+       * <pre>
+       * Miliseconds; time of packet capture.
+       * </pre>
+       */
+      public long getTimestamp() {
+        return timestamp_;
+      }
+      /**
+       * <code>optional uint64 timestamp = 3;</code>
+       *
+       * <pre>
+       * Miliseconds; time of packet capture.
+       * </pre>
+       */
+      public Builder setTimestamp(long value) {
+        bitField0_ |= 0x00000004;
+        timestamp_ = value;
+        
+        return this;
+      }
+      /**
+       * <code>optional uint64 timestamp = 3;</code>
+       *
+       * <pre>
+       * Miliseconds; time of packet capture.
+       * </pre>
+       */
+      public Builder clearTimestamp() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        timestamp_ = 0L;
+        
+        return this;
+      }
+
+      // optional uint32 delta_base = 16;
+      private int deltaBase_ ;
+      /**
+       * <code>optional uint32 delta_base = 16;</code>
+       *
+       * <pre>
+       * Set on a delta packet: the sequence of the packet it builds on.
+       * </pre>
+       */
+      public boolean hasDeltaBase() {
+        return ((bitField0_ & 0x00000008) == 0x00000008);
+      }
+      /**
+       * <code>optional uint32 delta_base = 16;</code>
+       *
+       * <pre>
+       * Set on a delta packet: the sequence of the packet it builds on.
+       * </pre>
+       */
+      public int getDeltaBase() {
+        return deltaBase_;
+      }
+      /**
+       * <code>optional uint32 delta_base = 16;</code>
+       *
+       * <pre>
+       * Set on a delta packet: the sequence of the packet it builds on.
+       * </pre>
+       */
+      public Builder setDeltaBase(int value) {
+        bitField0_ |= 0x00000008;
+        deltaBase_ = value;
+        
+        return this;
+      }
+      /**
+       * <code>optional uint32 delta_base = 16;</code>
+       *
+       * <pre>
+       * Set on a delta packet: the sequence of the packet it builds on.
+       * </pre>
+       */
+      public Builder clearDeltaBase() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        deltaBase_ = 0;
+        
+        return this;
+      }
+
+      // optional .Position position = 20;
+      private TelemetryLite.Position position_ = TelemetryLite.Position.getDefaultInstance();
+      /**
+       * <code>optional .Position position = 20;</code>
+       */
+      public boolean hasPosition() {
+        return ((bitField0_ & 0x00000010) == 0x00000010);
+      }
+      /**
+       * <code>optional .Position position = 20;</code>
+       */
+      public TelemetryLite.Position getPosition() {
+        return position_;
+      }
+      /**
+       * <code>optional .Position position = 20;</code>
+       */
+      public Builder setPosition(TelemetryLite.Position value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        position_ = value;
+
+        bitField0_ |= 0x00000010;
+        return this;
+      }
+      /**
+       * <code>optional .Position position = 20;</code>
+       */
+      public Builder setPosition(
+          TelemetryLite.Position.Builder builderForValue) {
+        position_ = builderForValue.build();
+
+        bitField0_ |= 0x00000010;
+        return this;
+      }
+      /**
+       * <code>optional .Position position = 20;</code>
+       */
+      public Builder mergePosition(TelemetryLite.Position value) {
+        if (((bitField0_ & 0x00000010) == 0x00000010) &&
+            position_ != TelemetryLite.Position.getDefaultInstance()) {
+          position_ =
+            TelemetryLite.Position.newBuilder(position_).mergeFrom(value).buildPartial();
+        } else {
+          position_ = value;
+        }
+
+        bitField0_ |= 0x00000010;
+        return this;
+      }
+      /**
+       * <code>optional .Position position = 20;</code>
+       */
+      public Builder clearPosition() {
+        position_ = TelemetryLite.Position.getDefaultInstance();
+
+        bitField0_ = (bitField0_ & ~0x00000010);
+        return this;
+      }
+
+      // repeated .Sensor sensor = 21;
+      private java.util.List<TelemetryLite.Sensor> sensor_ =
+        java.util.Collections.emptyList();
+      private void ensureSensorIsMutable() {
+        if (!((bitField0_ & 0x00000020) == 0x00000020)) {
+          sensor_ = new java.util.ArrayList<TelemetryLite.Sensor>(sensor_);
+          bitField0_ |= 0x00000020;
+         }
+      }
+
+      /**
+       * <code>repeated .Sensor sensor = 21;</code>
+       */
+      public java.util.List<TelemetryLite.Sensor> getSensorList() {
+        return java.util.Collections.unmodifiableList(sensor_);
+      }
+      /**
+       * <code>repeated .Sensor sensor = 21;</code>
+       */
+      public int getSensorCount() {
+        return sensor_.size();
+      }
+      /**
+       * <code>repeated .Sensor sensor = 21;</code>
+       */
+      public TelemetryLite.Sensor getSensor(int index) {
+        return sensor_.get(index);
+      }
+      /**
+       * <code>repeated .Sensor sensor = 21;</code>
+       */
+      public Builder setSensor(
+          int index, TelemetryLite.Sensor value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        ensureSensorIsMutable();
+        sensor_.set(index, value);
+
+        return this;
+      }
+      /**
+       * <code>repeated .Sensor sensor = 21;</code>
+       */
+      public Builder setSensor(
+          int index, TelemetryLite.Sensor.Builder builderForValue) {
+        ensureSensorIsMutable();
+        sensor_.set(index, builderForValue.build());
+
+        return this;
+      }
+      /**
+       * <code>repeated .Sensor sensor = 21;</code>
+       */
+      public Builder addSensor(TelemetryLite.Sensor value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        ensureSensorIsMutable();
+        sensor_.add(value);
+
+        return this;
+      }
+      /**
+       * <code>repeated .Sensor sensor = 21;</code>
+       */
+      public Builder addSensor(
+          int index, TelemetryLite.Sensor value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        ensureSensorIsMutable();
+        sensor_.add(index, value);
+
+        return this;
+      }
+      /**
+       * <code>repeated .Sensor sensor = 21;</code>
+       */
+      public Builder addSensor(
+          TelemetryLite.Sensor.Builder builderForValue) {
+        ensureSensorIsMutable();
+        sensor_.add(builderForValue.build());
+
+        return this;
+      }
+      /**
+       * <code>repeated .Sensor sensor = 21;</code>
+       */
+      public Builder addSensor(
+          int index, TelemetryLite.Sensor.Builder builderForValue) {
+        ensureSensorIsMutable();
+        sensor_.add(index, builderForValue.build());
+
+        return this;
+      }
+      /**
+       * <code>repeated .Sensor sensor = 21;</code>
+       */
+      public Builder addAllSensor(
+          java.lang.Iterable<? extends TelemetryLite.Sensor> values) {
+        ensureSensorIsMutable();
+        super.addAll(values, sensor_);
+
+        return this;
+      }
+      /**
+       * <code>repeated .Sensor sensor = 21;</code>
+       */
+      public Builder clearSensor() {
+        sensor_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000020);
+
+        return this;
+      }
+      /**
+       * <code>repeated .Sensor sensor = 21;</code>
+       */
+      public Builder removeSensor(int index) {
+        ensureSensorIsMutable();
+        sensor_.remove(index);
+
+        return this;
+      }
+
+      // repeated .ThreeAxisSensor three_axis_sensor = 22;
+      private java.util.List<TelemetryLite.ThreeAxisSensor> threeAxisSensor_ =
+        java.util.Collections.emptyList();
+      private void ensureThreeAxisSensorIsMutable() {
+        if (!((bitField0_ & 0x00000040) == 0x00000040)) {
+          threeAxisSensor_ = new java.util.ArrayList<TelemetryLite.ThreeAxisSensor>(threeAxisSensor_);
+          bitField0_ |= 0x00000040;
+         }
+      }
+
+      /**
+       * <code>repeated .ThreeAxisSensor three_axis_sensor = 22;</code>
+       */
+      public java.util.List<TelemetryLite.ThreeAxisSensor> getThreeAxisSensorList() {
+        return java.util.Collections.unmodifiableList(threeAxisSensor_);
+      }
+      /**
+       * <code>repeated .ThreeAxisSensor three_axis_sensor = 22;</code>
+       */
+      public int getThreeAxisSensorCount() {
+        return threeAxisSensor_.size();
+      }
+      /**
+       * <code>repeated .ThreeAxisSensor three_axis_sensor = 22;</code>
+       */
+      public TelemetryLite.ThreeAxisSensor getThreeAxisSensor(int index) {
+        return threeAxisSensor_.get(index);
+      }
+      /**
+       * <code>repeated .ThreeAxisSensor three_axis_sensor = 22;</code>
+       */
+      public Builder setThreeAxisSensor(
+          int index, TelemetryLite.ThreeAxisSensor value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        ensureThreeAxisSensorIsMutable();
+        threeAxisSensor_.set(index, value);
+
+        return this;
+      }
+      /**
+       * <code>repeated .ThreeAxisSensor three_axis_sensor = 22;</code>
+       */
+      public Builder setThreeAxisSensor(
+          int index, TelemetryLite.ThreeAxisSensor.Builder builderForValue) {
+        ensureThreeAxisSensorIsMutable();
+        threeAxisSensor_.set(index, builderForValue.build());
+
+        return this;
+      }
+      /**
+       * <code>repeated .ThreeAxisSensor three_axis_sensor = 22;</code>
+       */
+      public Builder addThreeAxisSensor(TelemetryLite.ThreeAxisSensor value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        ensureThreeAxisSensorIsMutable();
+        threeAxisSensor_.add(value);
+
+        return this;
+      }
+      /**
+       * <code>repeated .ThreeAxisSensor three_axis_sensor = 22;</code>
+       */
+      public Builder addThreeAxisSensor(
+          int index, TelemetryLite.ThreeAxisSensor value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        ensureThreeAxisSensorIsMutable();
+        threeAxisSensor_.add(index, value);
+
+        return this;
+      }
+      /**
+       * <code>repeated .ThreeAxisSensor three_axis_sensor = 22;</code>
+       */
+      public Builder addThreeAxisSensor(
+          TelemetryLite.ThreeAxisSensor.Builder builderForValue) {
+        ensureThreeAxisSensorIsMutable();
+        threeAxisSensor_.add(builderForValue.build());
+
+        return this;
+      }
+      /**
+       * <code>repeated .ThreeAxisSensor three_axis_sensor = 22;</code>
+       */
+      public Builder addThreeAxisSensor(
+          int index, TelemetryLite.ThreeAxisSensor.Builder builderForValue) {
+        ensureThreeAxisSensorIsMutable();
+        threeAxisSensor_.add(index, builderForValue.build());
+
+        return this;
+      }
+      /**
+       * <code>repeated .ThreeAxisSensor three_axis_sensor = 22;</code>
+       */
+      public Builder addAllThreeAxisSensor(
+          java.lang.Iterable<? extends TelemetryLite.ThreeAxisSensor> values) {
+        ensureThreeAxisSensorIsMutable();
+        super.addAll(values, threeAxisSensor_);
+
+        return this;
+      }
+      /**
+       * <code>repeated .ThreeAxisSensor three_axis_sensor = 22;</code>
+       */
+      public Builder clearThreeAxisSensor() {
+        threeAxisSensor_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000040);
+
+        return this;
+      }
+      /**
+       * <code>repeated .ThreeAxisSensor three_axis_sensor = 22;</code>
+       */
+      public Builder removeThreeAxisSensor(int index) {
+        ensureThreeAxisSensorIsMutable();
+        threeAxisSensor_.remove(index);
+
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:DataPacket)
+    }
+
+    static {
+      defaultInstance = new DataPacket(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:DataPacket)
+  }
+
+  public interface IridiumPacketOrBuilder
+      extends com.google.protobuf.MessageLiteOrBuilder {
+
+    // optional .IridiumPacket.IridiumHeader header = 1;
+    /**
+     * <code>optional .IridiumPacket.IridiumHeader header = 1;</code>
+     */
+    boolean hasHeader();
+    /**
+     * <code>optional .IridiumPacket.IridiumHeader header = 1;</code>
+     */
+    TelemetryLite.IridiumPacket.IridiumHeader getHeader();
+
+    // optional bytes payload = 2;
+    /**
+     * <code>optional bytes payload = 2;</code>
+     */
+    boolean hasPayload();
+    /**
+     * <code>optional bytes payload = 2;</code>
+     */
+    com.google.protobuf.ByteString getPayload();
+
+    // optional .IridiumPacket.IridiumLocation location = 3;
+    /**
+     * <code>optional .IridiumPacket.IridiumLocation location = 3;</code>
+     */
+    boolean hasLocation();
+    /**
+     * <code>optional .IridiumPacket.IridiumLocation location = 3;</code>
+     */
+    TelemetryLite.IridiumPacket.IridiumLocation getLocation();
+  }
+  /**
+   * Protobuf type {@code IridiumPacket}
+   */
+  public static final class IridiumPacket extends
+      com.google.protobuf.GeneratedMessageLite
+      implements IridiumPacketOrBuilder {
+    // Use IridiumPacket.newBuilder() to construct.
+    private IridiumPacket(com.google.protobuf.GeneratedMessageLite.Builder builder) {
+      super(builder);
+
+    }
+    private IridiumPacket(boolean noInit) {}
+
+    private static final IridiumPacket defaultInstance;
+    public static IridiumPacket getDefaultInstance() {
+      return defaultInstance;
+    }
+
+    public IridiumPacket getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+
+    private IridiumPacket(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      initFields();
+      int mutable_bitField0_ = 0;
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 10: {
+              TelemetryLite.IridiumPacket.IridiumHeader.Builder subBuilder = null;
+              if (((bitField0_ & 0x00000001) == 0x00000001)) {
+                subBuilder = header_.toBuilder();
+              }
+              header_ = input.readMessage(TelemetryLite.IridiumPacket.IridiumHeader.PARSER, extensionRegistry);
+              if (subBuilder != null) {
+                subBuilder.mergeFrom(header_);
+                header_ = subBuilder.buildPartial();
+              }
+              bitField0_ |= 0x00000001;
+              break;
+            }
+            case 18: {
+              bitField0_ |= 0x00000002;
+              payload_ = input.readBytes();
+              break;
+            }
+            case 26: {
+              TelemetryLite.IridiumPacket.IridiumLocation.Builder subBuilder = null;
+              if (((bitField0_ & 0x00000004) == 0x00000004)) {
+                subBuilder = location_.toBuilder();
+              }
+              location_ = input.readMessage(TelemetryLite.IridiumPacket.IridiumLocation.PARSER, extensionRegistry);
+              if (subBuilder != null) {
+                subBuilder.mergeFrom(location_);
+                location_ = subBuilder.buildPartial();
+              }
+              bitField0_ |= 0x00000004;
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e.getMessage()).setUnfinishedMessage(this);
+      } finally {
+        makeExtensionsImmutable();
+      }
+    }
+    public static com.google.protobuf.Parser<IridiumPacket> PARSER =
+        new com.google.protobuf.AbstractParser<IridiumPacket>() {
+      public IridiumPacket parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new IridiumPacket(input, extensionRegistry);
+      }
+    };
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<IridiumPacket> getParserForType() {
+      return PARSER;
+    }
+
+    public interface IridiumHeaderOrBuilder
+        extends com.google.protobuf.MessageLiteOrBuilder {
+
+      // optional uint32 cdr_reference = 1;
+      /**
+       * <code>optional uint32 cdr_reference = 1;</code>
+       */
+      boolean hasCdrReference();
+      /**
+       * <code>optional uint32 cdr_reference = 1;</code>
+       */
+      int getCdrReference();
+
+      // optional string imei = 2;
+      /**
+       * <code>optional string imei = 2;</code>
+       */
+      boolean hasImei();
+      /**
+       * <code>optional string imei = 2;</code>
+       */
+      java.lang.String getImei();
+      /**
+       * <code>optional string imei = 2;</code>
+       */
+      com.google.protobuf.ByteString
+          getImeiBytes();
+
+      // optional uint32 status = 3;
+      /**
+       * <code>optional uint32 status = 3;</code>
+       */
+      boolean hasStatus();
+      /**
+       * <code>optional uint32 status = 3;</code>
+       */
+      int getStatus();
+
+      // optional uint32 mo_message_sequence_number = 4;
+      /**
+       * <code>optional uint32 mo_message_sequence_number = 4;</code>
+       */
+      boolean hasMoMessageSequenceNumber();
+      /**
+       * <code>optional uint32 mo_message_sequence_number = 4;</code>
+       */
+      int getMoMessageSequenceNumber();
+
+      // optional uint32 mt_message_sequence_number = 5;
+      /**
+       * <code>optional uint32 mt_message_sequence_number = 5;</code>
+       */
+      boolean hasMtMessageSequenceNumber();
+      /**
+       * <code>optional uint32 mt_message_sequence_number = 5;</code>
+       */
+      int getMtMessageSequenceNumber();
+
+      // optional uint64 timestamp = 6;
+      /**
+       * <code>optional uint64 timestamp = 6;</code>
+       */
+      boolean hasTimestamp();
+      /**
+       * <code>optional uint64 timestamp = 6;</code>
+       */
+      long getTimestamp();
+    }
+    /**
+     * Protobuf type {@code IridiumPacket.IridiumHeader}
+     */
+    public static final class IridiumHeader extends
+        com.google.protobuf.GeneratedMessageLite
+        implements IridiumHeaderOrBuilder {
+      // Use IridiumHeader.newBuilder() to construct.
+      private IridiumHeader(com.google.protobuf.GeneratedMessageLite.Builder builder) {
+        super(builder);
+
+      }
+      private IridiumHeader(boolean noInit) {}
+
+      private static final IridiumHeader defaultInstance;
+      public static IridiumHeader getDefaultInstance() {
+        return defaultInstance;
+      }
+
+      public IridiumHeader getDefaultInstanceForType() {
+        return defaultInstance;
+      }
+
+      private IridiumHeader(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        initFields();
+        int mutable_bitField0_ = 0;
+        try {
+          boolean done = false;
+          while (!done) {
+            int tag = input.readTag();
+            switch (tag) {
+              case 0:
+                done = true;
+                break;
+              default: {
+                if (!parseUnknownField(input,
+                                       extensionRegistry, tag)) {
+                  done = true;
+                }
+                break;
+              }
+              case 8: {
+                bitField0_ |= 0x00000001;
+                cdrReference_ = input.readUInt32();
+                break;
+              }
+              case 18: {
+                bitField0_ |= 0x00000002;
+                imei_ = input.readBytes();
+                break;
+              }
+              case 24: {
+                bitField0_ |= 0x00000004;
+                status_ = input.readUInt32();
+                break;
+              }
+              case 32: {
+                bitField0_ |= 0x00000008;
+                moMessageSequenceNumber_ = input.readUInt32();
+                break;
+              }
+              case 40: {
+                bitField0_ |= 0x00000010;
+                mtMessageSequenceNumber_ = input.readUInt32();
+                break;
+              }
+              case 48: {
+                bitField0_ |= 0x00000020;
+                timestamp_ = input.readUInt64();
+                break;
+              }
+            }
+          }
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.setUnfinishedMessage(this);
+        } catch (java.io.IOException e) {
+          throw new com.google.protobuf.InvalidProtocolBufferException(
+              e.getMessage()).setUnfinishedMessage(this);
+        } finally {
+          makeExtensionsImmutable();
+        }
+      }
+      public static com.google.protobuf.Parser<IridiumHeader> PARSER =
+          new com.google.protobuf.AbstractParser<IridiumHeader>() {
+        public IridiumHeader parsePartialFrom(
+            com.google.protobuf.CodedInputStream input,
+            com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+            throws com.google.protobuf.InvalidProtocolBufferException {
+          return new IridiumHeader(input, extensionRegistry);
+        }
+      };
+
+      @java.lang.Override
+      public com.google.protobuf.Parser<IridiumHeader> getParserForType() {
+        return PARSER;
+      }
+
+      private int bitField0_;
+      // optional uint32 cdr_reference = 1;
+      public static final int CDR_REFERENCE_FIELD_NUMBER = 1;
+      private int cdrReference_;
+      /**
+       * <code>optional uint32 cdr_reference = 1;</code>
+       */
+      public boolean hasCdrReference() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>optional uint32 cdr_reference = 1;</code>
+       */
+      public int getCdrReference() {
+        return cdrReference_;
+      }
+
+      // optional string imei = 2;
+      public static final int IMEI_FIELD_NUMBER = 2;
+      private java.lang.Object imei_;
+      /**
+       * <code>optional string imei = 2;</code>
+       */
+      public boolean hasImei() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>optional string imei = 2;</code>
+       */
+      public java.lang.String getImei() {
+        java.lang.Object ref = imei_;
+        if (ref instanceof java.lang.String) {
+          return (java.lang.String) ref;
+        } else {
+          com.google.protobuf.ByteString bs = 
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            imei_ = s;
+          }
+          return s;
+        }
+      }
+      /**
+       * <code>optional string imei = 2;</code>
+       */
+      public com.google.protobuf.ByteString
+          getImeiBytes() {
+        java.lang.Object ref = imei_;
+        if (ref instanceof java.lang.String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          imei_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+
+      // optional uint32 status = 3;
+      public static final int STATUS_FIELD_NUMBER = 3;
+      private int status_;
+      /**
+       * <code>optional uint32 status = 3;</code>
+       */
+      public boolean hasStatus() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <code>optional uint32 status = 3;</code>
+       */
+      public int getStatus() {
+        return status_;
+      }
+
+      // optional uint32 mo_message_sequence_number = 4;
+      public static final int MO_MESSAGE_SEQUENCE_NUMBER_FIELD_NUMBER = 4;
+      private int moMessageSequenceNumber_;
+      /**
+       * <code>optional uint32 mo_message_sequence_number = 4;</code>
+       */
+      public boolean hasMoMessageSequenceNumber() {
+        return ((bitField0_ & 0x00000008) == 0x00000008);
+      }
+      /**
+       * <code>optional uint32 mo_message_sequence_number = 4;</code>
+       */
+      public int getMoMessageSequenceNumber() {
+        return moMessageSequenceNumber_;
+      }
+
+      // optional uint32 mt_message_sequence_number = 5;
+      public static final int MT_MESSAGE_SEQUENCE_NUMBER_FIELD_NUMBER = 5;
+      private int mtMessageSequenceNumber_;
+      /**
+       * <code>optional uint32 mt_message_sequence_number = 5;</code>
+       */
+      public boolean hasMtMessageSequenceNumber() {
+        return ((bitField0_ & 0x00000010) == 0x00000010);
+      }
+      /**
+       * <code>optional uint32 mt_message_sequence_number = 5;</code>
+       */
+      public int getMtMessageSequenceNumber() {
+        return mtMessageSequenceNumber_;
+      }
+
+      // optional uint64 timestamp = 6;
+      public static final int TIMESTAMP_FIELD_NUMBER = 6;
+      private long timestamp_;
+      /**
+       * <code>optional uint64 timestamp = 6;</code>
+       */
+      public boolean hasTimestamp() {
+        return ((bitField0_ & 0x00000020) == 0x00000020);
+      }
+      /**
+       * <code>optional uint64 timestamp = 6;</code>
+       */
+      public long getTimestamp() {
+        return timestamp_;
+      }
+
+      private void initFields() {
+        cdrReference_ = 0;
+        imei_ = "";
+        status_ = 0;
+        moMessageSequenceNumber_ = 0;
+        mtMessageSequenceNumber_ = 0;
+        timestamp_ = 0L;
+      }
+      private byte memoizedIsInitialized = -1;
+      public final boolean isInitialized() {
+        byte isInitialized = memoizedIsInitialized;
+        if (isInitialized != -1) return isInitialized == 1;
+
+        memoizedIsInitialized = 1;
+        return true;
+      }
+
+      public void writeTo(com.google.protobuf.CodedOutputStream output)
+                          throws java.io.IOException {
+        getSerializedSize();
+        if (((bitField0_ & 0x00000001) == 0x00000001)) {
+          output.writeUInt32(1, cdrReference_);
+        }
+        if (((bitField0_ & 0x00000002) == 0x00000002)) {
+          output.writeBytes(2, getImeiBytes());
+        }
+        if (((bitField0_ & 0x00000004) == 0x00000004)) {
+          output.writeUInt32(3, status_);
+        }
+        if (((bitField0_ & 0x00000008) == 0x00000008)) {
+          output.writeUInt32(4, moMessageSequenceNumber_);
+        }
+        if (((bitField0_ & 0x00000010) == 0x00000010)) {
+          output.writeUInt32(5, mtMessageSequenceNumber_);
+        }
+        if (((bitField0_ & 0x00000020) == 0x00000020)) {
+          output.writeUInt64(6, timestamp_);
+        }
+      }
+
+      private int memoizedSerializedSize = -1;
+      public int getSerializedSize() {
+        int size = memoizedSerializedSize;
+        if (size != -1) return size;
+
+        size = 0;
+        if (((bitField0_ & 0x00000001) == 0x00000001)) {
+          size += com.google.protobuf.CodedOutputStream
+            .computeUInt32Size(1, cdrReference_);
+        }
+        if (((bitField0_ & 0x00000002) == 0x00000002)) {
+          size += com.google.protobuf.CodedOutputStream
+            .computeBytesSize(2, getImeiBytes());
+        }
+        if (((bitField0_ & 0x00000004) == 0x00000004)) {
+          size += com.google.protobuf.CodedOutputStream
+            .computeUInt32Size(3, status_);
+        }
+        if (((bitField0_ & 0x00000008) == 0x00000008)) {
+          size += com.google.protobuf.CodedOutputStream
+            .computeUInt32Size(4, moMessageSequenceNumber_);
+        }
+        if (((bitField0_ & 0x00000010) == 0x00000010)) {
+          size += com.google.protobuf.CodedOutputStream
+            .computeUInt32Size(5, mtMessageSequenceNumber_);
+        }
+        if (((bitField0_ & 0x00000020) == 0x00000020)) {
+          size += com.google.protobuf.CodedOutputStream
+            .computeUInt64Size(6, timestamp_);
+        }
+        memoizedSerializedSize = size;
+        return size;
+      }
+
+      private static final long serialVersionUID = 0L;
+      @java.lang.Override
+      protected java.lang.Object writeReplace()
+          throws java.io.ObjectStreamException {
+        return super.writeReplace();
+      }
+
+      public static TelemetryLite.IridiumPacket.IridiumHeader parseFrom(
+          com.google.protobuf.ByteString data)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return PARSER.parseFrom(data);
+      }
+      public static TelemetryLite.IridiumPacket.IridiumHeader parseFrom(
+          com.google.protobuf.ByteString data,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return PARSER.parseFrom(data, extensionRegistry);
+      }
+      public static TelemetryLite.IridiumPacket.IridiumHeader parseFrom(byte[] data)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return PARSER.parseFrom(data);
+      }
+      public static TelemetryLite.IridiumPacket.IridiumHeader parseFrom(
+          byte[] data,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return PARSER.parseFrom(data, extensionRegistry);
+      }
+      public static TelemetryLite.IridiumPacket.IridiumHeader parseFrom(java.io.InputStream input)
+          throws java.io.IOException {
+        return PARSER.parseFrom(input);
+      }
+      public static TelemetryLite.IridiumPacket.IridiumHeader parseFrom(
+          java.io.InputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        return PARSER.parseFrom(input, extensionRegistry);
+      }
+      public static TelemetryLite.IridiumPacket.IridiumHeader parseDelimitedFrom(java.io.InputStream input)
+          throws java.io.IOException {
+        return PARSER.parseDelimitedFrom(input);
+      }
+      public static TelemetryLite.IridiumPacket.IridiumHeader parseDelimitedFrom(
+          java.io.InputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        return PARSER.parseDelimitedFrom(input, extensionRegistry);
+      }
+      public static TelemetryLite.IridiumPacket.IridiumHeader parseFrom(
+          com.google.protobuf.CodedInputStream input)
+          throws java.io.IOException {
+        return PARSER.parseFrom(input);
+      }
+      public static TelemetryLite.IridiumPacket.IridiumHeader parseFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        return PARSER.parseFrom(input, extensionRegistry);
+      }
+
+      public static Builder newBuilder() { return Builder.create(); }
+      public Builder newBuilderForType() { return newBuilder(); }
+      public static Builder newBuilder(TelemetryLite.IridiumPacket.IridiumHeader prototype) {
+        return newBuilder().mergeFrom(prototype);
+      }
+      public Builder toBuilder() { return newBuilder(this); }
+
+      /**
+       * Protobuf type {@code IridiumPacket.IridiumHeader}
+       */
+      public static final class Builder extends
+          com.google.protobuf.GeneratedMessageLite.Builder<
+            TelemetryLite.IridiumPacket.IridiumHeader, Builder>
+          implements TelemetryLite.IridiumPacket.IridiumHeaderOrBuilder {
+        // Construct using TelemetryLite.IridiumPacket.IridiumHeader.newBuilder()
+        private Builder() {
+          maybeForceBuilderInitialization();
+        }
+
+        private void maybeForceBuilderInitialization() {
+        }
+        private static Builder create() {
+          return new Builder();
+        }
+
+        public Builder clear() {
+          super.clear();
+          cdrReference_ = 0;
+          bitField0_ = (bitField0_ & ~0x00000001);
+          imei_ = "";
+          bitField0_ = (bitField0_ & ~0x00000002);
+          status_ = 0;
+          bitField0_ = (bitField0_ & ~0x00000004);
+          moMessageSequenceNumber_ = 0;
+          bitField0_ = (bitField0_ & ~0x00000008);
+          mtMessageSequenceNumber_ = 0;
+          bitField0_ = (bitField0_ & ~0x00000010);
+          timestamp_ = 0L;
+          bitField0_ = (bitField0_ & ~0x00000020);
+          return this;
+        }
+
+        public Builder clone() {
+          return create().mergeFrom(buildPartial());
+        }
+
+        public TelemetryLite.IridiumPacket.IridiumHeader getDefaultInstanceForType() {
+          return TelemetryLite.IridiumPacket.IridiumHeader.getDefaultInstance();
+        }
+
+        public TelemetryLite.IridiumPacket.IridiumHeader build() {
+          TelemetryLite.IridiumPacket.IridiumHeader result = buildPartial();
+          if (!result.isInitialized()) {
+            throw newUninitializedMessageException(result);
+          }
+          return result;
+        }
+
+        public TelemetryLite.IridiumPacket.IridiumHeader buildPartial() {
+          TelemetryLite.IridiumPacket.IridiumHeader result = new TelemetryLite.IridiumPacket.IridiumHeader(this);
+          int from_bitField0_ = bitField0_;
+          int to_bitField0_ = 0;
+          if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+            to_bitField0_ |= 0x00000001;
+          }
+          result.cdrReference_ = cdrReference_;
+          if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+            to_bitField0_ |= 0x00000002;
+          }
+          result.imei_ = imei_;
+          if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+            to_bitField0_ |= 0x00000004;
+          }
+          result.status_ = status_;
+          if (((from_bitField0_ & 0x00000008) == 0x00000008)) {
+            to_bitField0_ |= 0x00000008;
+          }
+          result.moMessageSequenceNumber_ = moMessageSequenceNumber_;
+          if (((from_bitField0_ & 0x00000010) == 0x00000010)) {
+            to_bitField0_ |= 0x00000010;
+          }
+          result.mtMessageSequenceNumber_ = mtMessageSequenceNumber_;
+          if (((from_bitField0_ & 0x00000020) == 0x00000020)) {
+            to_bitField0_ |= 0x00000020;
+          }
+          result.timestamp_ = timestamp_;
+          result.bitField0_ = to_bitField0_;
+          return result;
+        }
+
+        public Builder mergeFrom(TelemetryLite.IridiumPacket.IridiumHeader other) {
+          if (other == TelemetryLite.IridiumPacket.IridiumHeader.getDefaultInstance()) return this;
+          if (other.hasCdrReference()) {
+            setCdrReference(other.getCdrReference());
+          }
+          if (other.hasImei()) {
+            bitField0_ |= 0x00000002;
+            imei_ = other.imei_;
+            
+          }
+          if (other.hasStatus()) {
+            setStatus(other.getStatus());
+          }
+          if (other.hasMoMessageSequenceNumber()) {
+            setMoMessageSequenceNumber(other.getMoMessageSequenceNumber());
+          }
+          if (other.hasMtMessageSequenceNumber()) {
+            setMtMessageSequenceNumber(other.getMtMessageSequenceNumber());
+          }
+          if (other.hasTimestamp()) {
+            setTimestamp(other.getTimestamp());
+          }
+          return this;
+        }
+
+        public final boolean isInitialized() {
+          return true;
+        }
+
+        public Builder mergeFrom(
+            com.google.protobuf.CodedInputStream input,
+            com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+            throws java.io.IOException {
+          TelemetryLite.IridiumPacket.IridiumHeader parsedMessage = null;
+          try {
+            parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+          } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+            parsedMessage = (TelemetryLite.IridiumPacket.IridiumHeader) e.getUnfinishedMessage();
+            throw e;
+          } finally {
+            if (parsedMessage != null) {
+              mergeFrom(parsedMessage);
+            }
+          }
+          return this;
+        }
+        private int bitField0_;
+
+        // optional uint32 cdr_reference = 1;
+        private int cdrReference_ ;
+        /**
+         * <code>optional uint32 cdr_reference = 1;</code>
+         */
+        public boolean hasCdrReference() {
+          return ((bitField0_ & 0x00000001) == 0x00000001);
+        }
+        /**
+         * <code>optional uint32 cdr_reference = 1;</code>
+         */
+        public int getCdrReference() {
+          return cdrReference_;
+        }
+        /**
+         * <code>optional uint32 cdr_reference = 1;</code>
+         */
+        public Builder setCdrReference(int value) {
+          bitField0_ |= 0x00000001;
+          cdrReference_ = value;
+          
+          return this;
+        }
+        /**
+         * <code>optional uint32 cdr_reference = 1;</code>
+         */
+        public Builder clearCdrReference() {
+          bitField0_ = (bitField0_ & ~0x00000001);
+          cdrReference_ = 0;
+          
+          return this;
+        }
+
+        // optional string imei = 2;
+        private java.lang.Object imei_ = "";
+        /**
+         * <code>optional string imei = 2;</code>
+         */
+        public boolean hasImei() {
+          return ((bitField0_ & 0x00000002) == 0x00000002);
+        }
+        /**
+         * <code>optional string imei = 2;</code>
+         */
+        public java.lang.String getImei() {
+          java.lang.Object ref = imei_;
+          if (!(ref instanceof java.lang.String)) {
+            java.lang.String s = ((com.google.protobuf.ByteString) ref)
+                .toStringUtf8();
+            imei_ = s;
+            return s;
+          } else {
+            return (java.lang.String) ref;
+          }
+        }
+        /**
+         * <code>optional string imei = 2;</code>
+         */
+        public com.google.protobuf.ByteString
+            getImeiBytes() {
+          java.lang.Object ref = imei_;
+          if (ref instanceof String) {
+            com.google.protobuf.ByteString b = 
+                com.google.protobuf.ByteString.copyFromUtf8(
+                    (java.lang.String) ref);
+            imei_ = b;
+            return b;
+          } else {
+            return (com.google.protobuf.ByteString) ref;
+          }
+        }
+        /**
+         * <code>optional string imei = 2;</code>
+         */
+        public Builder setImei(
+            java.lang.String value) {
+          if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000002;
+          imei_ = value;
+          
+          return this;
+        }
+        /**
+         * <code>optional string imei = 2;</code>
+         */
+        public Builder clearImei() {
+          bitField0_ = (bitField0_ & ~0x00000002);
+          imei_ = getDefaultInstance().getImei();
+          
+          return this;
+        }
+        /**
+         * <code>optional string imei = 2;</code>
+         */
+        public Builder setImeiBytes(
+            com.google.protobuf.ByteString value) {
+          if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000002;
+          imei_ = value;
+          
+          return this;
+        }
+
+        // optional uint32 status = 3;
+        private int status_ ;
+        /**
+         * <code>optional uint32 status = 3;</code>
+         */
+        public boolean hasStatus() {
+          return ((bitField0_ & 0x00000004) == 0x00000004);
+        }
+        /**
+         * <code>optional uint32 status = 3;</code>
+         */
+        public int getStatus() {
+          return status_;
+        }
+        /**
+         * <code>optional uint32 status = 3;</code>
+         */
+        public Builder setStatus(int value) {
+          bitField0_ |= 0x00000004;
+          status_ = value;
+          
+          return this;
+        }
+        /**
+         * <code>optional uint32 status = 3;</code>
+         */
+        public Builder clearStatus() {
+          bitField0_ = (bitField0_ & ~0x00000004);
+          status_ = 0;
+          
+          return this;
+        }
+
+        // optional uint32 mo_message_sequence_number = 4;
+        private int moMessageSequenceNumber_ ;
+        /**
+         * <code>optional uint32 mo_message_sequence_number = 4;</code>
+         */
+        public boolean hasMoMessageSequenceNumber() {
+          return ((bitField0_ & 0x00000008) == 0x00000008);
+        }
+        /**
+         * <code>optional uint32 mo_message_sequence_number = 4;</code>
+         */
+        public int getMoMessageSequenceNumber() {
+          return moMessageSequenceNumber_;
+        }
+        /**
+         * <code>optional uint32 mo_message_sequence_number = 4;</code>
+         */
+        public Builder setMoMessageSequenceNumber(int value) {
+          bitField0_ |= 0x00000008;
+          moMessageSequenceNumber_ = value;
+          
+          return this;
+        }
+        /**
+         * <code>optional uint32 mo_message_sequence_number = 4;</code>
+         */
+        public Builder clearMoMessageSequenceNumber() {
+          bitField0_ = (bitField0_ & ~0x00000008);
+          moMessageSequenceNumber_ = 0;
+          
+          return this;
+        }
+
+        // optional uint32 mt_message_sequence_number = 5;
+        private int mtMessageSequenceNumber_ ;
+        /**
+         * <code>optional uint32 mt_message_sequence_number = 5;</code>
+         */
+        public boolean hasMtMessageSequenceNumber() {
+          return ((bitField0_ & 0x00000010) == 0x00000010);
+        }
+        /**
+         * <code>optional uint32 mt_message_sequence_number = 5;</code>
+         */
+        public int getMtMessageSequenceNumber() {
+          return mtMessageSequenceNumber_;
+        }
+        /**
+         * <code>optional uint32 mt_message_sequence_number = 5;</code>
+         */
+        public Builder setMtMessageSequenceNumber(int value) {
+          bitField0_ |= 0x00000010;
+          mtMessageSequenceNumber_ = value;
+          
+          return this;
+        }
+        /**
+         * <code>optional uint32 mt_message_sequence_number = 5;</code>
+         */
+        public Builder clearMtMessageSequenceNumber() {
+          bitField0_ = (bitField0_ & ~0x00000010);
+          mtMessageSequenceNumber_ = 0;
+          
+          return this;
+        }
+
+        // optional uint64 timestamp = 6;
+        private long timestamp_ ;
+        /**
+         * <code>optional uint64 timestamp = 6;</code>
+         */
+        public boolean hasTimestamp() {
+          return ((bitField0_ & 0x00000020) == 0x00000020);
+        }
+        /**
+         * <code>optional uint64 timestamp = 6;</code>
+         */
+        public long getTimestamp() {
+          return timestamp_;
+        }
+        /**
+         * <code>optional uint64 timestamp = 6;</code>
+         */
+        public Builder setTimestamp(long value) {
+          bitField0_ |= 0x00000020;
+          timestamp_ = value;
+          
+          return this;
+        }
+        /**
+         * <code>optional uint64 timestamp = 6;</code>
+         */
+        public Builder clearTimestamp() {
+          bitField0_ = (bitField0_ & ~0x00000020);
+          timestamp_ = 0L;
+          
+          return this;
+        }
+
+        // @@protoc_insertion_point(builder_scope:IridiumPacket.IridiumHeader)
+      }
+
+      static {
+        defaultInstance = new IridiumHeader(true);
+        defaultInstance.initFields();
+      }
+
+      // @@protoc_insertion_point(class_scope:IridiumPacket.IridiumHeader)
+    }
+
+    public interface IridiumLocationOrBuilder
+        extends com.google.protobuf.MessageLiteOrBuilder {
+
+      // optional uint32 format = 1;
+      /**
+       * <code>optional uint32 format = 1;</code>
+       */
+      boolean hasFormat();
+      /**
+       * <code>optional uint32 format = 1;</code>
+       */
+      int getFormat();
+
+      // optional uint32 lat_degrees = 2;
+      /**
+       * <code>optional uint32 lat_degrees = 2;</code>
+       */
+      boolean hasLatDegrees();
+      /**
+       * <code>optional uint32 lat_degrees = 2;</code>
+       */
+      int getLatDegrees();
+
+      // optional uint32 lat_decimal = 3;
+      /**
+       * <code>optional uint32 lat_decimal = 3;</code>
+       */
+      boolean hasLatDecimal();
+      /**
+       * <code>optional uint32 lat_decimal = 3;</code>
+       */
+      int getLatDecimal();
+
+      // optional uint32 lon_degrees = 4;
+      /**
+       * <code>optional uint32 lon_degrees = 4;</code>
+       */
+      boolean hasLonDegrees();
+      /**
+       * <code>optional uint32 lon_degrees = 4;</code>
+       */
+      int getLonDegrees();
+
+      // optional uint32 lon_decimal = 5;
+      /**
+       * <code>optional uint32 lon_decimal = 5;</code>
+       */
+      boolean hasLonDecimal();
+      /**
+       * <code>optional uint32 lon_decimal = 5;</code>
+       */
+      int getLonDecimal();
+
+      // optional uint32 cep_radius = 6;
+      /**
+       * <code>optional uint32 cep_radius = 6;</code>
+       */
+      boolean hasCepRadius();
+      /**
+       * <code>optional uint32 cep_radius = 6;</code>
+       */
+      int getCepRadius();
+
+      // optional float latitude = 20;
+      /**
+       * <code>optional float latitude = 20;</code>
+       */
+      boolean hasLatitude();
+      /**
+       * <code>optional float latitude = 20;</code>
+       */
+      float getLatitude();
+
+      // optional float longitude = 21;
+      /**
+       * <code>optional float longitude = 21;</code>
+       */
+      boolean hasLongitude();
+      /**
+       * <code>optional float longitude = 21;</code>
+       */
+      float getLongitude();
+    }
+    /**
+     * Protobuf type {@code IridiumPacket.IridiumLocation}
+     */
+    public static final class IridiumLocation extends
+        com.google.protobuf.GeneratedMessageLite
+        implements IridiumLocationOrBuilder {
+      // Use IridiumLocation.newBuilder() to construct.
+      private IridiumLocation(com.google.protobuf.GeneratedMessageLite.Builder builder) {
+        super(builder);
+
+      }
+      private IridiumLocation(boolean noInit) {}
+
+      private static final IridiumLocation defaultInstance;
+      public static IridiumLocation getDefaultInstance() {
+        return defaultInstance;
+      }
+
+      public IridiumLocation getDefaultInstanceForType() {
+        return defaultInstance;
+      }
+
+      private IridiumLocation(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        initFields();
+        int mutable_bitField0_ = 0;
+        try {
+          boolean done = false;
+          while (!done) {
+            int tag = input.readTag();
+            switch (tag) {
+              case 0:
+                done = true;
+                break;
+              default: {
+                if (!parseUnknownField(input,
+                                       extensionRegistry, tag)) {
+                  done = true;
+                }
+                break;
+              }
+              case 8: {
+                bitField0_ |= 0x00000001;
+                format_ = input.readUInt32();
+                break;
+              }
+              case 16: {
+                bitField0_ |= 0x00000002;
+                latDegrees_ = input.readUInt32();
+                break;
+              }
+              case 24: {
+                bitField0_ |= 0x00000004;
+                latDecimal_ = input.readUInt32();
+                break;
+              }
+              case 32: {
+                bitField0_ |= 0x00000008;
+                lonDegrees_ = input.readUInt32();
+                break;
+              }
+              case 40: {
+                bitField0_ |= 0x00000010;
+                lonDecimal_ = input.readUInt32();
+                break;
+              }
+              case 48: {
+                bitField0_ |= 0x00000020;
+                cepRadius_ = input.readUInt32();
+                break;
+              }
+              case 165: {
+                bitField0_ |= 0x00000040;
+                latitude_ = input.readFloat();
+                break;
+              }
+              case 173: {
+                bitField0_ |= 0x00000080;
+                longitude_ = input.readFloat();
+                break;
+              }
+            }
+          }
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.setUnfinishedMessage(this);
+        } catch (java.io.IOException e) {
+          throw new com.google.protobuf.InvalidProtocolBufferException(
+              e.getMessage()).setUnfinishedMessage(this);
+        } finally {
+          makeExtensionsImmutable();
+        }
+      }
+      public static com.google.protobuf.Parser<IridiumLocation> PARSER =
+          new com.google.protobuf.AbstractParser<IridiumLocation>() {
+        public IridiumLocation parsePartialFrom(
+            com.google.protobuf.CodedInputStream input,
+            com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+            throws com.google.protobuf.InvalidProtocolBufferException {
+          return new IridiumLocation(input, extensionRegistry);
+        }
+      };
+
+      @java.lang.Override
+      public com.google.protobuf.Parser<IridiumLocation> getParserForType() {
+        return PARSER;
+      }
+
+      private int bitField0_;
+      // optional uint32 format = 1;
+      public static final int FORMAT_FIELD_NUMBER = 1;
+      private int format_;
+      /**
+       * <code>optional uint32 format = 1;</code>
+       */
+      public boolean hasFormat() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>optional uint32 format = 1;</code>
+       */
+      public int getFormat() {
+        return format_;
+      }
+
+      // optional uint32 lat_degrees = 2;
+      public static final int LAT_DEGREES_FIELD_NUMBER = 2;
+      private int latDegrees_;
+      /**
+       * <code>optional uint32 lat_degrees = 2;</code>
+       */
+      public boolean hasLatDegrees() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>optional uint32 lat_degrees = 2;</code>
+       */
+      public int getLatDegrees() {
+        return latDegrees_;
+      }
+
+      // optional uint32 lat_decimal = 3;
+      public static final int LAT_DECIMAL_FIELD_NUMBER = 3;
+      private int latDecimal_;
+      /**
+       * <code>optional uint32 lat_decimal = 3;</code>
+       */
+      public boolean hasLatDecimal() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <code>optional uint32 lat_decimal = 3;</code>
+       */
+      public int getLatDecimal() {
+        return latDecimal_;
+      }
+
+      // optional uint32 lon_degrees = 4;
+      public static final int LON_DEGREES_FIELD_NUMBER = 4;
+      private int lonDegrees_;
+      /**
+       * <code>optional uint32 lon_degrees = 4;</code>
+       */
+      public boolean hasLonDegrees() {
+        return ((bitField0_ & 0x00000008) == 0x00000008);
+      }
+      /**
+       * <code>optional uint32 lon_degrees = 4;</code>
+       */
+      public int getLonDegrees() {
+        return lonDegrees_;
+      }
+
+      // optional uint32 lon_decimal = 5;
+      public static final int LON_DECIMAL_FIELD_NUMBER = 5;
+      private int lonDecimal_;
+      /**
+       * <code>optional uint32 lon_decimal = 5;</code>
+       */
+      public boolean hasLonDecimal() {
+        return ((bitField0_ & 0x00000010) == 0x00000010);
+      }
+      /**
+       * <code>optional uint32 lon_decimal = 5;</code>
+       */
+      public int getLonDecimal() {
+        return lonDecimal_;
+      }
+
+      // optional uint32 cep_radius = 6;
+      public static final int CEP_RADIUS_FIELD_NUMBER = 6;
+      private int cepRadius_;
+      /**
+       * <code>optional uint32 cep_radius = 6;</code>
+       */
+      public boolean hasCepRadius() {
+        return ((bitField0_ & 0x00000020) == 0x00000020);
+      }
+      /**
+       * <code>optional uint32 cep_radius = 6;</code>
+       */
+      public int getCepRadius() {
+        return cepRadius_;
+      }
+
+      // optional float latitude = 20;
+      public static final int LATITUDE_FIELD_NUMBER = 20;
+      private float latitude_;
+      /**
+       * <code>optional float latitude = 20;</code>
+       */
+      public boolean hasLatitude() {
+        return ((bitField0_ & 0x00000040) == 0x00000040);
+      }
+      /**
+       * <code>optional float latitude = 20;</code>
+       */
+      public float getLatitude() {
+        return latitude_;
+      }
+
+      // optional float longitude = 21;
+      public static final int LONGITUDE_FIELD_NUMBER = 21;
+      private float longitude_;
+      /**
+       * <code>optional float longitude = 21;</code>
+       */
+      public boolean hasLongitude() {
+        return ((bitField0_ & 0x00000080) == 0x00000080);
+      }
+      /**
+       * <code>optional float longitude = 21;</code>
+       */
+      public float getLongitude() {
+        return longitude_;
+      }
+
+      private void initFields() {
+        format_ = 0;
+        latDegrees_ = 0;
+        latDecimal_ = 0;
+        lonDegrees_ = 0;
+        lonDecimal_ = 0;
+        cepRadius_ = 0;
+        latitude_ = 0F;
+        longitude_ = 0F;
+      }
+      private byte memoizedIsInitialized = -1;
+      public final boolean isInitialized() {
+        byte isInitialized = memoizedIsInitialized;
+        if (isInitialized != -1) return isInitialized == 1;
+
+        memoizedIsInitialized = 1;
+        return true;
+      }
+
+      public void writeTo(com.google.protobuf.CodedOutputStream output)
+                          throws java.io.IOException {
+        getSerializedSize();
+        if (((bitField0_ & 0x00000001) == 0x00000001)) {
+          output.writeUInt32(1, format_);
+        }
+        if (((bitField0_ & 0x00000002) == 0x00000002)) {
+          output.writeUInt32(2, latDegrees_);
+        }
+        if (((bitField0_ & 0x00000004) == 0x00000004)) {
+          output.writeUInt32(3, latDecimal_);
+        }
+        if (((bitField0_ & 0x00000008) == 0x00000008)) {
+          output.writeUInt32(4, lonDegrees_);
+        }
+        if (((bitField0_ & 0x00000010) == 0x00000010)) {
+          output.writeUInt32(5, lonDecimal_);
+        }
+        if (((bitField0_ & 0x00000020) == 0x00000020)) {
+          output.writeUInt32(6, cepRadius_);
+        }
+        if (((bitField0_ & 0x00000040) == 0x00000040)) {
+          output.writeFloat(20, latitude_);
+        }
+        if (((bitField0_ & 0x00000080) == 0x00000080)) {
+          output.writeFloat(21, longitude_);
+        }
+      }
+
+      private int memoizedSerializedSize = -1;
+      public int getSerializedSize() {
+        int size = memoizedSerializedSize;
+        if (size != -1) return size;
+
+        size = 0;
+        if (((bitField0_ & 0x00000001) == 0x00000001)) {
+          size += com.google.protobuf.CodedOutputStream
+            .computeUInt32Size(1, format_);
+        }
+        if (((bitField0_ & 0x00000002) == 0x00000002)) {
+          size += com.google.protobuf.CodedOutputStream
+            .computeUInt32Size(2, latDegrees_);
+        }
+        if (((bitField0_ & 0x00000004) == 0x00000004)) {
+          size += com.google.protobuf.CodedOutputStream
+            .computeUInt32Size(3, latDecimal_);
+        }
+        if (((bitField0_ & 0x00000008) == 0x00000008)) {
+          size += com.google.protobuf.CodedOutputStream
+            .computeUInt32Size(4, lonDegrees_);
+        }
+        if (((bitField0_ & 0x00000010) == 0x00000010)) {
+          size += com.google.protobuf.CodedOutputStream
+            .computeUInt32Size(5, lonDecimal_);
+        }
+        if (((bitField0_ & 0x00000020) == 0x00000020)) {
+          size += com.google.protobuf.CodedOutputStream
+            .computeUInt32Size(6, cepRadius_);
+        }
+        if (((bitField0_ & 0x00000040) == 0x00000040)) {
+          size += com.google.protobuf.CodedOutputStream
+            .computeFloatSize(20, latitude_);
+        }
+        if (((bitField0_ & 0x00000080) == 0x00000080)) {
+          size += com.google.protobuf.CodedOutputStream
+            .computeFloatSize(21, longitude_);
+        }
+        memoizedSerializedSize = size;
+        return size;
+      }
+
+      private static final long serialVersionUID = 0L;
+      @java.lang.Override
+      protected java.lang.Object writeReplace()
+          throws java.io.ObjectStreamException {
+        return super.writeReplace();
+      }
+
+      public static TelemetryLite.IridiumPacket.IridiumLocation parseFrom(
+          com.google.protobuf.ByteString data)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return PARSER.parseFrom(data);
+      }
+      public static TelemetryLite.IridiumPacket.IridiumLocation parseFrom(
+          com.google.protobuf.ByteString data,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return PARSER.parseFrom(data, extensionRegistry);
+      }
+      public static TelemetryLite.IridiumPacket.IridiumLocation parseFrom(byte[] data)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return PARSER.parseFrom(data);
+      }
+      public static TelemetryLite.IridiumPacket.IridiumLocation parseFrom(
+          byte[] data,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return PARSER.parseFrom(data, extensionRegistry);
+      }
+      public static TelemetryLite.IridiumPacket.IridiumLocation parseFrom(java.io.InputStream input)
+          throws java.io.IOException {
+        return PARSER.parseFrom(input);
+      }
+      public static TelemetryLite.IridiumPacket.IridiumLocation parseFrom(
+          java.io.InputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        return PARSER.parseFrom(input, extensionRegistry);
+      }
+      public static TelemetryLite.IridiumPacket.IridiumLocation parseDelimitedFrom(java.io.InputStream input)
+          throws java.io.IOException {
+        return PARSER.parseDelimitedFrom(input);
+      }
+      public static TelemetryLite.IridiumPacket.IridiumLocation parseDelimitedFrom(
+          java.io.InputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        return PARSER.parseDelimitedFrom(input, extensionRegistry);
+      }
+      public static TelemetryLite.IridiumPacket.IridiumLocation parseFrom(
+          com.google.protobuf.CodedInputStream input)
+          throws java.io.IOException {
+        return PARSER.parseFrom(input);
+      }
+      public static TelemetryLite.IridiumPacket.IridiumLocation parseFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        return PARSER.parseFrom(input, extensionRegistry);
+      }
+
+      public static Builder newBuilder() { return Builder.create(); }
+      public Builder newBuilderForType() { return newBuilder(); }
+      public static Builder newBuilder(TelemetryLite.IridiumPacket.IridiumLocation prototype) {
+        return newBuilder().mergeFrom(prototype);
+      }
+      public Builder toBuilder() { return newBuilder(this); }
+
+      /**
+       * Protobuf type {@code IridiumPacket.IridiumLocation}
+       */
+      public static final class Builder extends
+          com.google.protobuf.GeneratedMessageLite.Builder<
+            TelemetryLite.IridiumPacket.IridiumLocation, Builder>
+          implements TelemetryLite.IridiumPacket.IridiumLocationOrBuilder {
+        // Construct using TelemetryLite.IridiumPacket.IridiumLocation.newBuilder()
+        private Builder() {
+          maybeForceBuilderInitialization();
+        }
+
+        private void maybeForceBuilderInitialization() {
+        }
+        private static Builder create() {
+          return new Builder();
+        }
+
+        public Builder clear() {
+          super.clear();
+          format_ = 0;
+          bitField0_ = (bitField0_ & ~0x00000001);
+          latDegrees_ = 0;
+          bitField0_ = (bitField0_ & ~0x00000002);
+          latDecimal_ = 0;
+          bitField0_ = (bitField0_ & ~0x00000004);
+          lonDegrees_ = 0;
+          bitField0_ = (bitField0_ & ~0x00000008);
+          lonDecimal_ = 0;
+          bitField0_ = (bitField0_ & ~0x00000010);
+          cepRadius_ = 0;
+          bitField0_ = (bitField0_ & ~0x00000020);
+          latitude_ = 0F;
+          bitField0_ = (bitField0_ & ~0x00000040);
+          longitude_ = 0F;
+          bitField0_ = (bitField0_ & ~0x00000080);
+          return this;
+        }
+
+        public Builder clone() {
+          return create().mergeFrom(buildPartial());
+        }
+
+        public TelemetryLite.IridiumPacket.IridiumLocation getDefaultInstanceForType() {
+          return TelemetryLite.IridiumPacket.IridiumLocation.getDefaultInstance();
+        }
+
+        public TelemetryLite.IridiumPacket.IridiumLocation build() {
+          TelemetryLite.IridiumPacket.IridiumLocation result = buildPartial();
+          if (!result.isInitialized()) {
+            throw newUninitializedMessageException(result);
+          }
+          return result;
+        }
+
+        public TelemetryLite.IridiumPacket.IridiumLocation buildPartial() {
+          TelemetryLite.IridiumPacket.IridiumLocation result = new TelemetryLite.IridiumPacket.IridiumLocation(this);
+          int from_bitField0_ = bitField0_;
+          int to_bitField0_ = 0;
+          if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+            to_bitField0_ |= 0x00000001;
+          }
+          result.format_ = format_;
+          if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+            to_bitField0_ |= 0x00000002;
+          }
+          result.latDegrees_ = latDegrees_;
+          if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+            to_bitField0_ |= 0x00000004;
+          }
+          result.latDecimal_ = latDecimal_;
+          if (((from_bitField0_ & 0x00000008) == 0x00000008)) {
+            to_bitField0_ |= 0x00000008;
+          }
+          result.lonDegrees_ = lonDegrees_;
+          if (((from_bitField0_ & 0x00000010) == 0x00000010)) {
+            to_bitField0_ |= 0x00000010;
+          }
+          result.lonDecimal_ = lonDecimal_;
+          if (((from_bitField0_ & 0x00000020) == 0x00000020)) {
+            to_bitField0_ |= 0x00000020;
+          }
+          result.cepRadius_ = cepRadius_;
+          if (((from_bitField0_ & 0x00000040) == 0x00000040)) {
+            to_bitField0_ |= 0x00000040;
+          }
+          result.latitude_ = latitude_;
+          if (((from_bitField0_ & 0x00000080) == 0x00000080)) {
+            to_bitField0_ |= 0x00000080;
+          }
+          result.longitude_ = longitude_;
+          result.bitField0_ = to_bitField0_;
+          return result;
+        }
+
+        public Builder mergeFrom(TelemetryLite.IridiumPacket.IridiumLocation other) {
+          if (other == TelemetryLite.IridiumPacket.IridiumLocation.getDefaultInstance()) return this;
+          if (other.hasFormat()) {
+            setFormat(other.getFormat());
+          }
+          if (other.hasLatDegrees()) {
+            setLatDegrees(other.getLatDegrees());
+          }
+          if (other.hasLatDecimal()) {
+            setLatDecimal(other.getLatDecimal());
+          }
+          if (other.hasLonDegrees()) {
+            setLonDegrees(other.getLonDegrees());
+          }
+          if (other.hasLonDecimal()) {
+            setLonDecimal(other.getLonDecimal());
+          }
+          if (other.hasCepRadius()) {
+            setCepRadius(other.getCepRadius());
+          }
+          if (other.hasLatitude()) {
+            setLatitude(other.getLatitude());
+          }
+          if (other.hasLongitude()) {
+            setLongitude(other.getLongitude());
+          }
+          return this;
+        }
+
+        public final boolean isInitialized() {
+          return true;
+        }
+
+        public Builder mergeFrom(
+            com.google.protobuf.CodedInputStream input,
+            com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+            throws java.io.IOException {
+          TelemetryLite.IridiumPacket.IridiumLocation parsedMessage = null;
+          try {
+            parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+          } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+            parsedMessage = (TelemetryLite.IridiumPacket.IridiumLocation) e.getUnfinishedMessage();
+            throw e;
+          } finally {
+            if (parsedMessage != null) {
+              mergeFrom(parsedMessage);
+            }
+          }
+          return this;
+        }
+        private int bitField0_;
+
+        // optional uint32 format = 1;
+        private int format_ ;
+        /**
+         * <code>optional uint32 format = 1;</code>
+         */
+        public boolean hasFormat() {
+          return ((bitField0_ & 0x00000001) == 0x00000001);
+        }
+        /**
+         * <code>optional uint32 format = 1;</code>
+         */
+        public int getFormat() {
+          return format_;
+        }
+        /**
+         * <code>optional uint32 format = 1;</code>
+         */
+        public Builder setFormat(int value) {
+          bitField0_ |= 0x00000001;
+          format_ = value;
+          
+          return this;
+        }
+        /**
+         * <code>optional uint32 format = 1;</code>
+         */
+        public Builder clearFormat() {
+          bitField0_ = (bitField0_ & ~0x00000001);
+          format_ = 0;
+          
+          return this;
+        }
+
+        // optional uint32 lat_degrees = 2;
+        private int latDegrees_ ;
+        /**
+         * <code>optional uint32 lat_degrees = 2;</code>
+         */
+        public boolean hasLatDegrees() {
+          return ((bitField0_ & 0x00000002) == 0x00000002);
+        }
+        /**
+         * <code>optional uint32 lat_degrees = 2;</code>
+         */
+        public int getLatDegrees() {
+          return latDegrees_;
+        }
+        /**
+         * <code>optional uint32 lat_degrees = 2;</code>
+         */
+        public Builder setLatDegrees(int value) {
+          bitField0_ |= 0x00000002;
+          latDegrees_ = value;
+          
+          return this;
+        }
+        /**
+         * <code>optional uint32 lat_degrees = 2;</code>
+         */
+        public Builder clearLatDegrees() {
+          bitField0_ = (bitField0_ & ~0x00000002);
+          latDegrees_ = 0;
+          
+          return this;
+        }
+
+        // optional uint32 lat_decimal = 3;
+        private int latDecimal_ ;
+        /**
+         * <code>optional uint32 lat_decimal = 3;</code>
+         */
+        public boolean hasLatDecimal() {
+          return ((bitField0_ & 0x00000004) == 0x00000004);
+        }
+        /**
+         * <code>optional uint32 lat_decimal = 3;</code>
+         */
+        public int getLatDecimal() {
+          return latDecimal_;
+        }
+        /**
+         * <code>optional uint32 lat_decimal = 3;</code>
+         */
+        public Builder setLatDecimal(int value) {
+          bitField0_ |= 0x00000004;
+          latDecimal_ = value;
+          
+          return this;
+        }
+        /**
+         * <code>optional uint32 lat_decimal = 3;</code>
+         */
+        public Builder clearLatDecimal() {
+          bitField0_ = (bitField0_ & ~0x00000004);
+          latDecimal_ = 0;
+          
+          return this;
+        }
+
+        // optional uint32 lon_degrees = 4;
+        private int lonDegrees_ ;
+        /**
+         * <code>optional uint32 lon_degrees = 4;</code>
+         */
+        public boolean hasLonDegrees() {
+          return ((bitField0_ & 0x00000008) == 0x00000008);
+        }
+        /**
+         * <code>optional uint32 lon_degrees = 4;</code>
+         */
+        public int getLonDegrees() {
+          return lonDegrees_;
+        }
+        /**
+         * <code>optional uint32 lon_degrees = 4;</code>
+         */
+        public Builder setLonDegrees(int value) {
+          bitField0_ |= 0x00000008;
+          lonDegrees_ = value;
+          
+          return this;
+        }
+        /**
+         * <code>optional uint32 lon_degrees = 4;</code>
+         */
+        public Builder clearLonDegrees() {
+          bitField0_ = (bitField0_ & ~0x00000008);
+          lonDegrees_ = 0;
+          
+          return this;
+        }
+
+        // optional uint32 lon_decimal = 5;
+        private int lonDecimal_ ;
+        /**
+         * <code>optional uint32 lon_decimal = 5;</code>
+         */
+        public boolean hasLonDecimal() {
+          return ((bitField0_ & 0x00000010) == 0x00000010);
+        }
+        /**
+         * <code>optional uint32 lon_decimal = 5;</code>
+         */
+        public int getLonDecimal() {
+          return lonDecimal_;
+        }
+        /**
+         * <code>optional uint32 lon_decimal = 5;</code>
+         */
+        public Builder setLonDecimal(int value) {
+          bitField0_ |= 0x00000010;
+          lonDecimal_ = value;
+          
+          return this;
+        }
+        /**
+         * <code>optional uint32 lon_decimal = 5;</code>
+         */
+        public Builder clearLonDecimal() {
+          bitField0_ = (bitField0_ & ~0x00000010);
+          lonDecimal_ = 0;
+          
+          return this;
+        }
+
+        // optional uint32 cep_radius = 6;
+        private int cepRadius_ ;
+        /**
+         * <code>optional uint32 cep_radius = 6;</code>
+         */
+        public boolean hasCepRadius() {
+          return ((bitField0_ & 0x00000020) == 0x00000020);
+        }
+        /**
+         * <code>optional uint32 cep_radius = 6;</code>
+         */
+        public int getCepRadius() {
+          return cepRadius_;
+        }
+        /**
+         * <code>optional uint32 cep_radius = 6;</code>
+         */
+        public Builder setCepRadius(int value) {
+          bitField0_ |= 0x00000020;
+          cepRadius_ = value;
+          
+          return this;
+        }
+        /**
+         * <code>optional uint32 cep_radius = 6;</code>
+         */
+        public Builder clearCepRadius() {
+          bitField0_ = (bitField0_ & ~0x00000020);
+          cepRadius_ = 0;
+          
+          return this;
+        }
+
+        // optional float latitude = 20;
+        private float latitude_ ;
+        /**
+         * <code>optional float latitude = 20;</code>
+         */
+        public boolean hasLatitude() {
+          return ((bitField0_ & 0x00000040) == 0x00000040);
+        }
+        /**
+         * <code>optional float latitude = 20;</code>
+         */
+        public float getLatitude() {
+          return latitude_;
+        }
+        /**
+         * <code>optional float latitude = 20;</code>
+         */
+        public Builder setLatitude(float value) {
+          bitField0_ |= 0x00000040;
+          latitude_ = value;
+          
+          return this;
+        }
+        /**
+         * <code>optional float latitude = 20;</code>
+         */
+        public Builder clearLatitude() {
+          bitField0_ = (bitField0_ & ~0x00000040);
+          latitude_ = 0F;
+          
+          return this;
+        }
+
+        // optional float longitude = 21;
+        private float longitude_ ;
+        /**
+         * <code>optional float longitude = 21;</code>
+         */
+        public boolean hasLongitude() {
+          return ((bitField0_ & 0x00000080) == 0x00000080);
+        }
+        /**
+         * <code>optional float longitude = 21;</code>
+         */
+        public float getLongitude() {
+          return longitude_;
+        }
+        /**
+         * <code>optional float longitude = 21;</code>
+         */
+        public Builder setLongitude(float value) {
+          bitField0_ |= 0x00000080;
+          longitude_ = value;
+          
+          return this;
+        }
+        /**
+         * <code>optional float longitude = 21;</code>
+         */
+        public Builder clearLongitude() {
+          bitField0_ = (bitField0_ & ~0x00000080);
+          longitude_ = 0F;
+          
+          return this;
+        }
+
+        // @@protoc_insertion_point(builder_scope:IridiumPacket.IridiumLocation)
+      }
+
+      static {
+        defaultInstance = new IridiumLocation(true);
+        defaultInstance.initFields();
+      }
+
+      // @@protoc_insertion_point(class_scope:IridiumPacket.IridiumLocation)
+    }
+
+    private int bitField0_;
+    // optional .IridiumPacket.IridiumHeader header = 1;
+    public static final int HEADER_FIELD_NUMBER = 1;
+    private TelemetryLite.IridiumPacket.IridiumHeader header_;
+    /**
+     * <code>optional .IridiumPacket.IridiumHeader header = 1;</code>
+     */
+    public boolean hasHeader() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>optional .IridiumPacket.IridiumHeader header = 1;</code>
+     */
+    public TelemetryLite.IridiumPacket.IridiumHeader getHeader() {
+      return header_;
+    }
+
+    // optional bytes payload = 2;
+    public static final int PAYLOAD_FIELD_NUMBER = 2;
+    private com.google.protobuf.ByteString payload_;
+    /**
+     * <code>optional bytes payload = 2;</code>
+     */
+    public boolean hasPayload() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>optional bytes payload = 2;</code>
+     */
+    public com.google.protobuf.ByteString getPayload() {
+      return payload_;
+    }
+
+    // optional .IridiumPacket.IridiumLocation location = 3;
+    public static final int LOCATION_FIELD_NUMBER = 3;
+    private TelemetryLite.IridiumPacket.IridiumLocation location_;
+    /**
+     * <code>optional .IridiumPacket.IridiumLocation location = 3;</code>
+     */
+    public boolean hasLocation() {
+      return ((bitField0_ & 0x00000004) == 0x00000004);
+    }
+    /**
+     * <code>optional .IridiumPacket.IridiumLocation location = 3;</code>
+     */
+    public TelemetryLite.IridiumPacket.IridiumLocation getLocation() {
+      return location_;
+    }
+
+    private void initFields() {
+      header_ = TelemetryLite.IridiumPacket.IridiumHeader.getDefaultInstance();
+      payload_ = com.google.protobuf.ByteString.EMPTY;
+      location_ = TelemetryLite.IridiumPacket.IridiumLocation.getDefaultInstance();
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized != -1) return isInitialized == 1;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeMessage(1, header_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeBytes(2, payload_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        output.writeMessage(3, location_);
+      }
+    }
+
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(1, header_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(2, payload_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(3, location_);
+      }
+      memoizedSerializedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+
+    public static TelemetryLite.IridiumPacket parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static TelemetryLite.IridiumPacket parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static TelemetryLite.IridiumPacket parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static TelemetryLite.IridiumPacket parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static TelemetryLite.IridiumPacket parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static TelemetryLite.IridiumPacket parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+    public static TelemetryLite.IridiumPacket parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input);
+    }
+    public static TelemetryLite.IridiumPacket parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input, extensionRegistry);
+    }
+    public static TelemetryLite.IridiumPacket parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static TelemetryLite.IridiumPacket parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(TelemetryLite.IridiumPacket prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+
+    /**
+     * Protobuf type {@code IridiumPacket}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageLite.Builder<
+          TelemetryLite.IridiumPacket, Builder>
+        implements TelemetryLite.IridiumPacketOrBuilder {
+      // Construct using TelemetryLite.IridiumPacket.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private void maybeForceBuilderInitialization() {
+      }
+      private static Builder create() {
+        return new Builder();
+      }
+
+      public Builder clear() {
+        super.clear();
+        header_ = TelemetryLite.IridiumPacket.IridiumHeader.getDefaultInstance();
+        bitField0_ = (bitField0_ & ~0x00000001);
+        payload_ = com.google.protobuf.ByteString.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000002);
+        location_ = TelemetryLite.IridiumPacket.IridiumLocation.getDefaultInstance();
+        bitField0_ = (bitField0_ & ~0x00000004);
+        return this;
+      }
+
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+
+      public TelemetryLite.IridiumPacket getDefaultInstanceForType() {
+        return TelemetryLite.IridiumPacket.getDefaultInstance();
+      }
+
+      public TelemetryLite.IridiumPacket build() {
+        TelemetryLite.IridiumPacket result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public TelemetryLite.IridiumPacket buildPartial() {
+        TelemetryLite.IridiumPacket result = new TelemetryLite.IridiumPacket(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.header_ = header_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.payload_ = payload_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000004;
+        }
+        result.location_ = location_;
+        result.bitField0_ = to_bitField0_;
+        return result;
+      }
+
+      public Builder mergeFrom(TelemetryLite.IridiumPacket other) {
+        if (other == TelemetryLite.IridiumPacket.getDefaultInstance()) return this;
+        if (other.hasHeader()) {
+          mergeHeader(other.getHeader());
+        }
+        if (other.hasPayload()) {
+          setPayload(other.getPayload());
+        }
+        if (other.hasLocation()) {
+          mergeLocation(other.getLocation());
+        }
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        TelemetryLite.IridiumPacket parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (TelemetryLite.IridiumPacket) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      // optional .IridiumPacket.IridiumHeader header = 1;
+      private TelemetryLite.IridiumPacket.IridiumHeader header_ = TelemetryLite.IridiumPacket.IridiumHeader.getDefaultInstance();
+      /**
+       * <code>optional .IridiumPacket.IridiumHeader header = 1;</code>
+       */
+      public boolean hasHeader() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>optional .IridiumPacket.IridiumHeader header = 1;</code>
+       */
+      public TelemetryLite.IridiumPacket.IridiumHeader getHeader() {
+        return header_;
+      }
+      /**
+       * <code>optional .IridiumPacket.IridiumHeader header = 1;</code>
+       */
+      public Builder setHeader(TelemetryLite.IridiumPacket.IridiumHeader value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        header_ = value;
+
+        bitField0_ |= 0x00000001;
+        return this;
+      }
+      /**
+       * <code>optional .IridiumPacket.IridiumHeader header = 1;</code>
+       */
+      public Builder setHeader(
+          TelemetryLite.IridiumPacket.IridiumHeader.Builder builderForValue) {
+        header_ = builderForValue.build();
+
+        bitField0_ |= 0x00000001;
+        return this;
+      }
+      /**
+       * <code>optional .IridiumPacket.IridiumHeader header = 1;</code>
+       */
+      public Builder mergeHeader(TelemetryLite.IridiumPacket.IridiumHeader value) {
+        if (((bitField0_ & 0x00000001) == 0x00000001) &&
+            header_ != TelemetryLite.IridiumPacket.IridiumHeader.getDefaultInstance()) {
+          header_ =
+            TelemetryLite.IridiumPacket.IridiumHeader.newBuilder(header_).mergeFrom(value).buildPartial();
+        } else {
+          header_ = value;
+        }
+
+        bitField0_ |= 0x00000001;
+        return this;
+      }
+      /**
+       * <code>optional .IridiumPacket.IridiumHeader header = 1;</code>
+       */
+      public Builder clearHeader() {
+        header_ = TelemetryLite.IridiumPacket.IridiumHeader.getDefaultInstance();
+
+        bitField0_ = (bitField0_ & ~0x00000001);
+        return this;
+      }
+
+      // optional bytes payload = 2;
+      private com.google.protobuf.ByteString payload_ = com.google.protobuf.ByteString.EMPTY;
+      /**
+       * <code>optional bytes payload = 2;</code>
+       */
+      public boolean hasPayload() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>optional bytes payload = 2;</code>
+       */
+      public com.google.protobuf.ByteString getPayload() {
+        return payload_;
+      }
+      /**
+       * <code>optional bytes payload = 2;</code>
+       */
+      public Builder setPayload(com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000002;
+        payload_ = value;
+        
+        return this;
+      }
+      /**
+       * <code>optional bytes payload = 2;</code>
+       */
+      public Builder clearPayload() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        payload_ = getDefaultInstance().getPayload();
+        
+        return this;
+      }
+
+      // optional .IridiumPacket.IridiumLocation location = 3;
+      private TelemetryLite.IridiumPacket.IridiumLocation location_ = TelemetryLite.IridiumPacket.IridiumLocation.getDefaultInstance();
+      /**
+       * <code>optional .IridiumPacket.IridiumLocation location = 3;</code>
+       */
+      public boolean hasLocation() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <code>optional .IridiumPacket.IridiumLocation location = 3;</code>
+       */
+      public TelemetryLite.IridiumPacket.IridiumLocation getLocation() {
+        return location_;
+      }
+      /**
+       * <code>optional .IridiumPacket.IridiumLocation location = 3;</code>
+       */
+      public Builder setLocation(TelemetryLite.IridiumPacket.IridiumLocation value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        location_ = value;
+
+        bitField0_ |= 0x00000004;
+        return this;
+      }
+      /**
+       * <code>optional .IridiumPacket.IridiumLocation location = 3;</code>
+       */
+      public Builder setLocation(
+          TelemetryLite.IridiumPacket.IridiumLocation.Builder builderForValue) {
+        location_ = builderForValue.build();
+
+        bitField0_ |= 0x00000004;
+        return this;
+      }
+      /**
+       * <code>optional .IridiumPacket.IridiumLocation location = 3;</code>
+       */
+      public Builder mergeLocation(TelemetryLite.IridiumPacket.IridiumLocation value) {
+        if (((bitField0_ & 0x00000004) == 0x00000004) &&
+            location_ != TelemetryLite.IridiumPacket.IridiumLocation.getDefaultInstance()) {
+          location_ =
+            TelemetryLite.IridiumPacket.IridiumLocation.newBuilder(location_).mergeFrom(value).buildPartial();
+        } else {
+          location_ = value;
+        }
+
+        bitField0_ |= 0x00000004;
+        return this;
+      }
+      /**
+       * <code>optional .IridiumPacket.IridiumLocation location = 3;</code>
+       */
+      public Builder clearLocation() {
+        location_ = TelemetryLite.IridiumPacket.IridiumLocation.getDefaultInstance();
+
+        bitField0_ = (bitField0_ & ~0x00000004);
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:IridiumPacket)
+    }
+
+    static {
+      defaultInstance = new IridiumPacket(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:IridiumPacket)
+  }
+
+  public interface CommandPacketOrBuilder
+      extends com.google.protobuf.MessageLiteOrBuilder {
+
+    // optional string sender_id = 1;
+    /**
+     * <code>optional string sender_id = 1;</code>
+     */
+    boolean hasSenderId();
+    /**
+     * <code>optional string sender_id = 1;</code>
+     */
+    java.lang.String getSenderId();
+    /**
+     * <code>optional string sender_id = 1;</code>
+     */
+    com.google.protobuf.ByteString
+        getSenderIdBytes();
+
+    // optional string recipient_id = 2;
+    /**
+     * <code>optional string recipient_id = 2;</code>
+     */
+    boolean hasRecipientId();
+    /**
+     * <code>optional string recipient_id = 2;</code>
+     */
+    java.lang.String getRecipientId();
+    /**
+     * <code>optional string recipient_id = 2;</code>
+     */
+    com.google.protobuf.ByteString
+        getRecipientIdBytes();
+
+    // optional uint64 timestamp = 3;
+    /**
+     * <code>optional uint64 timestamp = 3;</code>
+     */
+    boolean hasTimestamp();
+    /**
+     * <code>optional uint64 timestamp = 3;</code>
+     */
+    long getTimestamp();
+
+    // optional string command = 16;
+    /**
+     * <code>optional string command = 16;</code>
+     *
+     * <pre>
+     * Request: the command line, such as "status" or "tag start".
+     * </pre>
+     */
+    boolean hasCommand();
+    /**
+     * <code>optional string command = 16;</code>
+     *
+     * <pre>
+     * Request: the command line, such as "status" or "tag start".
+     * </pre>
+     */
+    java.lang.String getCommand();
+    /**
+     * <code>optional string command = 16;</code>
+     *
+     * <pre>
+     * Request: the command line, such as "status" or "tag start".
+     * </pre>
+     */
+    com.google.protobuf.ByteString
+        getCommandBytes();
+
+    // optional uint64 request_id = 17;
+    /**
+     * <code>optional uint64 request_id = 17;</code>
+     *
+     * <pre>
+     * Set on a request and echoed in its reply; 0 in messages the device
+     * sends on its own.
+     * </pre>
+     */
+    boolean hasRequestId();
+    /**
+     * <code>optional uint64 request_id = 17;</code>
+     *
+     * <pre>
+     * Set on a request and echoed in its reply; 0 in messages the device
+     * sends on its own.
+     * </pre>
+     */
+    long getRequestId();
+
+    // optional .CommandPacket.Status status = 18;
+    /**
+     * <code>optional .CommandPacket.Status status = 18;</code>
+     *
+     * <pre>
+     * Reply: how the command went.
+     * </pre>
+     */
+    boolean hasStatus();
+    /**
+     * <code>optional .CommandPacket.Status status = 18;</code>
+     *
+     * <pre>
+     * Reply: how the command went.
+     * </pre>
+     */
+    TelemetryLite.CommandPacket.Status getStatus();
+
+    // repeated string response = 19;
+    /**
+     * <code>repeated string response = 19;</code>
+     *
+     * <pre>
+     * Reply: each response the command gave, in order.
+     * </pre>
+     */
+    java.util.List<java.lang.String>
+    getResponseList();
+    /**
+     * <code>repeated string response = 19;</code>
+     *
+     * <pre>
+     * Reply: each response the command gave, in order.
+     * </pre>
+     */
+    int getResponseCount();
+    /**
+     * <code>repeated string response = 19;</code>
+     *
+     * <pre>
+     * Reply: each response the command gave, in order.
+     * </pre>
+     */
+    java.lang.String getResponse(int index);
+    /**
+     * <code>repeated string response = 19;</code>
+     *
+     * <pre>
+     * Reply: each response the command gave, in order.
+     * </pre>
+     */
+    com.google.protobuf.ByteString
+        getResponseBytes(int index);
+  }
+  /**
+   * Protobuf type {@code CommandPacket}
+   */
+  public static final class CommandPacket extends
+      com.google.protobuf.GeneratedMessageLite
+      implements CommandPacketOrBuilder {
+    // Use CommandPacket.newBuilder() to construct.
+    private CommandPacket(com.google.protobuf.GeneratedMessageLite.Builder builder) {
+      super(builder);
+
+    }
+    private CommandPacket(boolean noInit) {}
+
+    private static final CommandPacket defaultInstance;
+    public static CommandPacket getDefaultInstance() {
+      return defaultInstance;
+    }
+
+    public CommandPacket getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+
+    private CommandPacket(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      initFields();
+      int mutable_bitField0_ = 0;
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 10: {
+              bitField0_ |= 0x00000001;
+              senderId_ = input.readBytes();
+              break;
+            }
+            case 18: {
+              bitField0_ |= 0x00000002;
+              recipientId_ = input.readBytes();
+              break;
+            }
+            case 24: {
+              bitField0_ |= 0x00000004;
+              timestamp_ = input.readUInt64();
+              break;
+            }
+            case 130: {
+              bitField0_ |= 0x00000008;
+              command_ = input.readBytes();
+              break;
+            }
+            case 136: {
+              bitField0_ |= 0x00000010;
+              requestId_ = input.readUInt64();
+              break;
+            }
+            case 144: {
+              int rawValue = input.readEnum();
+              TelemetryLite.CommandPacket.Status value = TelemetryLite.CommandPacket.Status.valueOf(rawValue);
+              if (value != null) {
+                bitField0_ |= 0x00000020;
+                status_ = value;
+              }
+              break;
+            }
+            case 154: {
+              if (!((mutable_bitField0_ & 0x00000040) == 0x00000040)) {
+                response_ = new com.google.protobuf.LazyStringArrayList();
+                mutable_bitField0_ |= 0x00000040;
+              }
+              response_.add(input.readBytes());
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e.getMessage()).setUnfinishedMessage(this);
+      } finally {
+        if (((mutable_bitField0_ & 0x00000040) == 0x00000040)) {
+          response_ = new com.google.protobuf.UnmodifiableLazyStringList(response_);
+        }
+        makeExtensionsImmutable();
+      }
+    }
+    public static com.google.protobuf.Parser<CommandPacket> PARSER =
+        new com.google.protobuf.AbstractParser<CommandPacket>() {
+      public CommandPacket parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new CommandPacket(input, extensionRegistry);
+      }
+    };
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<CommandPacket> getParserForType() {
+      return PARSER;
+    }
+
+    /**
+     * Protobuf enum {@code CommandPacket.Status}
+     */
+    public enum Status
+        implements com.google.protobuf.Internal.EnumLite {
+      /**
+       * <code>OK = 0;</code>
+       */
+      OK(0, 0),
+      /**
+       * <code>UNKNOWN_COMMAND = 1;</code>
+       */
+      UNKNOWN_COMMAND(1, 1),
+      /**
+       * <code>FAILED = 2;</code>
+       */
+      FAILED(2, 2),
+      ;
+
+      /**
+       * <code>OK = 0;</code>
+       */
+      public static final int OK_VALUE = 0;
+      /**
+       * <code>UNKNOWN_COMMAND = 1;</code>
+       */
+      public static final int UNKNOWN_COMMAND_VALUE = 1;
+      /**
+       * <code>FAILED = 2;</code>
+       */
+      public static final int FAILED_VALUE = 2;
+
+
+      public final int getNumber() { return value; }
+
+      public static Status valueOf(int value) {
+        switch (value) {
+          case 0: return OK;
+          case 1: return UNKNOWN_COMMAND;
+          case 2: return FAILED;
+          default: return null;
+        }
+      }
+
+      public static com.google.protobuf.Internal.EnumLiteMap<Status>
+          internalGetValueMap() {
+        return internalValueMap;
+      }
+      private static com.google.protobuf.Internal.EnumLiteMap<Status>
+          internalValueMap =
+            new com.google.protobuf.Internal.EnumLiteMap<Status>() {
+              public Status findValueByNumber(int number) {
+                return Status.valueOf(number);
+              }
+            };
+
+      private final int value;
+
+      private Status(int index, int value) {
+        this.value = value;
+      }
+
+      // @@protoc_insertion_point(enum_scope:CommandPacket.Status)
+    }
+
+    private int bitField0_;
+    // optional string sender_id = 1;
+    public static final int SENDER_ID_FIELD_NUMBER = 1;
+    private java.lang.Object senderId_;
+    /**
+     * <code>optional string sender_id = 1;</code>
+     */
+    public boolean hasSenderId() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>optional string sender_id = 1;</code>
+     */
+    public java.lang.String getSenderId() {
+      java.lang.Object ref = senderId_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          senderId_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string sender_id = 1;</code>
+     */
+    public com.google.protobuf.ByteString
+        getSenderIdBytes() {
+      java.lang.Object ref = senderId_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        senderId_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    // optional string recipient_id = 2;
+    public static final int RECIPIENT_ID_FIELD_NUMBER = 2;
+    private java.lang.Object recipientId_;
+    /**
+     * <code>optional string recipient_id = 2;</code>
+     */
+    public boolean hasRecipientId() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>optional string recipient_id = 2;</code>
+     */
+    public java.lang.String getRecipientId() {
+      java.lang.Object ref = recipientId_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          recipientId_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string recipient_id = 2;</code>
+     */
+    public com.google.protobuf.ByteString
+        getRecipientIdBytes() {
+      java.lang.Object ref = recipientId_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        recipientId_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    // optional uint64 timestamp = 3;
+    public static final int TIMESTAMP_FIELD_NUMBER = 3;
+    private long timestamp_;
+    /**
+     * <code>optional uint64 timestamp = 3;</code>
+     */
+    public boolean hasTimestamp() {
+      return ((bitField0_ & 0x00000004) == 0x00000004);
+    }
+    /**
+     * <code>optional uint64 timestamp = 3;</code>
+     */
+    public long getTimestamp() {
+      return timestamp_;
+    }
+
+    // optional string command = 16;
+    public static final int COMMAND_FIELD_NUMBER = 16;
+    private java.lang.Object command_;
+    /**
+     * <code>optional string command = 16;</code>
+     *
+     * <pre>
+     * Request: the command line, such as "status" or "tag start".
+     * </pre>
+     */
+    public boolean hasCommand() {
+      return ((bitField0_ & 0x00000008) == 0x00000008);
+    }
+    /**
+     * <code>optional string command = 16;</code>
+     *
+     * <pre>
+     * Request: the command line, such as "status" or "tag start".
+     * </pre>
+     */
+    public java.lang.String getCommand() {
+      java.lang.Object ref = command_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          command_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string command = 16;</code>
+     *
+     * <pre>
+     * Request: the command line, such as "status" or "tag start".
+     * </pre>
+     */
+    public com.google.protobuf.ByteString
+        getCommandBytes() {
+      java.lang.Object ref = command_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        command_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    // optional uint64 request_id = 17;
+    public static final int REQUEST_ID_FIELD_NUMBER = 17;
+    private long requestId_;
+    /**
+     * <code>optional uint64 request_id = 17;</code>
+     *
+     * <pre>
+     * Set on a request and echoed in its reply; 0 in messages the device
+     * sends on its own.
+     * </pre>
+     */
+    public boolean hasRequestId() {
+      return ((bitField0_ & 0x00000010) == 0x00000010);
+    }
+    /**
+     * <code>optional uint64 request_id = 17;</code>
+     *
+     * <pre>
+     * Set on a request and echoed in its reply; 0 in messages the device
+     * sends on its own.
+     * </pre>
+     */
+    public long getRequestId() {
+      return requestId_;
+    }
+
+    // optional .CommandPacket.Status status = 18;
+    public static final int STATUS_FIELD_NUMBER = 18;
+    private TelemetryLite.CommandPacket.Status status_;
+    /**
+     * <code>optional .CommandPacket.Status status = 18;</code>
+     *
+     * <pre>
+     * Reply: how the command went.
+     * </pre>
+     */
+    public boolean hasStatus() {
+      return ((bitField0_ & 0x00000020) == 0x00000020);
+    }
+    /**
+     * <code>optional .CommandPacket.Status status = 18;</code>
+     *
+     * <pre>
+     * Reply: how the command went.
+     * </pre>
+     */
+    public TelemetryLite.CommandPacket.Status getStatus() {
+      return status_;
+    }
+
+    // repeated string response = 19;
+    public static final int RESPONSE_FIELD_NUMBER = 19;
+    private com.google.protobuf.LazyStringList response_;
+    /**
+     * <code>repeated string response = 19;</code>
+     *
+     * <pre>
+     * Reply: each response the command gave, in order.
+     * </pre>
+     */
+    public java.util.List<java.lang.String>
+        getResponseList() {
+      return response_;
+    }
+    /**
+     * <code>repeated string response = 19;</code>
+     *
+     * <pre>
+     * Reply: each response the command gave, in order.
+     * </pre>
+     */
+    public int getResponseCount() {
+      return response_.size();
+    }
+    /**
+     * <code>repeated string response = 19;</code>
+     *
+     * <pre>
+     * Reply: each response the command gave, in order.
+     * </pre>
+     */
+    public java.lang.String getResponse(int index) {
+      return response_.get(index);
+    }
+    /**
+     * <code>repeated string response = 19;</code>
+     *
+     * <pre>
+     * Reply: each response the command gave, in order.
+     * </pre>
+     */
+    public com.google.protobuf.ByteString
+        getResponseBytes(int index) {
+      return response_.getByteString(index);
+    }
+
+    private void initFields() {
+      senderId_ = "";
+      recipientId_ = "";
+      timestamp_ = 0L;
+      command_ = "";
+      requestId_ = 0L;
+      status_ = TelemetryLite.CommandPacket.Status.OK;
+      response_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized != -1) return isInitialized == 1;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeBytes(1, getSenderIdBytes());
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeBytes(2, getRecipientIdBytes());
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        output.writeUInt64(3, timestamp_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        output.writeBytes(16, getCommandBytes());
+      }
+      if (((bitField0_ & 0x00000010) == 0x00000010)) {
+        output.writeUInt64(17, requestId_);
+      }
+      if (((bitField0_ & 0x00000020) == 0x00000020)) {
+        output.writeEnum(18, status_.getNumber());
+      }
+      for (int i = 0; i < response_.size(); i++) {
+        output.writeBytes(19, response_.getByteString(i));
+      }
+    }
+
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(1, getSenderIdBytes());
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(2, getRecipientIdBytes());
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt64Size(3, timestamp_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(16, getCommandBytes());
+      }
+      if (((bitField0_ & 0x00000010) == 0x00000010)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt64Size(17, requestId_);
+      }
+      if (((bitField0_ & 0x00000020) == 0x00000020)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeEnumSize(18, status_.getNumber());
+      }
+      {
+        int dataSize = 0;
+        for (int i = 0; i < response_.size(); i++) {
+          dataSize += com.google.protobuf.CodedOutputStream
+            .computeBytesSizeNoTag(response_.getByteString(i));
+        }
+        size += dataSize;
+        size += 2 * getResponseList().size();
+      }
+      memoizedSerializedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+
+    public static TelemetryLite.CommandPacket parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static TelemetryLite.CommandPacket parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static TelemetryLite.CommandPacket parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static TelemetryLite.CommandPacket parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static TelemetryLite.CommandPacket parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static TelemetryLite.CommandPacket parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+    public static TelemetryLite.CommandPacket parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input);
+    }
+    public static TelemetryLite.CommandPacket parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input, extensionRegistry);
+    }
+    public static TelemetryLite.CommandPacket parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static TelemetryLite.CommandPacket parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(TelemetryLite.CommandPacket prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+
+    /**
+     * Protobuf type {@code CommandPacket}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageLite.Builder<
+          TelemetryLite.CommandPacket, Builder>
+        implements TelemetryLite.CommandPacketOrBuilder {
+      // Construct using TelemetryLite.CommandPacket.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private void maybeForceBuilderInitialization() {
+      }
+      private static Builder create() {
+        return new Builder();
+      }
+
+      public Builder clear() {
+        super.clear();
+        senderId_ = "";
+        bitField0_ = (bitField0_ & ~0x00000001);
+        recipientId_ = "";
+        bitField0_ = (bitField0_ & ~0x00000002);
+        timestamp_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000004);
+        command_ = "";
+        bitField0_ = (bitField0_ & ~0x00000008);
+        requestId_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000010);
+        status_ = TelemetryLite.CommandPacket.Status.OK;
+        bitField0_ = (bitField0_ & ~0x00000020);
+        response_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000040);
+        return this;
+      }
+
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+
+      public TelemetryLite.CommandPacket getDefaultInstanceForType() {
+        return TelemetryLite.CommandPacket.getDefaultInstance();
+      }
+
+      public TelemetryLite.CommandPacket build() {
+        TelemetryLite.CommandPacket result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public TelemetryLite.CommandPacket buildPartial() {
+        TelemetryLite.CommandPacket result = new TelemetryLite.CommandPacket(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.senderId_ = senderId_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.recipientId_ = recipientId_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000004;
+        }
+        result.timestamp_ = timestamp_;
+        if (((from_bitField0_ & 0x00000008) == 0x00000008)) {
+          to_bitField0_ |= 0x00000008;
+        }
+        result.command_ = command_;
+        if (((from_bitField0_ & 0x00000010) == 0x00000010)) {
+          to_bitField0_ |= 0x00000010;
+        }
+        result.requestId_ = requestId_;
+        if (((from_bitField0_ & 0x00000020) == 0x00000020)) {
+          to_bitField0_ |= 0x00000020;
+        }
+        result.status_ = status_;
+        if (((bitField0_ & 0x00000040) == 0x00000040)) {
+          response_ = new com.google.protobuf.UnmodifiableLazyStringList(
+              response_);
+          bitField0_ = (bitField0_ & ~0x00000040);
+        }
+        result.response_ = response_;
+        result.bitField0_ = to_bitField0_;
+        return result;
+      }
+
+      public Builder mergeFrom(TelemetryLite.CommandPacket other) {
+        if (other == TelemetryLite.CommandPacket.getDefaultInstance()) return this;
+        if (other.hasSenderId()) {
+          bitField0_ |= 0x00000001;
+          senderId_ = other.senderId_;
+          
+        }
+        if (other.hasRecipientId()) {
+          bitField0_ |= 0x00000002;
+          recipientId_ = other.recipientId_;
+          
+        }
+        if (other.hasTimestamp()) {
+          setTimestamp(other.getTimestamp());
+        }
+        if (other.hasCommand()) {
+          bitField0_ |= 0x00000008;
+          command_ = other.command_;
+          
+        }
+        if (other.hasRequestId()) {
+          setRequestId(other.getRequestId());
+        }
+        if (other.hasStatus()) {
+          setStatus(other.getStatus());
+        }
+        if (!other.response_.isEmpty()) {
+          if (response_.isEmpty()) {
+            response_ = other.response_;
+            bitField0_ = (bitField0_ & ~0x00000040);
+          } else {
+            ensureResponseIsMutable();
+            response_.addAll(other.response_);
+          }
+          
+        }
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        TelemetryLite.CommandPacket parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (TelemetryLite.CommandPacket) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      // optional string sender_id = 1;
+      private java.lang.Object senderId_ = "";
+      /**
+       * <code>optional string sender_id = 1;</code>
+       */
+      public boolean hasSenderId() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>optional string sender_id = 1;</code>
+       */
+      public java.lang.String getSenderId() {
+        java.lang.Object ref = senderId_;
+        if (!(ref instanceof java.lang.String)) {
+          java.lang.String s = ((com.google.protobuf.ByteString) ref)
+              .toStringUtf8();
+          senderId_ = s;
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>optional string sender_id = 1;</code>
+       */
+      public com.google.protobuf.ByteString
+          getSenderIdBytes() {
+        java.lang.Object ref = senderId_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          senderId_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>optional string sender_id = 1;</code>
+       */
+      public Builder setSenderId(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        senderId_ = value;
+        
+        return this;
+      }
+      /**
+       * <code>optional string sender_id = 1;</code>
+       */
+      public Builder clearSenderId() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        senderId_ = getDefaultInstance().getSenderId();
+        
+        return this;
+      }
+      /**
+       * <code>optional string sender_id = 1;</code>
+       */
+      public Builder setSenderIdBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        senderId_ = value;
+        
+        return this;
+      }
+
+      // optional string recipient_id = 2;
+      private java.lang.Object recipientId_ = "";
+      /**
+       * <code>optional string recipient_id = 2;</code>
+       */
+      public boolean hasRecipientId() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>optional string recipient_id = 2;</code>
+       */
+      public java.lang.String getRecipientId() {
+        java.lang.Object ref = recipientId_;
+        if (!(ref instanceof java.lang.String)) {
+          java.lang.String s = ((com.google.protobuf.ByteString) ref)
+              .toStringUtf8();
+          recipientId_ = s;
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>optional string recipient_id = 2;</code>
+       */
+      public com.google.protobuf.ByteString
+          getRecipientIdBytes() {
+        java.lang.Object ref = recipientId_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          recipientId_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>optional string recipient_id = 2;</code>
+       */
+      public Builder setRecipientId(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000002;
+        recipientId_ = value;
+        
+        return this;
+      }
+      /**
+       * <code>optional string recipient_id = 2;</code>
+       */
+      public Builder clearRecipientId() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        recipientId_ = getDefaultInstance().getRecipientId();
+        
+        return this;
+      }
+      /**
+       * <code>optional string recipient_id = 2;</code>
+       */
+      public Builder setRecipientIdBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000002;
+        recipientId_ = value;
+        
+        return this;
+      }
+
+      // optional uint64 timestamp = 3;
+      private long timestamp_ ;
+      /**
+       * <code>optional uint64 timestamp = 3;</code>
+       */
+      public boolean hasTimestamp() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <code>optional uint64 timestamp = 3;</code>
+       */
+      public long getTimestamp() {
+        return timestamp_;
+      }
+      /**
+       * <code>optional uint64 timestamp = 3;</code>
+       */
+      public Builder setTimestamp(long value) {
+        bitField0_ |= 0x00000004;
+        timestamp_ = value;
+        
+        return this;
+      }
+      /**
+       * <code>optional uint64 timestamp = 3;</code>
+       */
+      public Builder clearTimestamp() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        timestamp_ = 0L;
+        
+        return this;
+      }
+
+      // optional string command = 16;
+      private java.lang.Object command_ = "";
+      /**
+       * <code>optional string command = 16;</code>
+       *
+       * <pre>
+       * Request: the command line, such as "status" or "tag start".
+       * </pre>
+       */
+      public boolean hasCommand() {
+        return ((bitField0_ & 0x00000008) == 0x00000008);
+      }
+      /**
+       * <code>optional string command = 16;</code>
+       *
+       * <pre>
+       * Request: the command line, such as "status" or "tag start".
+       * </pre>
+       */
+      public java.lang.String getCommand() {
+        java.lang.Object ref = command_;
+        if (!(ref instanceof java.lang.String)) {
+          java.lang.String s = ((com.google.protobuf.ByteString) ref)
+              .toStringUtf8();
+          command_ = s;
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>optional string command = 16;</code>
+       *
+       * <pre>
+       * Request: the command line, such as "status" or "tag start".
+       * </pre>
+       */
+      public com.google.protobuf.ByteString
+          getCommandBytes() {
+        java.lang.Object ref = command_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          command_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>optional string command = 16;</code>
+       *
+       * <pre>
+       * Request: the command line, such as "status" or "tag start".
+       * </pre>
+       */
+      public Builder setCommand(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000008;
+        command_ = value;
+        
+        return this;
+      }
+      /**
+       * <code>optional string command = 16;</code>
+       *
+       * <pre>
+       * Request: the command line, such as "status" or "tag start".
+       * </pre>
+       */
+      public Builder clearCommand() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        command_ = getDefaultInstance().getCommand();
+        
+        return this;
+      }
+      /**
+       * <code>optional string command = 16;</code>
+       *
+       * <pre>
+       * Request: the command line, such as "status" or "tag start".
+       * </pre>
+       */
+      public Builder setCommandBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000008;
+        command_ = value;
+        
+        return this;
+      }
+
+      // optional uint64 request_id = 17;
+      private long requestId_ ;
+      /**
+       * <code>optional uint64 request_id = 17;</code>
+       *
+       * <pre>
+       * Set on a request and echoed in its reply; 0 in messages the device
+       * sends on its own.
+       * </pre>
+       */
+      public boolean hasRequestId() {
+        return ((bitField0_ & 0x00000010) == 0x00000010);
+      }
+      /**
+       * <code>optional uint64 request_id = 17;</code>
+       *
+       * <pre>
+       * Set on a request and echoed in its reply; 0 in messages the device
+       * sends on its own.
+       * </pre>
+       */
+      public long getRequestId() {
+        return requestId_;
+      }
+      /**
+       * <code>optional uint64 request_id = 17;</code>
+       *
+       * <pre>
+       * Set on a request and echoed in its reply; 0 in messages the device
+       * sends on its own.
+       * </pre>
+       */
+      public Builder setRequestId(long value) {
+        bitField0_ |= 0x00000010;
+        requestId_ = value;
+        
+        return this;
+      }
+      /**
+       * <code>optional uint64 request_id = 17;</code>
+       *
+       * <pre>
+       * Set on a request and echoed in its reply; 0 in messages the device
+       * sends on its own.
+       * </pre>
+       */
+      public Builder clearRequestId() {
+        bitField0_ = (bitField0_ & ~0x00000010);
+        requestId_ = 0L;
+        
+        return this;
+      }
+
+      // optional .CommandPacket.Status status = 18;
+      private TelemetryLite.CommandPacket.Status status_ = TelemetryLite.CommandPacket.Status.OK;
+      /**
+       * <code>optional .CommandPacket.Status status = 18;</code>
+       *
+       * <pre>
+       * Reply: how the command went.
+       * </pre>
+       */
+      public boolean hasStatus() {
+        return ((bitField0_ & 0x00000020) == 0x00000020);
+      }
+      /**
+       * <code>optional .CommandPacket.Status status = 18;</code>
+       *
+       * <pre>
+       * Reply: how the command went.
+       * </pre>
+       */
+      public TelemetryLite.CommandPacket.Status getStatus() {
+        return status_;
+      }
+      /**
+       * <code>optional .CommandPacket.Status status = 18;</code>
+       *
+       * <pre>
+       * Reply: how the command went.
+       * </pre>
+       */
+      public Builder setStatus(TelemetryLite.CommandPacket.Status value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        bitField0_ |= 0x00000020;
+        status_ = value;
+        
+        return this;
+      }
+      /**
+       * <code>optional .CommandPacket.Status status = 18;</code>
+       *
+       * <pre>
+       * Reply: how the command went.
+       * </pre>
+       */
+      public Builder clearStatus() {
+        bitField0_ = (bitField0_ & ~0x00000020);
+        status_ = TelemetryLite.CommandPacket.Status.OK;
+        
+        return this;
+      }
+
+      // repeated string response = 19;
+      private com.google.protobuf.LazyStringList response_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+      private void ensureResponseIsMutable() {
+        if (!((bitField0_ & 0x00000040) == 0x00000040)) {
+          response_ = new com.google.protobuf.LazyStringArrayList(response_);
+          bitField0_ |= 0x00000040;
+         }
+      }
+      /**
+       * <code>repeated string response = 19;</code>
+       *
+       * <pre>
+       * Reply: each response the command gave, in order.
+       * </pre>
+       */
+      public java.util.List<java.lang.String>
+          getResponseList() {
+        return java.util.Collections.unmodifiableList(response_);
+      }
+      /**
+       * <code>repeated string response = 19;</code>
+       *
+       * <pre>
+       * Reply: each response the command gave, in order.
+       * </pre>
+       */
+      public int getResponseCount() {
+        return response_.size();
+      }
+      /**
+       * <code>repeated string response = 19;</code>
+       *
+       * <pre>
+       * Reply: each response the command gave, in order.
+       * </pre>
+       */
+      public java.lang.String getResponse(int index) {
+        return response_.get(index);
+      }
+      /**
+       * <code>repeated string response = 19;</code>
+       *
+       * <pre>
+       * Reply: each response the command gave, in order.
+       * </pre>
+       */
+      public com.google.protobuf.ByteString
+          getResponseBytes(int index) {
+        return response_.getByteString(index);
+      }
+      /**
+       * <code>repeated string response = 19;</code>
+       *
+       * <pre>
+       * Reply: each response the command gave, in order.
+       * </pre>
+       */
+      public Builder setResponse(
+          int index, java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureResponseIsMutable();
+        response_.set(index, value);
+        
+        return this;
+      }
+      /**
+       * <code>repeated string response = 19;</code>
+       *
+       * <pre>
+       * Reply: each response the command gave, in order.
+       * </pre>
+       */
+      public Builder addResponse(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureResponseIsMutable();
+        response_.add(value);
+        
+        return this;
+      }
+      /**
+       * <code>repeated string response = 19;</code>
+       *
+       * <pre>
+       * Reply: each response the command gave, in order.
+       * </pre>
+       */
+      public Builder addAllResponse(
+          java.lang.Iterable<java.lang.String> values) {
+        ensureResponseIsMutable();
+        super.addAll(values, response_);
+        
+        return this;
+      }
+      /**
+       * <code>repeated string response = 19;</code>
+       *
+       * <pre>
+       * Reply: each response the command gave, in order.
+       * </pre>
+       */
+      public Builder clearResponse() {
+        response_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000040);
+        
+        return this;
+      }
+      /**
+       * <code>repeated string response = 19;</code>
+       *
+       * <pre>
+       * Reply: each response the command gave, in order.
+       * </pre>
+       */
+      public Builder addResponseBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureResponseIsMutable();
+        response_.add(value);
+        
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:CommandPacket)
+    }
+
+    static {
+      defaultInstance = new CommandPacket(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:CommandPacket)
+  }
+
+
+  static {
+  }
+
+  // @@protoc_insertion_point(outer_class_scope)
+}
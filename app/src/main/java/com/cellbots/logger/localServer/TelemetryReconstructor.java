@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2012 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.cellbots.logger.localServer;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import java.util.TreeMap;
+
+/**
+ * The receiving side of {@link TelemetrySnapshot#encodeDeltaPacket}: applies
+ * keyframes and delta packets in order and keeps the latest value of every
+ * sensor, so a bot can recover the full snapshot. A keyframe replaces the
+ * state. A delta is only applied if the packet it builds on was the last one
+ * applied; otherwise it is dropped, and so is everything else until the next
+ * keyframe.
+ */
+public final class TelemetryReconstructor {
+    private boolean mSynced;
+
+    private int mSequence;
+
+    private long mTimestamp;
+
+    private Telemetry.Position mPosition;
+
+    /** Sensors by their slot in the sender's snapshot. */
+    private final TreeMap<Integer, Telemetry.Sensor> mSensors =
+            new TreeMap<Integer, Telemetry.Sensor>();
+
+    private final TreeMap<Integer, Telemetry.ThreeAxisSensor> mThreeAxisSensors =
+            new TreeMap<Integer, Telemetry.ThreeAxisSensor>();
+
+    private int mDropped;
+
+    public boolean apply(byte[] data) throws InvalidProtocolBufferException {
+        return apply(Telemetry.DataPacket.parseFrom(data));
+    }
+
+    /**
+     * Applies a packet.
+     *
+     * @return False if it was dropped because a packet before it is missing.
+     */
+    public boolean apply(Telemetry.DataPacket packet) {
+        if (!packet.hasDeltaBase()) {
+            mPosition = null;
+            mSensors.clear();
+            mThreeAxisSensors.clear();
+        } else if (!mSynced || packet.getDeltaBase() != mSequence) {
+            mSynced = false;
+            mDropped++;
+            return false;
+        }
+        mSynced = true;
+        mSequence = packet.getSequence();
+        mTimestamp = packet.getTimestamp();
+        if (packet.hasPosition()) {
+            mPosition = packet.getPosition();
+        }
+        for (Telemetry.Sensor sensor : packet.getSensorList()) {
+            mSensors.put(sensor.getSlot(), sensor);
+        }
+        for (Telemetry.ThreeAxisSensor sensor : packet.getThreeAxisSensorList()) {
+            mThreeAxisSensors.put(sensor.getSlot(), sensor);
+        }
+        return true;
+    }
+
+    /** True once a keyframe was applied and no packet has been missed since. */
+    public boolean isSynced() {
+        return mSynced;
+    }
+
+    public int getDroppedCount() {
+        return mDropped;
+    }
+
+    /**
+     * Returns the reconstructed state as a keyframe with the sequence and
+     * timestamp of the last packet applied.
+     */
+    public Telemetry.DataPacket getSnapshot() {
+        Telemetry.DataPacket.Builder builder = Telemetry.DataPacket.newBuilder()
+                .setSequence(mSequence)
+                .setTimestamp(mTimestamp)
+                .addAllSensor(mSensors.values())
+                .addAllThreeAxisSensor(mThreeAxisSensors.values());
+        if (mPosition != null) {
+            builder.setPosition(mPosition);
+        }
+        return builder.build();
+    }
+}
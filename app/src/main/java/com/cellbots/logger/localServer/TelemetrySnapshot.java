@@ -2,131 +2,416 @@
 package com.cellbots.logger.localServer;
 
 import android.hardware.SensorEvent;
-import android.location.Location;
-import android.util.Base64;
 import android.util.Log;
 
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.HashMap;
-import java.util.Iterator;
 
 /**
  * Class for keeping a snapshot of the current telemetry information.
- * 
+ * <p>
+ * Sensor values are copied into fixed primitive slots, one per sensor, since
+ * the framework may reuse SensorEvent objects. The snapshot is encoded as a
+ * {@link TelemetryLite.DataPacket} straight into a reusable buffer, so neither
+ * updating nor encoding allocates once every sensor has reported.
+ * <p>
+ * For slow links there are also delta packets ({@link #encodeDeltaPacket}).
+ * Every one carries a sequence number, and sensors carry their slot. A
+ * keyframe holds everything; a delta holds only the position and sensors
+ * that moved more than their threshold since they were last encoded, plus
+ * the sequence of the packet it builds on in delta_base.
+ * {@link TelemetryReconstructor} puts the state back together on the
+ * receiving side.
+ *
  * @author clchen@google.com (Charles L. Chen)
  */
 public class TelemetrySnapshot {
+    private static final int MAX_SENSORS = 32;
+
+    /** Slot kinds; sensors of no telemetry type get a slot of KIND_NONE. */
+    private static final int KIND_NONE = 0;
+    private static final int KIND_SINGLE = 1;
+    private static final int KIND_THREE_AXIS = 2;
+
+    private static final char[] BASE64 =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+
+    /** Characters per line of Base64, as android.util.Base64.DEFAULT writes. */
+    private static final int BASE64_LINE_LENGTH = 76;
 
     private double mLat;
     private double mLon;
     private double mAlt;
-    private HashMap<String, SensorEvent> mSensors;
 
-    public TelemetrySnapshot() {
-        mLat = 0;
-        mLon = 0;
-        mAlt = 0;
-        mSensors = new HashMap<String, SensorEvent>();
+    private final HashMap<String, Integer> mSlots = new HashMap<String, Integer>();
+    private int mSize;
+    private final int[] mKinds = new int[MAX_SENSORS];
+    /** Telemetry sensor type numbers. */
+    private final int[] mTypes = new int[MAX_SENSORS];
+    /** Three values per slot. */
+    private final float[] mValues = new float[MAX_SENSORS * 3];
+
+    /** How far each slot has to move before a delta includes it. */
+    private final float[] mThresholds = new float[MAX_SENSORS];
+    private final HashMap<String, Float> mThresholdsByName = new HashMap<String, Float>();
+    private float mPositionThreshold;
+
+    /** The values delta packets last carried, to measure changes against. */
+    private final float[] mSentValues = new float[MAX_SENSORS * 3];
+    private final boolean[] mSent = new boolean[MAX_SENSORS];
+    private float mSentLat;
+    private float mSentLon;
+    private float mSentAlt;
+    private boolean mPositionSent;
+
+    private int mSequence;
+
+    /** Bumped by every update, so readers can tell if anything changed. */
+    private volatile long mVersion;
+
+    private final PacketBuffer mBuffer = new PacketBuffer(256);
+    private final CodedOutputStream mOut = CodedOutputStream.newInstance(mBuffer, 256);
+    private final StringBuilder mBase64 = new StringBuilder(512);
+
+    /** A ByteArrayOutputStream whose array can be read without a copy. */
+    private static class PacketBuffer extends ByteArrayOutputStream {
+        PacketBuffer(int size) {
+            super(size);
+        }
+
+        byte[] array() {
+            return buf;
+        }
     }
 
-    public void updateLocation(double latitude, double longitude, double altitude) {
+    public synchronized void updateLocation(double latitude, double longitude, double altitude) {
         mLat = latitude;
         mLon = longitude;
         mAlt = altitude;
+        mVersion++;
+    }
+
+    public synchronized void updateSensor(SensorEvent event) {
+        Integer slot = mSlots.get(event.sensor.getName());
+        int s = slot != null ? slot : addSlot(event);
+        if (s < 0 || mKinds[s] == KIND_NONE) {
+            return;
+        }
+        float[] values = event.values;
+        int base = s * 3;
+        mValues[base] = values[0];
+        if (mKinds[s] == KIND_THREE_AXIS) {
+            mValues[base + 1] = values[1];
+            mValues[base + 2] = values[2];
+        }
+        mVersion++;
+    }
+
+    private int addSlot(SensorEvent event) {
+        if (mSize == MAX_SENSORS) {
+            return -1;
+        }
+        int s = mSize++;
+        int type = event.sensor.getType();
+        TelemetryLite.ThreeAxisSensor.SensorType threeAxisType = toThreeAxisSensorType(type);
+        TelemetryLite.Sensor.SensorType sensorType = toSensorType(type);
+        if (threeAxisType != null && event.values.length >= 3) {
+            mKinds[s] = KIND_THREE_AXIS;
+            mTypes[s] = threeAxisType.getNumber();
+        } else if (sensorType != null) {
+            mKinds[s] = KIND_SINGLE;
+            mTypes[s] = sensorType.getNumber();
+        } else {
+            Log.e("Telemetry Error", "Unknown sensor type:" + event.sensor.getName());
+        }
+        Float threshold = mThresholdsByName.get(event.sensor.getName());
+        mThresholds[s] = threshold != null ? threshold : 0;
+        mSlots.put(event.sensor.getName(), s);
+        return s;
+    }
+
+    public long getVersion() {
+        return mVersion;
+    }
+
+    /**
+     * Sets how much any value of a sensor has to change before a delta
+     * packet includes it again. The default, 0, sends every change.
+     */
+    public synchronized void setDeltaThreshold(String sensorName, float threshold) {
+        mThresholdsByName.put(sensorName, threshold);
+        Integer slot = mSlots.get(sensorName);
+        if (slot != null) {
+            mThresholds[slot] = threshold;
+        }
     }
 
-    public void updateSensor(SensorEvent event) {
-        mSensors.put(event.sensor.getName(), event);
+    /** Like {@link #setDeltaThreshold}, for each of latitude, longitude and altitude. */
+    public synchronized void setPositionDeltaThreshold(float threshold) {
+        mPositionThreshold = threshold;
     }
 
-    private Telemetry.Sensor getSensor(String sensorName) {
-        SensorEvent event = mSensors.get(sensorName);
-        Telemetry.Sensor.SensorType sensorType = null;
-        switch (event.sensor.getType()) {
+    /**
+     * Maps an Android sensor type to its single value telemetry type, or
+     * null if it has none.
+     */
+    static TelemetryLite.Sensor.SensorType toSensorType(int androidSensorType) {
+        switch (androidSensorType) {
             case android.hardware.Sensor.TYPE_AMBIENT_TEMPERATURE:
-                sensorType = Telemetry.Sensor.SensorType.AMBIENT_TEMPERATURE;
-                break;
+                return TelemetryLite.Sensor.SensorType.AMBIENT_TEMPERATURE;
             case android.hardware.Sensor.TYPE_LIGHT:
-                sensorType = Telemetry.Sensor.SensorType.LIGHT;
-                break;
+                return TelemetryLite.Sensor.SensorType.LIGHT;
             case android.hardware.Sensor.TYPE_PRESSURE:
-                sensorType = Telemetry.Sensor.SensorType.PRESSURE;
-                break;
+                return TelemetryLite.Sensor.SensorType.PRESSURE;
             case android.hardware.Sensor.TYPE_RELATIVE_HUMIDITY:
-                sensorType = Telemetry.Sensor.SensorType.RELATIVE_HUMIDITY;
-                break;
+                return TelemetryLite.Sensor.SensorType.RELATIVE_HUMIDITY;
             default:
-                Log.e("Telemetry Error", "Unknown sensor type:" + sensorName);
                 return null;
         }
-        return Telemetry.Sensor.newBuilder()
-                .setSensorType(sensorType).setValue(event.values[0]).build();
     }
 
-    private Telemetry.ThreeAxisSensor getThreeAxisSensor(String sensorName) {
-        SensorEvent event = mSensors.get(sensorName);
-        Telemetry.ThreeAxisSensor.SensorType sensorType = null;
-        switch (event.sensor.getType()) {
+    /**
+     * Maps an Android sensor type to its three axis telemetry type, or null
+     * if it has none.
+     */
+    static TelemetryLite.ThreeAxisSensor.SensorType toThreeAxisSensorType(int androidSensorType) {
+        switch (androidSensorType) {
             case android.hardware.Sensor.TYPE_ACCELEROMETER:
-                sensorType = Telemetry.ThreeAxisSensor.SensorType.ACCELEROMETER;
-                break;
+                return TelemetryLite.ThreeAxisSensor.SensorType.ACCELEROMETER;
             case android.hardware.Sensor.TYPE_GRAVITY:
-                sensorType = Telemetry.ThreeAxisSensor.SensorType.GRAVITY;
-                break;
+                return TelemetryLite.ThreeAxisSensor.SensorType.GRAVITY;
             case android.hardware.Sensor.TYPE_GYROSCOPE:
-                sensorType = Telemetry.ThreeAxisSensor.SensorType.GYROSCOPE;
-                break;
+                return TelemetryLite.ThreeAxisSensor.SensorType.GYROSCOPE;
             case android.hardware.Sensor.TYPE_LINEAR_ACCELERATION:
-                sensorType = Telemetry.ThreeAxisSensor.SensorType.LINEAR_ACCELERATION;
-                break;
+                return TelemetryLite.ThreeAxisSensor.SensorType.LINEAR_ACCELERATION;
             case android.hardware.Sensor.TYPE_MAGNETIC_FIELD:
-                sensorType = Telemetry.ThreeAxisSensor.SensorType.MAGNETIC_FIELD;
-                break;
+                return TelemetryLite.ThreeAxisSensor.SensorType.MAGNETIC_FIELD;
             case android.hardware.Sensor.TYPE_ORIENTATION:
-                sensorType = Telemetry.ThreeAxisSensor.SensorType.ORIENTATION;
-                break;
+                return TelemetryLite.ThreeAxisSensor.SensorType.ORIENTATION;
             case android.hardware.Sensor.TYPE_ROTATION_VECTOR:
-                sensorType = Telemetry.ThreeAxisSensor.SensorType.ROTATION_VECTOR;
-                break;
+                return TelemetryLite.ThreeAxisSensor.SensorType.ROTATION_VECTOR;
             default:
-                Log.e("Telemetry Error", "Unknown sensor type:" + sensorName);
                 return null;
         }
-        return Telemetry.ThreeAxisSensor.newBuilder().setSensorType(sensorType)
-                .setX(event.values[0]).setY(event.values[1]).setZ(event.values[2]).build();
-    }
-
-    private Telemetry.Position getPosition() {
-        return Telemetry.Position.newBuilder()
-                .setLatitude((float) mLat)
-                .setLongitude((float) mLon)
-                .setAltitude((float) mAlt).build();
-    }
-
-    public String getBase64EncodedProtobufDataPacket() {
-        Telemetry.DataPacket.Builder dataPacket = Telemetry.DataPacket.newBuilder();
-        dataPacket.setTimestamp(System.currentTimeMillis());
-        dataPacket.setPosition(getPosition());
-        Iterator<String> sensorsIt = mSensors.keySet().iterator();
-        while (sensorsIt.hasNext()) {
-            String sensorName = sensorsIt.next();
-            SensorEvent event = mSensors.get(sensorName);
-            if (event.values.length == 1) {
-                Telemetry.Sensor s = getSensor(sensorName);
-                if (s != null) {
-                    dataPacket.addSensor(s);
-                }
-            } else if (event.values.length == 3) {
-                Telemetry.ThreeAxisSensor tas = getThreeAxisSensor(sensorName);
-                if (tas != null) {
-                    dataPacket.addThreeAxisSensor(tas);
-                }
-            } else {
-                Log.e("Telemetry Error", "Unknown sensor type:" + sensorName);
-                return null;
+    }
+
+    public synchronized String getBase64EncodedProtobufDataPacket() {
+        int length = encodeDataPacket();
+        mBase64.setLength(0);
+        appendBase64(getEncodedBuffer(), 0, length, mBase64);
+        return mBase64.toString();
+    }
+
+    /**
+     * Encodes the snapshot as a DataPacket into a reusable buffer and returns
+     * its length. The bytes are at the start of {@link #getEncodedBuffer()}
+     * until the next call.
+     */
+    public synchronized int encodeDataPacket() {
+        mBuffer.reset();
+        try {
+            writeDataPacket(mOut, System.currentTimeMillis());
+            mOut.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing to memory threw an IOException", e);
+        }
+        return mBuffer.size();
+    }
+
+    /** Returns the buffer the last packet was encoded into. */
+    public synchronized byte[] getEncodedBuffer() {
+        return mBuffer.array();
+    }
+
+    /**
+     * Encodes a keyframe or a delta packet into the buffer of
+     * {@link #getEncodedBuffer()} and returns its length. The first packet is
+     * always a keyframe. A delta is relative to the packet encoded before it,
+     * so every packet has to reach the receiver for the deltas to apply;
+     * after a loss, encode a keyframe.
+     */
+    public synchronized int encodeDeltaPacket(boolean keyframe) {
+        keyframe |= mSequence == 0;
+        int sequence = ++mSequence;
+        mBuffer.reset();
+        try {
+            writeDeltaPacket(mOut, sequence, System.currentTimeMillis(), keyframe);
+            mOut.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing to memory threw an IOException", e);
+        }
+        return mBuffer.size();
+    }
+
+    /** Writes the same bytes as DataPacket.writeTo() would. */
+    private void writeDataPacket(CodedOutputStream out, long timestamp) throws IOException {
+        out.writeUInt64(TelemetryLite.DataPacket.TIMESTAMP_FIELD_NUMBER, timestamp);
+        writePosition(out, (float) mLat, (float) mLon, (float) mAlt);
+        // Repeated fields are written in field number order, like writeTo().
+        for (int s = 0; s < mSize; s++) {
+            if (mKinds[s] == KIND_SINGLE) {
+                writeSensor(out, s, false);
+            }
+        }
+        for (int s = 0; s < mSize; s++) {
+            if (mKinds[s] == KIND_THREE_AXIS) {
+                writeThreeAxisSensor(out, s, false);
             }
         }
-        byte[] dataBytes = dataPacket.build().toByteArray();
-        return Base64.encodeToString(dataBytes, Base64.DEFAULT);
     }
 
+    private void writeDeltaPacket(CodedOutputStream out, int sequence, long timestamp,
+            boolean keyframe) throws IOException {
+        out.writeUInt32(TelemetryLite.DataPacket.SEQUENCE_FIELD_NUMBER, sequence);
+        out.writeUInt64(TelemetryLite.DataPacket.TIMESTAMP_FIELD_NUMBER, timestamp);
+        if (!keyframe) {
+            out.writeUInt32(TelemetryLite.DataPacket.DELTA_BASE_FIELD_NUMBER, sequence - 1);
+        }
+
+        float lat = (float) mLat;
+        float lon = (float) mLon;
+        float alt = (float) mAlt;
+        if (keyframe || !mPositionSent || moved(lat, mSentLat, mPositionThreshold)
+                || moved(lon, mSentLon, mPositionThreshold)
+                || moved(alt, mSentAlt, mPositionThreshold)) {
+            writePosition(out, lat, lon, alt);
+            mSentLat = lat;
+            mSentLon = lon;
+            mSentAlt = alt;
+            mPositionSent = true;
+        }
+        for (int s = 0; s < mSize; s++) {
+            if (mKinds[s] == KIND_SINGLE && (keyframe || changed(s))) {
+                writeSensor(out, s, true);
+                mSentValues[s * 3] = mValues[s * 3];
+                mSent[s] = true;
+            }
+        }
+        for (int s = 0; s < mSize; s++) {
+            if (mKinds[s] == KIND_THREE_AXIS && (keyframe || changed(s))) {
+                writeThreeAxisSensor(out, s, true);
+                System.arraycopy(mValues, s * 3, mSentValues, s * 3, 3);
+                mSent[s] = true;
+            }
+        }
+    }
+
+    private boolean changed(int s) {
+        if (!mSent[s]) {
+            return true;
+        }
+        int base = s * 3;
+        int count = mKinds[s] == KIND_THREE_AXIS ? 3 : 1;
+        for (int i = base; i < base + count; i++) {
+            if (moved(mValues[i], mSentValues[i], mThresholds[s])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean moved(float value, float sent, float threshold) {
+        // Written so that a NaN counts as moved.
+        return !(Math.abs(value - sent) <= threshold);
+    }
+
+    private void writePosition(CodedOutputStream out, float lat, float lon, float alt)
+            throws IOException {
+        out.writeTag(TelemetryLite.DataPacket.POSITION_FIELD_NUMBER,
+                WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        out.writeRawVarint32(
+                CodedOutputStream.computeFloatSize(
+                        TelemetryLite.Position.LATITUDE_FIELD_NUMBER, lat)
+                + CodedOutputStream.computeFloatSize(
+                        TelemetryLite.Position.LONGITUDE_FIELD_NUMBER, lon)
+                + CodedOutputStream.computeFloatSize(
+                        TelemetryLite.Position.ALTITUDE_FIELD_NUMBER, alt));
+        out.writeFloat(TelemetryLite.Position.LATITUDE_FIELD_NUMBER, lat);
+        out.writeFloat(TelemetryLite.Position.LONGITUDE_FIELD_NUMBER, lon);
+        out.writeFloat(TelemetryLite.Position.ALTITUDE_FIELD_NUMBER, alt);
+    }
+
+    private void writeSensor(CodedOutputStream out, int s, boolean withSlot) throws IOException {
+        float value = mValues[s * 3];
+        out.writeTag(TelemetryLite.DataPacket.SENSOR_FIELD_NUMBER,
+                WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        out.writeRawVarint32(
+                CodedOutputStream.computeEnumSize(
+                        TelemetryLite.Sensor.SENSOR_TYPE_FIELD_NUMBER, mTypes[s])
+                + CodedOutputStream.computeFloatSize(
+                        TelemetryLite.Sensor.VALUE_FIELD_NUMBER, value)
+                + (withSlot ? CodedOutputStream.computeUInt32Size(
+                        TelemetryLite.Sensor.SLOT_FIELD_NUMBER, s) : 0));
+        out.writeEnum(TelemetryLite.Sensor.SENSOR_TYPE_FIELD_NUMBER, mTypes[s]);
+        out.writeFloat(TelemetryLite.Sensor.VALUE_FIELD_NUMBER, value);
+        if (withSlot) {
+            out.writeUInt32(TelemetryLite.Sensor.SLOT_FIELD_NUMBER, s);
+        }
+    }
+
+    private void writeThreeAxisSensor(CodedOutputStream out, int s, boolean withSlot)
+            throws IOException {
+        int base = s * 3;
+        out.writeTag(TelemetryLite.DataPacket.THREE_AXIS_SENSOR_FIELD_NUMBER,
+                WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        out.writeRawVarint32(
+                CodedOutputStream.computeEnumSize(
+                        TelemetryLite.ThreeAxisSensor.SENSOR_TYPE_FIELD_NUMBER, mTypes[s])
+                + CodedOutputStream.computeFloatSize(
+                        TelemetryLite.ThreeAxisSensor.X_FIELD_NUMBER, mValues[base])
+                + CodedOutputStream.computeFloatSize(
+                        TelemetryLite.ThreeAxisSensor.Y_FIELD_NUMBER, mValues[base + 1])
+                + CodedOutputStream.computeFloatSize(
+                        TelemetryLite.ThreeAxisSensor.Z_FIELD_NUMBER, mValues[base + 2])
+                + (withSlot ? CodedOutputStream.computeUInt32Size(
+                        TelemetryLite.ThreeAxisSensor.SLOT_FIELD_NUMBER, s) : 0));
+        out.writeEnum(TelemetryLite.ThreeAxisSensor.SENSOR_TYPE_FIELD_NUMBER, mTypes[s]);
+        out.writeFloat(TelemetryLite.ThreeAxisSensor.X_FIELD_NUMBER, mValues[base]);
+        out.writeFloat(TelemetryLite.ThreeAxisSensor.Y_FIELD_NUMBER, mValues[base + 1]);
+        out.writeFloat(TelemetryLite.ThreeAxisSensor.Z_FIELD_NUMBER, mValues[base + 2]);
+        if (withSlot) {
+            out.writeUInt32(TelemetryLite.ThreeAxisSensor.SLOT_FIELD_NUMBER, s);
+        }
+    }
+
+    /**
+     * Appends data as Base64 the way android.util.Base64.DEFAULT encodes it:
+     * padded, in lines of 76 characters that each end with '\n'. Doesn't
+     * allocate if the builder has room.
+     */
+    static void appendBase64(byte[] data, int offset, int length, StringBuilder out) {
+        int end = offset + length;
+        int lineLength = 0;
+        int i = offset;
+        while (i < end) {
+            int b0 = data[i++] & 0xff;
+            int b1 = i < end ? data[i] & 0xff : -1;
+            int b2 = i + 1 < end ? data[i + 1] & 0xff : -1;
+            out.append(BASE64[b0 >> 2]);
+            if (b1 < 0) {
+                out.append(BASE64[(b0 & 0x03) << 4]).append("==");
+            } else {
+                i++;
+                out.append(BASE64[(b0 & 0x03) << 4 | b1 >> 4]);
+                if (b2 < 0) {
+                    out.append(BASE64[(b1 & 0x0f) << 2]).append('=');
+                } else {
+                    i++;
+                    out.append(BASE64[(b1 & 0x0f) << 2 | b2 >> 6]).append(BASE64[b2 & 0x3f]);
+                }
+            }
+            lineLength += 4;
+            if (lineLength == BASE64_LINE_LENGTH) {
+                out.append('\n');
+                lineLength = 0;
+            }
+        }
+        if (lineLength > 0) {
+            out.append('\n');
+        }
+    }
 }
@@ -0,0 +1,380 @@
+/**
+ * Copyright (C) 2012 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.cellbots.logger.localServer;
+
+import android.hardware.SensorEvent;
+import android.util.Base64;
+
+import com.google.protobuf.CodedOutputStream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Streams raw sensor events to WebSocket clients of {@link LocalHttpServer} as
+ * binary frames. Every frame holds one length-delimited
+ * {@link TelemetryLite.DataPacket} carrying a single sensor reading.
+ * <p>
+ * A frame is encoded once, WebSocket header included, and the same bytes are
+ * queued for every subscriber. When a client's queue backs up its decimation
+ * is doubled (only every n-th reading per sensor is kept) and the oldest
+ * frames are dropped; once it keeps up again the decimation is relaxed.
+ * <p>
+ * Data frames from clients are ignored. Pings are answered with pongs, and a
+ * close frame is echoed before the connection is closed.
+ */
+class TelemetryStreamHub {
+    private static final String WEBSOCKET_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+    /** Channels 0-31 are three axis sensor types, 32-63 single value ones. */
+    static final int SINGLE_VALUE_CHANNEL_OFFSET = 32;
+
+    private static final int MAX_CHANNELS = 64;
+
+    private static final int HIGH_WATERMARK_BYTES = 32 * 1024;
+
+    private static final int LOW_WATERMARK_BYTES = 16 * 1024;
+
+    private static final int MAX_DECIMATION = 64;
+
+    private static final long RELAX_INTERVAL_MS = 2000;
+
+    private static final int MAX_FRAMES_PER_WRITE = 16;
+
+    private static final int OPCODE_CLOSE = 0x8;
+
+    private static final int OPCODE_PING = 0x9;
+
+    private static final int OPCODE_PONG = 0xa;
+
+    private static final int MAX_CONTROL_PAYLOAD = 125;
+
+    private final CopyOnWriteArrayList<TelemetryStream> mStreams =
+            new CopyOnWriteArrayList<TelemetryStream>();
+
+    private int mSequence;
+
+    /** Computes the Sec-WebSocket-Accept value for a handshake key. */
+    static String acceptKey(String key) {
+        try {
+            MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+            byte[] digest = sha1.digest(HttpResponse.utf8(key.trim() + WEBSOCKET_GUID));
+            return Base64.encodeToString(digest, Base64.NO_WRAP);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Returns the stream channel for a telemetry sensor type name such as
+     * "GYROSCOPE" or "LIGHT", or -1 if the name is unknown.
+     */
+    static int channelForTypeName(String name) {
+        for (TelemetryLite.ThreeAxisSensor.SensorType type :
+                TelemetryLite.ThreeAxisSensor.SensorType.values()) {
+            if (type.name().equals(name)) {
+                return type.getNumber();
+            }
+        }
+        for (TelemetryLite.Sensor.SensorType type : TelemetryLite.Sensor.SensorType.values()) {
+            if (type.name().equals(name)) {
+                return SINGLE_VALUE_CHANNEL_OFFSET + type.getNumber();
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Opens a new stream.
+     *
+     * @param channelMask A bit per channel the client wants, or -1 for all.
+     */
+    public TelemetryStream open(long channelMask) {
+        TelemetryStream stream = new TelemetryStream(channelMask);
+        mStreams.add(stream);
+        return stream;
+    }
+
+    /** Called by the sensor threads for every new sensor event. */
+    public void publish(SensorEvent event) {
+        if (mStreams.isEmpty()) {
+            return;
+        }
+        TelemetryLite.DataPacket.Builder packet = TelemetryLite.DataPacket.newBuilder();
+        int channel;
+        int type = event.sensor.getType();
+        TelemetryLite.ThreeAxisSensor.SensorType threeAxisType =
+                TelemetrySnapshot.toThreeAxisSensorType(type);
+        if (threeAxisType != null && event.values.length >= 3) {
+            channel = threeAxisType.getNumber();
+            packet.addThreeAxisSensor(TelemetryLite.ThreeAxisSensor.newBuilder()
+                    .setSensorType(threeAxisType)
+                    .setX(event.values[0]).setY(event.values[1]).setZ(event.values[2]));
+        } else {
+            TelemetryLite.Sensor.SensorType sensorType = TelemetrySnapshot.toSensorType(type);
+            if (sensorType == null) {
+                return;
+            }
+            channel = SINGLE_VALUE_CHANNEL_OFFSET + sensorType.getNumber();
+            packet.addSensor(TelemetryLite.Sensor.newBuilder()
+                    .setSensorType(sensorType).setValue(event.values[0]));
+        }
+        synchronized (this) {
+            packet.setSequence(mSequence++);
+        }
+        packet.setTimestamp(System.currentTimeMillis());
+
+        byte[] frame = encodeFrame(packet.build());
+        for (TelemetryStream stream : mStreams) {
+            stream.offer(frame, channel);
+        }
+    }
+
+    /**
+     * Encodes a packet as an unmasked binary WebSocket frame whose payload is
+     * the varint length of the packet followed by the packet itself.
+     */
+    private static byte[] encodeFrame(TelemetryLite.DataPacket packet) {
+        int size = packet.getSerializedSize();
+        int payloadLength = CodedOutputStream.computeRawVarint32Size(size) + size;
+        int headerLength = payloadLength < 126 ? 2 : (payloadLength < 65536 ? 4 : 10);
+        byte[] frame = new byte[headerLength + payloadLength];
+        frame[0] = (byte) 0x82; // FIN, binary
+        if (headerLength == 2) {
+            frame[1] = (byte) payloadLength;
+        } else if (headerLength == 4) {
+            frame[1] = 126;
+            frame[2] = (byte) (payloadLength >>> 8);
+            frame[3] = (byte) payloadLength;
+        } else {
+            frame[1] = 127;
+            for (int i = 0; i < 8; i++) {
+                frame[2 + i] = (byte) ((long) payloadLength >>> (56 - 8 * i));
+            }
+        }
+        try {
+            CodedOutputStream out = CodedOutputStream.newInstance(
+                    frame, headerLength, payloadLength);
+            out.writeRawVarint32(size);
+            packet.writeTo(out);
+            out.checkNoSpaceLeft();
+        } catch (IOException e) {
+            throw new RuntimeException("Serializing to a byte array threw an IOException", e);
+        }
+        return frame;
+    }
+
+    private static byte[] encodeControlFrame(int opcode, byte[] payload, int length) {
+        byte[] frame = new byte[2 + length];
+        frame[0] = (byte) (0x80 | opcode); // FIN
+        frame[1] = (byte) length;
+        System.arraycopy(payload, 0, frame, 2, length);
+        return frame;
+    }
+
+    /** One WebSocket client and its outbound frame queue. */
+    class TelemetryStream extends HttpResponse.StreamBody {
+        private final long mChannelMask;
+
+        private final ArrayDeque<byte[]> mQueue = new ArrayDeque<byte[]>();
+
+        private final int[] mSkipCounters = new int[MAX_CHANNELS];
+
+        private int mQueuedBytes;
+
+        private int mDecimation = 1;
+
+        private long mLastBackupTime;
+
+        private boolean mWakeRequested;
+
+        /** Frames taken off the queue and being written; selector thread only. */
+        private final ArrayDeque<ByteBuffer> mWriting = new ArrayDeque<ByteBuffer>();
+
+        private final ByteBuffer[] mGather = new ByteBuffer[MAX_FRAMES_PER_WRITE];
+
+        /** Pongs and the close reply, sent ahead of data; selector thread only. */
+        private final ArrayDeque<byte[]> mControl = new ArrayDeque<byte[]>();
+
+        /** Set once the client closed; nothing but the reply is sent after. */
+        private boolean mClosing;
+
+        /** Payload bytes of an ignored client data frame still to come. */
+        private long mSkipping;
+
+        TelemetryStream(long channelMask) {
+            mChannelMask = channelMask;
+            mLastBackupTime = System.currentTimeMillis();
+        }
+
+        void offer(byte[] frame, int channel) {
+            if ((mChannelMask & (1L << channel)) == 0) {
+                return;
+            }
+            synchronized (this) {
+                if (++mSkipCounters[channel] < mDecimation) {
+                    return;
+                }
+                mSkipCounters[channel] = 0;
+                mQueue.add(frame);
+                mQueuedBytes += frame.length;
+                if (mQueuedBytes > HIGH_WATERMARK_BYTES) {
+                    // The client can't keep up: thin the stream out and drop
+                    // the stalest frames rather than buffering without bound.
+                    mDecimation = Math.min(MAX_DECIMATION, mDecimation * 2);
+                    mLastBackupTime = System.currentTimeMillis();
+                    while (mQueuedBytes > LOW_WATERMARK_BYTES) {
+                        mQueuedBytes -= mQueue.poll().length;
+                    }
+                }
+                if (mWakeRequested) {
+                    return;
+                }
+                mWakeRequested = true;
+            }
+            wakeUp();
+        }
+
+        @Override
+        public int writeTo(SocketChannel channel) throws IOException {
+            while (true) {
+                synchronized (this) {
+                    mWakeRequested = false;
+                    while (mWriting.size() < MAX_FRAMES_PER_WRITE && !mControl.isEmpty()) {
+                        mWriting.add(ByteBuffer.wrap(mControl.poll()));
+                    }
+                    while (!mClosing && mWriting.size() < MAX_FRAMES_PER_WRITE
+                            && !mQueue.isEmpty()) {
+                        byte[] frame = mQueue.poll();
+                        mQueuedBytes -= frame.length;
+                        mWriting.add(ByteBuffer.wrap(frame));
+                    }
+                    if (mWriting.isEmpty() && mClosing) {
+                        return WRITE_DONE;
+                    }
+                    if (mWriting.isEmpty()) {
+                        long now = System.currentTimeMillis();
+                        if (mDecimation > 1 && now - mLastBackupTime > RELAX_INTERVAL_MS) {
+                            mDecimation /= 2;
+                            mLastBackupTime = now;
+                        }
+                        return WRITE_IDLE;
+                    }
+                }
+                int n = 0;
+                for (ByteBuffer buf : mWriting) {
+                    mGather[n++] = buf;
+                }
+                channel.write(mGather, 0, n);
+                while (!mWriting.isEmpty() && !mWriting.peek().hasRemaining()) {
+                    mWriting.poll();
+                }
+                for (int i = 0; i < n; i++) {
+                    mGather[i] = null;
+                }
+                if (!mWriting.isEmpty()) {
+                    synchronized (this) {
+                        mLastBackupTime = System.currentTimeMillis();
+                    }
+                    return WRITE_BLOCKED;
+                }
+            }
+        }
+
+        /** Reads the client's frames, which must be masked as RFC 6455 requires. */
+        @Override
+        boolean onInput(ByteBuffer input) throws IOException {
+            boolean reply = false;
+            while (!mClosing) {
+                if (mSkipping > 0) {
+                    int n = (int) Math.min(mSkipping, input.remaining());
+                    input.position(input.position() + n);
+                    mSkipping -= n;
+                    if (mSkipping > 0) {
+                        break;
+                    }
+                }
+                int start = input.position();
+                if (input.remaining() < 2) {
+                    break;
+                }
+                int b0 = input.get(start) & 0xff;
+                int b1 = input.get(start + 1) & 0xff;
+                long length = b1 & 0x7f;
+                int headerLength = 2 + (length == 126 ? 2 : (length == 127 ? 8 : 0)) + 4;
+                if ((b1 & 0x80) == 0) {
+                    throw new IOException("Unmasked WebSocket frame");
+                }
+                if (input.remaining() < headerLength) {
+                    break;
+                }
+                if (length == 126) {
+                    length = input.getShort(start + 2) & 0xffff;
+                } else if (length == 127) {
+                    length = input.getLong(start + 2);
+                }
+                int opcode = b0 & 0x0f;
+                if ((opcode & 0x8) == 0) {
+                    if (length < 0) {
+                        throw new IOException("Bad WebSocket frame length");
+                    }
+                    input.position(start + headerLength);
+                    mSkipping = length;
+                    continue;
+                }
+                if ((b0 & 0x80) == 0 || length > MAX_CONTROL_PAYLOAD) {
+                    throw new IOException("Bad WebSocket control frame");
+                }
+                if (input.remaining() < headerLength + length) {
+                    break;
+                }
+                byte[] payload = new byte[(int) length];
+                int mask = start + headerLength - 4;
+                for (int i = 0; i < payload.length; i++) {
+                    payload[i] = (byte) (input.get(start + headerLength + i)
+                            ^ input.get(mask + (i & 3)));
+                }
+                input.position(start + headerLength + payload.length);
+                if (opcode == OPCODE_PING) {
+                    mControl.add(encodeControlFrame(OPCODE_PONG, payload, payload.length));
+                    reply = true;
+                } else if (opcode == OPCODE_CLOSE) {
+                    // Echo the status code, if any, and stop sending data.
+                    mControl.add(encodeControlFrame(OPCODE_CLOSE, payload,
+                            Math.min(2, payload.length)));
+                    mClosing = true;
+                    reply = true;
+                }
+            }
+            // Whatever follows a close is of no interest.
+            if (mClosing) {
+                input.position(input.limit());
+            }
+            return reply;
+        }
+
+        @Override
+        public void close() {
+            mStreams.remove(this);
+        }
+    }
+}
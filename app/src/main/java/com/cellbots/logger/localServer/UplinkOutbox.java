@@ -0,0 +1,470 @@
+/*
+ * Copyright (C) 2012 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.cellbots.logger.localServer;
+
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * A persistent queue of uplink messages for a sink that may be unreachable
+ * for a long time, so that what is sent meanwhile is delivered later instead
+ * of lost. Messages are appended to segment files in a directory and get
+ * consecutive sequence numbers; the sequence of the last delivered message
+ * is kept in a file next to them. Segments are deleted once delivered, and
+ * when the outbox grows past its size limit the oldest are deleted even if
+ * they weren't. A record is
+ *
+ * <pre>
+ * int   length
+ * long  sequence
+ * byte  flags        // FLAG_BATCH
+ * byte[length] data
+ * int   crc32        // of sequence, flags and data
+ * </pre>
+ *
+ * in big-endian order. A record that was cut short by a crash is found by
+ * its checksum when the outbox is opened, and cut off. A record that goes bad
+ * later is found when it is read; since what follows it can't be trusted to
+ * line up, it is dropped with the rest of its segment. Not thread safe; the
+ * uplink cycle is the only user.
+ */
+class UplinkOutbox {
+    private static final String TAG = "UplinkOutbox";
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private static final String ACK_FILE = "acked";
+
+    private static final int FLAG_BATCH = 1;
+
+    private static final int HEADER_BYTES = 4 + 8 + 1;
+
+    private static final int TRAILER_BYTES = 4;
+
+    /**
+     * The largest message accepted; a record claiming to be bigger is
+     * corrupt.
+     */
+    private static final int MAX_MESSAGE_BYTES = 1 << 20;
+
+    private static final class Segment {
+        final File file;
+
+        long size;
+
+        int records;
+
+        Segment(File file) {
+            this.file = file;
+        }
+    }
+
+    /** A message read back from the outbox; reused by {@link #peek()}. */
+    static final class Message {
+        long sequence;
+
+        boolean batch;
+
+        byte[] data = new byte[1024];
+
+        int length;
+
+        /** Size of the whole record, to advance the read position. */
+        int recordBytes;
+    }
+
+    private final File mDir;
+
+    private final long mMaxBytes;
+
+    private final long mSegmentBytes;
+
+    /** Oldest first; the last one is written to. */
+    private final ArrayDeque<Segment> mSegments = new ArrayDeque<Segment>();
+
+    private long mTotalBytes;
+
+    private FileOutputStream mWriter;
+
+    private byte[] mRecord = new byte[1024];
+
+    private final CRC32 mCrc = new CRC32();
+
+    /** Sequence of the last message appended, and of the last delivered. */
+    private long mLastSequence;
+
+    private long mAckedSequence;
+
+    /** Read position of the next message to deliver, in the first segment. */
+    private long mReadOffset;
+
+    private int mReadRecords;
+
+    private RandomAccessFile mReader;
+
+    private final Message mMessage = new Message();
+
+    private boolean mPeeked;
+
+    private long mEvicted;
+
+    private long mCorrupt;
+
+    /**
+     * Opens the outbox in dir, creating it if needed.
+     *
+     * @param maxBytes Size at which the oldest segments are deleted.
+     * @param segmentBytes Size at which a new segment is started.
+     */
+    UplinkOutbox(File dir, long maxBytes, long segmentBytes) throws IOException {
+        mDir = dir;
+        mMaxBytes = maxBytes;
+        mSegmentBytes = segmentBytes;
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Can't create " + dir);
+        }
+        mAckedSequence = readAckedSequence();
+
+        File[] files = dir.listFiles();
+        Arrays.sort(files);
+        for (File file : files) {
+            if (file.getName().endsWith(SEGMENT_SUFFIX)) {
+                Segment segment = new Segment(file);
+                recover(segment);
+                if (segment.size == 0) {
+                    file.delete();
+                    continue;
+                }
+                mSegments.add(segment);
+                mTotalBytes += segment.size;
+            }
+        }
+        // Skip what was delivered before.
+        while (!mSegments.isEmpty()) {
+            Message m = peek();
+            if (m == null || m.sequence > mAckedSequence) {
+                break;
+            }
+            skip();
+        }
+        mLastSequence = Math.max(mLastSequence, mAckedSequence);
+    }
+
+    long getLastSequence() {
+        return mLastSequence;
+    }
+
+    long getAckedSequence() {
+        return mAckedSequence;
+    }
+
+    /** Number of messages that are waiting to be delivered. */
+    long getPendingCount() {
+        long records = 0;
+        for (Segment segment : mSegments) {
+            records += segment.records;
+        }
+        return records - mReadRecords;
+    }
+
+    /** Number of undelivered messages deleted because the outbox was full. */
+    long getEvictedCount() {
+        return mEvicted;
+    }
+
+    /** Number of undelivered messages dropped because their records were corrupt. */
+    long getCorruptCount() {
+        return mCorrupt;
+    }
+
+    long getSizeBytes() {
+        return mTotalBytes;
+    }
+
+    /**
+     * Adds a message and returns its sequence number.
+     *
+     * @throws IOException if the message is larger than MAX_MESSAGE_BYTES.
+     */
+    long append(byte[] data, int length, boolean batch) throws IOException {
+        if (length > MAX_MESSAGE_BYTES) {
+            throw new IOException("Message of " + length + " bytes is over the limit of "
+                    + MAX_MESSAGE_BYTES);
+        }
+        Segment segment = mSegments.peekLast();
+        // Segments left from before are not appended to.
+        if (segment == null || mWriter == null || segment.size >= mSegmentBytes) {
+            segment = startSegment(mLastSequence + 1);
+        }
+        long sequence = mLastSequence + 1;
+        int recordBytes = HEADER_BYTES + length + TRAILER_BYTES;
+        if (mRecord.length < recordBytes) {
+            mRecord = new byte[Math.max(recordBytes, mRecord.length * 2)];
+        }
+        putInt(mRecord, 0, length);
+        putLong(mRecord, 4, sequence);
+        mRecord[12] = (byte) (batch ? FLAG_BATCH : 0);
+        System.arraycopy(data, 0, mRecord, HEADER_BYTES, length);
+        mCrc.reset();
+        mCrc.update(mRecord, 4, HEADER_BYTES - 4 + length);
+        putInt(mRecord, HEADER_BYTES + length, (int) mCrc.getValue());
+        // One write, so a crash leaves at most one partial record behind.
+        mWriter.write(mRecord, 0, recordBytes);
+        mWriter.getFD().sync();
+
+        mLastSequence = sequence;
+        segment.size += recordBytes;
+        segment.records++;
+        mTotalBytes += recordBytes;
+        evict();
+        return sequence;
+    }
+
+    /**
+     * Returns the oldest undelivered message without removing it, or null if
+     * there is none. The message is reused by the next call.
+     */
+    Message peek() throws IOException {
+        if (mPeeked) {
+            return mMessage;
+        }
+        while (true) {
+            Segment head = mSegments.peekFirst();
+            if (head == null) {
+                return null;
+            }
+            if (mReadOffset < head.size) {
+                if (mReader == null) {
+                    mReader = new RandomAccessFile(head.file, "r");
+                }
+                if (readRecord(mReader, mReadOffset, mMessage)) {
+                    break;
+                }
+                dropCorruptTail(head);
+                continue;
+            }
+            if (head == mSegments.peekLast()) {
+                return null;
+            }
+            // Everything in the first segment was delivered.
+            deleteHead();
+        }
+        mPeeked = true;
+        return mMessage;
+    }
+
+    /**
+     * Drops the first segment from the read position on, where a record
+     * didn't read back. The segment is deleted once the read position is
+     * past it, like a delivered one.
+     */
+    private void dropCorruptTail(Segment head) throws IOException {
+        int lost = head.records - mReadRecords;
+        mCorrupt += lost;
+        Log.e(TAG, "Corrupt record in " + head.file + " at " + mReadOffset + ", dropped "
+                + lost + " undelivered messages");
+        mTotalBytes -= head.size - mReadOffset;
+        head.size = mReadOffset;
+        head.records = mReadRecords;
+        if (head == mSegments.peekLast() && mWriter != null) {
+            // Appending after the bad bytes would lose the next messages too.
+            mWriter.close();
+            mWriter = null;
+        }
+    }
+
+    /** Marks the message last returned by {@link #peek()} delivered. */
+    void ack() throws IOException {
+        if (!mPeeked) {
+            throw new IllegalStateException("Nothing to acknowledge");
+        }
+        mAckedSequence = mMessage.sequence;
+        skip();
+        writeAckedSequence();
+    }
+
+    void close() throws IOException {
+        closeReader();
+        if (mWriter != null) {
+            mWriter.close();
+            mWriter = null;
+        }
+    }
+
+    private void skip() {
+        mReadOffset += mMessage.recordBytes;
+        mReadRecords++;
+        mPeeked = false;
+    }
+
+    private Segment startSegment(long firstSequence) throws IOException {
+        if (mWriter != null) {
+            mWriter.close();
+        }
+        // Zero padded, so that the names sort in order.
+        File file = new File(mDir, String.format("%020d", firstSequence) + SEGMENT_SUFFIX);
+        mWriter = new FileOutputStream(file, true);
+        Segment segment = new Segment(file);
+        segment.size = file.length();
+        mSegments.add(segment);
+        return segment;
+    }
+
+    /** Deletes the oldest segments while over the limit, keeping the one written to. */
+    private void evict() throws IOException {
+        while (mTotalBytes > mMaxBytes && mSegments.size() > 1) {
+            Segment head = mSegments.peekFirst();
+            int lost = head.records - mReadRecords;
+            if (lost > 0) {
+                mEvicted += lost;
+                Log.w(TAG, "Outbox full, dropped " + lost + " undelivered messages");
+            }
+            deleteHead();
+        }
+    }
+
+    private void deleteHead() throws IOException {
+        closeReader();
+        Segment head = mSegments.removeFirst();
+        mTotalBytes -= head.size;
+        if (!head.file.delete()) {
+            Log.e(TAG, "Can't delete " + head.file);
+        }
+        mReadOffset = 0;
+        mReadRecords = 0;
+        mPeeked = false;
+    }
+
+    private void closeReader() throws IOException {
+        if (mReader != null) {
+            mReader.close();
+            mReader = null;
+        }
+    }
+
+    /** Counts the records of a segment and cuts off a broken tail. */
+    private void recover(Segment segment) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(segment.file, "rw");
+        try {
+            Message m = new Message();
+            long offset = 0;
+            while (offset < file.length() && readRecord(file, offset, m)) {
+                offset += m.recordBytes;
+                segment.records++;
+                mLastSequence = m.sequence;
+            }
+            if (offset < file.length()) {
+                Log.w(TAG, "Cutting off " + (file.length() - offset) + " broken bytes of "
+                        + segment.file);
+                file.setLength(offset);
+            }
+            segment.size = offset;
+        } finally {
+            file.close();
+        }
+    }
+
+    /** Reads the record at offset into m; false if it is incomplete or corrupt. */
+    private boolean readRecord(RandomAccessFile file, long offset, Message m)
+            throws IOException {
+        long available = file.length() - offset;
+        if (available < HEADER_BYTES + TRAILER_BYTES) {
+            return false;
+        }
+        file.seek(offset);
+        int length = file.readInt();
+        if (length < 0 || length > MAX_MESSAGE_BYTES
+                || available < HEADER_BYTES + length + TRAILER_BYTES) {
+            return false;
+        }
+        m.sequence = file.readLong();
+        int flags = file.readByte();
+        if (m.data.length < length) {
+            m.data = new byte[Math.max(length, m.data.length * 2)];
+        }
+        file.readFully(m.data, 0, length);
+        int crc = file.readInt();
+
+        mCrc.reset();
+        putLong(mRecord, 0, m.sequence);
+        mCrc.update(mRecord, 0, 8);
+        mCrc.update(flags);
+        mCrc.update(m.data, 0, length);
+        if ((int) mCrc.getValue() != crc) {
+            return false;
+        }
+        m.batch = (flags & FLAG_BATCH) != 0;
+        m.length = length;
+        m.recordBytes = HEADER_BYTES + length + TRAILER_BYTES;
+        return true;
+    }
+
+    private long readAckedSequence() throws IOException {
+        File file = new File(mDir, ACK_FILE);
+        if (!file.exists()) {
+            return 0;
+        }
+        RandomAccessFile in = new RandomAccessFile(file, "r");
+        try {
+            if (in.length() < 8) {
+                // Not written by writeAckedSequence(); everything in the
+                // outbox is sent again rather than nothing ever again.
+                Log.e(TAG, file + " is only " + in.length() + " bytes, resending everything");
+                return 0;
+            }
+            return in.readLong();
+        } finally {
+            in.close();
+        }
+    }
+
+    /** Replaces the ack file in one rename, so it is never half written. */
+    private void writeAckedSequence() throws IOException {
+        File temp = new File(mDir, ACK_FILE + ".tmp");
+        FileOutputStream out = new FileOutputStream(temp);
+        try {
+            byte[] bytes = new byte[8];
+            putLong(bytes, 0, mAckedSequence);
+            out.write(bytes);
+            out.getFD().sync();
+        } finally {
+            out.close();
+        }
+        if (!temp.renameTo(new File(mDir, ACK_FILE))) {
+            throw new IOException("Can't rename " + temp);
+        }
+    }
+
+    private static void putInt(byte[] b, int offset, int value) {
+        b[offset] = (byte) (value >>> 24);
+        b[offset + 1] = (byte) (value >>> 16);
+        b[offset + 2] = (byte) (value >>> 8);
+        b[offset + 3] = (byte) value;
+    }
+
+    private static void putLong(byte[] b, int offset, long value) {
+        putInt(b, offset, (int) (value >>> 32));
+        putInt(b, offset + 4, (int) value);
+    }
+}
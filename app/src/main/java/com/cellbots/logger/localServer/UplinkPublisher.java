@@ -0,0 +1,375 @@
+/**
+ * Copyright (C) 2012 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.cellbots.logger.localServer;
+
+import android.os.Debug;
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically sends the latest {@link TelemetrySnapshot} to remote sinks
+ * such as the XMPP bot. A cycle runs every interval, give or take a random
+ * jitter so that a fleet of loggers doesn't report in lockstep. All updates
+ * since the previous cycle are coalesced into the one snapshot, which is
+ * encoded once and handed to every sink; nothing is encoded if the snapshot
+ * didn't change. A sink that fails is retried with exponential backoff
+ * without holding up the others. The thread sleeps between cycles, and the
+ * CPU time of every cycle is measured.
+ * <p>
+ * With a keyframe interval set, packets are deltas with a keyframe every so
+ * many packets (see {@link TelemetrySnapshot#encodeDeltaPacket}). Since a
+ * delta is useless to a sink that missed the packet before it, a keyframe is
+ * also sent whenever a sink that failed, or hasn't received anything yet, is
+ * due to be tried.
+ * <p>
+ * With batching set, every cycle only samples the snapshot into a
+ * {@link TelemetryBatch}, and the batch is sent once it has enough packets or
+ * is old enough. That way the interval sets the time resolution and the
+ * batch size sets how often a message goes out.
+ */
+class UplinkPublisher {
+    private static final String TAG = "UplinkPublisher";
+
+    /** A destination for encoded {@link Telemetry.DataPacket}s. */
+    interface Sink {
+        String getName();
+
+        /**
+         * Sends the first length bytes of data, which is a DataPacket or, if
+         * batch is set, a {@link TelemetryBatch}. The array is reused after
+         * the call returns. Returns false, or throws, if it couldn't be sent
+         * and the sink should back off.
+         */
+        boolean send(byte[] data, int length, boolean batch) throws Exception;
+    }
+
+    private static final class SinkState {
+        final Sink sink;
+
+        int failures;
+
+        /** Cycles are skipped for this sink until then. */
+        long retryAt;
+
+        /** Number of the packet this sink last received. */
+        long sentPacket = -1;
+
+        /** Null, or where packets wait until the sink takes them. */
+        final UplinkOutbox outbox;
+
+        final int drainPerCycle;
+
+        SinkState(Sink sink, UplinkOutbox outbox, int drainPerCycle) {
+            this.sink = sink;
+            this.outbox = outbox;
+            this.drainPerCycle = drainPerCycle;
+        }
+    }
+
+    private final TelemetrySnapshot mSnapshot;
+
+    private final long mIntervalMs;
+
+    private final float mJitter;
+
+    private final long mMaxBackoffMs;
+
+    private final CopyOnWriteArrayList<SinkState> mSinks = new CopyOnWriteArrayList<SinkState>();
+
+    private final Random mRandom = new Random();
+
+    private ScheduledExecutorService mExecutor;
+
+    /**
+     * The latest encoded snapshot, in the snapshot's reusable buffer, the
+     * snapshot version it was encoded from and its number; only the cycle
+     * uses them.
+     */
+    private byte[] mPacket;
+
+    private int mPacketLength;
+
+    private long mPacketVersion = -1;
+
+    private long mPacketNumber;
+
+    /** 0 to send full packets, else the number of packets per keyframe. */
+    private volatile int mKeyframeInterval;
+
+    private int mSinceKeyframe;
+
+    /** Set before start() to batch; only the cycle uses it after that. */
+    private TelemetryBatch.Writer mBatch;
+
+    private int mBatchMaxPackets;
+
+    private long mBatchMaxAgeMs;
+
+    // Cycle statistics, guarded by this.
+    private long mCycles;
+
+    private long mTotalCpuNanos;
+
+    private long mMaxCpuNanos;
+
+    /**
+     * @param intervalMs Time between cycles.
+     * @param jitter Each interval is randomly shortened or stretched by up
+     *            to this fraction of it, e.g. 0.1.
+     * @param maxBackoffMs The longest a failing sink is left alone.
+     */
+    UplinkPublisher(TelemetrySnapshot snapshot, long intervalMs, float jitter, long maxBackoffMs) {
+        mSnapshot = snapshot;
+        mIntervalMs = intervalMs;
+        mJitter = jitter;
+        mMaxBackoffMs = maxBackoffMs;
+    }
+
+    /**
+     * Switches to delta packets with a keyframe every interval packets, or
+     * back to full packets with 0.
+     */
+    void setKeyframeInterval(int interval) {
+        mKeyframeInterval = interval;
+    }
+
+    /**
+     * Sends batches of up to maxPackets samples instead of single packets,
+     * or fewer once the oldest is maxAgeMs old. Must be called before
+     * {@link #start()}.
+     */
+    void setBatching(int maxPackets, long maxAgeMs) {
+        mBatch = new TelemetryBatch.Writer();
+        mBatchMaxPackets = maxPackets;
+        mBatchMaxAgeMs = maxAgeMs;
+    }
+
+    void addSink(Sink sink) {
+        mSinks.add(new SinkState(sink, null, 0));
+    }
+
+    /**
+     * Adds a sink that gets every packet, in order: packets are stored in
+     * the outbox and delivered from there, up to drainPerCycle of them per
+     * cycle, so a backlog is worked off at a bounded rate once the sink is
+     * back. The outbox is closed on {@link #shutdown()}.
+     */
+    void addSink(Sink sink, UplinkOutbox outbox, int drainPerCycle) {
+        mSinks.add(new SinkState(sink, outbox, drainPerCycle));
+    }
+
+    synchronized void start() {
+        if (mExecutor != null) {
+            return;
+        }
+        mExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, TAG);
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        scheduleNext();
+    }
+
+    void shutdown() {
+        ScheduledExecutorService executor;
+        synchronized (this) {
+            executor = mExecutor;
+            mExecutor = null;
+        }
+        if (executor == null) {
+            return;
+        }
+        executor.shutdownNow();
+        try {
+            // Let a running cycle finish with the outboxes before they close.
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (SinkState s : mSinks) {
+            if (s.outbox != null) {
+                try {
+                    s.outbox.close();
+                } catch (IOException e) {
+                    Log.e(TAG, s.sink.getName() + " outbox: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private synchronized void scheduleNext() {
+        if (mExecutor == null) {
+            return;
+        }
+        float spread = mJitter * (2 * mRandom.nextFloat() - 1);
+        long delay = Math.max(0, (long) (mIntervalMs * (1 + spread)));
+        mExecutor.schedule(mCycle, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private final Runnable mCycle = new Runnable() {
+            @Override
+        public void run() {
+            try {
+                runCycle();
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Uplink cycle failed", e);
+            } finally {
+                scheduleNext();
+            }
+        }
+    };
+
+    private void runCycle() {
+        long cpuStart = Debug.threadCpuTimeNanos();
+        long now = System.currentTimeMillis();
+
+        long packetNumber = mPacketNumber;
+        long version = mSnapshot.getVersion();
+        int keyframeInterval = mKeyframeInterval;
+        boolean resync = false;
+        if (mBatch != null) {
+            sampleIntoBatch(now, version);
+        } else if (keyframeInterval > 0) {
+            for (SinkState s : mSinks) {
+                resync |= s.outbox == null && (s.failures > 0 || s.sentPacket < 0)
+                        && now >= s.retryAt;
+            }
+        }
+        if (mBatch == null && (version != mPacketVersion || resync)) {
+            if (keyframeInterval > 0) {
+                boolean keyframe = resync || mSinceKeyframe >= keyframeInterval;
+                mSinceKeyframe = keyframe ? 1 : mSinceKeyframe + 1;
+                mPacketLength = mSnapshot.encodeDeltaPacket(keyframe);
+            } else {
+                mPacketLength = mSnapshot.encodeDataPacket();
+            }
+            mPacket = mSnapshot.getEncodedBuffer();
+            mPacketVersion = version;
+            mPacketNumber++;
+        }
+
+        int sent = 0;
+        for (SinkState s : mSinks) {
+            if (s.outbox != null) {
+                sent += storeAndDrain(s, now, mPacketNumber != packetNumber);
+                continue;
+            }
+            // Sinks that are up to date or backing off are skipped; one that
+            // missed versions while failing gets only the latest.
+            if (mPacket == null || s.sentPacket == mPacketNumber || now < s.retryAt) {
+                continue;
+            }
+            if (trySend(s, mPacket, mPacketLength, mBatch != null, now)) {
+                s.sentPacket = mPacketNumber;
+                sent++;
+            }
+        }
+
+        long cpuNanos = Debug.threadCpuTimeNanos() - cpuStart;
+        synchronized (this) {
+            mCycles++;
+            mTotalCpuNanos += cpuNanos;
+            mMaxCpuNanos = Math.max(mMaxCpuNanos, cpuNanos);
+        }
+        Log.d(TAG, "Uplink cycle: sent to " + sent + " sink(s), cpu " + cpuNanos / 1000 + "us");
+    }
+
+    /**
+     * Stores a new packet in the outbox of a sink, then sends it what is
+     * waiting unless it is backing off.
+     */
+    private int storeAndDrain(SinkState s, long now, boolean newPacket) {
+        int sent = 0;
+        try {
+            if (newPacket) {
+                s.outbox.append(mPacket, mPacketLength, mBatch != null);
+            }
+            UplinkOutbox.Message m;
+            while (now >= s.retryAt && sent < s.drainPerCycle
+                    && (m = s.outbox.peek()) != null) {
+                if (!trySend(s, m.data, m.length, m.batch, now)) {
+                    break;
+                }
+                s.outbox.ack();
+                sent++;
+            }
+        } catch (IOException e) {
+            Log.e(TAG, s.sink.getName() + " outbox: " + e.getMessage());
+        }
+        return sent;
+    }
+
+    /** Sends to a sink and keeps track of its failures. */
+    private boolean trySend(SinkState s, byte[] data, int length, boolean batch, long now) {
+        boolean ok;
+        try {
+            ok = s.sink.send(data, length, batch);
+        } catch (Exception e) {
+            Log.e(TAG, s.sink.getName() + ": " + e.getMessage());
+            ok = false;
+        }
+        if (ok) {
+            s.failures = 0;
+            s.retryAt = 0;
+        } else {
+            s.failures++;
+            long backoff = (mBatch != null ? mBatchMaxAgeMs : mIntervalMs)
+                    << Math.min(s.failures, 16);
+            s.retryAt = now + Math.min(backoff, mMaxBackoffMs);
+            Log.w(TAG, s.sink.getName() + " failed " + s.failures + " times, retrying in "
+                    + (s.retryAt - now) + "ms");
+        }
+        return ok;
+    }
+
+    /**
+     * Adds the snapshot to the batch if it changed, and makes the batch the
+     * packet to send once it is full or old enough. Every batch starts with
+     * a keyframe, so sinks that missed one need no resync.
+     */
+    private void sampleIntoBatch(long now, long version) {
+        TelemetryBatch.Writer batch = mBatch;
+        if (version != mPacketVersion) {
+            int length = mSnapshot.encodeDeltaPacket(batch.getCount() == 0);
+            batch.add(mSnapshot.getEncodedBuffer(), length, now);
+            mPacketVersion = version;
+        }
+        if (batch.getCount() >= mBatchMaxPackets
+                || (batch.getCount() > 0 && now - batch.getStartedAt() >= mBatchMaxAgeMs)) {
+            mPacketLength = batch.finish();
+            mPacket = batch.getBuffer();
+            mPacketNumber++;
+        }
+    }
+
+    /** Appends "Uplink:cycles,avg cpu us,max cpu us" in the status page format. */
+    synchronized void appendStats(StringBuilder out) {
+        out.append("Uplink:").append(mCycles).append(',')
+                .append(mCycles > 0 ? mTotalCpuNanos / mCycles / 1000 : 0).append(',')
+                .append(mMaxCpuNanos / 1000).append('\n');
+    }
+}
@@ -36,7 +36,7 @@ public class XmppManager {
 
     private Context mParent;
 
-    private XMPPConnection mConnection;
+    private volatile XMPPConnection mConnection;
 
     private XmppMessageListener mMessageListener;
 
@@ -105,23 +105,30 @@ public class XmppManager {
         }
     }
 
-    public void sendMessage(String to, String message) {
+    /**
+     * Sends a chat message. Returns false if there is no connection to send
+     * it on.
+     */
+    public boolean sendMessage(String to, String message) {
         Log.e(TAG, "To:" + to + ", Message:" + message);
         if (to == null) {
-            return;
+            return false;
         }
         int index = to.indexOf('/');
         to = index >= 0 ? to.substring(0, index) : to;
-        if (mConnection == null) {
-            return;
+        XMPPConnection connection = mConnection;
+        if (connection == null || !connection.isConnected()) {
+            return false;
         }
         Message msg = new Message(to, Message.Type.chat);
         msg.setBody(message);
         try {
-            mConnection.sendPacket(msg);
+            connection.sendPacket(msg);
+            return true;
         } catch (IllegalStateException e) {
             // Got disconnected.
             Log.e(TAG, "Disconnected. Failed to send: " + message);
+            return false;
         }
     }
 
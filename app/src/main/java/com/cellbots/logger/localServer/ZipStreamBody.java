@@ -0,0 +1,421 @@
+/**
+ * Copyright (C) 2012 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.cellbots.logger.localServer;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Locale;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Zips a directory straight onto the socket as the response is written, so
+ * exporting a session needs no temporary copy on the SD card and starts
+ * sending immediately. Entries are written with a data descriptor after their
+ * data (the CRC and compressed size aren't known up front), and Zip64 records
+ * are used where sizes or offsets need them. Media files that are already
+ * compressed are wrapped in stored deflate blocks instead of being compressed
+ * again.
+ */
+class ZipStreamBody implements HttpResponse.Body {
+    /** File bytes compressed per writability event, so the selector stays responsive. */
+    private static final int INPUT_BUDGET_PER_WRITE = 256 * 1024;
+
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+    private static final int INPUT_BUFFER_SIZE = 32 * 1024;
+
+    /** Room kept free in the output buffer for a Zip64 data descriptor. */
+    private static final int DESCRIPTOR_SPACE = 24;
+
+    /** Entries at least this large get Zip64 sizes (deflate can grow data slightly). */
+    private static final long ZIP64_ENTRY_THRESHOLD = 0xF0000000L;
+
+    private static final long MAX_32 = 0xFFFFFFFFL;
+
+    private static final int FLAGS = 0x0808; // data descriptor, UTF-8 names
+
+    private static final int METHOD_DEFLATED = 8;
+
+    private static final int STATE_NEXT_ENTRY = 0;
+
+    private static final int STATE_ENTRY_DATA = 1;
+
+    private static final int STATE_CENTRAL_DIRECTORY = 2;
+
+    private static final int STATE_DONE = 3;
+
+    private static class Entry {
+        final File file;
+
+        final byte[] name;
+
+        final long length;
+
+        final int dosTime;
+
+        final boolean zip64;
+
+        long offset;
+
+        long crc;
+
+        long compressedSize;
+
+        long size;
+
+        Entry(File file, String name) {
+            this.file = file;
+            this.name = HttpResponse.utf8(name);
+            length = file.length();
+            dosTime = toDosTime(file.lastModified());
+            zip64 = length >= ZIP64_ENTRY_THRESHOLD;
+        }
+    }
+
+    private final ArrayList<Entry> mEntries = new ArrayList<Entry>();
+
+    private final Deflater mDeflater = new Deflater(Deflater.BEST_SPEED, true);
+
+    private final CRC32 mCrc = new CRC32();
+
+    private final byte[] mInBuf = new byte[INPUT_BUFFER_SIZE];
+
+    private final ByteBuffer mOut;
+
+    private int mState = STATE_NEXT_ENTRY;
+
+    private int mNextEntry;
+
+    private Entry mCurrent;
+
+    private FileInputStream mIn;
+
+    private long mEntryRemaining;
+
+    private boolean mFinishing;
+
+    /** Bytes of the archive produced so far. */
+    private long mOffset;
+
+    private long mCentralDirectoryOffset;
+
+    /**
+     * @param dir The directory to zip; only the files present now are
+     *            included, each truncated to its current length.
+     * @param prefix Prefix of every entry name, e.g. the session name.
+     */
+    ZipStreamBody(File dir, String prefix) {
+        addFiles(dir, prefix);
+        mOut = ByteBuffer.allocate(OUTPUT_BUFFER_SIZE);
+        mOut.order(ByteOrder.LITTLE_ENDIAN);
+        mOut.flip();
+    }
+
+    private void addFiles(File dir, String prefix) {
+        String[] names = dir.list();
+        if (names == null) {
+            return;
+        }
+        Arrays.sort(names);
+        for (String name : names) {
+            File f = new File(dir, name);
+            if (f.isDirectory()) {
+                addFiles(f, prefix + "/" + name);
+            } else if (f.isFile()) {
+                mEntries.add(new Entry(f, prefix + "/" + name));
+            }
+        }
+    }
+
+    @Override
+    public long length() {
+        return -1;
+    }
+
+    @Override
+    public int writeTo(SocketChannel channel) throws IOException {
+        long budget = INPUT_BUDGET_PER_WRITE;
+        while (true) {
+            if (mOut.hasRemaining()) {
+                channel.write(mOut);
+                if (mOut.hasRemaining()) {
+                    return WRITE_BLOCKED;
+                }
+            }
+            if (mState == STATE_DONE) {
+                return WRITE_DONE;
+            }
+            if (budget <= 0) {
+                // Come back on the next writability event.
+                return WRITE_BLOCKED;
+            }
+            mOut.clear();
+            budget -= produce();
+            mOut.flip();
+        }
+    }
+
+    @Override
+    public void close() {
+        closeInput();
+        mDeflater.end();
+    }
+
+    /**
+     * Fills the (empty) output buffer with the next part of the archive and
+     * returns the number of file bytes consumed.
+     */
+    private long produce() throws IOException {
+        switch (mState) {
+            case STATE_NEXT_ENTRY:
+                if (mNextEntry == mEntries.size()) {
+                    mCentralDirectoryOffset = mOffset;
+                    mNextEntry = 0;
+                    mState = STATE_CENTRAL_DIRECTORY;
+                } else {
+                    startEntry(mEntries.get(mNextEntry++));
+                }
+                return 0;
+            case STATE_ENTRY_DATA:
+                return writeEntryData();
+            case STATE_CENTRAL_DIRECTORY:
+                writeCentralDirectory();
+                return 0;
+            default:
+                return 0;
+        }
+    }
+
+    private void startEntry(Entry entry) {
+        mCurrent = entry;
+        entry.offset = mOffset;
+        try {
+            mIn = new FileInputStream(entry.file);
+            mEntryRemaining = entry.length;
+        } catch (IOException e) {
+            // Deleted since the listing was taken; zip it as empty.
+            mEntryRemaining = 0;
+        }
+        mCrc.reset();
+        mDeflater.reset();
+        mDeflater.setLevel(isCompressed(entry.file.getName())
+                ? Deflater.NO_COMPRESSION : Deflater.BEST_SPEED);
+        mFinishing = false;
+
+        int start = mOut.position();
+        mOut.putInt(0x04034b50);
+        mOut.putShort((short) (entry.zip64 ? 45 : 20));
+        mOut.putShort((short) FLAGS);
+        mOut.putShort((short) METHOD_DEFLATED);
+        mOut.putInt(entry.dosTime);
+        mOut.putInt(0); // CRC, in the data descriptor
+        mOut.putInt(entry.zip64 ? -1 : 0);
+        mOut.putInt(entry.zip64 ? -1 : 0);
+        mOut.putShort((short) entry.name.length);
+        mOut.putShort((short) (entry.zip64 ? 20 : 0));
+        mOut.put(entry.name);
+        if (entry.zip64) {
+            mOut.putShort((short) 1);
+            mOut.putShort((short) 16);
+            mOut.putLong(0);
+            mOut.putLong(0);
+        }
+        mOffset += mOut.position() - start;
+        mState = STATE_ENTRY_DATA;
+    }
+
+    private long writeEntryData() throws IOException {
+        long consumed = 0;
+        while (mOut.remaining() > DESCRIPTOR_SPACE) {
+            if (mDeflater.needsInput() && !mFinishing) {
+                if (consumed >= INPUT_BUFFER_SIZE * 2) {
+                    break;
+                }
+                int n = mEntryRemaining > 0 ? mIn.read(mInBuf, 0,
+                        (int) Math.min(mInBuf.length, mEntryRemaining)) : -1;
+                if (n > 0) {
+                    mCrc.update(mInBuf, 0, n);
+                    mDeflater.setInput(mInBuf, 0, n);
+                    mEntryRemaining -= n;
+                    consumed += n;
+                } else {
+                    // End of the entry, or the file shrank under us.
+                    mDeflater.finish();
+                    mFinishing = true;
+                }
+                continue;
+            }
+            int n = mDeflater.deflate(mOut.array(), mOut.arrayOffset() + mOut.position(),
+                    mOut.remaining() - DESCRIPTOR_SPACE);
+            mOut.position(mOut.position() + n);
+            mOffset += n;
+            if (mDeflater.finished()) {
+                finishEntry();
+                break;
+            }
+        }
+        return consumed;
+    }
+
+    private void finishEntry() {
+        Entry entry = mCurrent;
+        entry.crc = mCrc.getValue();
+        entry.compressedSize = mDeflater.getBytesWritten();
+        entry.size = mDeflater.getBytesRead();
+        closeInput();
+
+        int start = mOut.position();
+        mOut.putInt(0x08074b50);
+        mOut.putInt((int) entry.crc);
+        if (entry.zip64) {
+            mOut.putLong(entry.compressedSize);
+            mOut.putLong(entry.size);
+        } else {
+            mOut.putInt((int) entry.compressedSize);
+            mOut.putInt((int) entry.size);
+        }
+        mOffset += mOut.position() - start;
+        mCurrent = null;
+        mState = STATE_NEXT_ENTRY;
+    }
+
+    private void writeCentralDirectory() {
+        int start = mOut.position();
+        while (mNextEntry < mEntries.size()) {
+            Entry entry = mEntries.get(mNextEntry);
+            boolean bigOffset = entry.offset >= MAX_32;
+            int extraLength = (entry.zip64 ? 16 : 0) + (bigOffset ? 8 : 0);
+            if (extraLength > 0) {
+                extraLength += 4;
+            }
+            if (mOut.remaining() < 46 + entry.name.length + extraLength) {
+                mOffset += mOut.position() - start;
+                return;
+            }
+            mOut.putInt(0x02014b50);
+            mOut.putShort((short) (extraLength > 0 ? 45 : 20)); // made by
+            mOut.putShort((short) (extraLength > 0 ? 45 : 20)); // needed
+            mOut.putShort((short) FLAGS);
+            mOut.putShort((short) METHOD_DEFLATED);
+            mOut.putInt(entry.dosTime);
+            mOut.putInt((int) entry.crc);
+            mOut.putInt(entry.zip64 ? -1 : (int) entry.compressedSize);
+            mOut.putInt(entry.zip64 ? -1 : (int) entry.size);
+            mOut.putShort((short) entry.name.length);
+            mOut.putShort((short) extraLength);
+            mOut.putShort((short) 0); // comment
+            mOut.putShort((short) 0); // disk
+            mOut.putShort((short) 0); // internal attributes
+            mOut.putInt(0); // external attributes
+            mOut.putInt(bigOffset ? -1 : (int) entry.offset);
+            mOut.put(entry.name);
+            if (extraLength > 0) {
+                mOut.putShort((short) 1);
+                mOut.putShort((short) (extraLength - 4));
+                if (entry.zip64) {
+                    mOut.putLong(entry.size);
+                    mOut.putLong(entry.compressedSize);
+                }
+                if (bigOffset) {
+                    mOut.putLong(entry.offset);
+                }
+            }
+            mNextEntry++;
+        }
+        // The end records need at most 98 bytes.
+        if (mOut.remaining() < 98) {
+            mOffset += mOut.position() - start;
+            return;
+        }
+        mOffset += mOut.position() - start;
+        writeEndOfCentralDirectory();
+        mState = STATE_DONE;
+    }
+
+    private void writeEndOfCentralDirectory() {
+        long count = mEntries.size();
+        long size = mOffset - mCentralDirectoryOffset;
+        long offset = mCentralDirectoryOffset;
+        if (count >= 0xFFFF || size >= MAX_32 || offset >= MAX_32) {
+            long zip64EndOffset = mOffset;
+            mOut.putInt(0x06064b50);
+            mOut.putLong(44);
+            mOut.putShort((short) 45);
+            mOut.putShort((short) 45);
+            mOut.putInt(0);
+            mOut.putInt(0);
+            mOut.putLong(count);
+            mOut.putLong(count);
+            mOut.putLong(size);
+            mOut.putLong(offset);
+
+            mOut.putInt(0x07064b50);
+            mOut.putInt(0);
+            mOut.putLong(zip64EndOffset);
+            mOut.putInt(1);
+        }
+        mOut.putInt(0x06054b50);
+        mOut.putShort((short) 0);
+        mOut.putShort((short) 0);
+        mOut.putShort((short) Math.min(count, 0xFFFF));
+        mOut.putShort((short) Math.min(count, 0xFFFF));
+        mOut.putInt(size >= MAX_32 ? -1 : (int) size);
+        mOut.putInt(offset >= MAX_32 ? -1 : (int) offset);
+        mOut.putShort((short) 0);
+    }
+
+    private void closeInput() {
+        if (mIn != null) {
+            try {
+                mIn.close();
+            } catch (IOException e) {
+                // Nothing more to do with it.
+            }
+            mIn = null;
+        }
+    }
+
+    /** Returns true for formats that gain nothing from being deflated again. */
+    private static boolean isCompressed(String name) {
+        String lower = name.toLowerCase(Locale.ENGLISH);
+        return lower.endsWith(".mp4") || lower.endsWith(".jpg") || lower.endsWith(".jpeg")
+                || lower.endsWith(".zip") || lower.endsWith(".gz") || lower.endsWith(".3gp");
+    }
+
+    private static int toDosTime(long time) {
+        Calendar c = Calendar.getInstance();
+        c.setTimeInMillis(time);
+        int year = c.get(Calendar.YEAR);
+        if (year < 1980) {
+            return (1 << 21) | (1 << 16);
+        }
+        return (year - 1980) << 25
+                | (c.get(Calendar.MONTH) + 1) << 21
+                | c.get(Calendar.DAY_OF_MONTH) << 16
+                | c.get(Calendar.HOUR_OF_DAY) << 11
+                | c.get(Calendar.MINUTE) << 5
+                | c.get(Calendar.SECOND) >> 1;
+    }
+}
@@ -32,6 +32,8 @@ package com.google.protobuf;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -67,7 +69,26 @@ public final class CodedInputStream {
    */
   public static CodedInputStream newInstance(final byte[] buf, final int off,
                                              final int len) {
-    CodedInputStream result = new CodedInputStream(buf, off, len);
+    return withLimit(new CodedInputStream(buf, off, len), len);
+  }
+
+  /**
+   * Create a new CodedInputStream that reads the given {@code ByteBuffer}
+   * from its position up to its limit.  Heap buffers are read through their
+   * backing array; direct and memory-mapped buffers are decoded in place,
+   * without first being copied to the heap.  The buffer's position is not
+   * changed; see {@link #getTotalBytesRead()}.
+   */
+  public static CodedInputStream newInstance(final ByteBuffer buf) {
+    if (buf.hasArray()) {
+      return newInstance(buf.array(), buf.arrayOffset() + buf.position(),
+                         buf.remaining());
+    }
+    return withLimit(new CodedInputStream(buf), buf.remaining());
+  }
+
+  private static CodedInputStream withLimit(final CodedInputStream result,
+                                            final int len) {
     try {
       // Some uses of CodedInputStream can be more efficient if they know
       // exactly how many bytes are available.  By pushing the end point of the
@@ -216,7 +237,9 @@ public final class CodedInputStream {
   /** Read a {@code string} field value from the stream. */
   public String readString() throws IOException {
     final int size = readRawVarint32();
-    if (size <= (bufferSize - bufferPos) && size > 0) {
+    if (buffer == null) {
+      return new String(readRawBytes(size), "UTF-8");
+    } else if (size <= (bufferSize - bufferPos) && size > 0) {
       // Fast path:  We already have the bytes in a contiguous buffer, so
       //   just copy directly from it.
       final String result = new String(buffer, bufferPos, size, "UTF-8");
@@ -318,6 +341,8 @@ public final class CodedInputStream {
     final int size = readRawVarint32();
     if (size == 0) {
       return ByteString.EMPTY;
+    } else if (buffer == null) {
+      return ByteString.copyFrom(readRawBytes(size));
     } else if (size <= (bufferSize - bufferPos) && size > 0) {
       // Fast path:  We already have the bytes in a contiguous buffer, so
       //   just copy directly from it.
@@ -370,6 +395,9 @@ public final class CodedInputStream {
    * upper bits.
    */
   public int readRawVarint32() throws IOException {
+    if (nioBuffer != null && bufferSize - bufferPos >= 10) {
+      return readRawVarint32Nio();
+    }
     byte tmp = readRawByte();
     if (tmp >= 0) {
       return tmp;
@@ -403,6 +431,31 @@ public final class CodedInputStream {
     return result;
   }
 
+  /**
+   * {@link #readRawVarint32()} for a direct buffer with at least ten bytes
+   * left, which reads them without a bounds check per byte.
+   */
+  private int readRawVarint32Nio() throws IOException {
+    int pos = bufferPos;
+    int result = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      final byte b = nioBuffer.get(pos++);
+      result |= (b & 0x7f) << shift;
+      if (b >= 0) {
+        bufferPos = pos;
+        return result;
+      }
+    }
+    // Discard upper 32 bits.
+    for (int i = 0; i < 5; i++) {
+      if (nioBuffer.get(pos++) >= 0) {
+        bufferPos = pos;
+        return result;
+      }
+    }
+    throw InvalidProtocolBufferException.malformedVarint();
+  }
+
   /**
    * Reads a varint from the input one byte at a time, so that it does not
    * read any bytes after the end of the varint.  If you simply wrapped the
@@ -471,6 +524,11 @@ public final class CodedInputStream {
 
   /** Read a 32-bit little-endian integer from the stream. */
   public int readRawLittleEndian32() throws IOException {
+    if (nioBuffer != null && bufferSize - bufferPos >= 4) {
+      final int result = nioBuffer.getInt(bufferPos);
+      bufferPos += 4;
+      return result;
+    }
     final byte b1 = readRawByte();
     final byte b2 = readRawByte();
     final byte b3 = readRawByte();
@@ -483,6 +541,11 @@ public final class CodedInputStream {
 
   /** Read a 64-bit little-endian integer from the stream. */
   public long readRawLittleEndian64() throws IOException {
+    if (nioBuffer != null && bufferSize - bufferPos >= 8) {
+      final long result = nioBuffer.getLong(bufferPos);
+      bufferPos += 8;
+      return result;
+    }
     final byte b1 = readRawByte();
     final byte b2 = readRawByte();
     final byte b3 = readRawByte();
@@ -532,6 +595,13 @@ public final class CodedInputStream {
   // -----------------------------------------------------------------
 
   private final byte[] buffer;
+
+  /**
+   * A little-endian duplicate of the direct {@code ByteBuffer} being read,
+   * or null.  When set, {@code buffer} is null and {@code bufferPos} and
+   * {@code bufferSize} are absolute indexes into it.
+   */
+  private final ByteBuffer nioBuffer;
   private int bufferSize;
   private int bufferSizeAfterLimit;
   private int bufferPos;
@@ -563,14 +633,25 @@ public final class CodedInputStream {
 
   private CodedInputStream(final byte[] buffer, final int off, final int len) {
     this.buffer = buffer;
+    nioBuffer = null;
     bufferSize = off + len;
     bufferPos = off;
     totalBytesRetired = -off;
     input = null;
   }
 
+  private CodedInputStream(final ByteBuffer buf) {
+    buffer = null;
+    nioBuffer = buf.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    bufferSize = buf.limit();
+    bufferPos = buf.position();
+    totalBytesRetired = -bufferPos;
+    input = null;
+  }
+
   private CodedInputStream(final InputStream input) {
     buffer = new byte[BUFFER_SIZE];
+    nioBuffer = null;
     bufferSize = 0;
     bufferPos = 0;
     totalBytesRetired = 0;
@@ -768,6 +849,9 @@ public final class CodedInputStream {
     if (bufferPos == bufferSize) {
       refillBuffer(true);
     }
+    if (buffer == null) {
+      return nioBuffer.get(bufferPos++);
+    }
     return buffer[bufferPos++];
   }
 
@@ -792,9 +876,17 @@ public final class CodedInputStream {
     if (size <= bufferSize - bufferPos) {
       // We have all the bytes we need already.
       final byte[] bytes = new byte[size];
-      System.arraycopy(buffer, bufferPos, bytes, 0, size);
+      if (buffer != null) {
+        System.arraycopy(buffer, bufferPos, bytes, 0, size);
+      } else {
+        nioBuffer.position(bufferPos);
+        nioBuffer.get(bytes);
+      }
       bufferPos += size;
       return bytes;
+    } else if (buffer == null) {
+      // A ByteBuffer is read whole; there is nothing to refill from.
+      throw InvalidProtocolBufferException.truncatedMessage();
     } else if (size < BUFFER_SIZE) {
       // Reading more bytes than are in the buffer, but not an excessive number
       // of bytes.  We can safely allocate the resulting array ahead of time.
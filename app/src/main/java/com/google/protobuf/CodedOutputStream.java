@@ -34,6 +34,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 /**
  * Encodes and writes protocol message fields.
@@ -56,6 +58,16 @@ public final class CodedOutputStream {
 
   private final OutputStream output;
 
+  /**
+   * The {@code ByteBuffer} written to, if any.  {@code position} and
+   * {@code limit} are indexes into {@code buffer} if it has an accessible
+   * array, else into {@code nioBuffer}, a little-endian duplicate of it that
+   * is written with absolute puts.
+   */
+  private final ByteBuffer byteBuffer;
+  private final ByteBuffer nioBuffer;
+  private final int byteBufferOffset;
+
   /**
    * The buffer size used in {@link #newInstance(OutputStream)}.
    */
@@ -79,6 +91,9 @@ public final class CodedOutputStream {
     this.buffer = buffer;
     position = offset;
     limit = offset + length;
+    byteBuffer = null;
+    nioBuffer = null;
+    byteBufferOffset = 0;
   }
 
   private CodedOutputStream(final OutputStream output, final byte[] buffer) {
@@ -86,6 +101,25 @@ public final class CodedOutputStream {
     this.buffer = buffer;
     position = 0;
     limit = buffer.length;
+    byteBuffer = null;
+    nioBuffer = null;
+    byteBufferOffset = 0;
+  }
+
+  private CodedOutputStream(final ByteBuffer byteBuffer) {
+    output = null;
+    this.byteBuffer = byteBuffer;
+    if (byteBuffer.hasArray()) {
+      buffer = byteBuffer.array();
+      nioBuffer = null;
+      byteBufferOffset = byteBuffer.arrayOffset();
+    } else {
+      buffer = null;
+      nioBuffer = byteBuffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+      byteBufferOffset = 0;
+    }
+    position = byteBufferOffset + byteBuffer.position();
+    limit = byteBufferOffset + byteBuffer.limit();
   }
 
   /**
@@ -129,6 +163,21 @@ public final class CodedOutputStream {
     return new CodedOutputStream(flatArray, offset, length);
   }
 
+  /**
+   * Create a new {@code CodedOutputStream} that writes directly to the given
+   * {@code ByteBuffer}, from its position up to its limit.  If more bytes are
+   * written than fit, {@link OutOfSpaceException} will be thrown.  Heap
+   * buffers are written through their backing array; direct and
+   * memory-mapped buffers are written in place, without a copy on the heap.
+   * The buffer's position is advanced by {@link #flush()}.
+   */
+  public static CodedOutputStream newInstance(final ByteBuffer byteBuffer) {
+    if (byteBuffer.isReadOnly()) {
+      throw new IllegalArgumentException("ByteBuffer is read-only.");
+    }
+    return new CodedOutputStream(byteBuffer);
+  }
+
   // -----------------------------------------------------------------
 
   /** Write a {@code double} field, including tag, to the stream. */
@@ -836,16 +885,20 @@ public final class CodedOutputStream {
 
   /**
    * Flushes the stream and forces any buffered bytes to be written.  This
-   * does not flush the underlying OutputStream.
+   * does not flush the underlying OutputStream.  When writing to a
+   * {@code ByteBuffer}, moves its position past the bytes written so far.
    */
   public void flush() throws IOException {
     if (output != null) {
       refreshBuffer();
+    } else if (byteBuffer != null) {
+      byteBuffer.position(position - byteBufferOffset);
     }
   }
 
   /**
-   * If writing to a flat array, return the space left in the array.
+   * If writing to a flat array or a {@code ByteBuffer}, return the space left
+   * in it.
    * Otherwise, throws {@code UnsupportedOperationException}.
    */
   public int spaceLeft() {
@@ -892,7 +945,11 @@ public final class CodedOutputStream {
       refreshBuffer();
     }
 
-    buffer[position++] = value;
+    if (buffer != null) {
+      buffer[position++] = value;
+    } else {
+      nioBuffer.put(position++, value);
+    }
   }
 
   /** Write a single byte, represented by an integer value. */
@@ -915,9 +972,18 @@ public final class CodedOutputStream {
                             throws IOException {
     if (limit - position >= length) {
       // We have room in the current buffer.
-      System.arraycopy(value, offset, buffer, position, length);
+      if (buffer != null) {
+        System.arraycopy(value, offset, buffer, position, length);
+      } else {
+        nioBuffer.position(position);
+        nioBuffer.put(value, offset, length);
+      }
       position += length;
     } else {
+      if (buffer == null) {
+        // A ByteBuffer that is not backed by an array, and full.
+        throw new OutOfSpaceException();
+      }
       // Write extends past current buffer.  Fill the rest of this buffer and
       // flush.
       final int bytesWritten = limit - position;
@@ -946,9 +1012,18 @@ public final class CodedOutputStream {
                             throws IOException {
     if (limit - position >= length) {
       // We have room in the current buffer.
-      value.copyTo(buffer, offset, position, length);
+      if (buffer != null) {
+        value.copyTo(buffer, offset, position, length);
+      } else {
+        nioBuffer.position(position);
+        value.substring(offset, offset + length).copyTo(nioBuffer);
+      }
       position += length;
     } else {
+      if (buffer == null) {
+        // A ByteBuffer that is not backed by an array, and full.
+        throw new OutOfSpaceException();
+      }
       // Write extends past current buffer.  Fill the rest of this buffer and
       // flush.
       final int bytesWritten = limit - position;
@@ -1004,6 +1079,15 @@ public final class CodedOutputStream {
    * unsigned, so it won't be sign-extended if negative.
    */
   public void writeRawVarint32(int value) throws IOException {
+    if (nioBuffer != null && limit - position >= 5) {
+      // There is room for the longest varint32.
+      while ((value & ~0x7F) != 0) {
+        nioBuffer.put(position++, (byte) ((value & 0x7F) | 0x80));
+        value >>>= 7;
+      }
+      nioBuffer.put(position++, (byte) value);
+      return;
+    }
     while (true) {
       if ((value & ~0x7F) == 0) {
         writeRawByte(value);
@@ -1030,6 +1114,15 @@ public final class CodedOutputStream {
 
   /** Encode and write a varint. */
   public void writeRawVarint64(long value) throws IOException {
+    if (nioBuffer != null && limit - position >= 10) {
+      // There is room for the longest varint64.
+      while ((value & ~0x7FL) != 0) {
+        nioBuffer.put(position++, (byte) (((int) value & 0x7F) | 0x80));
+        value >>>= 7;
+      }
+      nioBuffer.put(position++, (byte) value);
+      return;
+    }
     while (true) {
       if ((value & ~0x7FL) == 0) {
         writeRawByte((int)value);
@@ -1057,6 +1150,11 @@ public final class CodedOutputStream {
 
   /** Write a little-endian 32-bit integer. */
   public void writeRawLittleEndian32(final int value) throws IOException {
+    if (nioBuffer != null && limit - position >= LITTLE_ENDIAN_32_SIZE) {
+      nioBuffer.putInt(position, value);
+      position += LITTLE_ENDIAN_32_SIZE;
+      return;
+    }
     writeRawByte((value      ) & 0xFF);
     writeRawByte((value >>  8) & 0xFF);
     writeRawByte((value >> 16) & 0xFF);
@@ -1067,6 +1165,11 @@ public final class CodedOutputStream {
 
   /** Write a little-endian 64-bit integer. */
   public void writeRawLittleEndian64(final long value) throws IOException {
+    if (nioBuffer != null && limit - position >= LITTLE_ENDIAN_64_SIZE) {
+      nioBuffer.putLong(position, value);
+      position += LITTLE_ENDIAN_64_SIZE;
+      return;
+    }
     writeRawByte((int)(value      ) & 0xFF);
     writeRawByte((int)(value >>  8) & 0xFF);
     writeRawByte((int)(value >> 16) & 0xFF);
@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2012 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.cellbots.logger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the coordinator against several {@link RemoteControl}s on loopback
+ * ports, all on one clock, while they broadcast unrelated lines.
+ */
+public class ClockSyncTest {
+    private static final int DEVICES = 3;
+
+    private final List<RemoteControl> mDevices = new ArrayList<RemoteControl>();
+
+    private final List<InetSocketAddress> mAddresses = new ArrayList<InetSocketAddress>();
+
+    private final List<RemoteControl.CommandListener> mStartAtListeners =
+            new ArrayList<RemoteControl.CommandListener>();
+
+    /** The start time each device was armed with, or 0. */
+    private final long[] mArmed = new long[DEVICES];
+
+    private Thread mNoise;
+
+    private volatile boolean mStopNoise;
+
+    private static int freePort() throws IOException {
+        ServerSocket socket = new ServerSocket(0);
+        try {
+            return socket.getLocalPort();
+        } finally {
+            socket.close();
+        }
+    }
+
+    /** Answers start-at the way LoggerActivity does, after a broadcast. */
+    private RemoteControl.CommandListener startAtListener(final int device) {
+        return new RemoteControl.CommandListener() {
+            @Override
+            public boolean onCommandReceived(RemoteControl.Command c) {
+                String[] args = c.getArguments().split(" ");
+                long start = Long.parseLong(args[0]);
+                long offset = Long.parseLong(args[1]);
+                mDevices.get(device).broadcastMessage("Status: armed\n");
+                synchronized (mArmed) {
+                    mArmed[device] = start;
+                }
+                long delay = start + offset - System.currentTimeMillis();
+                c.sendResponse("start-at " + start + " armed " + delay + "\n");
+                return true;
+            }
+        };
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        for (int i = 0; i < DEVICES; i++) {
+            RemoteControl device = new RemoteControl(null);
+            mStartAtListeners.add(startAtListener(i));
+            device.registerCommandListener("start-at", mStartAtListeners.get(i), false);
+            int port = freePort();
+            device.start(port);
+            mDevices.add(device);
+            mAddresses.add(new InetSocketAddress("127.0.0.1", port));
+        }
+        for (InetSocketAddress address : mAddresses) {
+            waitUntilListening(address);
+        }
+        mNoise = new Thread() {
+            @Override
+            public void run() {
+                while (!mStopNoise) {
+                    for (RemoteControl device : mDevices) {
+                        device.broadcastMessage("time 0 0 0 is not a reply\n");
+                    }
+                    try {
+                        Thread.sleep(1);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+        };
+        mNoise.start();
+    }
+
+    private static void waitUntilListening(InetSocketAddress address) throws Exception {
+        for (int attempt = 0;; attempt++) {
+            try {
+                new ClockSync(address).close();
+                return;
+            } catch (ConnectException e) {
+                if (attempt == 100) {
+                    throw e;
+                }
+                Thread.sleep(20);
+            }
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mStopNoise = true;
+        mNoise.join();
+        for (RemoteControl device : mDevices) {
+            device.shutdown();
+        }
+    }
+
+    @Test
+    public void startAllArmsEveryDevice() throws IOException {
+        List<ClockSync.Estimate> estimates = ClockSync.startAll(mAddresses, 4, 2000, null);
+        assertEquals(DEVICES, estimates.size());
+        for (ClockSync.Estimate estimate : estimates) {
+            // One clock, so the true offset is 0, within the error bound.
+            assertTrue(estimate.toString(), estimate.roundTripMillis >= 0);
+            assertTrue(estimate.toString(),
+                    Math.abs(estimate.offsetMillis) <= estimate.roundTripMillis / 2 + 1);
+        }
+        synchronized (mArmed) {
+            assertTrue(mArmed[0] != 0);
+            for (long start : mArmed) {
+                assertEquals(mArmed[0], start);
+            }
+        }
+    }
+
+    @Test
+    public void startAtReturnsItsOwnReply() throws IOException {
+        for (InetSocketAddress address : mAddresses) {
+            ClockSync sync = new ClockSync(address);
+            try {
+                sync.measure(2);
+                long start = System.currentTimeMillis() + 1000;
+                String reply = sync.startAt(start);
+                assertTrue(reply, reply.startsWith("start-at " + start + " armed "));
+                // The broadcast sent before the reply was skipped, not left
+                // for the next exchange to trip over.
+                sync.measure(1);
+                String again = sync.startAt(start + 1);
+                assertTrue(again, again.startsWith("start-at " + (start + 1) + " armed "));
+            } finally {
+                sync.close();
+            }
+        }
+    }
+
+    @Test
+    public void unknownCommandFailsFast() throws IOException {
+        // Like older firmware, which has no start-at.
+        mDevices.get(0).unregisterCommandListener("start-at", mStartAtListeners.get(0));
+        ClockSync sync = new ClockSync(mAddresses.get(0));
+        try {
+            sync.measure(1);
+            sync.startAt(System.currentTimeMillis() + 1000);
+            fail();
+        } catch (SocketTimeoutException e) {
+            fail("Waited for a reply that can't come");
+        } catch (IOException expected) {
+        } finally {
+            sync.close();
+        }
+    }
+
+    @Test
+    public void busyConnectionStillTimesOut() throws IOException {
+        RemoteControl device = mDevices.get(0);
+        device.unregisterCommandListener("start-at", mStartAtListeners.get(0));
+        device.registerCommandListener("start-at", new RemoteControl.CommandListener() {
+            @Override
+            public boolean onCommandReceived(RemoteControl.Command c) {
+                return true;
+            }
+        }, false);
+        // The broadcasts keep the connection from ever going quiet.
+        ClockSync sync = new ClockSync(mAddresses.get(0), 300);
+        try {
+            sync.measure(1);
+            sync.startAt(System.currentTimeMillis() + 1000);
+            fail();
+        } catch (SocketTimeoutException expected) {
+        } finally {
+            sync.close();
+        }
+    }
+}
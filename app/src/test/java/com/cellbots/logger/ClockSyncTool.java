@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2012 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.cellbots.logger;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts several loggers together from a workstation; see {@link ClockSync}.
+ * Usage: ClockSyncTool host:port [host:port ...]
+ */
+public class ClockSyncTool {
+    private static final int DEFAULT_ROUNDS = 8;
+
+    private static final long DEFAULT_LEAD_MS = 2000;
+
+    public static void main(String[] args) throws IOException {
+        List<InetSocketAddress> devices = new ArrayList<InetSocketAddress>();
+        for (String arg : args) {
+            int colon = arg.lastIndexOf(':');
+            devices.add(new InetSocketAddress(arg.substring(0, colon),
+                    Integer.parseInt(arg.substring(colon + 1))));
+        }
+        ClockSync.startAll(devices, DEFAULT_ROUNDS, DEFAULT_LEAD_MS, System.out);
+    }
+}
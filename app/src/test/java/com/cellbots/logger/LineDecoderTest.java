@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2012 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.cellbots.logger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class LineDecoderTest {
+    /** Hands out the given chunks, one per read, as far as they fit. */
+    private static class ChunkChannel implements ReadableByteChannel {
+        private final ArrayDeque<ByteBuffer> mChunks = new ArrayDeque<ByteBuffer>();
+
+        ChunkChannel(byte[]... chunks) {
+            for (byte[] chunk : chunks) {
+                mChunks.add(ByteBuffer.wrap(chunk));
+            }
+        }
+
+        @Override
+        public int read(ByteBuffer dst) {
+            ByteBuffer chunk = mChunks.peek();
+            if (chunk == null) {
+                return -1;
+            }
+            int n = Math.min(chunk.remaining(), dst.remaining());
+            for (int i = 0; i < n; i++) {
+                dst.put(chunk.get());
+            }
+            if (!chunk.hasRemaining()) {
+                mChunks.poll();
+            }
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static byte[] utf8(String s) {
+        try {
+            return s.getBytes("UTF-8");
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /** Reads the channel to its end and returns every line decoded. */
+    private static List<String> decodeAll(LineDecoder decoder, ReadableByteChannel channel)
+            throws IOException {
+        List<String> lines = new ArrayList<String>();
+        while (decoder.read(channel) >= 0) {
+            String line;
+            while ((line = decoder.nextLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    @Test
+    public void singleLine() throws IOException {
+        LineDecoder decoder = new LineDecoder(16, 64);
+        assertEquals(Arrays.asList("status"),
+                decodeAll(decoder, new ChunkChannel(utf8("status\n"))));
+    }
+
+    @Test
+    public void coalescedLinesInOneRead() throws IOException {
+        LineDecoder decoder = new LineDecoder(64, 64);
+        assertEquals(Arrays.asList("start", "tag foo", "stop"),
+                decodeAll(decoder, new ChunkChannel(utf8("start\ntag foo\nstop\n"))));
+    }
+
+    @Test
+    public void lineFragmentedAcrossReads() throws IOException {
+        LineDecoder decoder = new LineDecoder(16, 64);
+        assertEquals(Arrays.asList("subscribe Accelerometer"),
+                decodeAll(decoder, new ChunkChannel(utf8("sub"), utf8("scribe Acc"),
+                        utf8("elerometer"), utf8("\n"))));
+    }
+
+    @Test
+    public void nothingUntilTheTerminatorArrives() throws IOException {
+        LineDecoder decoder = new LineDecoder(16, 64);
+        decoder.read(new ChunkChannel(utf8("stat")));
+        assertNull(decoder.nextLine());
+        decoder.read(new ChunkChannel(utf8("us\nst")));
+        assertEquals("status", decoder.nextLine());
+        assertNull(decoder.nextLine());
+    }
+
+    @Test
+    public void allTerminatorsAndEmptyLines() throws IOException {
+        LineDecoder decoder = new LineDecoder(64, 64);
+        assertEquals(Arrays.asList("a", "b", "c", "d"),
+                decodeAll(decoder, new ChunkChannel(utf8("a\r\nb\rc\n\n\r\n\r\rd\n"))));
+    }
+
+    @Test
+    public void crlfSplitAcrossReads() throws IOException {
+        LineDecoder decoder = new LineDecoder(16, 64);
+        assertEquals(Arrays.asList("start", "stop"),
+                decodeAll(decoder, new ChunkChannel(utf8("start\r"), utf8("\nstop\r"),
+                        utf8("\n"))));
+    }
+
+    @Test
+    public void multiByteCharacterSplitAcrossReads() throws IOException {
+        byte[] line = utf8("tag caf\u00e9 \u6e2c\u8a66\n");
+        LineDecoder decoder = new LineDecoder(8, 64);
+        List<byte[]> chunks = new ArrayList<byte[]>();
+        for (byte b : line) {
+            chunks.add(new byte[] {b});
+        }
+        assertEquals(Arrays.asList("tag caf\u00e9 \u6e2c\u8a66"),
+                decodeAll(decoder, new ChunkChannel(chunks.toArray(new byte[0][]))));
+    }
+
+    @Test
+    public void bufferGrowsForLongLines() throws IOException {
+        char[] chars = new char[1000];
+        Arrays.fill(chars, 'x');
+        String longLine = new String(chars);
+        LineDecoder decoder = new LineDecoder(4, 4096);
+        assertEquals(Arrays.asList(longLine, "next"),
+                decodeAll(decoder, new ChunkChannel(utf8(longLine + "\nnext\n"))));
+    }
+
+    @Test
+    public void lineThatFitsExactlyIsKept() throws IOException {
+        LineDecoder decoder = new LineDecoder(4, 16);
+        // 15 bytes and the terminator fill the largest buffer exactly.
+        assertEquals(Arrays.asList("fifteen bytes!!", "ok"),
+                decodeAll(decoder, new ChunkChannel(utf8("fifteen bytes!!\nok\n"))));
+    }
+
+    @Test
+    public void overLongLineIsDroppedAndDecodingResumes() throws IOException {
+        LineDecoder decoder = new LineDecoder(4, 16);
+        assertEquals(Arrays.asList("before", "after"),
+                decodeAll(decoder, new ChunkChannel(utf8("before\n"),
+                        utf8("this line is far longer than sixteen bytes\n"), utf8("after\n"))));
+    }
+
+    @Test
+    public void appendedByteStartsTheFirstLine() throws IOException {
+        LineDecoder decoder = new LineDecoder(16, 64);
+        decoder.append((byte) 's');
+        assertEquals(Arrays.asList("start"),
+                decodeAll(decoder, new ChunkChannel(utf8("tart\n"))));
+    }
+
+    @Test
+    public void endOfStream() throws IOException {
+        LineDecoder decoder = new LineDecoder(16, 64);
+        assertEquals(-1, decoder.read(new ChunkChannel()));
+        assertNull(decoder.nextLine());
+    }
+
+    /**
+     * Feeds many commands, fragmented and coalesced at random, and checks that
+     * the same lines come out as from splitting the whole input at once.
+     */
+    @Test
+    public void randomFragmentation() throws IOException {
+        Random random = new Random(42);
+        String[] terminators = {"\n", "\r", "\r\n"};
+        for (int round = 0; round < 200; round++) {
+            StringBuilder input = new StringBuilder();
+            List<String> expected = new ArrayList<String>();
+            int count = 1 + random.nextInt(50);
+            for (int i = 0; i < count; i++) {
+                StringBuilder line = new StringBuilder();
+                int length = 1 + random.nextInt(300);
+                for (int j = 0; j < length; j++) {
+                    line.append((char) ('a' + random.nextInt(26)));
+                }
+                expected.add(line.toString());
+                input.append(line).append(terminators[random.nextInt(terminators.length)]);
+            }
+            byte[] bytes = utf8(input.toString());
+            List<byte[]> chunks = new ArrayList<byte[]>();
+            for (int offset = 0; offset < bytes.length;) {
+                int n = Math.min(bytes.length - offset, 1 + random.nextInt(700));
+                chunks.add(Arrays.copyOfRange(bytes, offset, offset + n));
+                offset += n;
+            }
+            LineDecoder decoder = new LineDecoder(1 + random.nextInt(64), 512);
+            assertEquals("round " + round, expected,
+                    decodeAll(decoder, new ChunkChannel(chunks.toArray(new byte[0][]))));
+        }
+    }
+}
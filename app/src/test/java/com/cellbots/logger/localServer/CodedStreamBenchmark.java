@@ -0,0 +1,228 @@
+/*
+ * Copyright (C) 2012 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.cellbots.logger.localServer;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Compares encoding and decoding a {@link Telemetry.DataPacket} through a
+ * byte array with doing it in place in heap, direct and memory-mapped
+ * ByteBuffers, and with the copy through a byte array that a direct buffer
+ * needed before. Each case runs in a JVM of its own, so that the JIT doesn't
+ * compile one case with the profile of another; it is warmed up and then
+ * timed over several rounds, and the median time per packet is printed. It
+ * is a desktop tool, kept with the JVM tests out of the app; run its main with
+ * the test and app classes on the class path.
+ */
+public final class CodedStreamBenchmark {
+    private static final int ROUNDS = 7;
+
+    private static final int WARMUP = 50000;
+
+    private static final int ITERATIONS = 200000;
+
+    /** Keeps the JIT from dropping work whose result is unused. */
+    private static long sSink;
+
+    private CodedStreamBenchmark() {
+    }
+
+    private abstract static class Case {
+        final String name;
+
+        Case(String name) {
+            this.name = name;
+        }
+
+        abstract void run() throws IOException;
+    }
+
+    /** Usage: CodedStreamBenchmark [rounds] */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : ROUNDS;
+        if (args.length > 1) {
+            run(rounds, Integer.parseInt(args[1]));
+            return;
+        }
+        String java = System.getProperty("java.home") + File.separator + "bin"
+                + File.separator + "java";
+        for (int i = 0; i < CASES; i++) {
+            Process fork = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    CodedStreamBenchmark.class.getName(), Integer.toString(rounds),
+                    Integer.toString(i)).redirectErrorStream(true).start();
+            BufferedReader in = new BufferedReader(new InputStreamReader(fork.getInputStream()));
+            String line;
+            while ((line = in.readLine()) != null) {
+                System.out.println(line);
+            }
+            if (fork.waitFor() != 0) {
+                throw new IOException("Case " + i + " failed");
+            }
+        }
+    }
+
+    private static final int CASES = 10;
+
+    private static void run(int rounds, int index) throws IOException {
+        final Telemetry.DataPacket packet = TelemetryLiteBenchmark.FullWorkload.build(1);
+        final int size = packet.getSerializedSize();
+        final byte[] encoded = packet.toByteArray();
+
+        final byte[] array = new byte[size];
+        final ByteBuffer heap = ByteBuffer.allocate(size);
+        final ByteBuffer direct = ByteBuffer.allocateDirect(size);
+        File file = File.createTempFile("coded", ".bin");
+        file.deleteOnExit();
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        final MappedByteBuffer mapped = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0,
+                size);
+        raf.close();
+
+        Case[] cases = {
+                new Case("encode byte[]") {
+                    void run() throws IOException {
+                        CodedOutputStream out = CodedOutputStream.newInstance(array);
+                        packet.writeTo(out);
+                        sSink += array[size - 1];
+                    }
+                },
+                new Case("encode heap ByteBuffer") {
+                    void run() throws IOException {
+                        heap.clear();
+                        CodedOutputStream out = CodedOutputStream.newInstance(heap);
+                        packet.writeTo(out);
+                        out.flush();
+                        sSink += heap.position();
+                    }
+                },
+                new Case("encode direct, copied") {
+                    void run() throws IOException {
+                        direct.clear();
+                        direct.put(packet.toByteArray());
+                        sSink += direct.position();
+                    }
+                },
+                new Case("encode direct ByteBuffer") {
+                    void run() throws IOException {
+                        direct.clear();
+                        CodedOutputStream out = CodedOutputStream.newInstance(direct);
+                        packet.writeTo(out);
+                        out.flush();
+                        sSink += direct.position();
+                    }
+                },
+                new Case("encode mapped ByteBuffer") {
+                    void run() throws IOException {
+                        mapped.clear();
+                        CodedOutputStream out = CodedOutputStream.newInstance(mapped);
+                        packet.writeTo(out);
+                        out.flush();
+                        sSink += mapped.position();
+                    }
+                },
+                new Case("decode byte[]") {
+                    void run() throws IOException {
+                        sSink += Telemetry.DataPacket.parseFrom(encoded).getSequence();
+                    }
+                },
+                new Case("decode heap ByteBuffer") {
+                    void run() throws IOException {
+                        heap.clear();
+                        sSink += Telemetry.DataPacket.parseFrom(
+                                CodedInputStream.newInstance(heap)).getSequence();
+                    }
+                },
+                new Case("decode direct, copied") {
+                    void run() throws IOException {
+                        direct.clear();
+                        byte[] copy = new byte[direct.remaining()];
+                        direct.get(copy);
+                        sSink += Telemetry.DataPacket.parseFrom(copy).getSequence();
+                    }
+                },
+                new Case("decode direct ByteBuffer") {
+                    void run() throws IOException {
+                        direct.clear();
+                        sSink += Telemetry.DataPacket.parseFrom(
+                                CodedInputStream.newInstance(direct)).getSequence();
+                    }
+                },
+                new Case("decode mapped ByteBuffer") {
+                    void run() throws IOException {
+                        mapped.clear();
+                        sSink += Telemetry.DataPacket.parseFrom(
+                                CodedInputStream.newInstance(mapped)).getSequence();
+                    }
+                },
+        };
+
+        // The decode cases read what the encode cases wrote.
+        for (Case c : cases) {
+            c.run();
+        }
+        checkEqual(encoded, array, "byte[]");
+        checkEqual(encoded, heap, "heap");
+        checkEqual(encoded, direct, "direct");
+        checkEqual(encoded, mapped, "mapped");
+
+        if (index == 0) {
+            System.out.println(size + " byte DataPacket, median of " + rounds + " rounds");
+        }
+        Case c = cases[index];
+        for (int i = 0; i < WARMUP; i++) {
+            c.run();
+        }
+        long[] nanos = new long[rounds];
+        for (int r = 0; r < rounds; r++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                c.run();
+            }
+            nanos[r] = (System.nanoTime() - start) / ITERATIONS;
+        }
+        Arrays.sort(nanos);
+        System.out.println(String.format("%-26s %6d ns/op", c.name, nanos[rounds / 2]));
+        if (sSink == 42) {
+            System.out.println();
+        }
+    }
+
+    private static void checkEqual(byte[] expected, byte[] actual, String name) {
+        if (!Arrays.equals(expected, actual)) {
+            throw new AssertionError(name + " encoding differs");
+        }
+    }
+
+    private static void checkEqual(byte[] expected, ByteBuffer actual, String name) {
+        byte[] bytes = new byte[expected.length];
+        ByteBuffer copy = actual.duplicate();
+        copy.clear();
+        copy.get(bytes);
+        checkEqual(expected, bytes, name);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2012 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.cellbots.logger.localServer;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Command line front end of {@link DataPacketFilter} for use on a desktop,
+ * kept with the JVM tests out of the app. Run its main with the test and app
+ * classes on the class path.
+ */
+public final class DataPacketFilterTool {
+    private DataPacketFilterTool() {
+    }
+
+    /**
+     * Usage: DataPacketFilterTool log TYPE [TYPE ...]
+     * <p>
+     * Writes the packets of the log that carry any of the given sensor types,
+     * such as GYROSCOPE or LIGHT, to standard output, length-delimited.
+     */
+    public static void main(String[] args) throws IOException {
+        long mask = 0;
+        for (int i = 1; i < args.length; i++) {
+            int channel = TelemetryStreamHub.channelForTypeName(args[i]);
+            if (channel < 0) {
+                throw new IllegalArgumentException("Unknown sensor type " + args[i]);
+            }
+            mask |= 1L << channel;
+        }
+        RandomAccessFile file = new RandomAccessFile(args[0], "r");
+        OutputStream stdout = new FileOutputStream(FileDescriptor.out);
+        try {
+            FileChannel channel = file.getChannel();
+            DataPacketFilter filter = new DataPacketFilter(
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), mask);
+            WritableByteChannel out = Channels.newChannel(stdout);
+            ByteBuffer prefix = ByteBuffer.allocate(5);
+            ByteBuffer packet;
+            int matched = 0;
+            while ((packet = filter.next()) != null) {
+                prefix.clear();
+                int value = packet.remaining();
+                while ((value & ~0x7f) != 0) {
+                    prefix.put((byte) ((value & 0x7f) | 0x80));
+                    value >>>= 7;
+                }
+                prefix.put((byte) value);
+                prefix.flip();
+                while (prefix.hasRemaining()) {
+                    out.write(prefix);
+                }
+                while (packet.hasRemaining()) {
+                    out.write(packet);
+                }
+                matched++;
+            }
+            System.err.println(matched + " of " + filter.getScannedCount() + " packets");
+        } finally {
+            file.close();
+            stdout.flush();
+        }
+    }
+}
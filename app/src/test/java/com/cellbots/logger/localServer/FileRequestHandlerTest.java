@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2012 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.cellbots.logger.localServer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class FileRequestHandlerTest {
+    private static final long LENGTH = 1000;
+
+    private static final long[] IGNORED = new long[0];
+
+    private static void assertRange(long start, long end, String header) {
+        assertArrayEquals(header, new long[] {start, end},
+                FileRequestHandler.parseRange(header, LENGTH));
+    }
+
+    private static void assertIgnored(String header) {
+        assertArrayEquals(header, IGNORED, FileRequestHandler.parseRange(header, LENGTH));
+    }
+
+    private static void assertUnsatisfiable(String header) {
+        assertNull(header, FileRequestHandler.parseRange(header, LENGTH));
+    }
+
+    @Test
+    public void closedRange() {
+        assertRange(0, 0, "bytes=0-0");
+        assertRange(100, 199, "bytes=100-199");
+        assertRange(100, 199, " bytes= 100 - 199 ");
+    }
+
+    @Test
+    public void openEndedRange() {
+        assertRange(500, 999, "bytes=500-");
+        assertRange(999, 999, "bytes=999-");
+    }
+
+    @Test
+    public void suffixRange() {
+        assertRange(900, 999, "bytes=-100");
+        // Longer than the file: all of it.
+        assertRange(0, 999, "bytes=-5000");
+        assertUnsatisfiable("bytes=-0");
+    }
+
+    @Test
+    public void endIsClampedToTheFile() {
+        assertRange(500, 999, "bytes=500-100000");
+    }
+
+    @Test
+    public void startPastTheEndIsUnsatisfiable() {
+        assertUnsatisfiable("bytes=1000-");
+        assertUnsatisfiable("bytes=1000-2000");
+        assertNull(FileRequestHandler.parseRange("bytes=0-", 0));
+    }
+
+    @Test
+    public void multipleRangesAreIgnored() {
+        assertIgnored("bytes=0-1,5-9");
+    }
+
+    @Test
+    public void invalidRangesAreIgnored() {
+        // RFC 7233: a last byte before the first makes the range invalid,
+        // and an invalid Range header is ignored.
+        assertIgnored("bytes=5-3");
+        assertIgnored("bytes=2000-1500");
+        assertIgnored("items=0-1");
+        assertIgnored("bytes=5");
+        assertIgnored("bytes=a-b");
+        assertIgnored("bytes=-");
+    }
+}
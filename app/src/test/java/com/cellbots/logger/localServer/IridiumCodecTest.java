@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) 2012 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.cellbots.logger.localServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.cellbots.logger.localServer.Telemetry.DataPacket;
+import com.cellbots.logger.localServer.Telemetry.IridiumPacket;
+import com.cellbots.logger.localServer.Telemetry.Position;
+import com.cellbots.logger.localServer.Telemetry.Sensor;
+import com.cellbots.logger.localServer.Telemetry.ThreeAxisSensor;
+
+import org.junit.Test;
+
+public class IridiumCodecTest {
+    private static final long TIMESTAMP = 1349049600000L;
+
+    /** Position errors the payload format promises: about 0.6 m and 0.25 m. */
+    private static final double DEGREES_TOLERANCE = 1e-5;
+
+    private static final double ALTITUDE_TOLERANCE = 0.25;
+
+    /** A packet with a position and every sensor type the codec knows. */
+    private static DataPacket fullPacket() {
+        DataPacket.Builder packet = DataPacket.newBuilder()
+                .setTimestamp(TIMESTAMP)
+                .setPosition(Position.newBuilder()
+                        .setLatitude(37.422f).setLongitude(-122.084f).setAltitude(31.5f));
+        float v = 0.1f;
+        for (ThreeAxisSensor.SensorType type : ThreeAxisSensor.SensorType.values()) {
+            packet.addThreeAxisSensor(ThreeAxisSensor.newBuilder()
+                    .setSensorType(type).setX(v).setY(-v / 2).setZ(v / 3));
+            v += 0.1f;
+        }
+        packet.addSensor(Sensor.newBuilder()
+                .setSensorType(Sensor.SensorType.AMBIENT_TEMPERATURE).setValue(21.3f));
+        packet.addSensor(Sensor.newBuilder()
+                .setSensorType(Sensor.SensorType.LIGHT).setValue(512.7f));
+        packet.addSensor(Sensor.newBuilder()
+                .setSensorType(Sensor.SensorType.PRESSURE).setValue(1013.25f));
+        packet.addSensor(Sensor.newBuilder()
+                .setSensorType(Sensor.SensorType.RELATIVE_HUMIDITY).setValue(45.5f));
+        return packet.build();
+    }
+
+    private static void assertClose(String what, double expected, double actual,
+            double tolerance) {
+        // Decoded values are floats again; allow for their rounding too.
+        double slack = tolerance + Math.ulp((float) expected);
+        if (!(Math.abs(expected - actual) <= slack)) {
+            fail(what + ": expected " + expected + " +- " + slack + " but was " + actual);
+        }
+    }
+
+    private static ThreeAxisSensor find(DataPacket packet, ThreeAxisSensor.SensorType type) {
+        for (ThreeAxisSensor sensor : packet.getThreeAxisSensorList()) {
+            if (sensor.getSensorType() == type) {
+                return sensor;
+            }
+        }
+        return null;
+    }
+
+    private static Sensor find(DataPacket packet, Sensor.SensorType type) {
+        for (Sensor sensor : packet.getSensorList()) {
+            if (sensor.getSensorType() == type) {
+                return sensor;
+            }
+        }
+        return null;
+    }
+
+    /** Checks that everything decoded is within resolution of the original. */
+    private static void assertDecodedFrom(DataPacket original, DataPacket decoded) {
+        assertEquals(original.getTimestamp() / 1000 * 1000, decoded.getTimestamp());
+        if (decoded.hasPosition()) {
+            Position expected = original.getPosition();
+            Position actual = decoded.getPosition();
+            assertClose("latitude", expected.getLatitude(), actual.getLatitude(),
+                    DEGREES_TOLERANCE);
+            assertClose("longitude", expected.getLongitude(), actual.getLongitude(),
+                    DEGREES_TOLERANCE);
+            assertClose("altitude", expected.getAltitude(), actual.getAltitude(),
+                    ALTITUDE_TOLERANCE);
+        }
+        for (ThreeAxisSensor actual : decoded.getThreeAxisSensorList()) {
+            ThreeAxisSensor expected = find(original, actual.getSensorType());
+            double resolution = IridiumCodec.getResolution(actual.getSensorType().getNumber(),
+                    true);
+            String name = actual.getSensorType().name();
+            assertTrue(name + " has a resolution", resolution > 0);
+            assertClose(name + ".x", expected.getX(), actual.getX(), resolution);
+            assertClose(name + ".y", expected.getY(), actual.getY(), resolution);
+            assertClose(name + ".z", expected.getZ(), actual.getZ(), resolution);
+        }
+        for (Sensor actual : decoded.getSensorList()) {
+            Sensor expected = find(original, actual.getSensorType());
+            double resolution = IridiumCodec.getResolution(actual.getSensorType().getNumber(),
+                    false);
+            String name = actual.getSensorType().name();
+            assertTrue(name + " has a resolution", resolution > 0);
+            assertClose(name, expected.getValue(), actual.getValue(), resolution);
+        }
+    }
+
+    private static int recordCount(DataPacket packet) {
+        return (packet.hasPosition() ? 1 : 0) + packet.getSensorCount()
+                + packet.getThreeAxisSensorCount();
+    }
+
+    @Test
+    public void everyBudget() {
+        DataPacket packet = fullPacket();
+        int all = recordCount(packet);
+        boolean complete = false;
+        for (int budget = IridiumCodec.MIN_BUDGET_BYTES; !complete; budget++) {
+            byte[] payload = IridiumCodec.encodePayload(packet, budget);
+            assertTrue("budget " + budget + ": " + payload.length + " bytes",
+                    payload.length <= budget);
+            DataPacket decoded = IridiumCodec.decodePayload(payload);
+            assertDecodedFrom(packet, decoded);
+            // Not monotonic: a small budget may take small sensors that a
+            // slightly larger one gives up for a bigger, more important one.
+            complete = recordCount(decoded) == all;
+            assertTrue("budget " + budget + " still doesn't hold everything", budget < 200);
+        }
+        // Beyond that, more budget changes nothing.
+        byte[] fits = IridiumCodec.encodePayload(packet, 200);
+        assertEquals(fits.length, IridiumCodec.encodePayload(packet, 1000).length);
+    }
+
+    @Test
+    public void positionComesFirst() {
+        DataPacket packet = fullPacket();
+        DataPacket decoded = IridiumCodec.decodePayload(
+                IridiumCodec.encodePayload(packet, IridiumCodec.MIN_BUDGET_BYTES + 9));
+        assertTrue(decoded.hasPosition());
+    }
+
+    @Test
+    public void budgetBelowMinimum() {
+        try {
+            IridiumCodec.encodePayload(fullPacket(), IridiumCodec.MIN_BUDGET_BYTES - 1);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void emptyPacket() {
+        for (DataPacket packet : new DataPacket[] {
+                DataPacket.getDefaultInstance(),
+                DataPacket.newBuilder().setTimestamp(TIMESTAMP).build()}) {
+            for (int budget = IridiumCodec.MIN_BUDGET_BYTES; budget < 40; budget++) {
+                byte[] payload = IridiumCodec.encodePayload(packet, budget);
+                assertEquals(IridiumCodec.MIN_BUDGET_BYTES, payload.length);
+                DataPacket decoded = IridiumCodec.decodePayload(payload);
+                assertEquals(packet.getTimestamp(), decoded.getTimestamp());
+                assertFalse(decoded.hasPosition());
+                assertEquals(0, decoded.getSensorCount());
+                assertEquals(0, decoded.getThreeAxisSensorCount());
+            }
+        }
+    }
+
+    @Test
+    public void emptyPayloadTakesTheGatewayLocation() {
+        IridiumPacket packet = IridiumCodec.encode(
+                DataPacket.newBuilder().setTimestamp(TIMESTAMP).build(), 50).toBuilder()
+                .setLocation(IridiumPacket.IridiumLocation.newBuilder()
+                        .setLatitude(12.5f).setLongitude(-3.25f))
+                .build();
+        DataPacket decoded = IridiumCodec.decode(packet);
+        assertEquals(12.5f, decoded.getPosition().getLatitude(), 0);
+        assertEquals(-3.25f, decoded.getPosition().getLongitude(), 0);
+    }
+
+    @Test
+    public void valuesOutsideTheRangeAreClamped() {
+        DataPacket packet = DataPacket.newBuilder()
+                .setTimestamp(TIMESTAMP)
+                .setPosition(Position.newBuilder()
+                        .setLatitude(123f).setLongitude(-500f).setAltitude(40000f))
+                .addThreeAxisSensor(ThreeAxisSensor.newBuilder()
+                        .setSensorType(ThreeAxisSensor.SensorType.ACCELEROMETER)
+                        .setX(1000f).setY(-1000f).setZ(Float.NaN))
+                .addThreeAxisSensor(ThreeAxisSensor.newBuilder()
+                        .setSensorType(ThreeAxisSensor.SensorType.ROTATION_VECTOR)
+                        .setX(Float.POSITIVE_INFINITY).setY(Float.NEGATIVE_INFINITY).setZ(2f))
+                .addSensor(Sensor.newBuilder()
+                        .setSensorType(Sensor.SensorType.PRESSURE).setValue(5000f))
+                .addSensor(Sensor.newBuilder()
+                        .setSensorType(Sensor.SensorType.RELATIVE_HUMIDITY).setValue(-20f))
+                .build();
+        DataPacket decoded = IridiumCodec.decodePayload(IridiumCodec.encodePayload(packet, 100));
+        assertEquals(recordCount(packet), recordCount(decoded));
+
+        Position position = decoded.getPosition();
+        assertClose("latitude", 90, position.getLatitude(), DEGREES_TOLERANCE);
+        assertClose("longitude", -180, position.getLongitude(), DEGREES_TOLERANCE);
+        assertClose("altitude", 15000, position.getAltitude(), ALTITUDE_TOLERANCE);
+
+        ThreeAxisSensor accelerometer = find(decoded, ThreeAxisSensor.SensorType.ACCELEROMETER);
+        assertClose("accelerometer.x", 39.2266, accelerometer.getX(), 1e-3);
+        assertClose("accelerometer.y", -39.2266, accelerometer.getY(), 1e-3);
+        // NaN is stored as the bottom of the range.
+        assertClose("accelerometer.z", -39.2266, accelerometer.getZ(), 1e-3);
+
+        ThreeAxisSensor rotation = find(decoded, ThreeAxisSensor.SensorType.ROTATION_VECTOR);
+        assertClose("rotation.x", 1, rotation.getX(), 1e-6);
+        assertClose("rotation.y", -1, rotation.getY(), 1e-6);
+        assertClose("rotation.z", 1, rotation.getZ(), 1e-6);
+
+        assertClose("pressure", 1100, find(decoded, Sensor.SensorType.PRESSURE).getValue(),
+                1e-3);
+        assertClose("humidity", 0,
+                find(decoded, Sensor.SensorType.RELATIVE_HUMIDITY).getValue(), 1e-3);
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2012 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.cellbots.logger.localServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.cellbots.logger.localServer.LocalHttpServer.HttpCommandServerListener;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives the server with clients that each send GET requests back to back on
+ * one keep-alive connection, while a thread publishes a sensor value every
+ * few milliseconds the way the sensor callback does. Prints the request rate
+ * and how late the logging thread ran, without load and under it.
+ * <p>
+ * In the unit test suite it runs briefly, as a check that nothing fails under
+ * load. For meaningful numbers run it longer, e.g. with
+ * -DLocalHttpServerLoadTest.durationMs=3000.
+ */
+public class LocalHttpServerLoadTest {
+    private static final int CLIENTS = 8;
+
+    private static final long DURATION_MS =
+            Long.getLong("LocalHttpServerLoadTest.durationMs", 300);
+
+    private static final long SENSOR_PERIOD_MS = 5;
+
+    private static final String STATUS = "{\"status\":\"logging\",\"sensors\":12}";
+
+    @Rule
+    public TemporaryFolder mRoot = new TemporaryFolder();
+
+    private LocalHttpServer mServer;
+
+    private int mPort;
+
+    @Before
+    public void setUp() throws Exception {
+        ServerSocket probe = new ServerSocket(0);
+        mPort = probe.getLocalPort();
+        probe.close();
+        mServer = new LocalHttpServer(mRoot.getRoot(), mPort, new HttpCommandServerListener() {
+                @Override
+            public String onRequest(String req, String[] keys, String[] values, byte[] data) {
+                return null;
+            }
+
+                @Override
+            public String getLoggerStatus() {
+                return STATUS;
+            }
+        });
+        // The constructor binds before it returns; give the selector a moment
+        // to start selecting.
+        Thread.sleep(100);
+    }
+
+    @After
+    public void tearDown() {
+        mServer.stopServer();
+    }
+
+    @Test
+    public void keepAliveLoad() throws Exception {
+        long[] idle = runLoggingThread(DURATION_MS / 2);
+
+        final AtomicInteger requests = new AtomicInteger();
+        final AtomicInteger failures = new AtomicInteger();
+        final long end = System.currentTimeMillis() + DURATION_MS;
+        Thread[] clients = new Thread[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clients[i] = new Thread("LoadClient-" + i) {
+                    @Override
+                public void run() {
+                    try {
+                        Socket socket = new Socket("127.0.0.1", mPort);
+                        try {
+                            socket.setTcpNoDelay(true);
+                            OutputStream out = socket.getOutputStream();
+                            InputStream in = socket.getInputStream();
+                            byte[] request = ("GET /status HTTP/1.1\r\nHost: localhost\r\n\r\n")
+                                    .getBytes("US-ASCII");
+                            while (System.currentTimeMillis() < end) {
+                                out.write(request);
+                                out.flush();
+                                if (readResponse(in).equals(STATUS)) {
+                                    requests.incrementAndGet();
+                                } else {
+                                    failures.incrementAndGet();
+                                }
+                            }
+                        } finally {
+                            socket.close();
+                        }
+                    } catch (IOException e) {
+                        failures.incrementAndGet();
+                    }
+                }
+            };
+            clients[i].start();
+        }
+        long start = System.currentTimeMillis();
+        long[] loaded = runLoggingThread(DURATION_MS);
+        for (Thread client : clients) {
+            client.join();
+        }
+        long elapsed = System.currentTimeMillis() - start;
+
+        System.out.println(String.format("%d keep-alive clients: %d requests in %d ms, %.0f/s",
+                CLIENTS, requests.get(), elapsed, requests.get() * 1000.0 / elapsed));
+        System.out.println("logging thread lateness (us)   median      99%      max");
+        printLateness("  idle", idle);
+        printLateness("  under load", loaded);
+
+        assertEquals(0, failures.get());
+        assertTrue(requests.get() > 0);
+    }
+
+    /**
+     * Publishes a value every SENSOR_PERIOD_MS and returns, sorted, how many
+     * microseconds after its due time each one was published.
+     */
+    private long[] runLoggingThread(final long durationMs) throws InterruptedException {
+        final long[] lateness = new long[(int) (durationMs / SENSOR_PERIOD_MS)];
+        Thread logger = new Thread("SensorLogger") {
+                @Override
+            public void run() {
+                long due = System.nanoTime();
+                for (int i = 0; i < lateness.length; i++) {
+                    due += SENSOR_PERIOD_MS * 1000000L;
+                    long wait = due - System.nanoTime();
+                    if (wait > 0) {
+                        try {
+                            Thread.sleep(wait / 1000000L, (int) (wait % 1000000L));
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                    }
+                    mServer.publishSensorValue("Accelerometer", i + ",3,0.1,9.8,0.2,");
+                    lateness[i] = (System.nanoTime() - due) / 1000;
+                }
+            }
+        };
+        logger.start();
+        logger.join();
+        Arrays.sort(lateness);
+        return lateness;
+    }
+
+    private static void printLateness(String name, long[] sorted) {
+        System.out.println(String.format("%-26s %8d %8d %8d", name, sorted[sorted.length / 2],
+                sorted[sorted.length * 99 / 100], sorted[sorted.length - 1]));
+    }
+
+    /** Reads one response and returns its body, or its status line if not 200. */
+    private static String readResponse(InputStream in) throws IOException {
+        ByteArrayOutputStream head = new ByteArrayOutputStream();
+        int matched = 0;
+        while (matched < 4) {
+            int b = in.read();
+            if (b < 0) {
+                throw new IOException("Connection closed");
+            }
+            head.write(b);
+            matched = (b == "\r\n\r\n".charAt(matched)) ? matched + 1 : (b == '\r' ? 1 : 0);
+        }
+        String[] lines = head.toString("US-ASCII").split("\r\n");
+        int length = 0;
+        for (String line : lines) {
+            if (line.regionMatches(true, 0, "Content-Length:", 0, 15)) {
+                length = Integer.parseInt(line.substring(15).trim());
+            }
+        }
+        byte[] body = new byte[length];
+        for (int read = 0; read < length;) {
+            int n = in.read(body, read, length - read);
+            if (n < 0) {
+                throw new IOException("Connection closed");
+            }
+            read += n;
+        }
+        return lines[0].startsWith("HTTP/1.1 200") ? new String(body, "UTF-8") : lines[0];
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2012 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.cellbots.logger.localServer;
+
+import com.google.protobuf.DynamicMessage;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+/**
+ * Prints every record of a session file as text, read with the schema the
+ * file carries. Usage: SessionFileTool file
+ */
+public class SessionFileTool {
+    public static void main(String[] args) throws IOException {
+        SessionFile.Reader reader = new SessionFile.Reader(
+                new BufferedInputStream(new FileInputStream(args[0])));
+        try {
+            DynamicMessage record;
+            while ((record = reader.next()) != null) {
+                System.out.println(record.toString());
+            }
+        } finally {
+            reader.close();
+        }
+    }
+}
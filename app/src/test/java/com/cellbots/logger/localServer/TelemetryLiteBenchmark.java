@@ -0,0 +1,263 @@
+/*
+ * Copyright (C) 2012 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.cellbots.logger.localServer;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares the cost of the full {@link Telemetry} messages with their
+ * {@link TelemetryLite} counterparts: the time and classes it takes to build,
+ * serialize and parse the first DataPacket, the steady state time per packet,
+ * and the heap held by parsed packets. Each round loads the workload in a
+ * class loader of its own, so every round starts cold. It needs
+ * java.lang.management, which Android lacks, so it lives with the JVM tests;
+ * run its main with the test and app classes on the class path.
+ */
+public final class TelemetryLiteBenchmark {
+    private static final int ROUNDS = 5;
+
+    private static final int ITERATIONS = 20000;
+
+    /** Parsed packets kept alive to measure their heap. */
+    private static final int RETAINED = 10000;
+
+    private TelemetryLiteBenchmark() {
+    }
+
+    private static final class Result {
+        long firstNanos;
+
+        int classes;
+
+        long nonHeapBytes;
+
+        long steadyNanos;
+
+        long bytesPerPacket;
+
+        int packetBytes;
+    }
+
+    /** Usage: TelemetryLiteBenchmark [rounds] */
+    public static void main(String[] args) throws Exception {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : ROUNDS;
+        List<Result> full = new ArrayList<Result>();
+        List<Result> lite = new ArrayList<Result>();
+        for (int i = 0; i < rounds; i++) {
+            // Alternated, so that neither always runs on a warmer JVM.
+            full.add(measure(FullWorkload.class.getName()));
+            lite.add(measure(LiteWorkload.class.getName()));
+        }
+        System.out.println("Median of " + rounds + " rounds, each in a new class loader");
+        System.out.println("                          full        lite");
+        print(full, lite);
+    }
+
+    private static Result measure(String workload) throws Exception {
+        ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        Result result = new Result();
+
+        // No parent, so nothing loaded by this class loader is shared.
+        URLClassLoader loader = new URLClassLoader(classPath(), null);
+        gc();
+        long loadedBefore = classLoading.getTotalLoadedClassCount();
+        long nonHeapBefore = memory.getNonHeapMemoryUsage().getUsed();
+        long start = System.nanoTime();
+        Class<?> c = Class.forName(workload, true, loader);
+        Method roundTrip = c.getMethod("roundTrip", int.class);
+        Method retain = c.getMethod("retain", int.class);
+        result.packetBytes = (Integer) roundTrip.invoke(null, 1);
+        result.firstNanos = System.nanoTime() - start;
+        result.classes = (int) (classLoading.getTotalLoadedClassCount() - loadedBefore);
+        result.nonHeapBytes = memory.getNonHeapMemoryUsage().getUsed() - nonHeapBefore;
+
+        roundTrip.invoke(null, ITERATIONS);
+        start = System.nanoTime();
+        roundTrip.invoke(null, ITERATIONS);
+        result.steadyNanos = (System.nanoTime() - start) / ITERATIONS;
+
+        gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+        Object packets = retain.invoke(null, RETAINED);
+        gc();
+        result.bytesPerPacket = (memory.getHeapMemoryUsage().getUsed() - heapBefore) / RETAINED;
+        if (((List<?>) packets).size() != RETAINED) {
+            throw new AssertionError();
+        }
+        loader.close();
+        return result;
+    }
+
+    /** Where the workloads, the app and the protobuf runtime were loaded from. */
+    private static URL[] classPath() {
+        List<URL> urls = new ArrayList<URL>();
+        for (Class<?> c : new Class<?>[] {TelemetryLiteBenchmark.class, Telemetry.class,
+                com.google.protobuf.MessageLite.class}) {
+            URL url = codeSource(c);
+            if (!urls.contains(url)) {
+                urls.add(url);
+            }
+        }
+        return urls.toArray(new URL[urls.size()]);
+    }
+
+    private static URL codeSource(Class<?> c) {
+        return c.getProtectionDomain().getCodeSource().getLocation();
+    }
+
+    private static void print(List<Result> full, List<Result> lite) {
+        long[][] f = columns(full);
+        long[][] l = columns(lite);
+        String[] names = {
+                "first packet (us)", "classes loaded", "non-heap (KiB)", "per packet (ns)",
+                "heap per packet (B)", "encoded size (B)"
+        };
+        for (int i = 0; i < names.length; i++) {
+            System.out.println(String.format("%-20s %11d %11d", names[i], median(f[i]),
+                    median(l[i])));
+        }
+    }
+
+    private static long[][] columns(List<Result> results) {
+        long[][] columns = new long[6][results.size()];
+        for (int i = 0; i < results.size(); i++) {
+            Result r = results.get(i);
+            columns[0][i] = r.firstNanos / 1000;
+            columns[1][i] = r.classes;
+            columns[2][i] = r.nonHeapBytes / 1024;
+            columns[3][i] = r.steadyNanos;
+            columns[4][i] = r.bytesPerPacket;
+            columns[5][i] = r.packetBytes;
+        }
+        return columns;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static void gc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            System.runFinalization();
+        }
+    }
+
+    /*
+     * The packet both workloads send: a position, the single value sensors
+     * and the three axis sensors of a typical phone.
+     */
+    static final int[] SENSOR_TYPES = {0, 1, 2, 3};
+
+    static final int[] THREE_AXIS_SENSOR_TYPES = {0, 1, 2, 3, 4, 5, 6};
+
+    /** Kept apart from the lite one, so that loading it loads no lite classes. */
+    public static final class FullWorkload {
+        private FullWorkload() {
+        }
+
+        public static int roundTrip(int count) throws Exception {
+            int size = 0;
+            for (int i = 0; i < count; i++) {
+                byte[] bytes = build(i).toByteArray();
+                size = Telemetry.DataPacket.parseFrom(bytes).getSerializedSize();
+            }
+            return size;
+        }
+
+        public static List<Telemetry.DataPacket> retain(int count) throws Exception {
+            List<Telemetry.DataPacket> packets = new ArrayList<Telemetry.DataPacket>(count);
+            for (int i = 0; i < count; i++) {
+                packets.add(Telemetry.DataPacket.parseFrom(build(i).toByteArray()));
+            }
+            return packets;
+        }
+
+        static Telemetry.DataPacket build(int sequence) {
+            Telemetry.DataPacket.Builder packet = Telemetry.DataPacket.newBuilder()
+                    .setSenderId("benchmark").setSequence(sequence)
+                    .setTimestamp(1349000000000L + sequence * 100L)
+                    .setPosition(Telemetry.Position.newBuilder()
+                            .setLatitude(37.422f).setLongitude(-122.084f).setAltitude(12.5f));
+            for (int type : SENSOR_TYPES) {
+                packet.addSensor(Telemetry.Sensor.newBuilder()
+                        .setSensorType(Telemetry.Sensor.SensorType.valueOf(type))
+                        .setValue(sequence + type));
+            }
+            for (int type : THREE_AXIS_SENSOR_TYPES) {
+                packet.addThreeAxisSensor(Telemetry.ThreeAxisSensor.newBuilder()
+                        .setSensorType(Telemetry.ThreeAxisSensor.SensorType.valueOf(type))
+                        .setX(sequence).setY(type).setZ(-sequence));
+            }
+            return packet.build();
+        }
+    }
+
+    /** The same as {@link FullWorkload}, on the lite runtime. */
+    public static final class LiteWorkload {
+        private LiteWorkload() {
+        }
+
+        public static int roundTrip(int count) throws Exception {
+            int size = 0;
+            for (int i = 0; i < count; i++) {
+                byte[] bytes = build(i).toByteArray();
+                size = TelemetryLite.DataPacket.parseFrom(bytes).getSerializedSize();
+            }
+            return size;
+        }
+
+        public static List<TelemetryLite.DataPacket> retain(int count) throws Exception {
+            List<TelemetryLite.DataPacket> packets =
+                    new ArrayList<TelemetryLite.DataPacket>(count);
+            for (int i = 0; i < count; i++) {
+                packets.add(TelemetryLite.DataPacket.parseFrom(build(i).toByteArray()));
+            }
+            return packets;
+        }
+
+        private static TelemetryLite.DataPacket build(int sequence) {
+            TelemetryLite.DataPacket.Builder packet = TelemetryLite.DataPacket.newBuilder()
+                    .setSenderId("benchmark").setSequence(sequence)
+                    .setTimestamp(1349000000000L + sequence * 100L)
+                    .setPosition(TelemetryLite.Position.newBuilder()
+                            .setLatitude(37.422f).setLongitude(-122.084f).setAltitude(12.5f));
+            for (int type : SENSOR_TYPES) {
+                packet.addSensor(TelemetryLite.Sensor.newBuilder()
+                        .setSensorType(TelemetryLite.Sensor.SensorType.valueOf(type))
+                        .setValue(sequence + type));
+            }
+            for (int type : THREE_AXIS_SENSOR_TYPES) {
+                packet.addThreeAxisSensor(TelemetryLite.ThreeAxisSensor.newBuilder()
+                        .setSensorType(TelemetryLite.ThreeAxisSensor.SensorType.valueOf(type))
+                        .setX(sequence).setY(type).setZ(-sequence));
+            }
+            return packet.build();
+        }
+    }
+}
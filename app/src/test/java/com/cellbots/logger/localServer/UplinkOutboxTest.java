@@ -0,0 +1,233 @@
+/*
+ * Copyright (C) 2012 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.cellbots.logger.localServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+public class UplinkOutboxTest {
+    /** Each record is 4 + 8 + 1 + MESSAGE_BYTES + 4 bytes. */
+    private static final int MESSAGE_BYTES = 100;
+
+    private static final int RECORD_BYTES = 117;
+
+    /** Three records fill a segment. */
+    private static final long SEGMENT_BYTES = 3 * RECORD_BYTES - 1;
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    private UplinkOutbox open(long maxBytes) throws IOException {
+        return new UplinkOutbox(mFolder.getRoot(), maxBytes, SEGMENT_BYTES);
+    }
+
+    /** A message whose bytes all hold its number. */
+    private static byte[] message(int n) {
+        byte[] data = new byte[MESSAGE_BYTES];
+        Arrays.fill(data, (byte) n);
+        return data;
+    }
+
+    private static void appendAll(UplinkOutbox outbox, int from, int to) throws IOException {
+        for (int n = from; n <= to; n++) {
+            assertEquals(n, outbox.append(message(n), MESSAGE_BYTES, false));
+        }
+    }
+
+    /** Checks that the next message is n, and acknowledges it. */
+    private static void assertDelivers(UplinkOutbox outbox, int n) throws IOException {
+        UplinkOutbox.Message m = outbox.peek();
+        assertEquals(n, m.sequence);
+        assertEquals(MESSAGE_BYTES, m.length);
+        assertEquals((byte) n, m.data[0]);
+        assertEquals((byte) n, m.data[MESSAGE_BYTES - 1]);
+        outbox.ack();
+    }
+
+    private File[] segments() {
+        File[] files = mFolder.getRoot().listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.endsWith(".seg");
+            }
+        });
+        Arrays.sort(files);
+        return files;
+    }
+
+    /** Flips a byte of the data of the given record of a segment. */
+    private static void corrupt(File segment, int record) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(segment, "rw");
+        try {
+            long offset = record * RECORD_BYTES + 13 + MESSAGE_BYTES / 2;
+            file.seek(offset);
+            int b = file.read();
+            file.seek(offset);
+            file.write(b ^ 0xff);
+        } finally {
+            file.close();
+        }
+    }
+
+    @Test
+    public void deliversInOrder() throws IOException {
+        UplinkOutbox outbox = open(1 << 20);
+        appendAll(outbox, 1, 7);
+        assertEquals(7, outbox.getPendingCount());
+        for (int n = 1; n <= 7; n++) {
+            assertDelivers(outbox, n);
+        }
+        assertNull(outbox.peek());
+        assertEquals(0, outbox.getPendingCount());
+        outbox.close();
+    }
+
+    @Test
+    public void recordCutShortIsCutOffOnOpen() throws IOException {
+        UplinkOutbox outbox = open(1 << 20);
+        appendAll(outbox, 1, 3);
+        outbox.close();
+        // As if the app died while writing the third record.
+        File segment = segments()[0];
+        RandomAccessFile file = new RandomAccessFile(segment, "rw");
+        file.setLength(3 * RECORD_BYTES - 10);
+        file.close();
+
+        outbox = open(1 << 20);
+        assertEquals(2, outbox.getPendingCount());
+        assertEquals(2, outbox.getLastSequence());
+        assertEquals(2 * RECORD_BYTES, segment.length());
+        appendAll(outbox, 3, 4);
+        for (int n = 1; n <= 4; n++) {
+            assertDelivers(outbox, n);
+        }
+        assertNull(outbox.peek());
+        outbox.close();
+    }
+
+    @Test
+    public void badRecordDropsTheRestOfItsSegmentOnly() throws IOException {
+        UplinkOutbox outbox = open(1 << 20);
+        appendAll(outbox, 1, 9);
+        assertEquals(3, segments().length);
+        corrupt(segments()[1], 1);
+
+        for (int n = 1; n <= 4; n++) {
+            assertDelivers(outbox, n);
+        }
+        // 5 is corrupt, and 6 can't be trusted to line up after it.
+        for (int n = 7; n <= 9; n++) {
+            assertDelivers(outbox, n);
+        }
+        assertNull(outbox.peek());
+        assertEquals(2, outbox.getCorruptCount());
+        outbox.close();
+    }
+
+    @Test
+    public void badRecordInTheLastSegmentIsNotAppendedTo() throws IOException {
+        UplinkOutbox outbox = open(1 << 20);
+        appendAll(outbox, 1, 2);
+        corrupt(segments()[0], 1);
+        assertDelivers(outbox, 1);
+        assertNull(outbox.peek());
+        assertEquals(1, outbox.getCorruptCount());
+
+        appendAll(outbox, 3, 4);
+        assertDelivers(outbox, 3);
+        assertDelivers(outbox, 4);
+        assertNull(outbox.peek());
+        outbox.close();
+    }
+
+    @Test
+    public void evictsTheOldestSegmentsWhenFull() throws IOException {
+        // Room for eight records, i.e. two full segments and a bit.
+        UplinkOutbox outbox = open(8 * RECORD_BYTES);
+        appendAll(outbox, 1, 2);
+        assertDelivers(outbox, 1);
+        appendAll(outbox, 3, 8);
+        assertEquals(0, outbox.getEvictedCount());
+
+        appendAll(outbox, 9, 9);
+        // The first segment went, with 2 and 3 that weren't delivered yet.
+        assertEquals(2, outbox.getEvictedCount());
+        assertEquals(6 * RECORD_BYTES, outbox.getSizeBytes());
+        assertEquals(6, outbox.getPendingCount());
+        for (int n = 4; n <= 9; n++) {
+            assertDelivers(outbox, n);
+        }
+        assertNull(outbox.peek());
+        outbox.close();
+    }
+
+    @Test
+    public void reopenResumesAfterTheLastAck() throws IOException {
+        UplinkOutbox outbox = open(1 << 20);
+        appendAll(outbox, 1, 5);
+        assertDelivers(outbox, 1);
+        assertDelivers(outbox, 2);
+        // Peeked but not acknowledged, so it is sent again.
+        assertEquals(3, outbox.peek().sequence);
+        outbox.close();
+
+        outbox = open(1 << 20);
+        assertEquals(2, outbox.getAckedSequence());
+        assertEquals(5, outbox.getLastSequence());
+        assertEquals(3, outbox.getPendingCount());
+        appendAll(outbox, 6, 6);
+        for (int n = 3; n <= 6; n++) {
+            assertDelivers(outbox, n);
+        }
+        outbox.close();
+
+        // Everything delivered: numbering still goes on from there.
+        outbox = open(1 << 20);
+        assertEquals(0, outbox.getPendingCount());
+        assertNull(outbox.peek());
+        appendAll(outbox, 7, 7);
+        assertDelivers(outbox, 7);
+        outbox.close();
+    }
+
+    @Test
+    public void shortAckFileMeansNothingWasDelivered() throws IOException {
+        UplinkOutbox outbox = open(1 << 20);
+        appendAll(outbox, 1, 2);
+        outbox.close();
+        FileOutputStream out = new FileOutputStream(new File(mFolder.getRoot(), "acked"));
+        out.write(new byte[3]);
+        out.close();
+
+        outbox = open(1 << 20);
+        assertEquals(0, outbox.getAckedSequence());
+        assertDelivers(outbox, 1);
+        assertDelivers(outbox, 2);
+        outbox.close();
+    }
+}